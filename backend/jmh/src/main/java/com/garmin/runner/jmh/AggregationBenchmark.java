@@ -0,0 +1,49 @@
+package com.garmin.runner.jmh;
+
+import com.garmin.runner.parser.ParsedActivity;
+import com.garmin.runner.service.ActivityAggregate;
+import com.garmin.runner.service.ActivityColumns;
+import com.garmin.runner.util.SyntheticActivityGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列式存储上总体指标单次遍历累加的基准测试，不需要Spring上下文和数据库
+ * parallelThreshold为2147483647时始终串行，其他取值在行数超过阈值时分段并行累加；
+ * 对比各行数下串行和并行的耗时，取并行开始占优的行数作为runner.statistics.parallel-threshold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class AggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"2147483647", "16384", "65536"})
+    private int parallelThreshold;
+
+    private ActivityColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        columns = new ActivityColumns();
+        SyntheticActivityGenerator generator = new SyntheticActivityGenerator(42, rows, LocalDate.now(), 5, 0);
+        for (long id = 1; generator.hasNext(); id++) {
+            ParsedActivity activity = generator.next();
+            columns.upsert(id, activity.getActivityType(), activity.getStartTime(), activity.getDuration(),
+                    activity.getDistance(), activity.getCalories(), activity.getAverageHeartRate(),
+                    activity.getAveragePace());
+        }
+    }
+
+    @Benchmark
+    public ActivityAggregate aggregate() {
+        return ActivityAggregate.of(columns, parallelThreshold);
+    }
+}
@@ -0,0 +1,84 @@
+package com.garmin.runner.jmh;
+
+import com.garmin.runner.parser.ParsedActivity;
+import com.garmin.runner.util.SyntheticActivityGenerator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 基准测试数据集：用固定种子的合成数据生成器生成活动，同一规模下CSV文件和数据库中的数据完全一致
+ * 开始时间分布在截至今天的5年内，最近N天/周/月的统计都有数据
+ */
+public final class BenchmarkDataset {
+
+    private static final long SEED = 42;
+    private static final int YEARS = 5;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private BenchmarkDataset() {
+    }
+
+    /**
+     * 生成佳明活动摘要CSV（距离单位为公里，时长单位为秒）
+     */
+    public static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder(rows * 100);
+        try {
+            SyntheticActivityGenerator.writeSummaryCsv(generator(rows), csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以JDBC批量插入的方式写入活动表，绕过导入流程，只用于准备统计查询的数据
+     */
+    public static void seed(DataSource dataSource, int rows) throws SQLException {
+        SyntheticActivityGenerator generator = generator(rows);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "insert into activities (id, activity_name, activity_type, start_time, end_time, duration, "
+                             + "distance, calories, average_heart_rate, max_heart_rate, average_pace, "
+                             + "garmin_activity_id, import_date) "
+                             + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            Timestamp importDate = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 1; i <= rows; i++) {
+                ParsedActivity activity = generator.next();
+                statement.setLong(1, i);
+                statement.setString(2, activity.getActivityName());
+                statement.setString(3, activity.getActivityType());
+                statement.setTimestamp(4, Timestamp.valueOf(activity.getStartTime()));
+                statement.setTimestamp(5, Timestamp.valueOf(activity.getEndTime()));
+                statement.setLong(6, activity.getDuration());
+                statement.setDouble(7, activity.getDistance());
+                statement.setInt(8, activity.getCalories());
+                statement.setInt(9, activity.getAverageHeartRate());
+                statement.setInt(10, activity.getMaxHeartRate());
+                statement.setDouble(11, activity.getAveragePace());
+                statement.setString(12, activity.getGarminActivityId());
+                statement.setTimestamp(13, importDate);
+                statement.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static SyntheticActivityGenerator generator(int rows) {
+        return new SyntheticActivityGenerator(SEED, rows, LocalDate.now(), YEARS, 0);
+    }
+}
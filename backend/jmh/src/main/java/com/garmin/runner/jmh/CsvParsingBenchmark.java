@@ -0,0 +1,71 @@
+package com.garmin.runner.jmh;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.util.ActivityColumnMapping;
+import com.garmin.runner.util.ActivityCsvColumn;
+import com.garmin.runner.util.ActivityCsvMapper;
+import com.garmin.runner.util.CsvParserUtil;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV解析和导入映射的基准测试，不需要Spring上下文和数据库
+ * parseActivitySummary: 一次性读成List<Map>的旧接口
+ * streamActivitySummary: 导入使用的流式解析，只遍历记录
+ * mapActivities: 导入的解析与映射部分（processActivities中写库之前的全部工作）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class CsvParsingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private byte[] csv;
+    private CsvParserUtil csvParserUtil;
+    private ActivityCsvMapper activityCsvMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csv = BenchmarkDataset.csv(rows);
+        csvParserUtil = new CsvParserUtil();
+        activityCsvMapper = new ActivityCsvMapper(csvParserUtil);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> parseActivitySummary() throws IOException {
+        return csvParserUtil.parseActivitySummary(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public void streamActivitySummary(Blackhole blackhole) throws IOException {
+        try (CSVParser parser = csvParserUtil.openActivitySummary(new ByteArrayInputStream(csv))) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(record);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapActivities(Blackhole blackhole) throws IOException {
+        try (CSVParser parser = csvParserUtil.openActivitySummary(new ByteArrayInputStream(csv))) {
+            ActivityColumnMapping<ActivityCsvColumn> mapping = ActivityColumnMapping.compile(parser.getHeaderNames());
+            for (CSVRecord record : parser) {
+                Activity activity = activityCsvMapper.toActivity(record, mapping, null);
+                blackhole.consume(activity);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.garmin.runner.jmh;
+
+import com.garmin.runner.RunnerApplication;
+import com.garmin.runner.service.ActivityColumnStore;
+import com.garmin.runner.service.StatisticsRollupService;
+import com.garmin.runner.service.StatisticsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计接口各聚合方法的基准测试
+ * 每组参数启动一个不带Web的Spring上下文，使用独立的H2内存库并由Flyway建表，
+ * 关闭统计缓存以测量实际的查询开销；rollups=true时读取预聚合汇总表，false时直接聚合活动表，
+ * columnStore=true时优先遍历内存列式存储（除dateRange外不访问数据库）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class StatisticsBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean rollups;
+
+    @Param({"false"})
+    private boolean columnStore;
+
+    private ConfigurableApplicationContext context;
+    private StatisticsService statisticsService;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 命令行参数的优先级高于application.properties
+        context = new SpringApplicationBuilder(RunnerApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh_" + rows + "_" + rollups + "_" + columnStore
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.cache.type=none",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--runner.fake-data.enabled=false",
+                        "--runner.statistics.rollup.enabled=" + rollups,
+                        "--runner.statistics.column-store.enabled=" + columnStore,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.garmin.runner=WARN");
+
+        BenchmarkDataset.seed(context.getBean(DataSource.class), rows);
+        if (rollups) {
+            context.getBean(StatisticsRollupService.class).rebuildRollups();
+        }
+        if (columnStore) {
+            // 数据在启动加载之后才写入，需要重新加载
+            context.getBean(ActivityColumnStore.class).reload();
+        }
+        statisticsService = context.getBean(StatisticsService.class);
+        rangeEnd = LocalDate.now();
+        rangeStart = rangeEnd.minusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> overall() {
+        return statisticsService.getOverallStatistics();
+    }
+
+    @Benchmark
+    public Map<String, Object> dateRange() {
+        return statisticsService.getStatisticsByDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> byActivityType() {
+        return statisticsService.getStatisticsByActivityType();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> recentActivities() {
+        return statisticsService.getRecentActivities(10);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> trendByMonth() {
+        return statisticsService.getActivityTrendByMonth(12);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> trendByWeek() {
+        return statisticsService.getActivityTrendByWeek(12);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> trendByDay() {
+        return statisticsService.getActivityTrendByDay(30);
+    }
+
+    @Benchmark
+    public Map<String, Object> heartRateZones() {
+        return statisticsService.getHeartRateZoneStatistics();
+    }
+
+    @Benchmark
+    public Map<String, Object> paceZones() {
+        return statisticsService.getPaceZoneStatistics();
+    }
+}
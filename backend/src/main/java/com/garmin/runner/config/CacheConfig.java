@@ -0,0 +1,30 @@
+package com.garmin.runner.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 统计接口缓存配置，缓存实现和容量/过期策略见application.properties中的spring.cache.*
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String OVERALL_STATISTICS = "statistics.overall";
+    public static final String ACTIVITY_TYPE_STATISTICS = "statistics.byType";
+    public static final String RECENT_ACTIVITIES = "statistics.recent";
+    public static final String ACTIVITY_TREND = "statistics.trend";
+    public static final String HEART_RATE_ZONES = "statistics.heartRateZones";
+    public static final String PACE_ZONES = "statistics.paceZones";
+    public static final String PERSONAL_RECORDS = "statistics.personalRecords";
+    public static final String TRAINING_LOAD = "statistics.trainingLoad";
+
+    /**
+     * 活动数据变更时需要整体失效的缓存
+     */
+    public static final List<String> STATISTICS_CACHES = List.of(
+            OVERALL_STATISTICS, ACTIVITY_TYPE_STATISTICS, RECENT_ACTIVITIES,
+            ACTIVITY_TREND, HEART_RATE_ZONES, PACE_ZONES, PERSONAL_RECORDS, TRAINING_LOAD);
+}
@@ -0,0 +1,51 @@
+package com.garmin.runner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 异步导入任务线程池配置，线程数和队列长度均有上限，避免并发上传耗尽资源
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean(name = "importTaskExecutor")
+    public ThreadPoolTaskExecutor importTaskExecutor(
+            @Value("${runner.import.async.pool-size:2}") int poolSize,
+            @Value("${runner.import.async.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("garmin-import-");
+        // 关闭应用时等待正在执行的导入完成
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 批量导入的文件解析线程池，所有批量导入共用
+     * 队列满时由提交线程（读取压缩包的线程）自己解析，读取速度随之放慢，内存中待解析的文件数量保持有上限
+     */
+    @Bean(name = "bulkParseExecutor")
+    public ThreadPoolTaskExecutor bulkParseExecutor(
+            @Value("${runner.import.bulk.parse-threads:4}") int parseThreads,
+            @Value("${runner.import.bulk.parse-queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parseThreads);
+        executor.setMaxPoolSize(parseThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("garmin-parse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,15 +1,30 @@
 package com.garmin.runner.controller;
 
 import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import com.garmin.runner.service.ActivityLocationService;
+import com.garmin.runner.service.ActivityPolylineService;
 import com.garmin.runner.service.ActivityService;
+import com.garmin.runner.service.ActivityTrackService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 运动活动控制器，处理文件上传和数据查询请求
@@ -21,6 +36,15 @@ public class ActivityController {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ActivityTrackService activityTrackService;
+
+    @Autowired
+    private ActivityLocationService activityLocationService;
+
+    @Autowired
+    private ActivityPolylineService activityPolylineService;
+
     /**
      * 上传CSV文件并导入运动数据
      */
@@ -42,19 +66,158 @@ public class ActivityController {
         }
     }
 
+    // 允许排序的字段，避免任意属性名导致查询异常
+    private static final Set<String> SORTABLE_FIELDS = Set.of(
+            "id", "startTime", "activityType", "distance", "duration", "calories", "averageHeartRate", "averagePace");
+
     /**
-     * 获取所有活动数据
+     * 分页获取活动摘要，支持page、size、sort参数，例如 ?page=0&size=20&sort=distance,desc
      */
     @GetMapping
-    public ResponseEntity<List<Activity>> getAllActivities() {
+    public ResponseEntity<?> getAllActivities(
+            @PageableDefault(size = 20, sort = "startTime", direction = Sort.Direction.DESC) Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "不支持的排序字段: " + order.getProperty()));
+            }
+        }
+        try {
+            Page<ActivitySummaryView> page = activityService.getActivitySummaries(withIdTieBreaker(pageable));
+            return ResponseEntity.ok(toPageResult(page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 以NDJSON格式（每行一个JSON对象）按开始时间顺序导出全部活动摘要，边从数据库读取边写出，堆内存占用与活动数无关
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActivities() {
+        StreamingResponseBody body = output -> activityService.exportActivitySummaries(output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=activities.ndjson")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * 以游标方式按开始时间倒序滚动获取活动摘要，翻页深度不影响查询代价
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollActivities(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int size) {
+        if (size <= 0 || size > 200) {
+            size = 50; // 设置默认值和上限
+        }
+        try {
+            return ResponseEntity.ok(activityService.scrollActivitySummaries(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 按条件分页搜索活动，过滤在数据库中执行
+     * 距离单位为米，心率为平均心率，配速单位为分钟/公里
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchActivities(
+            @RequestParam(required = false) String activityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Double minDistance,
+            @RequestParam(required = false) Double maxDistance,
+            @RequestParam(required = false) Integer minHeartRate,
+            @RequestParam(required = false) Integer maxHeartRate,
+            @RequestParam(required = false) Double minPace,
+            @RequestParam(required = false) Double maxPace,
+            @PageableDefault(size = 20, sort = "startTime", direction = Sort.Direction.DESC) Pageable pageable) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "开始日期不能晚于结束日期"));
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "不支持的排序字段: " + order.getProperty()));
+            }
+        }
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("activityType", activityType);
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("minDistance", minDistance);
+        filters.put("maxDistance", maxDistance);
+        filters.put("minHeartRate", minHeartRate);
+        filters.put("maxHeartRate", maxHeartRate);
+        filters.put("minPace", minPace);
+        filters.put("maxPace", maxPace);
+
+        try {
+            Page<ActivitySummaryView> page = activityService.searchActivitySummaries(filters, withIdTieBreaker(pageable));
+            return ResponseEntity.ok(toPageResult(page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查找轨迹经过矩形区域的活动，按开始时间倒序返回前size条，例如 ?minLat=39.9&minLon=116.3&maxLat=40.0&maxLon=116.4
+     */
+    @GetMapping("/within-bbox")
+    public ResponseEntity<?> findActivitiesWithinBoundingBox(@RequestParam double minLat, @RequestParam double minLon,
+                                                             @RequestParam double maxLat, @RequestParam double maxLon,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        if (size <= 0 || size > 200) {
+            size = 50; // 设置默认值和上限
+        }
+        try {
+            Map<String, Object> result = activityLocationService.findWithinBoundingBox(minLat, minLon, maxLat, maxLon, size);
+            if ((boolean) result.getOrDefault("success", false)) {
+                return ResponseEntity.ok(result);
+            }
+            return ResponseEntity.badRequest().body(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查找轨迹经过某点附近的活动，半径单位为米，按开始时间倒序返回前size条
+     */
+    @GetMapping("/near")
+    public ResponseEntity<?> findActivitiesNearPoint(@RequestParam double lat, @RequestParam double lon,
+                                                     @RequestParam(defaultValue = "200") double radius,
+                                                     @RequestParam(defaultValue = "50") int size) {
+        if (size <= 0 || size > 200) {
+            size = 50; // 设置默认值和上限
+        }
         try {
-            List<Activity> activities = activityService.getAllActivities();
-            return ResponseEntity.ok(activities);
+            Map<String, Object> result = activityLocationService.findNearPoint(lat, lon, radius, size);
+            if ((boolean) result.getOrDefault("success", false)) {
+                return ResponseEntity.ok(result);
+            }
+            return ResponseEntity.badRequest().body(result);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 为没有位置索引的采样数据建立索引，用于绕过导入流程直接写库之后
+     */
+    @PostMapping("/location-index/rebuild")
+    public ResponseEntity<?> rebuildLocationIndex() {
+        try {
+            return ResponseEntity.ok(activityLocationService.rebuildLocationIndex());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "message", "重建位置索引失败: " + e.getMessage()));
+        }
+    }
+
     /**
      * 根据ID获取单个活动详情
      */
@@ -65,6 +228,66 @@ public class ActivityController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 上传活动的逐秒明细CSV，采样压缩后按活动存储，重复上传会覆盖已有明细
+     */
+    @PostMapping("/{id}/details")
+    public ResponseEntity<?> uploadActivityDetails(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("请上传有效的明细CSV文件");
+        }
+        if (activityService.getActivityById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = activityTrackService.importDetailsCsv(id, file);
+        if (Boolean.TRUE.equals(result.get("success"))) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.badRequest().body(result);
+    }
+
+    /**
+     * 获取活动的逐秒明细，读取时才解码压缩的采样数据
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<?> getActivityDetails(@PathVariable Long id) {
+        if (activityService.getActivityById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(activityTrackService.getDetails(id));
+    }
+
+    /**
+     * 获取地图显示用的化简轨迹（encoded polyline），按缩放级别返回预先生成的一级，例如 ?zoom=14
+     */
+    @GetMapping("/{id}/track")
+    public ResponseEntity<?> getActivityTrack(@PathVariable Long id, @RequestParam(defaultValue = "14") int zoom) {
+        if (zoom < 0 || zoom > 22) {
+            zoom = 14; // 超出地图缩放范围时使用默认值
+        }
+        if (activityService.getActivityById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = activityPolylineService.getTrackPolyline(id, zoom);
+        if (Boolean.TRUE.equals(result.get("success"))) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+    }
+
+    /**
+     * 为没有多分辨率轨迹的采样数据重新生成，用于绕过导入流程直接写库之后
+     */
+    @PostMapping("/track-polylines/rebuild")
+    public ResponseEntity<?> rebuildTrackPolylines() {
+        try {
+            return ResponseEntity.ok(activityPolylineService.rebuildPolylines());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "message", "重建多分辨率轨迹失败: " + e.getMessage()));
+        }
+    }
+
     /**
      * 删除活动
      */
@@ -77,4 +300,22 @@ public class ActivityController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * 以id作为次要排序，保证分页结果稳定
+     */
+    private static Pageable withIdTieBreaker(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    private static Map<String, Object> toPageResult(Page<ActivitySummaryView> page) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", page.getContent());
+        result.put("page", page.getNumber());
+        result.put("size", page.getSize());
+        result.put("totalElements", page.getTotalElements());
+        result.put("totalPages", page.getTotalPages());
+        return result;
+    }
 }
\ No newline at end of file
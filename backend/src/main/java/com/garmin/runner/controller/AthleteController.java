@@ -0,0 +1,74 @@
+package com.garmin.runner.controller;
+
+import com.garmin.runner.model.AthleteProfile;
+import com.garmin.runner.service.AthleteProfileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/athlete")
+public class AthleteController {
+
+    private static final Logger log = LoggerFactory.getLogger(AthleteController.class);
+
+    @Autowired
+    private AthleteProfileService athleteProfileService;
+
+    /**
+     * 获取运动员资料
+     */
+    @GetMapping("/profile")
+    public ResponseEntity<AthleteProfile> getProfile() {
+        log.info("接收API请求: GET /athlete/profile");
+        return ResponseEntity.ok(athleteProfileService.getProfile());
+    }
+
+    /**
+     * 更新运动员资料，心率区间变化时重新计算已有采样数据的区间秒数
+     */
+    @PutMapping("/profile")
+    public ResponseEntity<Map<String, Object>> updateProfile(@RequestBody AthleteProfile changes) {
+        log.info("接收API请求: PUT /athlete/profile");
+        try {
+            Map<String, Object> result = athleteProfileService.updateProfile(changes);
+            if ((boolean) result.getOrDefault("success", false)) {
+                log.info("运动员资料更新成功");
+                return ResponseEntity.ok(result);
+            }
+            log.warn("运动员资料更新失败: {}", result.get("message"));
+            return ResponseEntity.badRequest().body(result);
+        } catch (Exception e) {
+            log.error("运动员资料更新请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "更新运动员资料时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * 重新计算区间秒数不是按当前资料计算的采样数据，用于绕过导入流程直接写库之后
+     */
+    @PostMapping("/profile/rebuild-zones")
+    public ResponseEntity<Map<String, Object>> rebuildHeartRateZones() {
+        log.info("接收API请求: POST /athlete/profile/rebuild-zones");
+        try {
+            Map<String, Object> result = athleteProfileService.rebuildHeartRateZones();
+            log.info("心率区间重新计算请求成功");
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("心率区间重新计算请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "重新计算心率区间时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+}
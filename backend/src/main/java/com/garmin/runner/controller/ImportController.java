@@ -1,5 +1,6 @@
 package com.garmin.runner.controller;
 
+import com.garmin.runner.model.DuplicatePolicy;
 import com.garmin.runner.service.ImportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -7,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,10 +19,13 @@ public class ImportController {
     private ImportService importService;
 
     /**
-     * 上传并导入佳明数据文件
+     * 上传并导入佳明数据文件，async=true时提交后台任务并立即返回导入记录ID
+     * onDuplicate指定遇到已导入活动时的处理方式：SKIP跳过（默认，重复上传不会重复计数）、UPDATE更新非空字段、REPLACE整体替换
      */
     @PostMapping("/garmin-data")
-    public ResponseEntity<Map<String, Object>> importGarminData(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> importGarminData(@RequestParam("file") MultipartFile file,
+                                                                @RequestParam(defaultValue = "false") boolean async,
+                                                                @RequestParam(defaultValue = "SKIP") DuplicatePolicy onDuplicate) {
         // 验证文件是否为空
         if (file.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -33,8 +38,19 @@ public class ImportController {
                     .body(Map.of("success", false, "message", "无效的佳明数据文件，请上传CSV格式的活动数据"));
         }
 
+        if (async) {
+            Map<String, Object> result = importService.submitImportJob(file, onDuplicate);
+            if ((boolean) result.getOrDefault("success", false)) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+            } else if ((boolean) result.getOrDefault("queueFull", false)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+            } else {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+            }
+        }
+
         // 执行数据导入
-        Map<String, Object> result = importService.importGarminData(file);
+        Map<String, Object> result = importService.importGarminData(file, onDuplicate);
         
         if ((boolean) result.getOrDefault("success", false)) {
             return ResponseEntity.ok(result);
@@ -43,6 +59,71 @@ public class ImportController {
         }
     }
 
+    /**
+     * 上传并导入单个FIT/TCX/GPX轨迹文件，生成活动并保存逐秒采样
+     */
+    @PostMapping("/track")
+    public ResponseEntity<Map<String, Object>> importTrackFile(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(defaultValue = "SKIP") DuplicatePolicy onDuplicate) {
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", "请选择要上传的文件"));
+        }
+
+        Map<String, Object> result = importService.importTrackFile(file, onDuplicate);
+        if ((boolean) result.getOrDefault("success", false)) {
+            return ResponseEntity.ok(result);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+        }
+    }
+
+    /**
+     * 批量导入：可同时上传多个文件，ZIP压缩包（如佳明账户数据导出）按条目流式读取
+     * 支持CSV汇总文件和FIT、TCX、GPX轨迹文件，每个文件生成一条子导入记录，async=true时提交后台任务
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> importBulk(@RequestParam("files") List<MultipartFile> files,
+                                                          @RequestParam(defaultValue = "false") boolean async,
+                                                          @RequestParam(defaultValue = "SKIP") DuplicatePolicy onDuplicate) {
+        if (files.isEmpty() || files.stream().allMatch(MultipartFile::isEmpty)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", "请选择要上传的文件"));
+        }
+
+        if (async) {
+            Map<String, Object> result = importService.submitBulkImportJob(files, onDuplicate);
+            if ((boolean) result.getOrDefault("success", false)) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+            } else if ((boolean) result.getOrDefault("queueFull", false)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+            } else {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+            }
+        }
+
+        Map<String, Object> result = importService.importBulk(files, onDuplicate);
+        if ((boolean) result.getOrDefault("success", false)) {
+            return ResponseEntity.ok(result);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+        }
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getImportJob(@PathVariable Long id) {
+        Map<String, Object> result = importService.getImportJob(id);
+
+        if ((boolean) result.getOrDefault("success", false)) {
+            return ResponseEntity.ok(result);
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+    }
+
     /**
      * 获取导入记录列表
      */
@@ -1,6 +1,9 @@
 package com.garmin.runner.controller;
 
+import com.garmin.runner.service.PersonalRecordService;
+import com.garmin.runner.service.StatisticsRollupService;
 import com.garmin.runner.service.StatisticsService;
+import com.garmin.runner.service.TrainingLoadService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +25,15 @@ public class StatisticsController {
     @Autowired
     private StatisticsService statisticsService;
 
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
     /**
      * 获取总体统计数据
      */
@@ -138,7 +150,7 @@ public class StatisticsController {
         
         log.info("接收API请求: GET /statistics/trend/monthly, months={}", months);
         
-        if (months <= 0 || months > 24) {
+        if (months <= 0 || months > 60) {
             log.warn("参数months超出范围, 使用默认值: 6");
             months = 6; // 设置默认值和上限
         }
@@ -153,6 +165,54 @@ public class StatisticsController {
         }
     }
 
+    /**
+     * 获取周度活动趋势数据
+     */
+    @GetMapping("/trend/weekly")
+    public ResponseEntity<List<Map<String, Object>>> getActivityTrendByWeek(
+            @RequestParam(defaultValue = "12") int weeks) {
+        
+        log.info("接收API请求: GET /statistics/trend/weekly, weeks={}", weeks);
+        
+        if (weeks <= 0 || weeks > 260) {
+            log.warn("参数weeks超出范围, 使用默认值: 12");
+            weeks = 12; // 设置默认值和上限
+        }
+        
+        try {
+            List<Map<String, Object>> trendData = statisticsService.getActivityTrendByWeek(weeks);
+            log.info("周度趋势数据请求成功, 返回 {} 周的数据", trendData.size());
+            return ResponseEntity.ok(trendData);
+        } catch (Exception e) {
+            log.error("周度趋势数据请求异常, weeks={}", weeks, e);
+            return ResponseEntity.ok(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 获取每日活动趋势数据
+     */
+    @GetMapping("/trend/daily")
+    public ResponseEntity<List<Map<String, Object>>> getActivityTrendByDay(
+            @RequestParam(defaultValue = "30") int days) {
+        
+        log.info("接收API请求: GET /statistics/trend/daily, days={}", days);
+        
+        if (days <= 0 || days > 366) {
+            log.warn("参数days超出范围, 使用默认值: 30");
+            days = 30; // 设置默认值和上限
+        }
+        
+        try {
+            List<Map<String, Object>> trendData = statisticsService.getActivityTrendByDay(days);
+            log.info("每日趋势数据请求成功, 返回 {} 天的数据", trendData.size());
+            return ResponseEntity.ok(trendData);
+        } catch (Exception e) {
+            log.error("每日趋势数据请求异常, days={}", days, e);
+            return ResponseEntity.ok(new ArrayList<>());
+        }
+    }
+
     /**
      * 获取心率区间统计
      */
@@ -209,6 +269,128 @@ public class StatisticsController {
         }
     }
 
+    /**
+     * 获取个人记录
+     */
+    @GetMapping("/personal-records")
+    public ResponseEntity<Map<String, Object>> getPersonalRecords() {
+        log.info("接收API请求: GET /statistics/personal-records");
+        try {
+            Map<String, Object> statistics = statisticsService.getPersonalRecords();
+            boolean success = (boolean) statistics.getOrDefault("success", false);
+            
+            if (success) {
+                log.info("个人记录请求成功");
+                return ResponseEntity.ok(statistics);
+            } else {
+                String message = (String) statistics.getOrDefault("message", "未知错误");
+                log.warn("个人记录请求失败, 错误信息: {}", message);
+                return ResponseEntity.badRequest().body(statistics);
+            }
+        } catch (Exception e) {
+            log.error("个人记录请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "处理个人记录请求时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * 为尚未计算或计算版本不一致的采样数据重新计算最好成绩，并更新个人记录
+     */
+    @PostMapping("/personal-records/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildPersonalRecords() {
+        log.info("接收API请求: POST /statistics/personal-records/rebuild");
+        try {
+            Map<String, Object> result = personalRecordService.rebuildBestEfforts();
+            log.info("个人记录重建请求成功");
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("个人记录重建请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "重建个人记录时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * 获取训练负荷（急性负荷、慢性负荷和状态）
+     */
+    @GetMapping("/training-load")
+    public ResponseEntity<Map<String, Object>> getTrainingLoad(@RequestParam(defaultValue = "90") int days) {
+        log.info("接收API请求: GET /statistics/training-load, days={}", days);
+        
+        if (days <= 0 || days > 3660) {
+            log.warn("参数days超出范围, 使用默认值: 90");
+            days = 90; // 设置默认值和上限
+        }
+        
+        try {
+            Map<String, Object> statistics = statisticsService.getTrainingLoad(days);
+            boolean success = (boolean) statistics.getOrDefault("success", false);
+            
+            if (success) {
+                log.info("训练负荷请求成功, 返回 {} 天的数据", days);
+                return ResponseEntity.ok(statistics);
+            } else {
+                String message = (String) statistics.getOrDefault("message", "未知错误");
+                log.warn("训练负荷请求失败, 错误信息: {}", message);
+                return ResponseEntity.badRequest().body(statistics);
+            }
+        } catch (Exception e) {
+            log.error("训练负荷请求异常, days={}", days, e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "处理训练负荷请求时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * 从第一个活动起全量重新计算训练负荷
+     */
+    @PostMapping("/training-load/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTrainingLoad() {
+        log.info("接收API请求: POST /statistics/training-load/rebuild");
+        try {
+            Map<String, Object> result = trainingLoadService.rebuildTrainingLoad();
+            log.info("训练负荷重建请求成功");
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("训练负荷重建请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "重建训练负荷时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    /**
+     * 根据活动表全量重建统计汇总表
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        log.info("接收API请求: POST /statistics/rollups/rebuild");
+        try {
+            Map<String, Object> result = statisticsRollupService.rebuildRollups();
+            log.info("统计汇总表重建请求成功");
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("统计汇总表重建请求异常", e);
+            Map<String, Object> error = Map.of(
+                    "success", false,
+                    "message", "重建统计汇总表时发生异常: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
     /**
      * 健康检查接口
      */
@@ -0,0 +1,17 @@
+package com.garmin.runner.event;
+
+/**
+ * 活动数据变更事件，在新增、修改、删除活动或重建汇总表时发布
+ */
+public class ActivityDataChangedEvent {
+
+    private final String reason;
+
+    public ActivityDataChangedEvent(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
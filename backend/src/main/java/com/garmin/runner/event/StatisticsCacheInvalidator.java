@@ -0,0 +1,44 @@
+package com.garmin.runner.event;
+
+import com.garmin.runner.config.CacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 活动数据变更后清空统计缓存
+ * 在事务提交后执行，避免并发请求在提交前把旧数据重新写入缓存；没有事务时立即执行
+ */
+@Component
+public class StatisticsCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityDataChanged(ActivityDataChangedEvent event) {
+        for (String cacheName : CacheConfig.STATISTICS_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        Counter.builder("statistics.cache.invalidations")
+                .description("活动数据变更导致的统计缓存失效次数")
+                .tag("reason", event.getReason())
+                .register(meterRegistry)
+                .increment();
+        log.debug("统计缓存已失效, 原因: {}", event.getReason());
+    }
+}
@@ -1,7 +1,9 @@
 package com.garmin.runner.init;
 
+import com.garmin.runner.model.DuplicatePolicy;
 import com.garmin.runner.service.ImportService;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,6 +15,7 @@ import java.util.Map;
 import java.util.logging.Logger;
 
 @Component
+@ConditionalOnProperty(name = "runner.fake-data.enabled", havingValue = "true", matchIfMissing = true)
 public class FakeDataInitializer implements CommandLineRunner {
 
     private static final Logger logger = Logger.getLogger(FakeDataInitializer.class.getName());
@@ -47,7 +50,7 @@ public class FakeDataInitializer implements CommandLineRunner {
                 // 验证文件
                 if (importService.validateGarminFile(mockFile)) {
                     // 导入数据
-                    Map<String, Object> result = importService.importGarminData(mockFile);
+                    Map<String, Object> result = importService.importGarminData(mockFile, DuplicatePolicy.SKIP);
                     
                     if ((boolean) result.getOrDefault("success", false)) {
                         logger.info("假数据导入成功，导入了 " + result.get("activityCount") + " 条活动记录");
@@ -0,0 +1,101 @@
+package com.garmin.runner.metrics;
+
+import com.garmin.runner.model.ImportRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入流程的耗时、行数和吞吐量指标
+ * source标签为导入方式：csv（CSV汇总文件）、track（单个轨迹文件）、bulk（批量导入）、generated（合成数据）；
+ * 解析耗时不含写库，写库耗时按分块记录，两者之和接近导入总耗时
+ */
+@Component
+public class ImportMetrics {
+
+    public static final String SOURCE_CSV = "csv";
+    public static final String SOURCE_TRACK = "track";
+    public static final String SOURCE_BULK = "bulk";
+    public static final String SOURCE_GENERATED = "generated";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 记录解析耗时（CSV读取和转换、轨迹文件解码、数据生成）
+     */
+    public void recordParse(String source, long nanos) {
+        Timer.builder("import.parse")
+                .description("导入过程中解析数据的耗时，不含写库")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一个分块的写库耗时，包括去重查询、写入活动、汇总表和采样数据
+     */
+    public void recordPersist(String source, long nanos) {
+        Timer.builder("import.persist")
+                .description("导入过程中一个分块的写库事务耗时")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 导入结束时记录总耗时、各类行数、吞吐量和失败次数
+     */
+    public void recordImport(String source, ImportRecord importRecord) {
+        String status = statusTag(importRecord.getStatus());
+        Timer.builder("import.duration")
+                .description("一次导入的总耗时")
+                .tag("source", source)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(importRecord.getElapsedMs(), TimeUnit.MILLISECONDS);
+
+        incrementRows(source, "inserted", importRecord.getRowsInserted());
+        incrementRows(source, "updated", importRecord.getRowsUpdated());
+        incrementRows(source, "skipped", importRecord.getRowsSkipped());
+        incrementRows(source, "failed", importRecord.getRowsFailed());
+
+        if (importRecord.getElapsedMs() > 0 && importRecord.getRowsParsed() > 0) {
+            DistributionSummary.builder("import.throughput")
+                    .description("一次导入每秒处理的行数")
+                    .baseUnit("rows/s")
+                    .tag("source", source)
+                    .register(meterRegistry)
+                    .record(importRecord.getRowsParsed() * 1000.0 / importRecord.getElapsedMs());
+        }
+
+        if ("failed".equals(status)) {
+            Counter.builder("import.failures")
+                    .description("整体失败的导入次数")
+                    .tag("source", source)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private void incrementRows(String source, String result, long rows) {
+        Counter.builder("import.rows")
+                .description("导入的行数，按新增、更新、跳过、失败分类")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
+    private static String statusTag(String status) {
+        if ("成功".equals(status)) {
+            return "success";
+        }
+        return "部分成功".equals(status) ? "partial" : "failed";
+    }
+}
@@ -0,0 +1,65 @@
+package com.garmin.runner.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 统计接口的计算耗时和扫描行数指标
+ * 统计方法带有缓存，这里只记录缓存未命中时的实际计算，命中率见cache.gets；
+ * source标签区分读取预聚合汇总表（rollup）、直接聚合活动表（activities）、遍历内存列式存储（column-store）
+ * 和对采样数据上预先计算的心率区间秒数求和（zone-histograms），
+ * 扫描行数为汇总表行数或参与聚合的活动数，用于判断哪个看板接口给数据库带来的压力最大
+ */
+@Component
+public class StatisticsMetrics {
+
+    public static final String SOURCE_ROLLUP = "rollup";
+    public static final String SOURCE_ACTIVITIES = "activities";
+    public static final String SOURCE_COLUMN_STORE = "column-store";
+    public static final String SOURCE_ZONE_HISTOGRAMS = "zone-histograms";
+    public static final String SOURCE_PERSONAL_RECORDS = "personal-records";
+    public static final String SOURCE_TRAINING_LOAD = "training-load";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 执行一次统计计算并记录耗时，异常也会计入耗时并按异常类型打标签
+     * @param method 统计方法名，作为method标签
+     * @param source 数据来源，rollup、activities、column-store或zone-histograms
+     */
+    public <T> T record(String method, String source, Supplier<T> computation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return computation.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("statistics.compute")
+                    .description("统计接口缓存未命中时的计算耗时")
+                    .tag("method", method)
+                    .tag("source", source)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 记录一次统计计算读取的行数
+     */
+    public void recordRowsScanned(String method, long rows) {
+        DistributionSummary.builder("statistics.rows.scanned")
+                .description("一次统计计算读取的汇总表行数或参与聚合的活动数")
+                .baseUnit("rows")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
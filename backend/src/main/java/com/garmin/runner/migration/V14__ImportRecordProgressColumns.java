@@ -0,0 +1,58 @@
+package com.garmin.runner.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为导入记录补上导入进度字段
+ * 引入Flyway之前较晚的版本已经以ddl-auto=update建好这些字段，只补缺少的（MySQL不支持add column if not exists）
+ */
+@Component
+public class V14__ImportRecordProgressColumns extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V14__ImportRecordProgressColumns.class);
+
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("rows_parsed", "integer");
+        COLUMNS.put("rows_persisted", "integer");
+        COLUMNS.put("rows_failed", "integer");
+        COLUMNS.put("elapsed_ms", "bigint");
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Set<String> existing = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select * from import_records where 1 = 0")) {
+            ResultSetMetaData metaData = rows.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                existing.add(metaData.getColumnName(i).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> column : COLUMNS.entrySet()) {
+                if (!existing.contains(column.getKey())) {
+                    statement.execute("alter table import_records add column " + column.getKey() + " " + column.getValue());
+                    log.info("导入记录补充字段: {}", column.getKey());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.garmin.runner.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * 活动主键由自增列改为activities_seq序列（Hibernate按50个一批分配主键，批量写入时不必逐行取回自增值）
+ * 序列从现有最大的活动ID之后开始；引入Flyway之前较晚的版本已经建好序列，这种库保持不变
+ * H2使用序列，MySQL不支持序列，Hibernate使用单行表activities_seq模拟
+ */
+@Component
+public class V15__ActivitiesSequence extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V15__ActivitiesSequence.class);
+
+    // 与Activity上@SequenceGenerator的allocationSize一致
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+
+        try (Statement statement = connection.createStatement()) {
+            if (isAutoIncrement(statement)) {
+                if (mysql) {
+                    // 其他表的外键引用了activities.id，只去掉自增属性、不改变类型，修改期间暂停外键检查
+                    statement.execute("set foreign_key_checks = 0");
+                    try {
+                        statement.execute("alter table activities modify id bigint not null");
+                    } finally {
+                        statement.execute("set foreign_key_checks = 1");
+                    }
+                } else {
+                    statement.execute("alter table activities alter column id drop identity");
+                }
+            }
+
+            if (sequenceExists(statement, mysql)) {
+                return;
+            }
+            // Hibernate的pooled优化器取到序列值v后分配(v - 49)到v，所以序列值从最大ID加50开始
+            long next = maxActivityId(statement) + ALLOCATION_SIZE;
+            if (mysql) {
+                statement.execute("create table activities_seq (next_val bigint) engine=InnoDB");
+                statement.execute("insert into activities_seq values (" + next + ")");
+            } else {
+                statement.execute("create sequence activities_seq start with " + next + " increment by " + ALLOCATION_SIZE);
+            }
+            log.info("活动主键序列已创建, 起始值: {}", next);
+        }
+    }
+
+    private static boolean isAutoIncrement(Statement statement) throws Exception {
+        try (ResultSet rows = statement.executeQuery("select id from activities where 1 = 0")) {
+            return rows.getMetaData().isAutoIncrement(1);
+        }
+    }
+
+    private static boolean sequenceExists(Statement statement, boolean mysql) throws Exception {
+        String sql = mysql
+                ? "select count(*) from information_schema.tables where table_schema = database() and table_name = 'activities_seq'"
+                : "select count(*) from information_schema.sequences where upper(sequence_name) = 'ACTIVITIES_SEQ'";
+        try (ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1) > 0;
+        }
+    }
+
+    private static long maxActivityId(Statement statement) throws Exception {
+        try (ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from activities")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+}
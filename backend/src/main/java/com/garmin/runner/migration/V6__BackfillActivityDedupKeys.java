@@ -0,0 +1,73 @@
+package com.garmin.runner.migration;
+
+import com.garmin.runner.util.ActivityDedupKey;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 为已有活动回填去重键（与导入时的算法相同，无法在SQL中按数据库类型分别实现）
+ * 没有佳明活动ID而内容相同的活动按ID顺序与同一文件中的重复行一样处理，从第2条起得到带序号的键（见ActivityDedupKey.Occurrences）；
+ * 佳明活动ID相同的活动只有ID最小的一条获得去重键，其余保持为空，V7的唯一索引才能建立
+ */
+@Component
+public class V6__BackfillActivityDedupKeys extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V6__BackfillActivityDedupKeys.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Set<String> seenKeys = new HashSet<>();
+        ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
+        int updated = 0;
+        int duplicates = 0;
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("update activities set dedup_key = ? where id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("select id, garmin_activity_id, activity_type, start_time, distance "
+                    + "from activities where dedup_key is null order by id")) {
+                int pending = 0;
+                while (rows.next()) {
+                    Object distance = rows.getObject("distance");
+                    String garminActivityId = rows.getString("garmin_activity_id");
+                    String dedupKey = occurrences.assign(ActivityDedupKey.of(garminActivityId,
+                            rows.getString("activity_type"), rows.getObject("start_time", LocalDateTime.class),
+                            distance != null ? ((Number) distance).doubleValue() : null), garminActivityId);
+                    if (dedupKey == null) {
+                        continue;
+                    }
+                    if (!seenKeys.add(dedupKey)) {
+                        duplicates++;
+                        continue;
+                    }
+                    update.setString(1, dedupKey);
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                    updated++;
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+        log.info("活动去重键回填完成: 回填 {} 条, 佳明活动ID重复的活动 {} 条（保留为空，可手动删除）", updated, duplicates);
+    }
+}
@@ -5,11 +5,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "activities")
+@Table(name = "activities") // 索引由Flyway迁移脚本维护，见db/migration
 public class Activity {
 
+    // 使用序列分配主键，IDENTITY会使Hibernate禁用JDBC批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "activity_name")
@@ -45,6 +47,9 @@ public class Activity {
     @Column(name = "garmin_activity_id")
     private String garminActivityId;
 
+    @Column(name = "dedup_key", length = 64)
+    private String dedupKey; // 去重键，见ActivityDedupKey
+
     @Column(name = "import_date")
     private LocalDateTime importDate;
 
@@ -91,6 +96,9 @@ public class Activity {
     
     public String getGarminActivityId() { return garminActivityId; }
     public void setGarminActivityId(String garminActivityId) { this.garminActivityId = garminActivityId; }
+
+    public String getDedupKey() { return dedupKey; }
+    public void setDedupKey(String dedupKey) { this.dedupKey = dedupKey; }
     
     public LocalDateTime getImportDate() { return importDate; }
     public void setImportDate(LocalDateTime importDate) { this.importDate = importDate; }
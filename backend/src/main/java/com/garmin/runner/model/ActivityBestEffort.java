@@ -0,0 +1,67 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * 一次跑步在某类个人记录上的最好成绩，由采样数据计算（见BestEfforts）
+ * 标准距离记录为该距离的最快一段，最长距离记录为整个活动
+ */
+@Entity
+@Table(name = "activity_best_efforts")
+public class ActivityBestEffort {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_best_efforts_seq")
+    @SequenceGenerator(name = "activity_best_efforts_seq", sequenceName = "activity_best_efforts_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "record_type", nullable = false, length = 32)
+    private PersonalRecordType recordType;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Double distanceMeters;
+
+    @Column(name = "elapsed_seconds", nullable = false)
+    private Double elapsedSeconds;
+
+    @Column(name = "start_offset_seconds", nullable = false)
+    private Double startOffsetSeconds; // 这一段相对于活动开始的时间
+
+    public ActivityBestEffort() {
+    }
+
+    public ActivityBestEffort(Long activityId, PersonalRecordType recordType, Double distanceMeters,
+                              Double elapsedSeconds, Double startOffsetSeconds) {
+        this.activityId = activityId;
+        this.recordType = recordType;
+        this.distanceMeters = distanceMeters;
+        this.elapsedSeconds = elapsedSeconds;
+        this.startOffsetSeconds = startOffsetSeconds;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public PersonalRecordType getRecordType() { return recordType; }
+    public void setRecordType(PersonalRecordType recordType) { this.recordType = recordType; }
+
+    public Double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(Double distanceMeters) { this.distanceMeters = distanceMeters; }
+
+    public Double getElapsedSeconds() { return elapsedSeconds; }
+    public void setElapsedSeconds(Double elapsedSeconds) { this.elapsedSeconds = elapsedSeconds; }
+
+    public Double getStartOffsetSeconds() { return startOffsetSeconds; }
+    public void setStartOffsetSeconds(Double startOffsetSeconds) { this.startOffsetSeconds = startOffsetSeconds; }
+}
@@ -0,0 +1,159 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 活动的逐秒采样数据，每个活动一行，采样按列压缩后存放在一个二进制字段中（格式见TrackCodec）
+ */
+@Entity
+@Table(name = "activity_tracks")
+public class ActivityTrack {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "activity_id", nullable = false, unique = true)
+    private Long activityId;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "encoding_version", nullable = false)
+    private Integer encodingVersion;
+
+    @Lob
+    @Column(name = "encoded_samples", nullable = false)
+    private byte[] encodedSamples;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // 各心率区间的秒数（0区为低于1区下限），按运动员资料的zoneVersion版本计算，见HeartRateZones
+    @Column(name = "hr_zone_version")
+    private Integer hrZoneVersion;
+
+    @Column(name = "hr_zone0_seconds")
+    private Integer hrZone0Seconds;
+
+    @Column(name = "hr_zone1_seconds")
+    private Integer hrZone1Seconds;
+
+    @Column(name = "hr_zone2_seconds")
+    private Integer hrZone2Seconds;
+
+    @Column(name = "hr_zone3_seconds")
+    private Integer hrZone3Seconds;
+
+    @Column(name = "hr_zone4_seconds")
+    private Integer hrZone4Seconds;
+
+    @Column(name = "hr_zone5_seconds")
+    private Integer hrZone5Seconds;
+
+    // 按心率采样计算的训练冲量，与区间秒数按同一版本计算，见TrainingLoad；没有心率采样时为空
+    @Column(name = "trimp")
+    private Double trimp;
+
+    // 采样的经纬度范围，没有位置数据时为空；location_index_version见TrackLocationIndex
+    @Column(name = "min_latitude")
+    private Double minLatitude;
+
+    @Column(name = "max_latitude")
+    private Double maxLatitude;
+
+    @Column(name = "min_longitude")
+    private Double minLongitude;
+
+    @Column(name = "max_longitude")
+    private Double maxLongitude;
+
+    @Column(name = "location_index_version")
+    private Integer locationIndexVersion;
+
+    // 多分辨率轨迹的版本，见TrackPolylines
+    @Column(name = "polyline_version")
+    private Integer polylineVersion;
+
+    // 最好成绩的计算版本，见BestEfforts
+    @Column(name = "best_effort_version")
+    private Integer bestEffortVersion;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public Integer getSampleCount() { return sampleCount; }
+    public void setSampleCount(Integer sampleCount) { this.sampleCount = sampleCount; }
+
+    public Integer getEncodingVersion() { return encodingVersion; }
+    public void setEncodingVersion(Integer encodingVersion) { this.encodingVersion = encodingVersion; }
+
+    public byte[] getEncodedSamples() { return encodedSamples; }
+    public void setEncodedSamples(byte[] encodedSamples) { this.encodedSamples = encodedSamples; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Integer getHrZoneVersion() { return hrZoneVersion; }
+    public void setHrZoneVersion(Integer hrZoneVersion) { this.hrZoneVersion = hrZoneVersion; }
+
+    public Integer getHrZone0Seconds() { return hrZone0Seconds; }
+    public void setHrZone0Seconds(Integer hrZone0Seconds) { this.hrZone0Seconds = hrZone0Seconds; }
+
+    public Integer getHrZone1Seconds() { return hrZone1Seconds; }
+    public void setHrZone1Seconds(Integer hrZone1Seconds) { this.hrZone1Seconds = hrZone1Seconds; }
+
+    public Integer getHrZone2Seconds() { return hrZone2Seconds; }
+    public void setHrZone2Seconds(Integer hrZone2Seconds) { this.hrZone2Seconds = hrZone2Seconds; }
+
+    public Integer getHrZone3Seconds() { return hrZone3Seconds; }
+    public void setHrZone3Seconds(Integer hrZone3Seconds) { this.hrZone3Seconds = hrZone3Seconds; }
+
+    public Integer getHrZone4Seconds() { return hrZone4Seconds; }
+    public void setHrZone4Seconds(Integer hrZone4Seconds) { this.hrZone4Seconds = hrZone4Seconds; }
+
+    public Integer getHrZone5Seconds() { return hrZone5Seconds; }
+    public void setHrZone5Seconds(Integer hrZone5Seconds) { this.hrZone5Seconds = hrZone5Seconds; }
+
+    public Double getMinLatitude() { return minLatitude; }
+    public void setMinLatitude(Double minLatitude) { this.minLatitude = minLatitude; }
+
+    public Double getMaxLatitude() { return maxLatitude; }
+    public void setMaxLatitude(Double maxLatitude) { this.maxLatitude = maxLatitude; }
+
+    public Double getMinLongitude() { return minLongitude; }
+    public void setMinLongitude(Double minLongitude) { this.minLongitude = minLongitude; }
+
+    public Double getMaxLongitude() { return maxLongitude; }
+    public void setMaxLongitude(Double maxLongitude) { this.maxLongitude = maxLongitude; }
+
+    public Integer getLocationIndexVersion() { return locationIndexVersion; }
+    public void setLocationIndexVersion(Integer locationIndexVersion) { this.locationIndexVersion = locationIndexVersion; }
+
+    public Integer getPolylineVersion() { return polylineVersion; }
+    public void setPolylineVersion(Integer polylineVersion) { this.polylineVersion = polylineVersion; }
+
+    public Integer getBestEffortVersion() { return bestEffortVersion; }
+    public void setBestEffortVersion(Integer bestEffortVersion) { this.bestEffortVersion = bestEffortVersion; }
+
+    public Double getTrimp() { return trimp; }
+    public void setTrimp(Double trimp) { this.trimp = trimp; }
+
+    /**
+     * 写入按指定版本计算的各区间秒数
+     */
+    public void setHeartRateZoneSeconds(int zoneVersion, int[] zoneSeconds) {
+        hrZoneVersion = zoneVersion;
+        hrZone0Seconds = zoneSeconds[0];
+        hrZone1Seconds = zoneSeconds[1];
+        hrZone2Seconds = zoneSeconds[2];
+        hrZone3Seconds = zoneSeconds[3];
+        hrZone4Seconds = zoneSeconds[4];
+        hrZone5Seconds = zoneSeconds[5];
+    }
+}
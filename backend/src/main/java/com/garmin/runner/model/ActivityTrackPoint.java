@@ -0,0 +1,54 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+
+/**
+ * 位置索引中的一个轨迹点，由采样数据按固定间隔降采样得到（见TrackLocationIndex）
+ */
+@Entity
+@Table(name = "activity_track_points")
+public class ActivityTrackPoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_track_points_seq")
+    @SequenceGenerator(name = "activity_track_points_seq", sequenceName = "activity_track_points_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+
+    @Column(name = "cell", nullable = false)
+    private Long cell; // 所在网格的geohash整数编码，见GeoHash
+
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    public ActivityTrackPoint() {
+    }
+
+    public ActivityTrackPoint(Long activityId, Long cell, Double latitude, Double longitude) {
+        this.activityId = activityId;
+        this.cell = cell;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public Long getCell() { return cell; }
+    public void setCell(Long cell) { this.cell = cell; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+}
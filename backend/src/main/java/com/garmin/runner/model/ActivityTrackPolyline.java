@@ -0,0 +1,62 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+
+/**
+ * 按某个缩放级别化简后的活动轨迹，编码为Google encoded polyline（见TrackPolylines）
+ */
+@Entity
+@Table(name = "activity_track_polylines")
+public class ActivityTrackPolyline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_track_polylines_seq")
+    @SequenceGenerator(name = "activity_track_polylines_seq", sequenceName = "activity_track_polylines_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+
+    @Column(name = "zoom", nullable = false)
+    private Integer zoom; // 适用的地图缩放级别
+
+    @Column(name = "tolerance_meters", nullable = false)
+    private Double toleranceMeters; // 化简容差，单位：米
+
+    @Column(name = "point_count", nullable = false)
+    private Integer pointCount;
+
+    @Lob
+    @Column(name = "polyline", nullable = false)
+    private String polyline;
+
+    public ActivityTrackPolyline() {
+    }
+
+    public ActivityTrackPolyline(Long activityId, Integer zoom, Double toleranceMeters, Integer pointCount, String polyline) {
+        this.activityId = activityId;
+        this.zoom = zoom;
+        this.toleranceMeters = toleranceMeters;
+        this.pointCount = pointCount;
+        this.polyline = polyline;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public Integer getZoom() { return zoom; }
+    public void setZoom(Integer zoom) { this.zoom = zoom; }
+
+    public Double getToleranceMeters() { return toleranceMeters; }
+    public void setToleranceMeters(Double toleranceMeters) { this.toleranceMeters = toleranceMeters; }
+
+    public Integer getPointCount() { return pointCount; }
+    public void setPointCount(Integer pointCount) { this.pointCount = pointCount; }
+
+    public String getPolyline() { return polyline; }
+    public void setPolyline(String polyline) { this.polyline = polyline; }
+}
@@ -0,0 +1,63 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 运动员资料，当前为单用户，固定一行（id为1），由迁移脚本插入默认值
+ * 修改心率相关字段时zoneVersion加一，采样数据上按旧版本计算的心率区间秒数需要重新计算
+ */
+@Entity
+@Table(name = "athlete_profile")
+public class AthleteProfile {
+
+    public static final long DEFAULT_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "max_heart_rate", nullable = false)
+    private Integer maxHeartRate;
+
+    @Column(name = "resting_heart_rate")
+    private Integer restingHeartRate;
+
+    @Column(name = "threshold_heart_rate")
+    private Integer thresholdHeartRate; // 乳酸阈值心率
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "zone_model", nullable = false, length = 32)
+    private HeartRateZoneModel zoneModel;
+
+    @Column(name = "zone_version", nullable = false)
+    private Integer zoneVersion;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getMaxHeartRate() { return maxHeartRate; }
+    public void setMaxHeartRate(Integer maxHeartRate) { this.maxHeartRate = maxHeartRate; }
+
+    public Integer getRestingHeartRate() { return restingHeartRate; }
+    public void setRestingHeartRate(Integer restingHeartRate) { this.restingHeartRate = restingHeartRate; }
+
+    public Integer getThresholdHeartRate() { return thresholdHeartRate; }
+    public void setThresholdHeartRate(Integer thresholdHeartRate) { this.thresholdHeartRate = thresholdHeartRate; }
+
+    public HeartRateZoneModel getZoneModel() { return zoneModel; }
+    public void setZoneModel(HeartRateZoneModel zoneModel) { this.zoneModel = zoneModel; }
+
+    public Integer getZoneVersion() { return zoneVersion; }
+    public void setZoneVersion(Integer zoneVersion) { this.zoneVersion = zoneVersion; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,10 @@
+package com.garmin.runner.model;
+
+/**
+ * 导入时遇到已存在活动（去重键相同）的处理策略
+ */
+public enum DuplicatePolicy {
+    SKIP,       // 保留已有活动，跳过导入的记录
+    UPDATE,     // 用导入记录中非空的字段更新已有活动
+    REPLACE     // 用导入记录整体替换已有活动的内容，活动ID保持不变
+}
@@ -0,0 +1,33 @@
+package com.garmin.runner.model;
+
+/**
+ * 心率区间的划分方式，各区间下限为基准心率的百分比
+ */
+public enum HeartRateZoneModel {
+    MAX_HEART_RATE(new double[] {0.50, 0.60, 0.70, 0.80, 0.90}),        // 最大心率百分比
+    HEART_RATE_RESERVE(new double[] {0.50, 0.60, 0.70, 0.80, 0.90}),    // 储备心率（最大心率减静息心率）百分比，加上静息心率
+    THRESHOLD_HEART_RATE(new double[] {0.60, 0.85, 0.90, 0.95, 1.00});  // 乳酸阈值心率百分比（Friel跑步区间，1区取60%以上）
+
+    private final double[] lowerBoundRatios;
+
+    HeartRateZoneModel(double[] lowerBoundRatios) {
+        this.lowerBoundRatios = lowerBoundRatios;
+    }
+
+    /**
+     * 计算1到5区的心率下限（bpm），低于1区下限的心率计入0区
+     */
+    public int[] lowerBounds(AthleteProfile profile) {
+        int[] bounds = new int[lowerBoundRatios.length];
+        for (int i = 0; i < bounds.length; i++) {
+            double bound = switch (this) {
+                case MAX_HEART_RATE -> profile.getMaxHeartRate() * lowerBoundRatios[i];
+                case HEART_RATE_RESERVE -> profile.getRestingHeartRate()
+                        + (profile.getMaxHeartRate() - profile.getRestingHeartRate()) * lowerBoundRatios[i];
+                case THRESHOLD_HEART_RATE -> profile.getThresholdHeartRate() * lowerBoundRatios[i];
+            };
+            bounds[i] = (int) Math.round(bound);
+        }
+        return bounds;
+    }
+}
@@ -1,6 +1,8 @@
 package com.garmin.runner.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -22,7 +24,7 @@ public class ImportRecord {
     private LocalDateTime importTime;
 
     @Column(name = "status")
-    private String status; // 成功、失败、部分成功
+    private String status; // 排队中、处理中、成功、失败、部分成功
 
     @Column(name = "error_message")
     private String errorMessage;
@@ -30,6 +32,35 @@ public class ImportRecord {
     @Column(name = "activity_count")
     private Integer activityCount; // 导入的活动数量
 
+    @Column(name = "rows_parsed")
+    private Integer rowsParsed; // 已解析的行数
+
+    @Column(name = "rows_persisted")
+    private Integer rowsPersisted; // 已写入的行数
+
+    @Column(name = "rows_failed")
+    private Integer rowsFailed; // 写入失败的行数
+
+    @Column(name = "elapsed_ms")
+    private Long elapsedMs; // 处理耗时，单位：毫秒
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "duplicate_policy", length = 20)
+    private DuplicatePolicy duplicatePolicy; // 遇到已存在活动时的处理策略
+
+    @Column(name = "rows_inserted")
+    private Integer rowsInserted; // 新增的活动数
+
+    @Column(name = "rows_updated")
+    private Integer rowsUpdated; // 更新或替换的已有活动数
+
+    @Column(name = "rows_skipped")
+    private Integer rowsSkipped; // 因重复而跳过的行数
+
+    @Column(name = "parent_id")
+    private Long parentId; // 批量导入中单个文件的记录指向所属的批量导入记录
+
     @OneToMany(mappedBy = "importRecord", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Activity> activities;
 
@@ -55,6 +86,33 @@ public class ImportRecord {
     public Integer getActivityCount() { return activityCount; }
     public void setActivityCount(Integer activityCount) { this.activityCount = activityCount; }
     
+    public Integer getRowsParsed() { return rowsParsed; }
+    public void setRowsParsed(Integer rowsParsed) { this.rowsParsed = rowsParsed; }
+    
+    public Integer getRowsPersisted() { return rowsPersisted; }
+    public void setRowsPersisted(Integer rowsPersisted) { this.rowsPersisted = rowsPersisted; }
+    
+    public Integer getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(Integer rowsFailed) { this.rowsFailed = rowsFailed; }
+    
+    public Long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(Long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public DuplicatePolicy getDuplicatePolicy() { return duplicatePolicy; }
+    public void setDuplicatePolicy(DuplicatePolicy duplicatePolicy) { this.duplicatePolicy = duplicatePolicy; }
+
+    public Integer getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(Integer rowsInserted) { this.rowsInserted = rowsInserted; }
+
+    public Integer getRowsUpdated() { return rowsUpdated; }
+    public void setRowsUpdated(Integer rowsUpdated) { this.rowsUpdated = rowsUpdated; }
+
+    public Integer getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(Integer rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
+    
     public List<Activity> getActivities() { return activities; }
     public void setActivities(List<Activity> activities) { this.activities = activities; }
 }
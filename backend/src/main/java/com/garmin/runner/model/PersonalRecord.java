@@ -0,0 +1,89 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 当前的个人记录，每类一行，指向创造记录的那条最好成绩
+ * 保存采样数据时与新的最好成绩比较后增量更新，记录所在的活动被删除或覆盖时按索引重新取该类的最好成绩
+ */
+@Entity
+@Table(name = "personal_records")
+public class PersonalRecord {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "record_type", length = 32)
+    private PersonalRecordType recordType;
+
+    @Column(name = "best_effort_id")
+    private Long bestEffortId;
+
+    @Column(name = "activity_id")
+    private Long activityId;
+
+    @Column(name = "distance_meters")
+    private Double distanceMeters;
+
+    @Column(name = "elapsed_seconds")
+    private Double elapsedSeconds;
+
+    @Column(name = "start_offset_seconds")
+    private Double startOffsetSeconds;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public PersonalRecord() {
+    }
+
+    /**
+     * 以指定的最好成绩作为记录
+     */
+    public void apply(ActivityBestEffort effort) {
+        this.bestEffortId = effort.getId();
+        this.activityId = effort.getActivityId();
+        this.distanceMeters = effort.getDistanceMeters();
+        this.elapsedSeconds = effort.getElapsedSeconds();
+        this.startOffsetSeconds = effort.getStartOffsetSeconds();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 该类没有任何成绩时清空记录，记录行保留
+     */
+    public void clear() {
+        this.bestEffortId = null;
+        this.activityId = null;
+        this.distanceMeters = null;
+        this.elapsedSeconds = null;
+        this.startOffsetSeconds = null;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public PersonalRecordType getRecordType() { return recordType; }
+    public void setRecordType(PersonalRecordType recordType) { this.recordType = recordType; }
+
+    public Long getBestEffortId() { return bestEffortId; }
+    public void setBestEffortId(Long bestEffortId) { this.bestEffortId = bestEffortId; }
+
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public Double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(Double distanceMeters) { this.distanceMeters = distanceMeters; }
+
+    public Double getElapsedSeconds() { return elapsedSeconds; }
+    public void setElapsedSeconds(Double elapsedSeconds) { this.elapsedSeconds = elapsedSeconds; }
+
+    public Double getStartOffsetSeconds() { return startOffsetSeconds; }
+    public void setStartOffsetSeconds(Double startOffsetSeconds) { this.startOffsetSeconds = startOffsetSeconds; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,44 @@
+package com.garmin.runner.model;
+
+/**
+ * 个人记录的类型：各标准距离的最快用时，以及单次跑步的最长距离
+ */
+public enum PersonalRecordType {
+    FASTEST_1K(1000.0, "1公里"),
+    FASTEST_5K(5000.0, "5公里"),
+    FASTEST_10K(10000.0, "10公里"),
+    FASTEST_HALF_MARATHON(21097.5, "半程马拉松"),
+    FASTEST_MARATHON(42195.0, "全程马拉松"),
+    LONGEST_RUN(null, "最长距离");
+
+    private final Double distanceMeters;
+    private final String label;
+
+    PersonalRecordType(Double distanceMeters, String label) {
+        this.distanceMeters = distanceMeters;
+        this.label = label;
+    }
+
+    /**
+     * 标准距离，单位：米；最长距离记录为空
+     */
+    public Double getDistanceMeters() { return distanceMeters; }
+
+    public String getLabel() { return label; }
+
+    /**
+     * 是否为标准距离的最快用时，用时越短越好；否则距离越长越好
+     */
+    public boolean isFastest() { return distanceMeters != null; }
+
+    /**
+     * 成绩是否优于当前记录，记录为空时任何成绩都更好
+     */
+    public boolean isBetter(ActivityBestEffort effort, PersonalRecord record) {
+        if (record.getBestEffortId() == null) {
+            return true;
+        }
+        return isFastest() ? effort.getElapsedSeconds() < record.getElapsedSeconds()
+                : effort.getDistanceMeters() > record.getDistanceMeters();
+    }
+}
@@ -0,0 +1,29 @@
+package com.garmin.runner.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 统计汇总桶的维度
+ */
+public enum RollupBucketType {
+    DAY("yyyy-MM-dd"),      // 按天汇总
+    MONTH("yyyy-MM"),       // 按月汇总
+    ACTIVITY_TYPE(null);    // 按活动类型汇总，桶键为活动类型，未分类活动使用空字符串
+
+    private final DateTimeFormatter keyFormatter;
+
+    RollupBucketType(String keyPattern) {
+        this.keyFormatter = keyPattern != null ? DateTimeFormatter.ofPattern(keyPattern) : null;
+    }
+
+    /**
+     * 计算日期所在时间桶的桶键，桶键按字典序排列即为时间顺序
+     */
+    public String keyOf(LocalDate date) {
+        if (keyFormatter == null) {
+            throw new UnsupportedOperationException(name() + " 不是时间维度");
+        }
+        return date.format(keyFormatter);
+    }
+}
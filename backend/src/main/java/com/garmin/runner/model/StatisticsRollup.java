@@ -0,0 +1,84 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * 预聚合统计汇总行，随导入和活动增删增量维护
+ */
+@Entity
+@Table(name = "statistics_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket", columnNames = {"bucket_type", "bucket_key"}))
+public class StatisticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "bucket_type", nullable = false, length = 20)
+    private RollupBucketType bucketType;
+
+    @Column(name = "bucket_key", nullable = false, length = 100)
+    private String bucketKey;
+
+    @Column(name = "activity_count")
+    private Long activityCount = 0L;
+
+    @Column(name = "total_distance")
+    private Double totalDistance = 0.0; // 单位：米
+
+    @Column(name = "total_duration")
+    private Long totalDuration = 0L; // 单位：秒
+
+    @Column(name = "total_calories")
+    private Long totalCalories = 0L;
+
+    @Column(name = "heart_rate_sum")
+    private Long heartRateSum = 0L; // 平均心率之和，用于计算平均值
+
+    @Column(name = "heart_rate_count")
+    private Long heartRateCount = 0L; // 有心率数据的活动数
+
+    @Column(name = "pace_sum")
+    private Double paceSum = 0.0; // 平均配速之和，用于计算平均值
+
+    @Column(name = "pace_count")
+    private Long paceCount = 0L; // 有配速数据的活动数
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RollupBucketType getBucketType() { return bucketType; }
+    public void setBucketType(RollupBucketType bucketType) { this.bucketType = bucketType; }
+
+    public String getBucketKey() { return bucketKey; }
+    public void setBucketKey(String bucketKey) { this.bucketKey = bucketKey; }
+
+    public Long getActivityCount() { return activityCount; }
+    public void setActivityCount(Long activityCount) { this.activityCount = activityCount; }
+
+    public Double getTotalDistance() { return totalDistance; }
+    public void setTotalDistance(Double totalDistance) { this.totalDistance = totalDistance; }
+
+    public Long getTotalDuration() { return totalDuration; }
+    public void setTotalDuration(Long totalDuration) { this.totalDuration = totalDuration; }
+
+    public Long getTotalCalories() { return totalCalories; }
+    public void setTotalCalories(Long totalCalories) { this.totalCalories = totalCalories; }
+
+    public Long getHeartRateSum() { return heartRateSum; }
+    public void setHeartRateSum(Long heartRateSum) { this.heartRateSum = heartRateSum; }
+
+    public Long getHeartRateCount() { return heartRateCount; }
+    public void setHeartRateCount(Long heartRateCount) { this.heartRateCount = heartRateCount; }
+
+    public Double getPaceSum() { return paceSum; }
+    public void setPaceSum(Double paceSum) { this.paceSum = paceSum; }
+
+    public Long getPaceCount() { return paceCount; }
+    public void setPaceCount(Long paceCount) { this.paceCount = paceCount; }
+}
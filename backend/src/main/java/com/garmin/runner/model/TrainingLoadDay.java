@@ -0,0 +1,66 @@
+package com.garmin.runner.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * 一天的训练负荷：当天各活动TRIMP之和，以及当天结束时的急性负荷（ATL）和慢性负荷（CTL），见TrainingLoad
+ * 从第一个有活动的日期起每天一行（没有活动的日期负荷为0），导入或删除活动时只重新计算受影响日期之后的行
+ */
+@Entity
+@Table(name = "training_load_days")
+public class TrainingLoadDay {
+
+    @Id
+    @Column(name = "load_date")
+    private LocalDate loadDate;
+
+    @Column(name = "activity_count", nullable = false)
+    private Integer activityCount;
+
+    @Column(name = "training_load", nullable = false)
+    private Double trainingLoad; // 当天TRIMP之和
+
+    @Column(name = "acute_load", nullable = false)
+    private Double acuteLoad;
+
+    @Column(name = "chronic_load", nullable = false)
+    private Double chronicLoad;
+
+    // 计算时运动员资料的zoneVersion，最大心率或静息心率变化后需重新计算
+    @Column(name = "hr_zone_version", nullable = false)
+    private Integer hrZoneVersion;
+
+    public TrainingLoadDay() {
+    }
+
+    public TrainingLoadDay(LocalDate loadDate, int activityCount, double trainingLoad, double acuteLoad,
+                           double chronicLoad, int hrZoneVersion) {
+        this.loadDate = loadDate;
+        this.activityCount = activityCount;
+        this.trainingLoad = trainingLoad;
+        this.acuteLoad = acuteLoad;
+        this.chronicLoad = chronicLoad;
+        this.hrZoneVersion = hrZoneVersion;
+    }
+
+    // Getters and Setters
+    public LocalDate getLoadDate() { return loadDate; }
+    public void setLoadDate(LocalDate loadDate) { this.loadDate = loadDate; }
+
+    public Integer getActivityCount() { return activityCount; }
+    public void setActivityCount(Integer activityCount) { this.activityCount = activityCount; }
+
+    public Double getTrainingLoad() { return trainingLoad; }
+    public void setTrainingLoad(Double trainingLoad) { this.trainingLoad = trainingLoad; }
+
+    public Double getAcuteLoad() { return acuteLoad; }
+    public void setAcuteLoad(Double acuteLoad) { this.acuteLoad = acuteLoad; }
+
+    public Double getChronicLoad() { return chronicLoad; }
+    public void setChronicLoad(Double chronicLoad) { this.chronicLoad = chronicLoad; }
+
+    public Integer getHrZoneVersion() { return hrZoneVersion; }
+    public void setHrZoneVersion(Integer hrZoneVersion) { this.hrZoneVersion = hrZoneVersion; }
+}
@@ -0,0 +1,50 @@
+package com.garmin.runner.parser;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 支持的活动轨迹文件格式
+ */
+public enum ActivityFileFormat {
+    FIT(".fit"),
+    TCX(".tcx"),
+    GPX(".gpx");
+
+    private final String extension;
+
+    ActivityFileFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 根据文件扩展名识别格式
+     */
+    public static Optional<ActivityFileFormat> fromFileName(String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        String lowerName = fileName.toLowerCase(Locale.ROOT);
+        for (ActivityFileFormat format : values()) {
+            if (lowerName.endsWith(format.extension)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 创建该格式的解析器，解析器不保存跨文件的状态
+     */
+    public ActivityFileParser newParser() {
+        return switch (this) {
+            case FIT -> new FitParser();
+            case TCX -> new TcxParser();
+            case GPX -> new GpxParser();
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.garmin.runner.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 活动轨迹文件解析器，以流式方式读取文件并将采样点逐个交给回调
+ */
+public interface ActivityFileParser {
+
+    /**
+     * 解析文件，调用方负责关闭输入流
+     * @param inputStream 文件内容
+     * @param handler 采样点回调
+     */
+    void parse(InputStream inputStream, TrackPointHandler handler) throws IOException;
+}
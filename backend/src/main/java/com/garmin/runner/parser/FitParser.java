@@ -0,0 +1,232 @@
+package com.garmin.runner.parser;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.garmin.runner.parser.FitProfile.*;
+
+/**
+ * FIT二进制活动文件解析器
+ * 按记录头逐条读取定义消息和数据消息，只解码record、session和sport消息中用到的字段，
+ * 每条数据消息读入一个可复用的缓冲区，解析过程中不为采样点创建对象。
+ */
+public class FitParser implements ActivityFileParser {
+
+    private static final int MAX_LOCAL_MESSAGES = 16;
+
+    /**
+     * 本地消息类型对应的字段布局
+     */
+    private static final class Definition {
+        int globalNumber;
+        boolean bigEndian;
+        // 按字段号索引的偏移和长度，字段不存在时偏移为-1
+        final int[] fieldOffsets = new int[256];
+        final int[] fieldSizes = new int[256];
+        int messageSize;
+        int developerSize;
+
+        Definition() {
+            Arrays.fill(fieldOffsets, -1);
+        }
+
+        int offsetOf(int fieldNumber, int expectedSize) {
+            return fieldSizes[fieldNumber] == expectedSize ? fieldOffsets[fieldNumber] : -1;
+        }
+    }
+
+    @Override
+    public void parse(InputStream inputStream, TrackPointHandler handler) throws IOException {
+        InputStream in = inputStream instanceof BufferedInputStream ? inputStream : new BufferedInputStream(inputStream, 16384);
+
+        int headerSize = readByte(in);
+        if (headerSize < 12) {
+            throw new IOException("无效的FIT文件头");
+        }
+        byte[] header = in.readNBytes(headerSize - 1);
+        if (header.length != headerSize - 1
+                || !".FIT".equals(new String(header, 7, 4, StandardCharsets.US_ASCII))) {
+            throw new IOException("不是有效的FIT文件");
+        }
+        long remaining = readUnsigned(header, 3, 4, false);
+
+        Definition[] definitions = new Definition[MAX_LOCAL_MESSAGES];
+        byte[] buffer = new byte[256];
+        long lastTimestamp = 0;
+
+        while (remaining > 0) {
+            int recordHeader = readByte(in);
+            remaining--;
+
+            if ((recordHeader & 0x40) != 0 && (recordHeader & 0x80) == 0) {
+                Definition definition = new Definition();
+                boolean hasDeveloperFields = (recordHeader & 0x20) != 0;
+                byte[] fixed = readFully(in, 5);
+                definition.bigEndian = fixed[1] == 1;
+                definition.globalNumber = (int) readUnsigned(fixed, 2, 2, definition.bigEndian);
+                int fieldCount = fixed[4] & 0xFF;
+                byte[] fields = readFully(in, fieldCount * 3);
+                int offset = 0;
+                for (int i = 0; i < fieldCount; i++) {
+                    int fieldNumber = fields[i * 3] & 0xFF;
+                    int fieldSize = fields[i * 3 + 1] & 0xFF;
+                    definition.fieldOffsets[fieldNumber] = offset;
+                    definition.fieldSizes[fieldNumber] = fieldSize;
+                    offset += fieldSize;
+                }
+                definition.messageSize = offset;
+                remaining -= 5 + fieldCount * 3L;
+
+                if (hasDeveloperFields) {
+                    int developerCount = readByte(in);
+                    byte[] developerFields = readFully(in, developerCount * 3);
+                    for (int i = 0; i < developerCount; i++) {
+                        definition.developerSize += developerFields[i * 3 + 1] & 0xFF;
+                    }
+                    remaining -= 1 + developerCount * 3L;
+                }
+                definitions[recordHeader & 0x0F] = definition;
+                continue;
+            }
+
+            // 压缩时间戳记录头：低5位为相对上一个完整时间戳的偏移
+            boolean compressed = (recordHeader & 0x80) != 0;
+            int localType = compressed ? (recordHeader >> 5) & 0x03 : recordHeader & 0x0F;
+            Definition definition = definitions[localType];
+            if (definition == null) {
+                throw new IOException("数据消息缺少定义: 本地消息类型 " + localType);
+            }
+
+            int size = definition.messageSize + definition.developerSize;
+            if (buffer.length < size) {
+                buffer = new byte[size];
+            }
+            if (in.readNBytes(buffer, 0, size) != size) {
+                throw new EOFException("FIT文件意外结束");
+            }
+            remaining -= size;
+
+            if (compressed) {
+                int timeOffset = recordHeader & 0x1F;
+                long timestamp = (lastTimestamp & ~0x1FL) + timeOffset;
+                if (timeOffset < (lastTimestamp & 0x1F)) {
+                    timestamp += 0x20;
+                }
+                lastTimestamp = timestamp;
+            } else {
+                int timestampOffset = definition.offsetOf(FIELD_TIMESTAMP, 4);
+                if (timestampOffset >= 0) {
+                    long timestamp = readUnsigned(buffer, timestampOffset, 4, definition.bigEndian);
+                    if (timestamp != INVALID_UINT32) {
+                        lastTimestamp = timestamp;
+                    }
+                }
+            }
+
+            switch (definition.globalNumber) {
+                case MESG_RECORD -> handleRecord(definition, buffer, lastTimestamp, handler);
+                case MESG_SESSION -> handleSession(definition, buffer, handler);
+                case MESG_SPORT -> {
+                    long sport = field(definition, buffer, SPORT_SPORT, 1, INVALID_UINT8);
+                    if (sport >= 0) {
+                        handler.onSport(SPORT_NAMES.getOrDefault((int) sport, "generic"));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void handleRecord(Definition definition, byte[] buffer, long timestamp, TrackPointHandler handler) {
+        long rawLatitude = signedField(definition, buffer, RECORD_POSITION_LAT);
+        long rawLongitude = signedField(definition, buffer, RECORD_POSITION_LONG);
+        double latitude = rawLatitude == INVALID_SINT32 ? Double.NaN : rawLatitude * SEMICIRCLES_TO_DEGREES;
+        double longitude = rawLongitude == INVALID_SINT32 ? Double.NaN : rawLongitude * SEMICIRCLES_TO_DEGREES;
+
+        // 海拔：scale 5, offset 500，优先使用enhanced字段
+        double elevation = Double.NaN;
+        long altitude = field(definition, buffer, RECORD_ENHANCED_ALTITUDE, 4, INVALID_UINT32);
+        if (altitude < 0) {
+            altitude = field(definition, buffer, RECORD_ALTITUDE, 2, INVALID_UINT16);
+        }
+        if (altitude >= 0) {
+            elevation = altitude / 5.0 - 500;
+        }
+
+        long heartRate = field(definition, buffer, RECORD_HEART_RATE, 1, INVALID_UINT8);
+        long distance = field(definition, buffer, RECORD_DISTANCE, 4, INVALID_UINT32);
+        long speed = field(definition, buffer, RECORD_ENHANCED_SPEED, 4, INVALID_UINT32);
+        if (speed < 0) {
+            speed = field(definition, buffer, RECORD_SPEED, 2, INVALID_UINT16);
+        }
+
+        handler.onTrackPoint((timestamp + EPOCH_OFFSET_SECONDS) * 1000, latitude, longitude, elevation,
+                heartRate < 0 ? 0 : (int) heartRate,
+                distance < 0 ? Double.NaN : distance / 100.0,
+                speed < 0 ? Double.NaN : speed / 1000.0);
+    }
+
+    private void handleSession(Definition definition, byte[] buffer, TrackPointHandler handler) {
+        long sport = field(definition, buffer, SESSION_SPORT, 1, INVALID_UINT8);
+        if (sport >= 0) {
+            handler.onSport(SPORT_NAMES.getOrDefault((int) sport, "generic"));
+        }
+        long calories = field(definition, buffer, SESSION_TOTAL_CALORIES, 2, INVALID_UINT16);
+        if (calories >= 0) {
+            handler.onCalories((int) calories);
+        }
+    }
+
+    /**
+     * 读取无符号字段，字段不存在或为无效值时返回-1
+     */
+    private static long field(Definition definition, byte[] buffer, int fieldNumber, int size, long invalid) {
+        int offset = definition.offsetOf(fieldNumber, size);
+        if (offset < 0) {
+            return -1;
+        }
+        long value = readUnsigned(buffer, offset, size, definition.bigEndian);
+        return value == invalid ? -1 : value;
+    }
+
+    /**
+     * 读取sint32字段，字段不存在时返回无效值
+     */
+    private static long signedField(Definition definition, byte[] buffer, int fieldNumber) {
+        int offset = definition.offsetOf(fieldNumber, 4);
+        if (offset < 0) {
+            return INVALID_SINT32;
+        }
+        return (int) readUnsigned(buffer, offset, 4, definition.bigEndian);
+    }
+
+    private static long readUnsigned(byte[] buffer, int offset, int size, boolean bigEndian) {
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            int b = buffer[offset + (bigEndian ? i : size - 1 - i)] & 0xFF;
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("FIT文件意外结束");
+        }
+        return b;
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("FIT文件意外结束");
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,87 @@
+package com.garmin.runner.parser;
+
+import java.util.Map;
+
+/**
+ * FIT协议中用到的消息号、字段号、无效值和运动类型编码（参见FIT SDK Profile）
+ */
+final class FitProfile {
+
+    // FIT时间戳以1989-12-31T00:00:00Z为起点，单位秒
+    static final long EPOCH_OFFSET_SECONDS = 631065600L;
+
+    static final int MESG_FILE_ID = 0;
+    static final int MESG_SPORT = 12;
+    static final int MESG_SESSION = 18;
+    static final int MESG_RECORD = 20;
+
+    static final int FIELD_TIMESTAMP = 253;
+
+    static final int FILE_ID_TYPE = 0;
+    static final int FILE_ID_TIME_CREATED = 4;
+
+    static final int RECORD_POSITION_LAT = 0;
+    static final int RECORD_POSITION_LONG = 1;
+    static final int RECORD_ALTITUDE = 2;
+    static final int RECORD_HEART_RATE = 3;
+    static final int RECORD_DISTANCE = 5;
+    static final int RECORD_SPEED = 6;
+    static final int RECORD_ENHANCED_SPEED = 73;
+    static final int RECORD_ENHANCED_ALTITUDE = 78;
+
+    static final int SPORT_SPORT = 0;
+    static final int SESSION_SPORT = 5;
+    static final int SESSION_TOTAL_ELAPSED_TIME = 7;
+    static final int SESSION_TOTAL_DISTANCE = 9;
+    static final int SESSION_TOTAL_CALORIES = 11;
+
+    static final int BASE_TYPE_ENUM = 0x00;
+    static final int BASE_TYPE_UINT8 = 0x02;
+    static final int BASE_TYPE_UINT16 = 0x84;
+    static final int BASE_TYPE_SINT32 = 0x85;
+    static final int BASE_TYPE_UINT32 = 0x86;
+
+    static final long INVALID_UINT8 = 0xFFL;
+    static final long INVALID_UINT16 = 0xFFFFL;
+    static final long INVALID_SINT32 = 0x7FFFFFFFL;
+    static final long INVALID_UINT32 = 0xFFFFFFFFL;
+
+    // 半圆单位换算为角度
+    static final double SEMICIRCLES_TO_DEGREES = 180.0 / (1L << 31);
+
+    static final Map<Integer, String> SPORT_NAMES = Map.of(
+            0, "generic",
+            1, "running",
+            2, "cycling",
+            5, "swimming",
+            11, "walking",
+            17, "hiking");
+
+    static final Map<String, Integer> SPORT_CODES = Map.of(
+            "generic", 0,
+            "running", 1,
+            "cycling", 2,
+            "swimming", 5,
+            "walking", 11,
+            "hiking", 17);
+
+    private static final int[] CRC_TABLE = {
+            0x0000, 0xCC01, 0xD801, 0x1400, 0xF001, 0x3C00, 0x2800, 0xE401,
+            0xA001, 0x6C00, 0x7800, 0xB401, 0x5000, 0x9C01, 0x8801, 0x4400
+    };
+
+    private FitProfile() {
+    }
+
+    /**
+     * FIT文件使用的CRC-16
+     */
+    static int crc(int crc, int value) {
+        int tmp = CRC_TABLE[crc & 0xF];
+        crc = (crc >> 4) & 0x0FFF;
+        crc = crc ^ tmp ^ CRC_TABLE[value & 0xF];
+        tmp = CRC_TABLE[crc & 0xF];
+        crc = (crc >> 4) & 0x0FFF;
+        return crc ^ tmp ^ CRC_TABLE[(value >> 4) & 0xF];
+    }
+}
@@ -0,0 +1,137 @@
+package com.garmin.runner.parser;
+
+import com.garmin.runner.util.TrackData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+import static com.garmin.runner.parser.FitProfile.*;
+
+/**
+ * 将采样数据写成最小可用的FIT活动文件（file_id、record、session消息），用于生成测试数据
+ */
+public final class FitWriter {
+
+    private static final int LOCAL_FILE_ID = 0;
+    private static final int LOCAL_RECORD = 1;
+    private static final int LOCAL_SESSION = 2;
+
+    private FitWriter() {
+    }
+
+    /**
+     * 写出FIT文件
+     * @param out 输出流，调用方负责关闭
+     * @param startTime 活动开始时间，采样时间戳为相对该时间的秒数
+     * @param sport 运动类型（running、cycling等，未知时写generic）
+     * @param track 采样数据
+     * @param calories 卡路里，可为null
+     */
+    public static void write(OutputStream out, Instant startTime, String sport, TrackData track, Integer calories)
+            throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(64 + track.size() * 24);
+        long startTimestamp = startTime.getEpochSecond() - EPOCH_OFFSET_SECONDS;
+
+        writeDefinition(data, LOCAL_FILE_ID, MESG_FILE_ID, new int[][]{
+                {FILE_ID_TYPE, 1, BASE_TYPE_ENUM},
+                {FILE_ID_TIME_CREATED, 4, BASE_TYPE_UINT32}});
+        data.write(LOCAL_FILE_ID);
+        data.write(4); // 文件类型：activity
+        writeInt(data, startTimestamp, 4);
+
+        writeDefinition(data, LOCAL_RECORD, MESG_RECORD, new int[][]{
+                {FIELD_TIMESTAMP, 4, BASE_TYPE_UINT32},
+                {RECORD_POSITION_LAT, 4, BASE_TYPE_SINT32},
+                {RECORD_POSITION_LONG, 4, BASE_TYPE_SINT32},
+                {RECORD_ALTITUDE, 2, BASE_TYPE_UINT16},
+                {RECORD_HEART_RATE, 1, BASE_TYPE_UINT8},
+                {RECORD_DISTANCE, 4, BASE_TYPE_UINT32}});
+        for (int i = 0; i < track.size(); i++) {
+            data.write(LOCAL_RECORD);
+            writeInt(data, startTimestamp + track.getTimestamp(i), 4);
+            writeInt(data, toSemicircles(track.getLatitude(i)), 4);
+            writeInt(data, toSemicircles(track.getLongitude(i)), 4);
+            double elevation = track.getElevation(i);
+            writeInt(data, Double.isNaN(elevation) ? INVALID_UINT16 : Math.round((elevation + 500) * 5), 2);
+            int heartRate = track.getHeartRate(i);
+            data.write(heartRate > 0 ? Math.min(heartRate, 254) : (int) INVALID_UINT8);
+            double distance = track.getDistance(i);
+            writeInt(data, Double.isNaN(distance) ? INVALID_UINT32 : Math.round(distance * 100), 4);
+        }
+
+        long elapsed = track.isEmpty() ? 0 : track.getTimestamp(track.size() - 1) - track.getTimestamp(0);
+        double totalDistance = track.isEmpty() ? Double.NaN : track.getDistance(track.size() - 1);
+        writeDefinition(data, LOCAL_SESSION, MESG_SESSION, new int[][]{
+                {FIELD_TIMESTAMP, 4, BASE_TYPE_UINT32},
+                {SESSION_SPORT, 1, BASE_TYPE_ENUM},
+                {SESSION_TOTAL_ELAPSED_TIME, 4, BASE_TYPE_UINT32},
+                {SESSION_TOTAL_DISTANCE, 4, BASE_TYPE_UINT32},
+                {SESSION_TOTAL_CALORIES, 2, BASE_TYPE_UINT16}});
+        data.write(LOCAL_SESSION);
+        writeInt(data, startTimestamp + elapsed, 4);
+        data.write(SPORT_CODES.getOrDefault(sport, 0));
+        writeInt(data, elapsed * 1000, 4);
+        writeInt(data, Double.isNaN(totalDistance) ? INVALID_UINT32 : Math.round(totalDistance * 100), 4);
+        writeInt(data, calories != null ? calories : INVALID_UINT16, 2);
+
+        byte[] header = new byte[14];
+        header[0] = 14;
+        header[1] = 0x20; // 协议版本2.0
+        header[2] = (byte) 2132;
+        header[3] = (byte) (2132 >> 8);
+        long dataSize = data.size();
+        for (int i = 0; i < 4; i++) {
+            header[4 + i] = (byte) (dataSize >> (8 * i));
+        }
+        header[8] = '.';
+        header[9] = 'F';
+        header[10] = 'I';
+        header[11] = 'T';
+        int headerCrc = 0;
+        for (int i = 0; i < 12; i++) {
+            headerCrc = crc(headerCrc, header[i] & 0xFF);
+        }
+        header[12] = (byte) headerCrc;
+        header[13] = (byte) (headerCrc >> 8);
+
+        byte[] body = data.toByteArray();
+        int fileCrc = 0;
+        for (byte b : header) {
+            fileCrc = crc(fileCrc, b & 0xFF);
+        }
+        for (byte b : body) {
+            fileCrc = crc(fileCrc, b & 0xFF);
+        }
+
+        out.write(header);
+        out.write(body);
+        out.write(fileCrc & 0xFF);
+        out.write((fileCrc >> 8) & 0xFF);
+    }
+
+    private static void writeDefinition(ByteArrayOutputStream data, int localType, int globalNumber, int[][] fields) {
+        data.write(0x40 | localType);
+        data.write(0); // 保留字节
+        data.write(0); // 小端
+        data.write(globalNumber & 0xFF);
+        data.write((globalNumber >> 8) & 0xFF);
+        data.write(fields.length);
+        for (int[] field : fields) {
+            data.write(field[0]);
+            data.write(field[1]);
+            data.write(field[2]);
+        }
+    }
+
+    private static long toSemicircles(double degrees) {
+        return Double.isNaN(degrees) ? INVALID_SINT32 : Math.round(degrees / SEMICIRCLES_TO_DEGREES);
+    }
+
+    private static void writeInt(ByteArrayOutputStream data, long value, int size) {
+        for (int i = 0; i < size; i++) {
+            data.write((int) (value >> (8 * i)) & 0xFF);
+        }
+    }
+}
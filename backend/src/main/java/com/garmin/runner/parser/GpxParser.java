@@ -0,0 +1,77 @@
+package com.garmin.runner.parser;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * GPX 1.1轨迹解析器，读取trkpt的经纬度、海拔、时间以及Garmin TrackPointExtension中的心率
+ */
+public class GpxParser extends XmlTrackParser {
+
+    @Override
+    protected void parse(XMLStreamReader reader, TrackPointHandler handler) throws XMLStreamException {
+        boolean inTrack = false;
+        boolean inPoint = false;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double elevation = Double.NaN;
+        long time = Long.MIN_VALUE;
+        int heartRate = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "trk" -> inTrack = true;
+                    case "trkpt" -> {
+                        inPoint = true;
+                        latitude = parseDouble(reader.getAttributeValue(null, "lat"));
+                        longitude = parseDouble(reader.getAttributeValue(null, "lon"));
+                        elevation = Double.NaN;
+                        time = Long.MIN_VALUE;
+                        heartRate = 0;
+                    }
+                    case "ele" -> {
+                        if (inPoint) {
+                            elevation = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "time" -> {
+                        if (inPoint) {
+                            time = parseEpochMillis(reader.getElementText());
+                        }
+                    }
+                    case "hr" -> {
+                        if (inPoint) {
+                            heartRate = parseInt(reader.getElementText());
+                        }
+                    }
+                    case "name" -> {
+                        if (inTrack && !inPoint) {
+                            handler.onActivityName(reader.getElementText().trim());
+                        }
+                    }
+                    case "type" -> {
+                        if (inTrack && !inPoint) {
+                            handler.onSport(reader.getElementText().trim());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("trkpt".equals(name)) {
+                    // 没有时间的点无法放入时间序列，直接跳过
+                    if (time != Long.MIN_VALUE) {
+                        handler.onTrackPoint(time, latitude, longitude, elevation, heartRate, Double.NaN, Double.NaN);
+                    }
+                    inPoint = false;
+                } else if ("trk".equals(name)) {
+                    inTrack = false;
+                }
+            }
+        }
+    }
+}
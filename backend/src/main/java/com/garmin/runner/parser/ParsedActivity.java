@@ -0,0 +1,65 @@
+package com.garmin.runner.parser;
+
+import com.garmin.runner.util.TrackData;
+
+import java.time.LocalDateTime;
+
+/**
+ * 从轨迹文件一次遍历得到的活动摘要和采样数据
+ */
+public class ParsedActivity {
+
+    private String activityName;
+    private String activityType;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long duration;          // 单位：秒
+    private double distance;        // 单位：米
+    private Integer calories;
+    private Integer averageHeartRate;
+    private Integer maxHeartRate;
+    private Double averagePace;     // 单位：分钟/公里
+    private double elevationGain;   // 累计爬升，单位：米
+    private String garminActivityId; // 佳明活动ID，文件中没有时为null
+    private TrackData track;
+
+    // Getters and Setters
+    public String getActivityName() { return activityName; }
+    public void setActivityName(String activityName) { this.activityName = activityName; }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public long getDuration() { return duration; }
+    public void setDuration(long duration) { this.duration = duration; }
+
+    public double getDistance() { return distance; }
+    public void setDistance(double distance) { this.distance = distance; }
+
+    public Integer getCalories() { return calories; }
+    public void setCalories(Integer calories) { this.calories = calories; }
+
+    public Integer getAverageHeartRate() { return averageHeartRate; }
+    public void setAverageHeartRate(Integer averageHeartRate) { this.averageHeartRate = averageHeartRate; }
+
+    public Integer getMaxHeartRate() { return maxHeartRate; }
+    public void setMaxHeartRate(Integer maxHeartRate) { this.maxHeartRate = maxHeartRate; }
+
+    public Double getAveragePace() { return averagePace; }
+    public void setAveragePace(Double averagePace) { this.averagePace = averagePace; }
+
+    public double getElevationGain() { return elevationGain; }
+    public void setElevationGain(double elevationGain) { this.elevationGain = elevationGain; }
+
+    public String getGarminActivityId() { return garminActivityId; }
+    public void setGarminActivityId(String garminActivityId) { this.garminActivityId = garminActivityId; }
+
+    public TrackData getTrack() { return track; }
+    public void setTrack(TrackData track) { this.track = track; }
+}
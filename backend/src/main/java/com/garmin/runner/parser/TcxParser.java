@@ -0,0 +1,102 @@
+package com.garmin.runner.parser;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Garmin TCX轨迹解析器，读取Activity的运动类型、Lap的卡路里和Trackpoint的采样数据
+ */
+public class TcxParser extends XmlTrackParser {
+
+    @Override
+    protected void parse(XMLStreamReader reader, TrackPointHandler handler) throws XMLStreamException {
+        boolean inPoint = false;
+        boolean inHeartRate = false;
+        long time = Long.MIN_VALUE;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double elevation = Double.NaN;
+        double distance = Double.NaN;
+        double speed = Double.NaN;
+        int heartRate = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "Activity" -> {
+                        String sport = reader.getAttributeValue(null, "Sport");
+                        if (sport != null) {
+                            handler.onSport(sport);
+                        }
+                    }
+                    case "Trackpoint" -> {
+                        inPoint = true;
+                        time = Long.MIN_VALUE;
+                        latitude = Double.NaN;
+                        longitude = Double.NaN;
+                        elevation = Double.NaN;
+                        distance = Double.NaN;
+                        speed = Double.NaN;
+                        heartRate = 0;
+                    }
+                    case "Time" -> {
+                        if (inPoint) {
+                            time = parseEpochMillis(reader.getElementText());
+                        }
+                    }
+                    case "LatitudeDegrees" -> {
+                        if (inPoint) {
+                            latitude = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "LongitudeDegrees" -> {
+                        if (inPoint) {
+                            longitude = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "AltitudeMeters" -> {
+                        if (inPoint) {
+                            elevation = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "DistanceMeters" -> {
+                        // Lap上也有DistanceMeters，只取采样点内的累计距离
+                        if (inPoint) {
+                            distance = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "HeartRateBpm" -> inHeartRate = inPoint;
+                    case "Value" -> {
+                        if (inHeartRate) {
+                            heartRate = parseInt(reader.getElementText());
+                        }
+                    }
+                    case "Speed" -> {
+                        if (inPoint) {
+                            speed = parseDouble(reader.getElementText());
+                        }
+                    }
+                    case "Calories" -> {
+                        if (!inPoint) {
+                            handler.onCalories(parseInt(reader.getElementText()));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("Trackpoint".equals(name)) {
+                    if (time != Long.MIN_VALUE) {
+                        handler.onTrackPoint(time, latitude, longitude, elevation, heartRate, distance, speed);
+                    }
+                    inPoint = false;
+                } else if ("HeartRateBpm".equals(name)) {
+                    inHeartRate = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.garmin.runner.parser;
+
+import com.garmin.runner.util.TrackData;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 在解析的同一遍中收集采样点并累计活动摘要（时长、距离、心率、配速、爬升）
+ * 采样点直接写入列式的TrackData，内存占用只与采样数成正比，不保留XML或FIT消息对象
+ */
+public class TrackAccumulator implements TrackPointHandler {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    // 文件中的运动类型到系统活动类型的映射
+    private static final Map<String, String> ACTIVITY_TYPES = Map.of(
+            "running", "跑步",
+            "run", "跑步",
+            "cycling", "骑行",
+            "biking", "骑行",
+            "swimming", "游泳",
+            "hiking", "徒步",
+            "walking", "步行",
+            "generic", "其他");
+
+    private final TrackData track = new TrackData();
+    private final ZoneId zone;
+
+    private String activityName;
+    private String sport;
+    private int calories;
+    private boolean hasCalories;
+
+    private long firstMillis;
+    private long lastMillis;
+    private double distance;
+    private boolean hasDistance;
+    private double lastLatitude = Double.NaN;
+    private double lastLongitude = Double.NaN;
+    private double lastElevation = Double.NaN;
+    private double elevationGain;
+    private long previousMillis;
+    private double previousDistance;
+    private long heartRateSum;
+    private int heartRateCount;
+    private int maxHeartRate;
+
+    public TrackAccumulator() {
+        this(ZoneId.systemDefault());
+    }
+
+    public TrackAccumulator(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    @Override
+    public void onActivityName(String name) {
+        if (name != null && !name.isEmpty()) {
+            activityName = name;
+        }
+    }
+
+    @Override
+    public void onSport(String sport) {
+        if (sport != null && !sport.isEmpty()) {
+            this.sport = sport;
+        }
+    }
+
+    @Override
+    public void onCalories(int calories) {
+        this.calories += calories;
+        hasCalories = true;
+    }
+
+    @Override
+    public void onTrackPoint(long epochMillis, double latitude, double longitude, double elevation,
+                             int heartRate, double pointDistance, double speed) {
+        if (track.isEmpty()) {
+            firstMillis = epochMillis;
+            previousMillis = epochMillis;
+        }
+        lastMillis = Math.max(lastMillis, epochMillis);
+
+        // 文件提供累计距离时直接使用，否则按相邻坐标的球面距离累加
+        boolean hasPosition = !Double.isNaN(latitude) && !Double.isNaN(longitude);
+        if (!Double.isNaN(pointDistance)) {
+            distance = pointDistance;
+            hasDistance = true;
+        } else if (hasPosition && !Double.isNaN(lastLatitude)) {
+            distance += haversine(lastLatitude, lastLongitude, latitude, longitude);
+            hasDistance = true;
+        }
+        if (hasPosition) {
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+        }
+
+        if (!Double.isNaN(elevation)) {
+            if (!Double.isNaN(lastElevation) && elevation > lastElevation) {
+                elevationGain += elevation - lastElevation;
+            }
+            lastElevation = elevation;
+        }
+
+        if (heartRate > 0) {
+            heartRateSum += heartRate;
+            heartRateCount++;
+            maxHeartRate = Math.max(maxHeartRate, heartRate);
+        }
+
+        // 瞬时配速：优先使用设备记录的速度，否则由相邻采样的距离差和时间差计算
+        double pace = Double.NaN;
+        if (!Double.isNaN(speed) && speed > 0) {
+            pace = 1000 / speed / 60;
+        } else if (epochMillis > previousMillis && distance > previousDistance) {
+            pace = ((epochMillis - previousMillis) / 60000.0) / ((distance - previousDistance) / 1000);
+        }
+        previousMillis = epochMillis;
+        previousDistance = distance;
+
+        track.add((epochMillis - firstMillis) / 1000, latitude, longitude, elevation, heartRate, pace,
+                hasDistance ? distance : Double.NaN);
+    }
+
+    /**
+     * 结束解析，返回活动摘要和采样数据；没有任何采样点时返回null
+     */
+    public ParsedActivity finish() {
+        if (track.isEmpty()) {
+            return null;
+        }
+        ParsedActivity activity = new ParsedActivity();
+        activity.setActivityName(activityName);
+        activity.setActivityType(toActivityType(sport));
+        activity.setStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(firstMillis), zone));
+        activity.setEndTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastMillis), zone));
+        activity.setDuration((lastMillis - firstMillis) / 1000);
+        activity.setDistance(distance);
+        activity.setCalories(hasCalories ? calories : null);
+        if (heartRateCount > 0) {
+            activity.setAverageHeartRate((int) Math.round((double) heartRateSum / heartRateCount));
+            activity.setMaxHeartRate(maxHeartRate);
+        }
+        if (distance > 0 && activity.getDuration() > 0) {
+            activity.setAveragePace((activity.getDuration() / 60.0) / (distance / 1000));
+        }
+        activity.setElevationGain(elevationGain);
+        activity.setTrack(track);
+        return activity;
+    }
+
+    private static String toActivityType(String sport) {
+        if (sport == null) {
+            return "其他";
+        }
+        return ACTIVITY_TYPES.getOrDefault(sport.toLowerCase(Locale.ROOT), sport);
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+    }
+}
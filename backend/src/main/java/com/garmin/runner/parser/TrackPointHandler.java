@@ -0,0 +1,38 @@
+package com.garmin.runner.parser;
+
+/**
+ * 轨迹文件解析回调，解析器每读到一个采样点就回调一次，不在内存中保留文档结构
+ */
+public interface TrackPointHandler {
+
+    /**
+     * 活动名称
+     */
+    default void onActivityName(String name) {
+    }
+
+    /**
+     * 运动类型（文件中的原始取值，如running、Running、cycling）
+     */
+    default void onSport(String sport) {
+    }
+
+    /**
+     * 卡路里，多圈或多段时会回调多次
+     */
+    default void onCalories(int calories) {
+    }
+
+    /**
+     * 一个采样点，缺失的浮点值为NaN，缺失的心率为0
+     * @param epochMillis 采样时间（UTC毫秒）
+     * @param latitude 纬度
+     * @param longitude 经度
+     * @param elevation 海拔（米）
+     * @param heartRate 心率
+     * @param distance 距离起点的累计距离（米）
+     * @param speed 速度（米/秒）
+     */
+    void onTrackPoint(long epochMillis, double latitude, double longitude, double elevation,
+                      int heartRate, double distance, double speed);
+}
@@ -0,0 +1,154 @@
+package com.garmin.runner.parser;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 基于StAX的XML轨迹解析器基类，逐个事件读取，不构建DOM
+ */
+abstract class XmlTrackParser implements ActivityFileParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // 禁用DTD和外部实体，防止XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    @Override
+    public void parse(InputStream inputStream, TrackPointHandler handler) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            parse(reader, handler);
+        } catch (XMLStreamException e) {
+            throw new IOException("XML解析失败: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // 关闭失败不影响已解析的结果
+                }
+            }
+        }
+    }
+
+    protected abstract void parse(XMLStreamReader reader, TrackPointHandler handler) throws XMLStreamException;
+
+    /**
+     * 解析ISO-8601时间，无时区时按UTC处理，无法解析时返回Long.MIN_VALUE
+     */
+    protected static long parseEpochMillis(String text) {
+        if (text == null || text.isBlank()) {
+            return Long.MIN_VALUE;
+        }
+        String trimmed = text.trim();
+        long fast = parseUtcFast(trimmed);
+        if (fast != Long.MIN_VALUE) {
+            return fast;
+        }
+        try {
+            if (trimmed.endsWith("Z")) {
+                return Instant.parse(trimmed).toEpochMilli();
+            }
+            return OffsetDateTime.parse(trimmed).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(trimmed).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                return Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /**
+     * 快速解析设备最常输出的"yyyy-MM-ddTHH:mm:ss[.SSS]Z"格式，避免每个采样点都经过DateTimeFormatter
+     * 格式不符时返回Long.MIN_VALUE，由通用解析处理
+     */
+    private static long parseUtcFast(String text) {
+        int length = text.length();
+        if (length < 20 || text.charAt(length - 1) != 'Z' || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = digits(text, 17, 19);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int millis = 0;
+        if (length > 20) {
+            // 小数秒只保留毫秒
+            if (text.charAt(19) != '.') {
+                return Long.MIN_VALUE;
+            }
+            int fractionEnd = length - 1;
+            int scale = 100;
+            for (int i = 20; i < fractionEnd; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Long.MIN_VALUE;
+                }
+                millis += digit * scale;
+                scale /= 10;
+            }
+        }
+
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+        return ((epochDay * 86400 + hour * 3600L + minute * 60L + second) * 1000) + millis;
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    protected static double parseDouble(String text) {
+        if (text == null || text.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    protected static int parseInt(String text) {
+        double value = parseDouble(text);
+        return Double.isNaN(value) ? 0 : (int) Math.round(value);
+    }
+}
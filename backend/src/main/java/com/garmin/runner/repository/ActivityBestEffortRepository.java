@@ -0,0 +1,26 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.ActivityBestEffort;
+import com.garmin.runner.model.PersonalRecordType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ActivityBestEffortRepository extends JpaRepository<ActivityBestEffort, Long> {
+
+    // 删除活动的最好成绩
+    @Modifying
+    @Query("DELETE FROM ActivityBestEffort e WHERE e.activityId = :activityId")
+    int deleteByActivityId(@Param("activityId") Long activityId);
+
+    // 某类标准距离用时最短的成绩，用时相同时取先保存的
+    Optional<ActivityBestEffort> findFirstByRecordTypeOrderByElapsedSecondsAscIdAsc(PersonalRecordType recordType);
+
+    // 某类距离最长的成绩，距离相同时取先保存的
+    Optional<ActivityBestEffort> findFirstByRecordTypeOrderByDistanceMetersDescIdAsc(PersonalRecordType recordType);
+}
@@ -1,15 +1,32 @@
 package com.garmin.runner.repository;
 
 import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.projection.ActivityColumnView;
+import com.garmin.runner.repository.projection.ActivityLoadView;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import com.garmin.runner.repository.projection.ActivityTypeStatisticsView;
+import com.garmin.runner.repository.projection.OverallStatisticsView;
+import com.garmin.runner.repository.projection.PaceZoneView;
+import com.garmin.runner.repository.projection.RollupAggregateView;
+import com.garmin.runner.repository.projection.TrendBucketView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, Long> {
+public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSpecificationExecutor<Activity>,
+        ActivityRepositoryCustom {
 
     // 根据活动类型查询活动
     List<Activity> findByActivityType(String activityType);
@@ -27,4 +44,122 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
     // 根据导入记录查询活动
     List<Activity> findByImportRecordId(Long importRecordId);
+
+    // 导入去重：每个分块一次查询取出去重键已存在的活动
+    List<Activity> findByDedupKeyIn(Collection<String> dedupKeys);
+
+    // 导入去重：只查询已存在的去重键
+    @Query("SELECT a.dedupKey FROM Activity a WHERE a.dedupKey IN :dedupKeys")
+    Set<String> findExistingDedupKeys(@Param("dedupKeys") Collection<String> dedupKeys);
+
+    // 总体统计：在数据库中一次聚合完成，不加载活动实体
+    @Query("SELECT COUNT(a) AS totalActivities, SUM(a.distance) AS totalDistance, " +
+            "SUM(a.duration) AS totalDuration, SUM(a.calories) AS totalCalories, " +
+            "AVG(a.averageHeartRate) AS averageHeartRate, AVG(a.averagePace) AS averagePace, " +
+            "MIN(a.startTime) AS firstActivityDate, MAX(a.startTime) AS lastActivityDate " +
+            "FROM Activity a")
+    OverallStatisticsView aggregateOverallStatistics();
+
+    // 按活动类型分组统计
+    @Query("SELECT a.activityType AS activityType, COUNT(a) AS totalActivities, SUM(a.distance) AS totalDistance " +
+            "FROM Activity a WHERE a.activityType IS NOT NULL GROUP BY a.activityType")
+    List<ActivityTypeStatisticsView> aggregateByActivityType();
+
+    // 配速区间统计：仅统计有配速数据的跑步活动
+    @Query("SELECT COUNT(a) AS totalRunningActivities, " +
+            "SUM(CASE WHEN a.averagePace >= 6.5 THEN 1 ELSE 0 END) AS easyZone, " +
+            "SUM(CASE WHEN a.averagePace >= 5.5 AND a.averagePace < 6.5 THEN 1 ELSE 0 END) AS aerobicZone, " +
+            "SUM(CASE WHEN a.averagePace >= 4.5 AND a.averagePace < 5.5 THEN 1 ELSE 0 END) AS marathonZone, " +
+            "SUM(CASE WHEN a.averagePace >= 3.5 AND a.averagePace < 4.5 THEN 1 ELSE 0 END) AS thresholdZone, " +
+            "SUM(CASE WHEN a.averagePace < 3.5 THEN 1 ELSE 0 END) AS intervalZone " +
+            "FROM Activity a WHERE a.averagePace IS NOT NULL " +
+            "AND (a.activityType LIKE '%Run%' OR a.activityType LIKE '%跑步%')")
+    PaceZoneView aggregatePaceZones();
+
+    // 最早的活动开始时间
+    @Query("SELECT MIN(a.startTime) FROM Activity a")
+    LocalDateTime findFirstStartTime();
+
+    // 最新的活动开始时间
+    @Query("SELECT MAX(a.startTime) FROM Activity a")
+    LocalDateTime findLastStartTime();
+
+    // 重建统计汇总表：按天分组聚合
+    @Query("SELECT YEAR(a.startTime) AS year, MONTH(a.startTime) AS month, DAY(a.startTime) AS day, " +
+            "COUNT(a) AS activityCount, SUM(a.distance) AS totalDistance, SUM(a.duration) AS totalDuration, " +
+            "SUM(a.calories) AS totalCalories, SUM(a.averageHeartRate) AS heartRateSum, " +
+            "COUNT(a.averageHeartRate) AS heartRateCount, SUM(a.averagePace) AS paceSum, COUNT(a.averagePace) AS paceCount " +
+            "FROM Activity a WHERE a.startTime IS NOT NULL " +
+            "GROUP BY YEAR(a.startTime), MONTH(a.startTime), DAY(a.startTime)")
+    List<RollupAggregateView> aggregateRollupsByDay();
+
+    // 重建统计汇总表：按活动类型分组聚合（包括未分类活动）
+    @Query("SELECT a.activityType AS activityType, " +
+            "COUNT(a) AS activityCount, SUM(a.distance) AS totalDistance, SUM(a.duration) AS totalDuration, " +
+            "SUM(a.calories) AS totalCalories, SUM(a.averageHeartRate) AS heartRateSum, " +
+            "COUNT(a.averageHeartRate) AS heartRateCount, SUM(a.averagePace) AS paceSum, COUNT(a.averagePace) AS paceCount " +
+            "FROM Activity a GROUP BY a.activityType")
+    List<RollupAggregateView> aggregateRollupsByActivityType();
+
+    // 活动趋势：时间范围内按月分组，一次查询返回所有月份的汇总
+    @Query("SELECT YEAR(a.startTime) AS year, MONTH(a.startTime) AS month, " +
+            "COUNT(a) AS activityCount, SUM(a.distance) AS totalDistance " +
+            "FROM Activity a WHERE a.startTime BETWEEN :start AND :end " +
+            "GROUP BY YEAR(a.startTime), MONTH(a.startTime)")
+    List<TrendBucketView> aggregateTrendByMonth(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // 活动趋势：时间范围内按天分组，按周趋势由按天结果在内存中折叠
+    @Query("SELECT YEAR(a.startTime) AS year, MONTH(a.startTime) AS month, DAY(a.startTime) AS day, " +
+            "COUNT(a) AS activityCount, SUM(a.distance) AS totalDistance " +
+            "FROM Activity a WHERE a.startTime BETWEEN :start AND :end " +
+            "GROUP BY YEAR(a.startTime), MONTH(a.startTime), DAY(a.startTime)")
+    List<TrendBucketView> aggregateTrendByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // 活动列表分页查询，只投影列表所需的列
+    Page<ActivitySummaryView> findSummariesBy(Pageable pageable);
+
+    // 游标分页第一页：按(startTime, id)倒序
+    @Query("SELECT a.id AS id, a.activityName AS activityName, a.activityType AS activityType, a.startTime AS startTime, " +
+            "a.duration AS duration, a.distance AS distance, a.calories AS calories, a.averageHeartRate AS averageHeartRate, " +
+            "a.maxHeartRate AS maxHeartRate, a.averagePace AS averagePace " +
+            "FROM Activity a WHERE a.startTime IS NOT NULL ORDER BY a.startTime DESC, a.id DESC")
+    List<ActivitySummaryView> findSummariesFirst(Pageable pageable);
+
+    // 游标分页后续页：从上一页最后一条的(startTime, id)之后继续，走(start_time, id)索引而不是跳过前面的行
+    @Query("SELECT a.id AS id, a.activityName AS activityName, a.activityType AS activityType, a.startTime AS startTime, " +
+            "a.duration AS duration, a.distance AS distance, a.calories AS calories, a.averageHeartRate AS averageHeartRate, " +
+            "a.maxHeartRate AS maxHeartRate, a.averagePace AS averagePace " +
+            "FROM Activity a WHERE a.startTime < :startTime OR (a.startTime = :startTime AND a.id < :id) " +
+            "ORDER BY a.startTime DESC, a.id DESC")
+    List<ActivitySummaryView> findSummariesBefore(@Param("startTime") LocalDateTime startTime, @Param("id") Long id,
+                                                  Pageable pageable);
+
+    // 按ID读取活动摘要，调用方已在内存中排好顺序，只读取需要返回的一页
+    @Query("SELECT a.id AS id, a.activityName AS activityName, a.activityType AS activityType, a.startTime AS startTime, " +
+            "a.duration AS duration, a.distance AS distance, a.calories AS calories, a.averageHeartRate AS averageHeartRate, " +
+            "a.maxHeartRate AS maxHeartRate, a.averagePace AS averagePace FROM Activity a WHERE a.id IN :ids")
+    List<ActivitySummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 导出全部活动摘要：按开始时间顺序流式读取，不加载活动实体，需在事务中消费
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT a.id AS id, a.activityName AS activityName, a.activityType AS activityType, a.startTime AS startTime, " +
+            "a.duration AS duration, a.distance AS distance, a.calories AS calories, a.averageHeartRate AS averageHeartRate, " +
+            "a.maxHeartRate AS maxHeartRate, a.averagePace AS averagePace " +
+            "FROM Activity a ORDER BY a.startTime ASC, a.id ASC")
+    Stream<ActivitySummaryView> streamSummaries();
+
+    // 列式存储加载：流式读取统计所需的列，不加载活动实体，需在只读事务中消费
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT a.id AS id, a.activityType AS activityType, a.startTime AS startTime, a.duration AS duration, " +
+            "a.distance AS distance, a.calories AS calories, a.averageHeartRate AS averageHeartRate, " +
+            "a.averagePace AS averagePace FROM Activity a")
+    Stream<ActivityColumnView> streamColumnValues();
+
+    // 训练负荷：流式读取指定时间之后的活动，附带按当前资料版本计算的采样TRIMP，需在事务中消费
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT a.startTime AS startTime, a.duration AS duration, a.averageHeartRate AS averageHeartRate, " +
+            "t.trimp AS trackTrimp FROM Activity a " +
+            "LEFT JOIN ActivityTrack t ON t.activityId = a.id AND t.hrZoneVersion = :zoneVersion " +
+            "WHERE a.startTime >= :start")
+    Stream<ActivityLoadView> streamLoadInputs(@Param("start") LocalDateTime start, @Param("zoneVersion") Integer zoneVersion);
 }
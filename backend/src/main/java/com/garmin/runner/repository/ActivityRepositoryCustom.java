@@ -0,0 +1,18 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 活动仓库的自定义查询片段
+ */
+public interface ActivityRepositoryCustom {
+
+    /**
+     * 按动态条件分页查询活动摘要，只选择摘要投影所需的列
+     */
+    Page<ActivitySummaryView> findSummaries(Specification<Activity> specification, Pageable pageable);
+}
@@ -0,0 +1,87 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ActivityRepositoryCustomImpl implements ActivityRepositoryCustom {
+
+    // 摘要投影对应的实体属性
+    private static final String[] SUMMARY_ATTRIBUTES = {
+            "id", "activityName", "activityType", "startTime", "duration", "distance",
+            "calories", "averageHeartRate", "maxHeartRate", "averagePace"
+    };
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ActivitySummaryView> findSummaries(Specification<Activity> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Activity> root = query.from(Activity.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : SUMMARY_ATTRIBUTES) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<ActivitySummaryView> content = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> values = new HashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                values.put(element.getAlias(), tuple.get(element));
+            }
+            content.add(projectionFactory.createProjection(ActivitySummaryView.class, values));
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Activity> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Activity> root = query.from(Activity.class);
+        query.select(cb.count(root));
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,70 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.Activity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 活动查询条件构造器，所有条件都转换为数据库谓词，由数据库完成过滤
+ * 参数为空时返回null，Specification组合时会自动忽略
+ */
+public final class ActivitySpecifications {
+
+    private ActivitySpecifications() {
+    }
+
+    /**
+     * 根据过滤条件Map组合查询条件，支持的键：
+     * activityType、startDate、endDate、minDistance、maxDistance、
+     * minHeartRate、maxHeartRate、minPace、maxPace
+     */
+    public static Specification<Activity> fromFilters(Map<String, Object> filters) {
+        return Specification.where(hasActivityType((String) filters.get("activityType")))
+                .and(startsOnOrAfter((LocalDate) filters.get("startDate")))
+                .and(startsOnOrBefore((LocalDate) filters.get("endDate")))
+                .and(between("distance", (Double) filters.get("minDistance"), (Double) filters.get("maxDistance")))
+                .and(between("averageHeartRate", (Integer) filters.get("minHeartRate"), (Integer) filters.get("maxHeartRate")))
+                .and(between("averagePace", (Double) filters.get("minPace"), (Double) filters.get("maxPace")));
+    }
+
+    public static Specification<Activity> hasActivityType(String activityType) {
+        if (activityType == null || activityType.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("activityType"), activityType);
+    }
+
+    public static Specification<Activity> startsOnOrAfter(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), startDate.atStartOfDay());
+    }
+
+    public static Specification<Activity> startsOnOrBefore(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        // 结束日期包含当天，使用次日零点作为开区间上界
+        return (root, query, cb) -> cb.lessThan(root.get("startTime"), endDate.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 数值范围条件，上下界均包含，任一边界为空时只应用另一边
+     */
+    public static <T extends Comparable<? super T>> Specification<Activity> between(String attribute, T min, T max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get(attribute), min, max);
+            }
+            return min != null
+                    ? cb.greaterThanOrEqualTo(root.get(attribute), min)
+                    : cb.lessThanOrEqualTo(root.get(attribute), max);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.ActivityTrackPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ActivityTrackPointRepository extends JpaRepository<ActivityTrackPoint, Long> {
+
+    // 删除活动的位置索引点
+    @Modifying
+    @Query("DELETE FROM ActivityTrackPoint p WHERE p.activityId = :activityId")
+    int deleteByActivityId(@Param("activityId") Long activityId);
+
+    // 网格编号范围内、落在矩形区域内的点所属的活动
+    @Query("SELECT DISTINCT p.activityId FROM ActivityTrackPoint p WHERE p.cell BETWEEN :fromCell AND :toCell " +
+            "AND p.latitude BETWEEN :minLatitude AND :maxLatitude AND p.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<Long> findActivityIdsInBox(@Param("fromCell") long fromCell, @Param("toCell") long toCell,
+                                    @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                    @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude);
+
+    // 指定活动中有点落在矩形区域内的活动，每个活动找到第一个点即停止
+    @Query("SELECT t.activityId FROM ActivityTrack t WHERE t.activityId IN :activityIds AND EXISTS (" +
+            "SELECT 1 FROM ActivityTrackPoint p WHERE p.activityId = t.activityId " +
+            "AND p.latitude BETWEEN :minLatitude AND :maxLatitude AND p.longitude BETWEEN :minLongitude AND :maxLongitude)")
+    List<Long> findActivityIdsInBox(@Param("activityIds") Collection<Long> activityIds,
+                                    @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                    @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude);
+
+    // 网格编号范围内、距离圆心不超过半径的点所属的活动
+    // 距离按等距圆柱投影近似：经度差乘以圆心纬度的余弦，半径换算为度后比较平方
+    @Query("SELECT DISTINCT p.activityId FROM ActivityTrackPoint p WHERE p.cell BETWEEN :fromCell AND :toCell " +
+            "AND p.latitude BETWEEN :minLatitude AND :maxLatitude AND p.longitude BETWEEN :minLongitude AND :maxLongitude " +
+            "AND (p.latitude - :latitude) * (p.latitude - :latitude) " +
+            "+ (p.longitude - :longitude) * (p.longitude - :longitude) * :longitudeScale <= :radiusSquared")
+    List<Long> findActivityIdsInCircle(@Param("fromCell") long fromCell, @Param("toCell") long toCell,
+                                       @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                       @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude,
+                                       @Param("latitude") double latitude, @Param("longitude") double longitude,
+                                       @Param("longitudeScale") double longitudeScale,
+                                       @Param("radiusSquared") double radiusSquared);
+
+    // 指定活动中有点距离圆心不超过半径的活动，每个活动找到第一个点即停止
+    @Query("SELECT t.activityId FROM ActivityTrack t WHERE t.activityId IN :activityIds AND EXISTS (" +
+            "SELECT 1 FROM ActivityTrackPoint p WHERE p.activityId = t.activityId " +
+            "AND p.latitude BETWEEN :minLatitude AND :maxLatitude AND p.longitude BETWEEN :minLongitude AND :maxLongitude " +
+            "AND (p.latitude - :latitude) * (p.latitude - :latitude) " +
+            "+ (p.longitude - :longitude) * (p.longitude - :longitude) * :longitudeScale <= :radiusSquared)")
+    List<Long> findActivityIdsInCircle(@Param("activityIds") Collection<Long> activityIds,
+                                       @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                       @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude,
+                                       @Param("latitude") double latitude, @Param("longitude") double longitude,
+                                       @Param("longitudeScale") double longitudeScale,
+                                       @Param("radiusSquared") double radiusSquared);
+}
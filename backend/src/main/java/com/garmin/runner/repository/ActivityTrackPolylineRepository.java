@@ -0,0 +1,25 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.ActivityTrackPolyline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ActivityTrackPolylineRepository extends JpaRepository<ActivityTrackPolyline, Long> {
+
+    // 删除活动的化简轨迹
+    @Modifying
+    @Query("DELETE FROM ActivityTrackPolyline p WHERE p.activityId = :activityId")
+    int deleteByActivityId(@Param("activityId") Long activityId);
+
+    // 不低于指定缩放级别的最粗一级
+    Optional<ActivityTrackPolyline> findFirstByActivityIdAndZoomGreaterThanEqualOrderByZoomAsc(Long activityId, Integer zoom);
+
+    // 最精细的一级，请求的缩放级别超过预先生成的级别时使用
+    Optional<ActivityTrackPolyline> findFirstByActivityIdOrderByZoomDesc(Long activityId);
+}
@@ -0,0 +1,84 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.repository.projection.HeartRateZoneSecondsView;
+import com.garmin.runner.repository.projection.TrackBoundsView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityTrackRepository extends JpaRepository<ActivityTrack, Long> {
+
+    // 根据活动ID查询采样数据
+    Optional<ActivityTrack> findByActivityId(Long activityId);
+
+    // 删除活动的采样数据
+    @Modifying
+    @Query("DELETE FROM ActivityTrack t WHERE t.activityId = :activityId")
+    int deleteByActivityId(@Param("activityId") Long activityId);
+
+    // 重新计算心率区间：按ID分批读取采样数据
+    List<ActivityTrack> findTop100ByIdGreaterThanOrderByIdAsc(Long id);
+
+    // 区间秒数不是按指定版本计算的采样数据行数
+    @Query("SELECT COUNT(t) FROM ActivityTrack t WHERE t.hrZoneVersion IS NULL OR t.hrZoneVersion <> :version")
+    long countStaleHeartRateZones(@Param("version") Integer version);
+
+    // 心率区间统计：对按当前版本计算的区间秒数求和，不读取采样数据
+    @Query("SELECT COUNT(t) AS activitiesWithSamples, " +
+            "SUM(CASE WHEN t.hrZone0Seconds + t.hrZone1Seconds + t.hrZone2Seconds + t.hrZone3Seconds " +
+            "+ t.hrZone4Seconds + t.hrZone5Seconds > 0 THEN 1 ELSE 0 END) AS activitiesWithHeartRate, " +
+            "SUM(t.hrZone0Seconds) AS zone0Seconds, SUM(t.hrZone1Seconds) AS zone1Seconds, " +
+            "SUM(t.hrZone2Seconds) AS zone2Seconds, SUM(t.hrZone3Seconds) AS zone3Seconds, " +
+            "SUM(t.hrZone4Seconds) AS zone4Seconds, SUM(t.hrZone5Seconds) AS zone5Seconds " +
+            "FROM ActivityTrack t WHERE t.hrZoneVersion = :version")
+    HeartRateZoneSecondsView sumHeartRateZoneSeconds(@Param("version") Integer version);
+
+    // 重建位置索引：按ID分批读取索引版本不一致的采样数据
+    @Query("SELECT t FROM ActivityTrack t WHERE t.id > :afterId " +
+            "AND (t.locationIndexVersion IS NULL OR t.locationIndexVersion <> :version) ORDER BY t.id")
+    List<ActivityTrack> findStaleLocationIndex(@Param("afterId") Long afterId, @Param("version") Integer version,
+                                               Pageable pageable);
+
+    // 位置索引版本不一致的采样数据行数
+    @Query("SELECT COUNT(t) FROM ActivityTrack t WHERE t.locationIndexVersion IS NULL OR t.locationIndexVersion <> :version")
+    long countStaleLocationIndex(@Param("version") Integer version);
+
+    // 重新生成多分辨率轨迹：按ID分批读取版本不一致的采样数据
+    @Query("SELECT t FROM ActivityTrack t WHERE t.id > :afterId " +
+            "AND (t.polylineVersion IS NULL OR t.polylineVersion <> :version) ORDER BY t.id")
+    List<ActivityTrack> findStalePolylines(@Param("afterId") Long afterId, @Param("version") Integer version,
+                                           Pageable pageable);
+
+    // 多分辨率轨迹版本不一致的采样数据行数
+    @Query("SELECT COUNT(t) FROM ActivityTrack t WHERE t.polylineVersion IS NULL OR t.polylineVersion <> :version")
+    long countStalePolylines(@Param("version") Integer version);
+
+    // 重新计算最好成绩：按ID分批读取版本不一致的采样数据
+    @Query("SELECT t FROM ActivityTrack t WHERE t.id > :afterId " +
+            "AND (t.bestEffortVersion IS NULL OR t.bestEffortVersion <> :version) ORDER BY t.id")
+    List<ActivityTrack> findStaleBestEfforts(@Param("afterId") Long afterId, @Param("version") Integer version,
+                                             Pageable pageable);
+
+    // 最好成绩版本不一致的采样数据行数
+    @Query("SELECT COUNT(t) FROM ActivityTrack t WHERE t.bestEffortVersion IS NULL OR t.bestEffortVersion <> :version")
+    long countStaleBestEfforts(@Param("version") Integer version);
+
+    // 经纬度范围与矩形区域相交的采样数据，没有位置数据的行范围为空，不会被选中
+    @Query("SELECT t.activityId AS activityId, a.startTime AS startTime, t.minLatitude AS minLatitude, " +
+            "t.maxLatitude AS maxLatitude, t.minLongitude AS minLongitude, t.maxLongitude AS maxLongitude " +
+            "FROM ActivityTrack t JOIN Activity a ON a.id = t.activityId " +
+            "WHERE t.minLatitude <= :maxLatitude AND t.maxLatitude >= :minLatitude " +
+            "AND t.minLongitude <= :maxLongitude AND t.maxLongitude >= :minLongitude")
+    List<TrackBoundsView> findBoundsIntersecting(@Param("minLatitude") double minLatitude,
+                                                 @Param("minLongitude") double minLongitude,
+                                                 @Param("maxLatitude") double maxLatitude,
+                                                 @Param("maxLongitude") double maxLongitude);
+}
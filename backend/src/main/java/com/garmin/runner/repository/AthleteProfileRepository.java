@@ -0,0 +1,17 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.AthleteProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AthleteProfileRepository extends JpaRepository<AthleteProfile, Long> {
+
+    // 读取资料行并加写锁，训练负荷的重新计算以此串行执行
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AthleteProfile> findLockedById(Long id);
+}
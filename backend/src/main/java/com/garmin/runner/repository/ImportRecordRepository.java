@@ -2,19 +2,40 @@ package com.garmin.runner.repository;
 
 import com.garmin.runner.model.ImportRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ImportRecordRepository extends JpaRepository<ImportRecord, Long> {
 
-    // 查询最近的导入记录
-    List<ImportRecord> findTop10ByOrderByImportTimeDesc();
+    // 查询最近的导入记录（批量导入只列出父记录）
+    List<ImportRecord> findTop10ByParentIdIsNullOrderByImportTimeDesc();
+
+    // 查询批量导入中每个文件的子记录
+    List<ImportRecord> findByParentIdOrderByIdAsc(Long parentId);
 
     // 根据导入时间范围查询记录
     List<ImportRecord> findByImportTimeBetween(LocalDateTime start, LocalDateTime end);
 
     // 根据状态查询导入记录
     List<ImportRecord> findByStatus(String status);
+
+    // 只更新导入状态和进度字段，避免合并脱管实体时级联清除已写入的活动
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportRecord r SET r.status = :status, r.activityCount = :activityCount, " +
+            "r.errorMessage = :errorMessage, r.rowsParsed = :rowsParsed, r.rowsPersisted = :rowsPersisted, " +
+            "r.rowsFailed = :rowsFailed, r.rowsInserted = :rowsInserted, r.rowsUpdated = :rowsUpdated, " +
+            "r.rowsSkipped = :rowsSkipped, r.elapsedMs = :elapsedMs WHERE r.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("status") String status,
+                       @Param("activityCount") Integer activityCount, @Param("errorMessage") String errorMessage,
+                       @Param("rowsParsed") Integer rowsParsed, @Param("rowsPersisted") Integer rowsPersisted,
+                       @Param("rowsFailed") Integer rowsFailed, @Param("rowsInserted") Integer rowsInserted,
+                       @Param("rowsUpdated") Integer rowsUpdated, @Param("rowsSkipped") Integer rowsSkipped,
+                       @Param("elapsedMs") Long elapsedMs);
 }
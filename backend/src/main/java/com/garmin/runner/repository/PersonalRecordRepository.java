@@ -0,0 +1,27 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.PersonalRecord;
+import com.garmin.runner.model.PersonalRecordType;
+import com.garmin.runner.repository.projection.PersonalRecordView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, PersonalRecordType> {
+
+    // 加写锁读取全部记录（每类一行），按类型的固定顺序加锁
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PersonalRecord> findAllByOrderByRecordTypeAsc();
+
+    // 全部个人记录，附带活动名称和开始时间
+    @Query("SELECT r.recordType AS recordType, r.activityId AS activityId, a.activityName AS activityName, " +
+            "a.startTime AS startTime, r.distanceMeters AS distanceMeters, r.elapsedSeconds AS elapsedSeconds, " +
+            "r.startOffsetSeconds AS startOffsetSeconds " +
+            "FROM PersonalRecord r JOIN Activity a ON a.id = r.activityId")
+    List<PersonalRecordView> findAllWithActivity();
+}
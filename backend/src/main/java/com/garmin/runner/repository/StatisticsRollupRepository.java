@@ -0,0 +1,32 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.RollupBucketType;
+import com.garmin.runner.model.StatisticsRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatisticsRollupRepository extends JpaRepository<StatisticsRollup, Long> {
+
+    // 查询某一维度的全部汇总行
+    List<StatisticsRollup> findByBucketType(RollupBucketType bucketType);
+
+    // 指定桶中已存在的桶键，只返回键不加载实体，随后加锁读取时才能读到其他事务提交的最新值
+    @Query("SELECT r.bucketKey FROM StatisticsRollup r WHERE r.bucketType = :bucketType AND r.bucketKey IN :bucketKeys")
+    List<String> findExistingBucketKeys(@Param("bucketType") RollupBucketType bucketType,
+                                        @Param("bucketKeys") Collection<String> bucketKeys);
+
+    // 批量查询指定桶并加写锁，用于增量更新；按桶键顺序加锁，并发事务之间不会互相等待成环
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StatisticsRollup> findByBucketTypeAndBucketKeyInOrderByBucketKey(RollupBucketType bucketType, Collection<String> bucketKeys);
+
+    // 按桶键范围查询（桶键按字典序即时间顺序）
+    List<StatisticsRollup> findByBucketTypeAndBucketKeyBetweenOrderByBucketKey(RollupBucketType bucketType, String fromKey, String toKey);
+}
@@ -0,0 +1,27 @@
+package com.garmin.runner.repository;
+
+import com.garmin.runner.model.TrainingLoadDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TrainingLoadDayRepository extends JpaRepository<TrainingLoadDay, LocalDate> {
+
+    // 指定日期之前最后一天的负荷，作为增量计算的起始状态
+    Optional<TrainingLoadDay> findFirstByLoadDateLessThanOrderByLoadDateDesc(LocalDate date);
+
+    Optional<TrainingLoadDay> findFirstByOrderByLoadDateDesc();
+
+    List<TrainingLoadDay> findByLoadDateBetweenOrderByLoadDateAsc(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("DELETE FROM TrainingLoadDay d WHERE d.loadDate >= :date")
+    int deleteFrom(@Param("date") LocalDate date);
+}
@@ -0,0 +1,25 @@
+package com.garmin.runner.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 活动列式存储加载时读取的列投影，只包含统计计算用到的字段
+ */
+public interface ActivityColumnView {
+
+    Long getId();
+
+    String getActivityType();
+
+    LocalDateTime getStartTime();
+
+    Long getDuration(); // 单位：秒
+
+    Double getDistance(); // 单位：米
+
+    Integer getCalories();
+
+    Integer getAverageHeartRate();
+
+    Double getAveragePace(); // 单位：分钟/公里
+}
@@ -0,0 +1,17 @@
+package com.garmin.runner.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 计算训练负荷所需的活动字段，trackTrimp为按当前资料由采样数据计算的TRIMP（没有时为null）
+ */
+public interface ActivityLoadView {
+
+    LocalDateTime getStartTime();
+
+    Long getDuration();
+
+    Integer getAverageHeartRate();
+
+    Double getTrackTrimp();
+}
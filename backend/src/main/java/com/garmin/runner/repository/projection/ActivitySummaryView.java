@@ -0,0 +1,29 @@
+package com.garmin.runner.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 活动列表使用的轻量投影，只查询列表展示所需的列，不加载明细和导入记录关联
+ */
+public interface ActivitySummaryView {
+
+    Long getId();
+
+    String getActivityName();
+
+    String getActivityType();
+
+    LocalDateTime getStartTime();
+
+    Long getDuration(); // 单位：秒
+
+    Double getDistance(); // 单位：米
+
+    Integer getCalories();
+
+    Integer getAverageHeartRate();
+
+    Integer getMaxHeartRate();
+
+    Double getAveragePace(); // 单位：分钟/公里
+}
@@ -0,0 +1,13 @@
+package com.garmin.runner.repository.projection;
+
+/**
+ * 按活动类型分组的聚合结果投影
+ */
+public interface ActivityTypeStatisticsView {
+
+    String getActivityType();
+
+    Long getTotalActivities();
+
+    Double getTotalDistance(); // 单位：米
+}
@@ -0,0 +1,23 @@
+package com.garmin.runner.repository.projection;
+
+/**
+ * 各心率区间停留秒数的合计投影，由采样数据上预先计算的区间秒数求和得到
+ */
+public interface HeartRateZoneSecondsView {
+
+    Long getActivitiesWithSamples();
+
+    Long getActivitiesWithHeartRate();
+
+    Long getZone0Seconds();
+
+    Long getZone1Seconds();
+
+    Long getZone2Seconds();
+
+    Long getZone3Seconds();
+
+    Long getZone4Seconds();
+
+    Long getZone5Seconds();
+}
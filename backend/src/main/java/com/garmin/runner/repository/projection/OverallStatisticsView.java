@@ -0,0 +1,25 @@
+package com.garmin.runner.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 总体统计聚合结果投影，由数据库一次性计算
+ */
+public interface OverallStatisticsView {
+
+    Long getTotalActivities();
+
+    Double getTotalDistance(); // 单位：米
+
+    Long getTotalDuration(); // 单位：秒
+
+    Long getTotalCalories();
+
+    Double getAverageHeartRate();
+
+    Double getAveragePace();
+
+    LocalDateTime getFirstActivityDate();
+
+    LocalDateTime getLastActivityDate();
+}
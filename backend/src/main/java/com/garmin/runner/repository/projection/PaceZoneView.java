@@ -0,0 +1,19 @@
+package com.garmin.runner.repository.projection;
+
+/**
+ * 跑步配速区间计数投影，区间划分在数据库中通过CASE完成
+ */
+public interface PaceZoneView {
+
+    Long getTotalRunningActivities();
+
+    Long getEasyZone();
+
+    Long getAerobicZone();
+
+    Long getMarathonZone();
+
+    Long getThresholdZone();
+
+    Long getIntervalZone();
+}
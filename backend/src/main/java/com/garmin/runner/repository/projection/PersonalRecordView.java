@@ -0,0 +1,25 @@
+package com.garmin.runner.repository.projection;
+
+import com.garmin.runner.model.PersonalRecordType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 个人记录投影，附带创造记录的活动名称和开始时间
+ */
+public interface PersonalRecordView {
+
+    PersonalRecordType getRecordType();
+
+    Long getActivityId();
+
+    String getActivityName();
+
+    LocalDateTime getStartTime();
+
+    Double getDistanceMeters();
+
+    Double getElapsedSeconds();
+
+    Double getStartOffsetSeconds();
+}
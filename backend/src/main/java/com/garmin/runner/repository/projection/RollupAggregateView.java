@@ -0,0 +1,32 @@
+package com.garmin.runner.repository.projection;
+
+/**
+ * 重建统计汇总表时使用的分组聚合结果投影
+ * 按天分组时填充年月日，按类型分组时填充活动类型
+ */
+public interface RollupAggregateView {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    Integer getDay();
+
+    String getActivityType();
+
+    Long getActivityCount();
+
+    Double getTotalDistance();
+
+    Long getTotalDuration();
+
+    Long getTotalCalories();
+
+    Long getHeartRateSum();
+
+    Long getHeartRateCount();
+
+    Double getPaceSum();
+
+    Long getPaceCount();
+}
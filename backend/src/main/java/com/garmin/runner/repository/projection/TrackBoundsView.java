@@ -0,0 +1,21 @@
+package com.garmin.runner.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 采样数据的经纬度范围投影，按位置查询活动时先用范围筛选，不读取采样内容；附带活动开始时间用于结果排序
+ */
+public interface TrackBoundsView {
+
+    Long getActivityId();
+
+    LocalDateTime getStartTime();
+
+    Double getMinLatitude();
+
+    Double getMaxLatitude();
+
+    Double getMinLongitude();
+
+    Double getMaxLongitude();
+}
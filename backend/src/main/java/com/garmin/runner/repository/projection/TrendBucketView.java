@@ -0,0 +1,18 @@
+package com.garmin.runner.repository.projection;
+
+/**
+ * 活动趋势分组聚合结果投影，只包含桶的计数和距离之和
+ * 按月分组时日字段为空
+ */
+public interface TrendBucketView {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    Integer getDay();
+
+    Long getActivityCount();
+
+    Double getTotalDistance(); // 单位：米
+}
@@ -0,0 +1,182 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.StatisticsRollup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 活动汇总指标的可合并累加器：活动数、距离、时长、卡路里、心率和配速的和与计数、最早和最晚开始时间
+ * 一次遍历累加全部指标，分段累加的结果用merge合并，列式存储较大时按行区间拆分到ForkJoin公共池并行累加
+ * 开始时间按ActivityColumns的编码保存，精确到秒
+ */
+public final class ActivityAggregate {
+
+    private long activityCount;
+    private double totalDistance; // 单位：米
+    private long totalDuration; // 单位：秒
+    private long totalCalories;
+    private long heartRateSum;
+    private long heartRateCount;
+    private double paceSum;
+    private long paceCount;
+    private long firstStartTime = Long.MAX_VALUE;
+    private long lastStartTime = Long.MIN_VALUE;
+
+    /**
+     * 累加活动实体，空字段不参与对应的求和与平均
+     */
+    public void add(Activity activity) {
+        activityCount++;
+        if (activity.getDistance() != null) {
+            totalDistance += activity.getDistance();
+        }
+        if (activity.getDuration() != null) {
+            totalDuration += activity.getDuration();
+        }
+        if (activity.getCalories() != null) {
+            totalCalories += activity.getCalories();
+        }
+        if (activity.getAverageHeartRate() != null) {
+            heartRateSum += activity.getAverageHeartRate();
+            heartRateCount++;
+        }
+        if (activity.getAveragePace() != null) {
+            paceSum += activity.getAveragePace();
+            paceCount++;
+        }
+        addStartTime(ActivityColumns.toEpochSecond(activity.getStartTime()));
+    }
+
+    /**
+     * 累加列式存储中的一行
+     */
+    public void add(ActivityColumns columns, int row) {
+        activityCount++;
+        totalDistance += columns.distance(row);
+        totalDuration += columns.duration(row);
+        totalCalories += columns.calories(row);
+        int heartRate = columns.heartRate(row);
+        if (heartRate != ActivityColumns.NO_HEART_RATE) {
+            heartRateSum += heartRate;
+            heartRateCount++;
+        }
+        float pace = columns.pace(row);
+        if (!Float.isNaN(pace)) {
+            paceSum += pace;
+            paceCount++;
+        }
+        addStartTime(columns.startTime(row));
+    }
+
+    /**
+     * 累加一个汇总表桶，汇总行不含开始时间
+     */
+    public void add(StatisticsRollup rollup) {
+        activityCount += rollup.getActivityCount();
+        totalDistance += rollup.getTotalDistance();
+        totalDuration += rollup.getTotalDuration();
+        totalCalories += rollup.getTotalCalories();
+        heartRateSum += rollup.getHeartRateSum();
+        heartRateCount += rollup.getHeartRateCount();
+        paceSum += rollup.getPaceSum();
+        paceCount += rollup.getPaceCount();
+    }
+
+    /**
+     * 合并另一段的累加结果
+     */
+    public void merge(ActivityAggregate other) {
+        activityCount += other.activityCount;
+        totalDistance += other.totalDistance;
+        totalDuration += other.totalDuration;
+        totalCalories += other.totalCalories;
+        heartRateSum += other.heartRateSum;
+        heartRateCount += other.heartRateCount;
+        paceSum += other.paceSum;
+        paceCount += other.paceCount;
+        firstStartTime = Math.min(firstStartTime, other.firstStartTime);
+        lastStartTime = Math.max(lastStartTime, other.lastStartTime);
+    }
+
+    /**
+     * 累加列式存储的全部行，行数超过parallelThreshold时并行累加；调用方需持有存储的读锁直到返回
+     */
+    public static ActivityAggregate of(ActivityColumns columns, int parallelThreshold) {
+        int size = columns.size();
+        if (size <= parallelThreshold || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            return aggregateRange(columns, 0, size);
+        }
+        // 每个核心分到若干段，便于工作窃取平衡负载，但每段不小于阈值
+        int segmentSize = Math.max(parallelThreshold, size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(columns, 0, size, segmentSize));
+    }
+
+    private static ActivityAggregate aggregateRange(ActivityColumns columns, int from, int to) {
+        ActivityAggregate aggregate = new ActivityAggregate();
+        for (int row = from; row < to; row++) {
+            aggregate.add(columns, row);
+        }
+        return aggregate;
+    }
+
+    private void addStartTime(long startTime) {
+        if (startTime != ActivityColumns.NO_START_TIME) {
+            firstStartTime = Math.min(firstStartTime, startTime);
+            lastStartTime = Math.max(lastStartTime, startTime);
+        }
+    }
+
+    public long getActivityCount() { return activityCount; }
+
+    public double getTotalDistance() { return totalDistance; }
+
+    public long getTotalDuration() { return totalDuration; }
+
+    public long getTotalCalories() { return totalCalories; }
+
+    public Double getAverageHeartRate() { return heartRateCount > 0 ? (double) heartRateSum / heartRateCount : null; }
+
+    public Double getAveragePace() { return paceCount > 0 ? paceSum / paceCount : null; }
+
+    public LocalDateTime getFirstStartTime() {
+        return lastStartTime != Long.MIN_VALUE ? ActivityColumns.toLocalDateTime(firstStartTime) : null;
+    }
+
+    public LocalDateTime getLastStartTime() {
+        return lastStartTime != Long.MIN_VALUE ? ActivityColumns.toLocalDateTime(lastStartTime) : null;
+    }
+
+    /**
+     * 按行区间二分拆分的累加任务
+     */
+    private static final class AggregateTask extends RecursiveTask<ActivityAggregate> {
+
+        private final ActivityColumns columns;
+        private final int from;
+        private final int to;
+        private final int segmentSize;
+
+        AggregateTask(ActivityColumns columns, int from, int to, int segmentSize) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.segmentSize = segmentSize;
+        }
+
+        @Override
+        protected ActivityAggregate compute() {
+            if (to - from <= segmentSize) {
+                return aggregateRange(columns, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(columns, from, middle, segmentSize);
+            left.fork();
+            ActivityAggregate result = new AggregateTask(columns, middle, to, segmentSize).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
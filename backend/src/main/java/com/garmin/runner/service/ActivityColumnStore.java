@@ -0,0 +1,43 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.Activity;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 活动列式存储，在内存中保存活动表统计字段的列式快照，供统计接口直接遍历基本类型数组
+ * 启动完成后全量加载，之后随导入、保存、删除增量同步
+ */
+public interface ActivityColumnStore {
+
+    /**
+     * 是否已启用并完成加载
+     * @return 为true时统计接口从列式存储计算，否则读取汇总表或活动表
+     */
+    boolean isReady();
+
+    /**
+     * 当前的活动数
+     */
+    int size();
+
+    /**
+     * 将活动的增删同步到列式存储，需在写入活动的同一事务中调用，事务提交后才生效
+     * @param added 新增或更新后的活动
+     * @param removed 删除的活动（更新活动时传入更新前的值）
+     */
+    void applyChanges(Collection<Activity> added, Collection<Activity> removed);
+
+    /**
+     * 在读锁内访问列式快照，reader中不应保留对快照的引用
+     */
+    <T> T read(Function<ActivityColumns, T> reader);
+
+    /**
+     * 从活动表全量重新加载，用于绕过导入流程直接写库之后
+     * @return 加载结果，包含活动数和耗时
+     */
+    Map<String, Object> reload();
+}
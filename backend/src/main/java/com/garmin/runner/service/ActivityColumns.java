@@ -0,0 +1,171 @@
+package com.garmin.runner.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 活动表的列式快照：每个字段一个基本类型数组，同一下标为同一条活动，行的顺序不固定
+ * 开始时间为本地时间按UTC换算的秒数（不保留秒以下的部分），按86400取整即为日期；活动类型按字典编码，
+ * 空值分别用NO_START_TIME、NO_HEART_RATE、NO_TYPE和NaN配速表示，距离、时长和卡路里的空值按0存储（只参与求和）
+ * 由ActivityColumnStore维护，读取和修改都需要在存储的读写锁内进行
+ */
+public final class ActivityColumns {
+
+    public static final long NO_START_TIME = Long.MIN_VALUE;
+    public static final int NO_HEART_RATE = -1;
+    public static final int NO_TYPE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] startTimes = new long[INITIAL_CAPACITY];
+    private double[] distances = new double[INITIAL_CAPACITY];
+    private long[] durations = new long[INITIAL_CAPACITY];
+    private int[] calories = new int[INITIAL_CAPACITY];
+    private int[] heartRates = new int[INITIAL_CAPACITY];
+    private float[] paces = new float[INITIAL_CAPACITY];
+    private int[] typeCodes = new int[INITIAL_CAPACITY];
+
+    // 活动ID到行下标，只在增删时使用
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    // 活动类型字典，编码为列表下标；跑步类型与配速区间统计的筛选条件一致
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> typeCodesByName = new HashMap<>();
+    private boolean[] runningTypes = new boolean[16];
+
+    public int size() { return size; }
+
+    public long id(int row) { return ids[row]; }
+
+    public long startTime(int row) { return startTimes[row]; }
+
+    public double distance(int row) { return distances[row]; }
+
+    public long duration(int row) { return durations[row]; }
+
+    public int calories(int row) { return calories[row]; }
+
+    public int heartRate(int row) { return heartRates[row]; }
+
+    public float pace(int row) { return paces[row]; }
+
+    public int typeCode(int row) { return typeCodes[row]; }
+
+    public int typeCount() { return typeNames.size(); }
+
+    public String typeName(int typeCode) { return typeNames.get(typeCode); }
+
+    public boolean isRunningType(int typeCode) { return typeCode != NO_TYPE && runningTypes[typeCode]; }
+
+    /**
+     * 本地时间换算为列中存储的秒数
+     */
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_START_TIME;
+    }
+
+    /**
+     * 列中存储的秒数还原为本地时间
+     */
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return epochSecond != NO_START_TIME ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * 新增或覆盖一条活动
+     */
+    public void upsert(long id, String activityType, LocalDateTime startTime, Long duration, Double distance,
+                       Integer calories, Integer averageHeartRate, Double averagePace) {
+        Integer existing = rowsById.get(id);
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowsById.put(id, row);
+        }
+        ids[row] = id;
+        startTimes[row] = toEpochSecond(startTime);
+        durations[row] = duration != null ? duration : 0L;
+        distances[row] = distance != null ? distance : 0.0;
+        this.calories[row] = calories != null ? calories : 0;
+        heartRates[row] = averageHeartRate != null ? averageHeartRate : NO_HEART_RATE;
+        paces[row] = averagePace != null ? averagePace.floatValue() : Float.NaN;
+        typeCodes[row] = encodeType(activityType);
+    }
+
+    /**
+     * 删除一条活动，用最后一行填补空位
+     */
+    public void remove(long id) {
+        Integer removed = rowsById.remove(id);
+        if (removed == null) {
+            return;
+        }
+        int row = removed;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            startTimes[row] = startTimes[last];
+            durations[row] = durations[last];
+            distances[row] = distances[last];
+            calories[row] = calories[last];
+            heartRates[row] = heartRates[last];
+            paces[row] = paces[last];
+            typeCodes[row] = typeCodes[last];
+            rowsById.put(ids[row], row);
+        }
+    }
+
+    /**
+     * 清空所有行和类型字典
+     */
+    public void clear() {
+        size = 0;
+        rowsById.clear();
+        typeNames.clear();
+        typeCodesByName.clear();
+        Arrays.fill(runningTypes, false);
+    }
+
+    private int encodeType(String activityType) {
+        if (activityType == null) {
+            return NO_TYPE;
+        }
+        Integer code = typeCodesByName.get(activityType);
+        if (code != null) {
+            return code;
+        }
+        int newCode = typeNames.size();
+        typeNames.add(activityType);
+        typeCodesByName.put(activityType, newCode);
+        if (newCode == runningTypes.length) {
+            runningTypes = Arrays.copyOf(runningTypes, newCode * 2);
+        }
+        runningTypes[newCode] = activityType.contains("Run") || activityType.contains("跑步");
+        return newCode;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        distances = Arrays.copyOf(distances, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        calories = Arrays.copyOf(calories, newCapacity);
+        heartRates = Arrays.copyOf(heartRates, newCapacity);
+        paces = Arrays.copyOf(paces, newCapacity);
+        typeCodes = Arrays.copyOf(typeCodes, newCapacity);
+    }
+}
@@ -0,0 +1,41 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.util.TrackData;
+
+import java.util.Map;
+
+/**
+ * 活动位置索引服务：按采样数据的经纬度范围和经过的geohash网格查找经过某个区域的活动
+ */
+public interface ActivityLocationService {
+
+    /**
+     * 为保存的采样数据建立位置索引，需在保存采样数据的同一事务中调用
+     * @param activityTrack 采样记录，写入经纬度范围和索引版本
+     * @param track 采样数据
+     */
+    void indexTrack(ActivityTrack activityTrack, TrackData track);
+
+    /**
+     * 查找轨迹经过矩形区域的活动，区域不能跨越180度经线
+     * @param limit 返回的活动摘要数量上限，按开始时间倒序
+     * @return 查询结果，包含活动摘要、匹配的活动总数和各阶段筛选的活动数
+     */
+    Map<String, Object> findWithinBoundingBox(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude, int limit);
+
+    /**
+     * 查找轨迹经过某点附近的活动
+     * @param radiusMeters 半径，单位：米
+     * @param limit 返回的活动摘要数量上限，按开始时间倒序
+     * @return 查询结果，包含活动摘要、匹配的活动总数和各阶段筛选的活动数
+     */
+    Map<String, Object> findNearPoint(double latitude, double longitude, double radiusMeters, int limit);
+
+    /**
+     * 为没有索引或索引版本不一致的采样数据重新建立位置索引
+     * @return 重建结果，包含处理的采样数据条数和耗时
+     */
+    Map<String, Object> rebuildLocationIndex();
+}
@@ -0,0 +1,33 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.util.TrackData;
+
+import java.util.Map;
+
+/**
+ * 活动轨迹的多分辨率表示：保存采样数据时按几个缩放级别预先化简，地图按缩放级别读取对应的一级
+ */
+public interface ActivityPolylineService {
+
+    /**
+     * 为保存的采样数据生成各缩放级别的化简轨迹，需在保存采样数据的同一事务中调用
+     * @param activityTrack 采样记录，写入多分辨率轨迹的版本
+     * @param track 采样数据
+     */
+    void buildPolylines(ActivityTrack activityTrack, TrackData track);
+
+    /**
+     * 获取适合指定缩放级别的化简轨迹
+     * @param activityId 活动ID
+     * @param zoom 地图缩放级别
+     * @return 包含encoded polyline、点数和化简容差的结果，活动没有位置数据时success为false
+     */
+    Map<String, Object> getTrackPolyline(Long activityId, int zoom);
+
+    /**
+     * 为没有多分辨率轨迹或版本不一致的采样数据重新生成
+     * @return 重建结果，包含处理的采样数据条数和耗时
+     */
+    Map<String, Object> rebuildPolylines();
+}
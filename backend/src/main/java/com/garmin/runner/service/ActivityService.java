@@ -1,8 +1,13 @@
 package com.garmin.runner.service;
 
 import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +30,29 @@ public interface ActivityService {
      */
     List<Activity> getAllActivities();
 
+    /**
+     * 分页获取运动活动摘要
+     * @param pageable 分页和排序参数
+     * @return 活动摘要分页结果
+     */
+    Page<ActivitySummaryView> getActivitySummaries(Pageable pageable);
+
+    /**
+     * 按开始时间顺序把全部活动摘要以NDJSON格式（每行一个JSON对象）写出，边从数据库读取边写出
+     * @param output 输出流，由调用方关闭
+     * @return 写出的活动数
+     */
+    long exportActivitySummaries(OutputStream output) throws IOException;
+
+    /**
+     * 按开始时间倒序以游标方式滚动获取活动摘要，适合深度翻页
+     * @param cursor 上一页返回的游标，为空时从最新的活动开始
+     * @param size 每页数量
+     * @return 包含活动摘要列表、下一页游标和是否还有更多数据的结果
+     * @throws IllegalArgumentException 游标格式无效时抛出
+     */
+    Map<String, Object> scrollActivitySummaries(String cursor, int size);
+
     /**
      * 根据ID获取运动活动
      * @param id 活动ID
@@ -46,12 +74,21 @@ public interface ActivityService {
     void deleteActivity(Long id);
 
     /**
-     * 根据条件查询运动活动
-     * @param filters 查询条件
+     * 根据条件查询运动活动，条件在数据库中执行
+     * @param filters 查询条件，支持activityType、startDate、endDate、minDistance、maxDistance、
+     *                minHeartRate、maxHeartRate、minPace、maxPace
      * @return 符合条件的运动活动列表
      */
     List<Activity> findActivitiesByFilters(Map<String, Object> filters);
 
+    /**
+     * 根据条件分页查询运动活动摘要
+     * @param filters 查询条件，同findActivitiesByFilters
+     * @param pageable 分页和排序参数
+     * @return 符合条件的活动摘要分页结果
+     */
+    Page<ActivitySummaryView> searchActivitySummaries(Map<String, Object> filters, Pageable pageable);
+
     /**
      * 获取运动活动总数
      * @return 运动活动总数
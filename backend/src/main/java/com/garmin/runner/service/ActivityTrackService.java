@@ -0,0 +1,44 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.util.TrackData;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 活动逐秒采样数据服务，采样以压缩列式格式按活动存储
+ */
+public interface ActivityTrackService {
+
+    /**
+     * 保存活动的采样数据，已有数据会被覆盖
+     * @param activityId 活动ID
+     * @param track 采样数据
+     * @return 保存后的采样记录
+     */
+    ActivityTrack saveTrack(Long activityId, TrackData track);
+
+    /**
+     * 从明细CSV导入活动的采样数据
+     * @param activityId 活动ID
+     * @param file 明细CSV文件（时间戳、经纬度、海拔、心率、配速、距离等列）
+     * @return 导入结果，包含采样数和压缩后的字节数
+     */
+    Map<String, Object> importDetailsCsv(Long activityId, MultipartFile file);
+
+    /**
+     * 读取并解码活动的采样数据
+     * @param activityId 活动ID
+     * @return 采样数据，不存在时为空
+     */
+    Optional<TrackData> getTrackData(Long activityId);
+
+    /**
+     * 获取活动的采样明细
+     * @param activityId 活动ID
+     * @return 包含采样列表的结果
+     */
+    Map<String, Object> getDetails(Long activityId);
+}
@@ -0,0 +1,35 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.AthleteProfile;
+import com.garmin.runner.util.HeartRateZones;
+
+import java.util.Map;
+
+/**
+ * 运动员资料服务，维护最大心率、静息心率、乳酸阈值心率和心率区间划分方式
+ */
+public interface AthleteProfileService {
+
+    /**
+     * 获取运动员资料
+     */
+    AthleteProfile getProfile();
+
+    /**
+     * 获取按当前资料划分的心率区间
+     */
+    HeartRateZones getHeartRateZones();
+
+    /**
+     * 更新运动员资料，心率相关字段变化时重新计算全部采样数据的心率区间秒数
+     * @param changes 要更新的字段，为空的字段保持不变
+     * @return 更新结果，包含更新后的资料和重新计算的活动数
+     */
+    Map<String, Object> updateProfile(AthleteProfile changes);
+
+    /**
+     * 重新计算区间秒数不是按当前资料计算的采样数据
+     * @return 重新计算的结果，包含处理的活动数和耗时
+     */
+    Map<String, Object> rebuildHeartRateZones();
+}
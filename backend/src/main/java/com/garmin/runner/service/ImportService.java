@@ -1,6 +1,10 @@
 package com.garmin.runner.service;
 
+import com.garmin.runner.model.DuplicatePolicy;
+import com.garmin.runner.parser.ParsedActivity;
 import org.springframework.web.multipart.MultipartFile;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 public interface ImportService {
@@ -8,9 +12,61 @@ public interface ImportService {
     /**
      * 导入佳明活动数据CSV文件
      * @param file 上传的CSV文件
-     * @return 导入结果信息
+     * @param duplicatePolicy 遇到已存在活动（去重键相同）时的处理策略
+     * @return 导入结果信息，包含新增、更新、跳过的行数
      */
-    Map<String, Object> importGarminData(MultipartFile file);
+    Map<String, Object> importGarminData(MultipartFile file, DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 导入单个FIT/TCX/GPX轨迹文件，一遍解析得到活动摘要和逐秒采样
+     * @param file 上传的轨迹文件
+     * @param duplicatePolicy 遇到已存在活动时的处理策略
+     * @return 导入结果信息，包含活动ID和采样数（跳过时为已存在活动的ID）
+     */
+    Map<String, Object> importTrackFile(MultipartFile file, DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 导入已在内存中得到的活动（如合成数据生成器的输出），与文件导入使用同一套分块写入、去重和汇总表更新逻辑
+     * 活动按需从迭代器中取出，每个分块写入后即释放，数据量不受内存限制
+     * @param sourceName 数据来源名称，记录为导入记录的文件名，活动没有名称时也用作活动名称
+     * @param activities 活动及其采样数据，采样数据可为null
+     * @param duplicatePolicy 遇到已存在活动时的处理策略
+     * @return 导入结果信息，包含新增、更新、跳过的行数
+     */
+    Map<String, Object> importParsedActivities(String sourceName, Iterator<ParsedActivity> activities,
+                                               DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 批量导入多个文件，ZIP压缩包按条目流式读取，不解压到磁盘
+     * 文件在解析线程池中并行解析，解析结果交给单一写入线程按分块顺序写入
+     * @param files 上传的文件，可以是ZIP压缩包、CSV汇总文件或FIT/TCX/GPX轨迹文件
+     * @param duplicatePolicy 遇到已存在活动时的处理策略
+     * @return 导入结果信息，包含父导入记录ID和文件数量
+     */
+    Map<String, Object> importBulk(List<MultipartFile> files, DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 提交异步批量导入任务，立即返回父导入记录ID
+     * @param files 上传的文件
+     * @param duplicatePolicy 遇到已存在活动时的处理策略
+     * @return 任务提交结果，包含父导入记录ID
+     */
+    Map<String, Object> submitBulkImportJob(List<MultipartFile> files, DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 提交异步导入任务，立即返回导入记录ID，解析和写入在后台线程池中执行
+     * @param file 上传的CSV文件
+     * @param duplicatePolicy 遇到已存在活动时的处理策略
+     * @return 任务提交结果，包含导入记录ID
+     */
+    Map<String, Object> submitImportJob(MultipartFile file, DuplicatePolicy duplicatePolicy);
+
+    /**
+     * 查询导入任务的状态和进度
+     * @param id 导入记录ID
+     * @return 导入任务信息，包含已解析、已写入、失败行数和耗时
+     */
+    Map<String, Object> getImportJob(Long id);
 
     /**
      * 验证文件是否为有效的佳明数据文件
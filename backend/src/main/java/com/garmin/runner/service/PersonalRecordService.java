@@ -0,0 +1,31 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.util.TrackData;
+
+import java.util.Map;
+
+/**
+ * 个人记录服务：保存采样数据时计算该次跑步的最好成绩，并与当前记录比较后增量更新记录表
+ */
+public interface PersonalRecordService {
+
+    /**
+     * 计算并保存采样数据的最好成绩，更新被打破的记录，需在保存采样数据的同一事务中调用
+     * @param activityTrack 采样记录，写入最好成绩的计算版本
+     * @param track 采样数据
+     */
+    void recordBestEfforts(ActivityTrack activityTrack, TrackData track);
+
+    /**
+     * 删除活动的最好成绩，记录在该活动上的各类记录改为其余成绩中最好的一个
+     * @param activityId 活动ID
+     */
+    void removeActivity(Long activityId);
+
+    /**
+     * 为没有最好成绩或计算版本不一致的采样数据重新计算
+     * @return 重建结果，包含处理的采样数据条数和耗时
+     */
+    Map<String, Object> rebuildBestEfforts();
+}
@@ -0,0 +1,31 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.Activity;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 统计汇总表维护服务，按天、按月、按活动类型增量维护预聚合数据
+ */
+public interface StatisticsRollupService {
+
+    /**
+     * 是否启用统计汇总表
+     * @return 启用时统计接口读取汇总行，否则直接聚合活动表
+     */
+    boolean isEnabled();
+
+    /**
+     * 将活动的增删增量应用到汇总表，需在写入活动的同一事务中调用
+     * @param added 新增的活动
+     * @param removed 删除的活动（更新活动时传入更新前的值）
+     */
+    void applyChanges(Collection<Activity> added, Collection<Activity> removed);
+
+    /**
+     * 根据活动表全量重建汇总表，用于回填已有数据
+     * @return 重建结果，包含各维度的汇总行数
+     */
+    Map<String, Object> rebuildRollups();
+}
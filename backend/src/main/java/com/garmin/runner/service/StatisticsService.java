@@ -41,6 +41,20 @@ public interface StatisticsService {
      */
     List<Map<String, Object>> getActivityTrendByMonth(int months);
 
+    /**
+     * 获取活动趋势数据（按周，周一为一周的开始）
+     * @param weeks 统计的周数
+     * @return 按周统计的活动趋势数据
+     */
+    List<Map<String, Object>> getActivityTrendByWeek(int weeks);
+
+    /**
+     * 获取活动趋势数据（按天）
+     * @param days 统计的天数
+     * @return 按天统计的活动趋势数据
+     */
+    List<Map<String, Object>> getActivityTrendByDay(int days);
+
     /**
      * 获取心率区间分布统计
      * @return 心率区间分布数据
@@ -52,4 +66,17 @@ public interface StatisticsService {
      * @return 配速区间分布数据
      */
     Map<String, Object> getPaceZoneStatistics();
+
+    /**
+     * 获取个人记录（各标准距离的最快用时和最长距离）
+     * @return 个人记录列表
+     */
+    Map<String, Object> getPersonalRecords();
+
+    /**
+     * 获取最近若干天的训练负荷（每天的TRIMP、急性负荷、慢性负荷和状态）
+     * @param days 天数，截止到今天
+     * @return 训练负荷序列和今天的负荷
+     */
+    Map<String, Object> getTrainingLoad(int days);
 }
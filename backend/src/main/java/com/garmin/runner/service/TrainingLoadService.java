@@ -0,0 +1,33 @@
+package com.garmin.runner.service;
+
+import com.garmin.runner.model.Activity;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 训练负荷服务，按天维护TRIMP、急性负荷、慢性负荷，活动变化时从受影响的日期起增量重新计算
+ */
+public interface TrainingLoadService {
+
+    /**
+     * 将活动的增删应用到训练负荷，用于单个活动的保存和删除，需在写入活动和采样数据的同一事务中、采样数据保存之后调用；
+     * 分块导入在所有分块提交后调用recalculateFrom一次
+     * @param added 新增的活动
+     * @param removed 删除的活动（更新活动时传入更新前的值）
+     */
+    void applyChanges(Collection<Activity> added, Collection<Activity> removed);
+
+    /**
+     * 以前一天保存的负荷为起点，重新计算指定日期及之后每天的负荷
+     * @param date 最早受影响的日期
+     */
+    void recalculateFrom(LocalDate date);
+
+    /**
+     * 从第一个活动起全量重新计算训练负荷
+     * @return 重建结果，包含计算的天数和耗时
+     */
+    Map<String, Object> rebuildTrainingLoad();
+}
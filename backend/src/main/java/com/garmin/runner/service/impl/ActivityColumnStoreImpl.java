@@ -0,0 +1,183 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.projection.ActivityColumnView;
+import com.garmin.runner.service.ActivityColumnStore;
+import com.garmin.runner.service.ActivityColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class ActivityColumnStoreImpl implements ActivityColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityColumnStoreImpl.class);
+
+    @Value("${runner.statistics.column-store.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ActivityColumns columns = new ActivityColumns();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 完成全量加载之前的增量直接忽略，加载时会从活动表读到
+    private volatile boolean loaded;
+
+    @Override
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    @Override
+    public int size() {
+        return read(ActivityColumns::size);
+    }
+
+    /**
+     * 启动完成后全量加载，命令行工具和假数据初始化在此之前写入的活动也会包含在内
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Override
+    public void applyChanges(Collection<Activity> added, Collection<Activity> removed) {
+        if (!enabled) {
+            return;
+        }
+
+        // 调用时立即复制字段值，实体在事务提交前后都可能继续被修改
+        List<Activity> addedRows = new ArrayList<>(added.size());
+        for (Activity activity : added) {
+            if (activity.getId() != null) {
+                addedRows.add(snapshot(activity));
+            }
+        }
+        long[] removedIds = removed.stream().map(Activity::getId).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).toArray();
+        if (addedRows.isEmpty() && removedIds.length == 0) {
+            return;
+        }
+
+        // 事务提交后才同步，回滚的写入不会进入列式存储；没有事务时立即同步
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(addedRows, removedIds);
+                }
+            });
+        } else {
+            apply(addedRows, removedIds);
+        }
+    }
+
+    @Override
+    public <T> T read(Function<ActivityColumns, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> reload() {
+        Map<String, Object> result = new HashMap<>();
+        if (!enabled) {
+            result.put("success", false);
+            result.put("message", "列式存储未启用");
+            return result;
+        }
+
+        long startTime = System.currentTimeMillis();
+        // 加载期间持有写锁，期间提交的增量在加载完成后按活动ID覆盖，结果与活动表一致
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            columns.clear();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ActivityColumnView> rows = activityRepository.streamColumnValues()) {
+                    rows.forEach(row -> columns.upsert(row.getId(), row.getActivityType(), row.getStartTime(),
+                            row.getDuration(), row.getDistance(), row.getCalories(), row.getAverageHeartRate(),
+                            row.getAveragePace()));
+                }
+            });
+            loaded = true;
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            log.info("活动列式存储加载完成: {} 条活动, {} 种活动类型, 耗时 {} ms", columns.size(), columns.typeCount(), elapsed);
+            result.put("success", true);
+            result.put("activityCount", columns.size());
+            result.put("elapsedMs", elapsed);
+        } catch (Exception e) {
+            log.error("加载活动列式存储失败，统计接口继续使用数据库", e);
+            result.put("success", false);
+            result.put("message", "加载活动列式存储失败: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    private void apply(List<Activity> addedRows, long[] removedIds) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            for (long id : removedIds) {
+                columns.remove(id);
+            }
+            for (Activity activity : addedRows) {
+                columns.upsert(activity.getId(), activity.getActivityType(), activity.getStartTime(),
+                        activity.getDuration(), activity.getDistance(), activity.getCalories(),
+                        activity.getAverageHeartRate(), activity.getAveragePace());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 复制统计用到的字段
+     */
+    private static Activity snapshot(Activity activity) {
+        Activity copy = new Activity();
+        copy.setId(activity.getId());
+        copy.setActivityType(activity.getActivityType());
+        copy.setStartTime(activity.getStartTime());
+        copy.setDuration(activity.getDuration());
+        copy.setDistance(activity.getDistance());
+        copy.setCalories(activity.getCalories());
+        copy.setAverageHeartRate(activity.getAverageHeartRate());
+        copy.setAveragePace(activity.getAveragePace());
+        return copy;
+    }
+}
@@ -0,0 +1,387 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.model.ActivityTrackPoint;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackPointRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import com.garmin.runner.repository.projection.TrackBoundsView;
+import com.garmin.runner.service.ActivityLocationService;
+import com.garmin.runner.util.GeoHash;
+import com.garmin.runner.util.TrackCodec;
+import com.garmin.runner.util.TrackData;
+import com.garmin.runner.util.TrackLocationIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 按位置查询活动分两步：
+ * 1. 用采样数据的经纬度范围筛选，范围完全在查询区域内的活动直接命中，与区域不相交的排除；
+ * 2. 范围与区域相交的活动查降采样后的轨迹点，有点落在区域内的命中。
+ *    轨迹点按geohash网格编号建索引，区域先换算为网格编号范围，再在数据库中按经纬度精确过滤，
+ *    只返回活动ID，不解码采样数据。
+ */
+@Service
+public class ActivityLocationServiceImpl implements ActivityLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLocationServiceImpl.class);
+
+    // 按网格查询轨迹点时覆盖查询区域的最大网格数，网格越少范围扫描次数越少
+    private static final int MAX_COVER_CELLS = 16;
+
+    // 待确认的活动不超过该数量时逐个活动查找区域内的轨迹点，否则扫描区域内的全部轨迹点
+    private static final int PER_ACTIVITY_LIMIT = 5000;
+
+    private static final int ID_BATCH_SIZE = 500;
+
+    private static final double MAX_RADIUS_METERS = 100_000;
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private static final Comparator<Candidate> MOST_RECENT_FIRST = Comparator
+            .comparing((Candidate candidate) -> candidate.startTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(candidate -> candidate.activityId, Comparator.reverseOrder());
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private ActivityTrackPointRepository activityTrackPointRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 启动完成后为迁移前已有的采样数据建立索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (activityTrackRepository.countStaleLocationIndex(TrackLocationIndex.VERSION) > 0) {
+            rebuildLocationIndex();
+        }
+    }
+
+    @Override
+    public void indexTrack(ActivityTrack activityTrack, TrackData track) {
+        TrackLocationIndex index = TrackLocationIndex.of(track);
+        activityTrack.setMinLatitude(index.getMinLatitude());
+        activityTrack.setMaxLatitude(index.getMaxLatitude());
+        activityTrack.setMinLongitude(index.getMinLongitude());
+        activityTrack.setMaxLongitude(index.getMaxLongitude());
+        activityTrack.setLocationIndexVersion(TrackLocationIndex.VERSION);
+
+        Long activityId = activityTrack.getActivityId();
+        if (activityTrack.getId() != null) {
+            activityTrackPointRepository.deleteByActivityId(activityId);
+        }
+        List<ActivityTrackPoint> points = new ArrayList<>(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            points.add(new ActivityTrackPoint(activityId, index.getCell(i), index.getLatitude(i), index.getLongitude(i)));
+        }
+        activityTrackPointRepository.saveAll(points);
+        // 轨迹点写入后不再修改，立即写库并移出持久化上下文，
+        // 否则导入分块中每次自动flush都要检查之前所有活动的轨迹点
+        entityManager.flush();
+        points.forEach(entityManager::detach);
+        log.debug("建立活动位置索引: activityId={}, 轨迹点数={}", activityId, points.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> findWithinBoundingBox(double minLatitude, double minLongitude,
+                                                     double maxLatitude, double maxLongitude, int limit) {
+        if (!isLatitude(minLatitude) || !isLatitude(maxLatitude)
+                || !isLongitude(minLongitude) || !isLongitude(maxLongitude)) {
+            return failure("纬度应在-90到90之间，经度应在-180到180之间");
+        }
+        if (minLatitude > maxLatitude) {
+            return failure("最小纬度不能大于最大纬度");
+        }
+        if (minLongitude > maxLongitude) {
+            return failure("最小经度不能大于最大经度，跨越180度经线的区域请分两次查询");
+        }
+        return find(new BoxRegion(minLatitude, minLongitude, maxLatitude, maxLongitude), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> findNearPoint(double latitude, double longitude, double radiusMeters, int limit) {
+        if (!isLatitude(latitude) || !isLongitude(longitude)) {
+            return failure("纬度应在-90到90之间，经度应在-180到180之间");
+        }
+        if (!(radiusMeters > 0 && radiusMeters <= MAX_RADIUS_METERS)) {
+            return failure("半径应大于0且不超过" + (int) MAX_RADIUS_METERS + "米");
+        }
+        return find(new CircleRegion(latitude, longitude, radiusMeters), limit);
+    }
+
+    @Override
+    public Map<String, Object> rebuildLocationIndex() {
+        Map<String, Object> result = new HashMap<>();
+        long startTime = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 按ID分批处理，每批一个事务
+        int rebuilt = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<ActivityTrack> batch = transactionTemplate.execute(status -> {
+                List<ActivityTrack> tracks = activityTrackRepository.findStaleLocationIndex(afterId,
+                        TrackLocationIndex.VERSION, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ActivityTrack track : tracks) {
+                    indexTrack(track, TrackCodec.decode(track.getEncodedSamples()));
+                }
+                return tracks;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            rebuilt += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("活动位置索引重建完成: {} 条采样数据, 耗时 {} ms", rebuilt, elapsed);
+        result.put("success", true);
+        result.put("trackCount", rebuilt);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    private Map<String, Object> find(Region region, int limit) {
+        long startTime = System.currentTimeMillis();
+        double[] box = region.box;
+
+        // 第一步：经纬度范围
+        Map<Long, Candidate> candidates = new HashMap<>();
+        Set<Long> matched = new HashSet<>();
+        Set<Long> pending = new HashSet<>();
+        for (TrackBoundsView bounds : activityTrackRepository.findBoundsIntersecting(box[0], box[1], box[2], box[3])) {
+            // 投影的getter经过代理，排序前先取出开始时间
+            candidates.put(bounds.getActivityId(), new Candidate(bounds.getActivityId(), bounds.getStartTime()));
+            double[] trackBox = {bounds.getMinLatitude(), bounds.getMinLongitude(),
+                    bounds.getMaxLatitude(), bounds.getMaxLongitude()};
+            if (region.contains(trackBox)) {
+                matched.add(bounds.getActivityId());
+            } else if (region.intersects(trackBox)) {
+                pending.add(bounds.getActivityId());
+            }
+        }
+
+        // 第二步：轨迹点
+        if (!pending.isEmpty()) {
+            for (Long activityId : findPointActivityIds(region, pending)) {
+                if (pending.contains(activityId)) {
+                    matched.add(activityId);
+                }
+            }
+        }
+
+        // 按开始时间倒序排好后只读取一页摘要
+        List<Long> pageIds = matched.stream().map(candidates::get).sorted(MOST_RECENT_FIRST).limit(limit)
+                .map(candidate -> candidate.activityId).toList();
+        Map<Long, ActivitySummaryView> summaries = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            for (ActivitySummaryView summary : activityRepository.findSummariesByIdIn(pageIds)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+        List<ActivitySummaryView> content = pageIds.stream().map(summaries::get).filter(Objects::nonNull).toList();
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.debug("按位置查询活动: 范围筛选 {} 条, 查轨迹点 {} 条, 命中 {} 条, 耗时 {} ms",
+                candidates.size(), pending.size(), matched.size(), elapsed);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("content", content);
+        result.put("totalElements", matched.size());
+        result.put("boundsCandidates", candidates.size());
+        result.put("pointCandidates", pending.size());
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    /**
+     * 查询有轨迹点落在区域内的活动：待确认的活动不多时按活动分批查询，
+     * 否则用不超过MAX_COVER_CELLS个网格覆盖区域，按网格编号范围查询
+     */
+    private Set<Long> findPointActivityIds(Region region, Set<Long> pending) {
+        Set<Long> activityIds = new HashSet<>();
+        if (pending.size() <= PER_ACTIVITY_LIMIT) {
+            List<Long> ids = new ArrayList<>(pending);
+            for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+                activityIds.addAll(region.findActivityIds(activityTrackPointRepository,
+                        ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()))));
+            }
+            return activityIds;
+        }
+        double[] box = region.box;
+        int bits = TrackLocationIndex.CELL_BITS;
+        while (bits > 0 && GeoHash.coverCount(box[0], box[1], box[2], box[3], bits) > MAX_COVER_CELLS) {
+            bits--;
+        }
+        int shift = TrackLocationIndex.CELL_BITS - bits;
+        for (long cell : GeoHash.cover(box[0], box[1], box[2], box[3], bits)) {
+            activityIds.addAll(region.findActivityIds(activityTrackPointRepository,
+                    cell << shift, ((cell + 1) << shift) - 1));
+        }
+        return activityIds;
+    }
+
+    private static boolean isLatitude(double value) {
+        return value >= -90 && value <= 90;
+    }
+
+    private static boolean isLongitude(double value) {
+        return value >= -180 && value <= 180;
+    }
+
+    private static Map<String, Object> failure(String message) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", false);
+        result.put("message", message);
+        return result;
+    }
+
+    private static final class Candidate {
+
+        final Long activityId;
+        final LocalDateTime startTime;
+
+        Candidate(Long activityId, LocalDateTime startTime) {
+            this.activityId = activityId;
+            this.startTime = startTime;
+        }
+    }
+
+    /**
+     * 查询区域，矩形均为{最小纬度, 最小经度, 最大纬度, 最大经度}
+     */
+    private abstract static class Region {
+
+        final double[] box; // 区域的外接矩形
+
+        Region(double[] box) {
+            this.box = box;
+        }
+
+        /**
+         * 矩形是否完全在区域内
+         */
+        abstract boolean contains(double[] rectangle);
+
+        /**
+         * 矩形是否与区域相交
+         */
+        abstract boolean intersects(double[] rectangle);
+
+        /**
+         * 指定活动中有轨迹点落在区域内的活动
+         */
+        abstract List<Long> findActivityIds(ActivityTrackPointRepository repository, Collection<Long> activityIds);
+
+        /**
+         * 网格编号范围内有轨迹点落在区域内的活动
+         */
+        abstract List<Long> findActivityIds(ActivityTrackPointRepository repository, long fromCell, long toCell);
+    }
+
+    private static final class BoxRegion extends Region {
+
+        BoxRegion(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+            super(new double[] {minLatitude, minLongitude, maxLatitude, maxLongitude});
+        }
+
+        @Override
+        boolean contains(double[] rectangle) {
+            return rectangle[0] >= box[0] && rectangle[2] <= box[2] && rectangle[1] >= box[1] && rectangle[3] <= box[3];
+        }
+
+        @Override
+        boolean intersects(double[] rectangle) {
+            return rectangle[0] <= box[2] && rectangle[2] >= box[0] && rectangle[1] <= box[3] && rectangle[3] >= box[1];
+        }
+
+        @Override
+        List<Long> findActivityIds(ActivityTrackPointRepository repository, Collection<Long> activityIds) {
+            return repository.findActivityIdsInBox(activityIds, box[0], box[1], box[2], box[3]);
+        }
+
+        @Override
+        List<Long> findActivityIds(ActivityTrackPointRepository repository, long fromCell, long toCell) {
+            return repository.findActivityIdsInBox(fromCell, toCell, box[0], box[1], box[2], box[3]);
+        }
+    }
+
+    private static final class CircleRegion extends Region {
+
+        private final double latitude;
+        private final double longitude;
+        private final double radiusMeters;
+        private final double longitudeScale; // 圆心纬度余弦的平方，经度差的平方乘以它换算为纬度差的平方
+        private final double radiusSquared;  // 半径换算为纬度跨度后的平方
+
+        CircleRegion(double latitude, double longitude, double radiusMeters) {
+            super(GeoHash.boundingBox(latitude, longitude, radiusMeters));
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusMeters = radiusMeters;
+            double cos = Math.cos(Math.toRadians(latitude));
+            this.longitudeScale = cos * cos;
+            double radiusDegrees = GeoHash.metersToDegrees(radiusMeters);
+            this.radiusSquared = radiusDegrees * radiusDegrees;
+        }
+
+        @Override
+        boolean contains(double[] rectangle) {
+            // 圆为凸区域，四个角都在圆内时整个矩形在圆内
+            return within(rectangle[0], rectangle[1]) && within(rectangle[0], rectangle[3])
+                    && within(rectangle[2], rectangle[1]) && within(rectangle[2], rectangle[3]);
+        }
+
+        @Override
+        boolean intersects(double[] rectangle) {
+            // 矩形内离圆心最近的点
+            double nearestLatitude = Math.max(rectangle[0], Math.min(latitude, rectangle[2]));
+            double nearestLongitude = Math.max(rectangle[1], Math.min(longitude, rectangle[3]));
+            return within(nearestLatitude, nearestLongitude);
+        }
+
+        @Override
+        List<Long> findActivityIds(ActivityTrackPointRepository repository, Collection<Long> activityIds) {
+            return repository.findActivityIdsInCircle(activityIds, box[0], box[1], box[2], box[3],
+                    latitude, longitude, longitudeScale, radiusSquared);
+        }
+
+        @Override
+        List<Long> findActivityIds(ActivityTrackPointRepository repository, long fromCell, long toCell) {
+            return repository.findActivityIdsInCircle(fromCell, toCell, box[0], box[1], box[2], box[3],
+                    latitude, longitude, longitudeScale, radiusSquared);
+        }
+
+        private boolean within(double pointLatitude, double pointLongitude) {
+            return GeoHash.distanceMeters(latitude, longitude, pointLatitude, pointLongitude) <= radiusMeters;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.model.ActivityTrackPolyline;
+import com.garmin.runner.repository.ActivityTrackPolylineRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.service.ActivityPolylineService;
+import com.garmin.runner.util.TrackCodec;
+import com.garmin.runner.util.TrackData;
+import com.garmin.runner.util.TrackPolylines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class ActivityPolylineServiceImpl implements ActivityPolylineService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityPolylineServiceImpl.class);
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private ActivityTrackPolylineRepository activityTrackPolylineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 启动完成后为迁移前已有的采样数据生成多分辨率轨迹
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (activityTrackRepository.countStalePolylines(TrackPolylines.VERSION) > 0) {
+            rebuildPolylines();
+        }
+    }
+
+    @Override
+    public void buildPolylines(ActivityTrack activityTrack, TrackData track) {
+        Long activityId = activityTrack.getActivityId();
+        if (activityTrack.getId() != null) {
+            activityTrackPolylineRepository.deleteByActivityId(activityId);
+        }
+        List<ActivityTrackPolyline> polylines = new ArrayList<>(TrackPolylines.ZOOM_LEVELS.length);
+        for (TrackPolylines.Level level : TrackPolylines.of(track)) {
+            polylines.add(new ActivityTrackPolyline(activityId, level.getZoom(), level.getToleranceMeters(),
+                    level.getPointCount(), level.getPolyline()));
+        }
+        activityTrackPolylineRepository.saveAll(polylines);
+        activityTrack.setPolylineVersion(TrackPolylines.VERSION);
+        log.debug("生成多分辨率轨迹: activityId={}, 级别数={}", activityId, polylines.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTrackPolyline(Long activityId, int zoom) {
+        Map<String, Object> result = new HashMap<>();
+        Optional<ActivityTrackPolyline> polyline = activityTrackPolylineRepository
+                .findFirstByActivityIdAndZoomGreaterThanEqualOrderByZoomAsc(activityId, zoom)
+                .or(() -> activityTrackPolylineRepository.findFirstByActivityIdOrderByZoomDesc(activityId));
+        if (polyline.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "活动没有位置数据");
+            return result;
+        }
+
+        ActivityTrackPolyline level = polyline.get();
+        result.put("success", true);
+        result.put("activityId", activityId);
+        result.put("zoom", zoom);
+        result.put("levelZoom", level.getZoom());
+        result.put("toleranceMeters", level.getToleranceMeters());
+        result.put("pointCount", level.getPointCount());
+        result.put("encoding", "polyline");
+        result.put("precision", 5);
+        result.put("polyline", level.getPolyline());
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> rebuildPolylines() {
+        Map<String, Object> result = new HashMap<>();
+        long startTime = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 按ID分批处理，每批一个事务
+        int rebuilt = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<ActivityTrack> batch = transactionTemplate.execute(status -> {
+                List<ActivityTrack> tracks = activityTrackRepository.findStalePolylines(afterId,
+                        TrackPolylines.VERSION, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ActivityTrack track : tracks) {
+                    buildPolylines(track, TrackCodec.decode(track.getEncodedSamples()));
+                }
+                return tracks;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            rebuilt += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("多分辨率轨迹重建完成: {} 条采样数据, 耗时 {} ms", rebuilt, elapsed);
+        result.put("success", true);
+        result.put("trackCount", rebuilt);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+}
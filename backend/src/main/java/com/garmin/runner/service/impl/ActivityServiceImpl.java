@@ -1,23 +1,48 @@
 package com.garmin.runner.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.garmin.runner.event.ActivityDataChangedEvent;
 import com.garmin.runner.model.Activity;
 import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackPointRepository;
+import com.garmin.runner.repository.ActivityTrackPolylineRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.ActivitySpecifications;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import com.garmin.runner.service.ActivityColumnStore;
 import com.garmin.runner.service.ActivityService;
+import com.garmin.runner.service.PersonalRecordService;
+import com.garmin.runner.service.StatisticsRollupService;
+import com.garmin.runner.service.TrainingLoadService;
+import com.garmin.runner.util.ActivityDedupKey;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * 运动活动服务实现类
@@ -27,16 +52,50 @@ public class ActivityServiceImpl implements ActivityService {
 
     private static final Logger logger = Logger.getLogger(ActivityServiceImpl.class.getName());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final int DEDUP_CHECK_BATCH = 500;
 
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private ActivityTrackPointRepository activityTrackPointRepository;
+
+    @Autowired
+    private ActivityTrackPolylineRepository activityTrackPolylineRepository;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private ActivityColumnStore activityColumnStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Override
     public Map<String, Object> importActivitiesFromCSV(MultipartFile file) {
         Map<String, Object> result = new HashMap<>();
         int successCount = 0;
         int failureCount = 0;
+        int skippedCount = 0;
         List<String> errors = new ArrayList<>();
+        List<Activity> parsedActivities = new ArrayList<>();
+        ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
 
         try (Reader reader = new InputStreamReader(file.getInputStream());
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.builder()
@@ -47,8 +106,9 @@ public class ActivityServiceImpl implements ActivityService {
                 try {
                     Activity activity = parseActivityFromRecord(record);
                     if (activity != null) {
-                        activityRepository.save(activity);
-                        successCount++;
+                        activity.setDedupKey(ActivityDedupKey.of(activity));
+                        occurrences.assign(activity);
+                        parsedActivities.add(activity);
                     } else {
                         failureCount++;
                         errors.add("无效的记录: " + record.toString());
@@ -60,10 +120,17 @@ public class ActivityServiceImpl implements ActivityService {
                 }
             }
 
+            // 写入和统计汇总表、列式存储、训练负荷的更新在同一事务中提交，任何一步失败都整体回滚
+            List<Activity> savedActivities = new TransactionTemplate(transactionManager)
+                    .execute(status -> saveNewActivities(parsedActivities));
+            successCount = savedActivities.size();
+            skippedCount = parsedActivities.size() - successCount;
+
             result.put("success", true);
             result.put("message", "文件导入完成");
             result.put("successCount", successCount);
             result.put("failureCount", failureCount);
+            result.put("skippedCount", skippedCount);
             if (!errors.isEmpty()) {
                 result.put("errors", errors);
             }
@@ -77,6 +144,42 @@ public class ActivityServiceImpl implements ActivityService {
         return result;
     }
 
+    /**
+     * 跳过已导入过的活动（去重键在库中已存在），每500条查询一次；文件内的重复行已按出现顺序区分
+     * 写入后更新统计汇总表，需在事务中调用
+     * @return 新写入的活动
+     */
+    private List<Activity> saveNewActivities(List<Activity> parsedActivities) {
+        Set<String> existingKeys = new HashSet<>();
+        List<Activity> savedActivities = new ArrayList<>();
+        for (int from = 0; from < parsedActivities.size(); from += DEDUP_CHECK_BATCH) {
+            List<Activity> batch = parsedActivities.subList(from,
+                    Math.min(from + DEDUP_CHECK_BATCH, parsedActivities.size()));
+            Set<String> batchKeys = new HashSet<>();
+            for (Activity activity : batch) {
+                if (activity.getDedupKey() != null) {
+                    batchKeys.add(activity.getDedupKey());
+                }
+            }
+            if (!batchKeys.isEmpty()) {
+                existingKeys.addAll(activityRepository.findExistingDedupKeys(batchKeys));
+            }
+            for (Activity activity : batch) {
+                if (activity.getDedupKey() != null && !existingKeys.add(activity.getDedupKey())) {
+                    continue;
+                }
+                savedActivities.add(activityRepository.save(activity));
+            }
+        }
+
+        // 导入完成后一次性更新统计汇总表
+        statisticsRollupService.applyChanges(savedActivities, Collections.emptyList());
+        activityColumnStore.applyChanges(savedActivities, Collections.emptyList());
+        trainingLoadService.applyChanges(savedActivities, Collections.emptyList());
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("import"));
+        return savedActivities;
+    }
+
     private Activity parseActivityFromRecord(CSVRecord record) {
         Activity activity = new Activity();
 
@@ -169,47 +272,157 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     @Override
-    public Optional<Activity> getActivityById(Long id) {
-        return activityRepository.findById(id);
+    public Page<ActivitySummaryView> getActivitySummaries(Pageable pageable) {
+        return activityRepository.findSummariesBy(pageable);
     }
 
     @Override
-    public Activity saveActivity(Activity activity) {
-        return activityRepository.save(activity);
+    @Transactional(readOnly = true)
+    public long exportActivitySummaries(OutputStream output) throws IOException {
+        long count = 0;
+        // 逐行读取逐行写出：生成器的缓冲区满时才写入输出流，不关闭调用方的输出流
+        // 字段按类型直接写出，writeObject会经ObjectMapper序列化并在每个值之后刷新输出流
+        try (Stream<ActivitySummaryView> activities = activityRepository.streamSummaries();
+             JsonGenerator generator = objectMapper.createGenerator(output)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(null);
+            Iterator<ActivitySummaryView> iterator = activities.iterator();
+            while (iterator.hasNext()) {
+                ActivitySummaryView activity = iterator.next();
+                generator.writeStartObject();
+                writeNumberField(generator, "id", activity.getId());
+                generator.writeStringField("activityName", activity.getActivityName());
+                generator.writeStringField("activityType", activity.getActivityType());
+                generator.writeStringField("startTime", activity.getStartTime() != null
+                        ? activity.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
+                writeNumberField(generator, "duration", activity.getDuration());
+                writeNumberField(generator, "distance", activity.getDistance());
+                writeNumberField(generator, "calories", activity.getCalories());
+                writeNumberField(generator, "averageHeartRate", activity.getAverageHeartRate());
+                writeNumberField(generator, "maxHeartRate", activity.getMaxHeartRate());
+                writeNumberField(generator, "averagePace", activity.getAveragePace());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        logger.info("导出活动摘要 " + count + " 条");
+        return count;
     }
 
-    @Override
-    public void deleteActivity(Long id) {
-        activityRepository.deleteById(id);
+    private static void writeNumberField(JsonGenerator generator, String name, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else if (value instanceof Double) {
+            generator.writeNumberField(name, value.doubleValue());
+        } else {
+            generator.writeNumberField(name, value.longValue());
+        }
     }
 
     @Override
-    public List<Activity> findActivitiesByFilters(Map<String, Object> filters) {
-        // 实现简单的过滤逻辑
-        List<Activity> allActivities = activityRepository.findAll();
-        List<Activity> filteredActivities = new ArrayList<>();
+    public Map<String, Object> scrollActivitySummaries(String cursor, int size) {
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ActivitySummaryView> activities;
+        if (cursor == null || cursor.isBlank()) {
+            activities = activityRepository.findSummariesFirst(limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            activities = activityRepository.findSummariesBefore(LocalDateTime.parse(position[0]), Long.parseLong(position[1]), limit);
+        }
 
-        for (Activity activity : allActivities) {
-            boolean match = true;
+        boolean hasMore = activities.size() > size;
+        if (hasMore) {
+            activities = activities.subList(0, size);
+        }
 
-            if (filters.containsKey("activityType") && !activity.getActivityType().equals(filters.get("activityType"))) {
-                match = false;
-            }
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", activities);
+        result.put("size", activities.size());
+        result.put("hasMore", hasMore);
+        if (hasMore) {
+            ActivitySummaryView last = activities.get(activities.size() - 1);
+            result.put("nextCursor", encodeCursor(last.getStartTime(), last.getId()));
+        }
+        return result;
+    }
 
-            if (filters.containsKey("startDate") && activity.getStartTime().toLocalDate().isBefore((LocalDate) filters.get("startDate"))) {
-                match = false;
-            }
+    /**
+     * 游标为"开始时间|ID"的URL安全Base64编码
+     */
+    private static String encodeCursor(LocalDateTime startTime, Long id) {
+        String position = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
 
-            if (filters.containsKey("endDate") && activity.getStartTime().toLocalDate().isAfter((LocalDate) filters.get("endDate"))) {
-                match = false;
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("无效的游标: " + cursor);
             }
+            // 提前校验格式，避免把无效值传给查询
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的游标: " + cursor, e);
+        }
+    }
 
-            if (match) {
-                filteredActivities.add(activity);
-            }
+    @Override
+    public Optional<Activity> getActivityById(Long id) {
+        return activityRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Activity saveActivity(Activity activity) {
+        // 更新已有活动时，先从汇总表中扣除旧值；保存会覆盖已加载的实体，训练负荷需要记下原来的日期
+        List<Activity> previous = new ArrayList<>();
+        if (activity.getId() != null) {
+            activityRepository.findById(activity.getId()).ifPresent(existing -> {
+                statisticsRollupService.applyChanges(Collections.emptyList(), List.of(existing));
+                Activity snapshot = new Activity();
+                snapshot.setStartTime(existing.getStartTime());
+                previous.add(snapshot);
+            });
         }
+        activity.setDedupKey(ActivityDedupKey.of(activity));
+        Activity saved = activityRepository.save(activity);
+        statisticsRollupService.applyChanges(List.of(saved), Collections.emptyList());
+        activityColumnStore.applyChanges(List.of(saved), Collections.emptyList());
+        trainingLoadService.applyChanges(List.of(saved), previous);
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("save"));
+        return saved;
+    }
 
-        return filteredActivities;
+    @Override
+    @Transactional
+    public void deleteActivity(Long id) {
+        activityRepository.findById(id).ifPresent(existing -> {
+            statisticsRollupService.applyChanges(Collections.emptyList(), List.of(existing));
+            activityColumnStore.applyChanges(Collections.emptyList(), List.of(existing));
+            activityTrackPointRepository.deleteByActivityId(id);
+            activityTrackPolylineRepository.deleteByActivityId(id);
+            personalRecordService.removeActivity(id);
+            activityTrackRepository.deleteByActivityId(id);
+            activityRepository.delete(existing);
+            trainingLoadService.applyChanges(Collections.emptyList(), List.of(existing));
+            eventPublisher.publishEvent(new ActivityDataChangedEvent("delete"));
+        });
+    }
+
+    @Override
+    public List<Activity> findActivitiesByFilters(Map<String, Object> filters) {
+        return activityRepository.findAll(ActivitySpecifications.fromFilters(filters));
+    }
+
+    @Override
+    public Page<ActivitySummaryView> searchActivitySummaries(Map<String, Object> filters, Pageable pageable) {
+        return activityRepository.findSummaries(ActivitySpecifications.fromFilters(filters), pageable);
     }
 
     @Override
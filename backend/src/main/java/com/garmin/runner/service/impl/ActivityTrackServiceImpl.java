@@ -0,0 +1,208 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.service.ActivityLocationService;
+import com.garmin.runner.service.ActivityPolylineService;
+import com.garmin.runner.service.ActivityTrackService;
+import com.garmin.runner.service.AthleteProfileService;
+import com.garmin.runner.service.PersonalRecordService;
+import com.garmin.runner.service.TrainingLoadService;
+import com.garmin.runner.util.ActivityColumnMapping;
+import com.garmin.runner.util.ActivityDetailCsvColumn;
+import com.garmin.runner.util.CsvParserUtil;
+import com.garmin.runner.util.HeartRateZones;
+import com.garmin.runner.util.TrackCodec;
+import com.garmin.runner.util.TrackData;
+import com.garmin.runner.util.TrainingLoad;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class ActivityTrackServiceImpl implements ActivityTrackService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityTrackServiceImpl.class);
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private CsvParserUtil csvParserUtil;
+
+    @Autowired
+    private AthleteProfileService athleteProfileService;
+
+    @Autowired
+    private ActivityLocationService activityLocationService;
+
+    @Autowired
+    private ActivityPolylineService activityPolylineService;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ActivityTrack saveTrack(Long activityId, TrackData track) {
+        byte[] encoded = TrackCodec.encode(track);
+        ActivityTrack activityTrack = activityTrackRepository.findByActivityId(activityId).orElseGet(ActivityTrack::new);
+        activityTrack.setActivityId(activityId);
+        activityTrack.setSampleCount(track.size());
+        activityTrack.setEncodingVersion(TrackCodec.VERSION);
+        activityTrack.setEncodedSamples(encoded);
+        activityTrack.setUpdatedAt(LocalDateTime.now());
+        // 保存时按当前资料预先计算各心率区间的秒数，心率区间统计只需对这些秒数求和
+        HeartRateZones zones = athleteProfileService.getHeartRateZones();
+        activityTrack.setHeartRateZoneSeconds(zones.getVersion(), zones.secondsInZones(track));
+        activityTrack.setTrimp(TrainingLoad.trimp(track, athleteProfileService.getProfile()));
+        activityLocationService.indexTrack(activityTrack, track);
+        activityPolylineService.buildPolylines(activityTrack, track);
+        personalRecordService.recordBestEfforts(activityTrack, track);
+        log.debug("保存活动采样数据: activityId={}, 采样数={}, 编码后 {} 字节", activityId, track.size(), encoded.length);
+        return activityTrackRepository.save(activityTrack);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> importDetailsCsv(Long activityId, MultipartFile file) {
+        Map<String, Object> result = new HashMap<>();
+        if (!activityRepository.existsById(activityId)) {
+            result.put("success", false);
+            result.put("message", "活动不存在: " + activityId);
+            return result;
+        }
+
+        TrackData track = new TrackData();
+        int skippedRows = 0;
+        try (CSVParser parser = csvParserUtil.openActivityDetails(file.getInputStream())) {
+            ActivityColumnMapping<ActivityDetailCsvColumn> mapping =
+                    ActivityColumnMapping.compile(parser.getHeaderNames(), ActivityDetailCsvColumn.class);
+            if (!mapping.hasColumn(ActivityDetailCsvColumn.TIMESTAMP)) {
+                result.put("success", false);
+                result.put("message", "明细文件缺少时间戳列");
+                return result;
+            }
+
+            for (CSVRecord record : parser) {
+                Double timestamp = csvParserUtil.parseSeconds(mapping.get(record, ActivityDetailCsvColumn.TIMESTAMP));
+                if (timestamp == null) {
+                    skippedRows++;
+                    continue;
+                }
+                Integer heartRate = csvParserUtil.parseInteger(mapping.get(record, ActivityDetailCsvColumn.HEART_RATE));
+                track.add(timestamp.longValue(),
+                        doubleOrNaN(mapping.get(record, ActivityDetailCsvColumn.LATITUDE)),
+                        doubleOrNaN(mapping.get(record, ActivityDetailCsvColumn.LONGITUDE)),
+                        doubleOrNaN(mapping.get(record, ActivityDetailCsvColumn.ELEVATION)),
+                        heartRate != null ? heartRate : 0,
+                        parsePace(mapping.get(record, ActivityDetailCsvColumn.PACE)),
+                        doubleOrNaN(mapping.get(record, ActivityDetailCsvColumn.DISTANCE)));
+            }
+        } catch (Exception e) {
+            log.error("明细文件解析失败: activityId={}", activityId, e);
+            result.put("success", false);
+            result.put("message", "明细文件解析失败: " + e.getMessage());
+            return result;
+        }
+
+        ActivityTrack saved = saveTrack(activityId, track);
+        // 采样数据的TRIMP代替按平均心率估算的值，从活动当天起重新计算训练负荷
+        activityRepository.findById(activityId).map(Activity::getStartTime)
+                .ifPresent(startTime -> trainingLoadService.recalculateFrom(startTime.toLocalDate()));
+        // 心率区间、个人记录和训练负荷都来自采样数据
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("details"));
+        result.put("success", true);
+        result.put("activityId", activityId);
+        result.put("sampleCount", saved.getSampleCount());
+        result.put("skippedRows", skippedRows);
+        result.put("encodedBytes", saved.getEncodedSamples().length);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TrackData> getTrackData(Long activityId) {
+        return activityTrackRepository.findByActivityId(activityId)
+                .map(track -> TrackCodec.decode(track.getEncodedSamples()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDetails(Long activityId) {
+        Map<String, Object> result = new HashMap<>();
+        Optional<ActivityTrack> activityTrack = activityTrackRepository.findByActivityId(activityId);
+        List<Map<String, Object>> samples = new ArrayList<>();
+        int encodedBytes = 0;
+
+        if (activityTrack.isPresent()) {
+            encodedBytes = activityTrack.get().getEncodedSamples().length;
+            // 只在读取明细时解码
+            TrackData track = TrackCodec.decode(activityTrack.get().getEncodedSamples());
+            for (int i = 0; i < track.size(); i++) {
+                Map<String, Object> sample = new LinkedHashMap<>();
+                sample.put("timestamp", track.getTimestamp(i));
+                putIfPresent(sample, "latitude", track.getLatitude(i));
+                putIfPresent(sample, "longitude", track.getLongitude(i));
+                putIfPresent(sample, "elevation", track.getElevation(i));
+                if (track.getHeartRate(i) > 0) {
+                    sample.put("heartRate", track.getHeartRate(i));
+                }
+                putIfPresent(sample, "pace", track.getPace(i));
+                putIfPresent(sample, "distanceFromStart", track.getDistance(i));
+                samples.add(sample);
+            }
+        }
+
+        result.put("success", true);
+        result.put("activityId", activityId);
+        result.put("sampleCount", samples.size());
+        result.put("encodedBytes", encodedBytes);
+        result.put("samples", samples);
+        return result;
+    }
+
+    private double doubleOrNaN(String value) {
+        Double number = csvParserUtil.parseDouble(value);
+        return number != null ? number : Double.NaN;
+    }
+
+    /**
+     * 解析配速（分钟/公里），支持小数分钟和"分:秒"格式
+     */
+    private double parsePace(String value) {
+        Double pace = csvParserUtil.parseSeconds(value);
+        if (pace == null) {
+            return Double.NaN;
+        }
+        // "分:秒"格式按秒解析，需换算为分钟
+        return value.indexOf(':') >= 0 ? pace / 60 : pace;
+    }
+
+    private static void putIfPresent(Map<String, Object> sample, String key, double value) {
+        if (!Double.isNaN(value)) {
+            sample.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.model.AthleteProfile;
+import com.garmin.runner.model.HeartRateZoneModel;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.AthleteProfileRepository;
+import com.garmin.runner.service.AthleteProfileService;
+import com.garmin.runner.service.TrainingLoadService;
+import com.garmin.runner.util.HeartRateZones;
+import com.garmin.runner.util.TrackCodec;
+import com.garmin.runner.util.TrackData;
+import com.garmin.runner.util.TrainingLoad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class AthleteProfileServiceImpl implements AthleteProfileService {
+
+    private static final Logger log = LoggerFactory.getLogger(AthleteProfileServiceImpl.class);
+
+    @Autowired
+    private AthleteProfileRepository athleteProfileRepository;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 保存采样时每次都要用到区间划分，缓存到资料更新为止
+    private volatile AthleteProfile cachedProfile;
+    private volatile HeartRateZones cachedZones;
+
+    @Override
+    public AthleteProfile getProfile() {
+        AthleteProfile profile = cachedProfile;
+        if (profile == null) {
+            profile = athleteProfileRepository.findById(AthleteProfile.DEFAULT_ID)
+                    .orElseThrow(() -> new IllegalStateException("运动员资料不存在，请检查数据库迁移"));
+            cachedZones = HeartRateZones.of(profile);
+            cachedProfile = profile;
+        }
+        return profile;
+    }
+
+    @Override
+    public HeartRateZones getHeartRateZones() {
+        getProfile();
+        return cachedZones;
+    }
+
+    /**
+     * 启动完成后补算迁移前已有的采样数据和上次未完成的重新计算
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (activityTrackRepository.countStaleHeartRateZones(getProfile().getZoneVersion()) > 0) {
+            rebuildHeartRateZones();
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Object> updateProfile(AthleteProfile changes) {
+        Map<String, Object> result = new HashMap<>();
+        AthleteProfile current = getProfile();
+
+        AthleteProfile updated = new AthleteProfile();
+        updated.setId(AthleteProfile.DEFAULT_ID);
+        updated.setMaxHeartRate(changes.getMaxHeartRate() != null ? changes.getMaxHeartRate() : current.getMaxHeartRate());
+        updated.setRestingHeartRate(changes.getRestingHeartRate() != null
+                ? changes.getRestingHeartRate() : current.getRestingHeartRate());
+        updated.setThresholdHeartRate(changes.getThresholdHeartRate() != null
+                ? changes.getThresholdHeartRate() : current.getThresholdHeartRate());
+        updated.setZoneModel(changes.getZoneModel() != null ? changes.getZoneModel() : current.getZoneModel());
+
+        String error = validate(updated);
+        if (error != null) {
+            result.put("success", false);
+            result.put("message", error);
+            return result;
+        }
+
+        // 训练负荷的TRIMP按最大心率和静息心率计算，与区间秒数共用版本
+        boolean zonesChanged = !Arrays.equals(updated.getZoneModel().lowerBounds(updated),
+                current.getZoneModel().lowerBounds(current))
+                || !Objects.equals(updated.getMaxHeartRate(), current.getMaxHeartRate())
+                || !Objects.equals(updated.getRestingHeartRate(), current.getRestingHeartRate());
+        updated.setZoneVersion(zonesChanged ? current.getZoneVersion() + 1 : current.getZoneVersion());
+        updated.setUpdatedAt(LocalDateTime.now());
+        AthleteProfile saved = athleteProfileRepository.save(updated);
+        cachedZones = HeartRateZones.of(saved);
+        cachedProfile = saved;
+        log.info("运动员资料已更新: 最大心率={}, 静息心率={}, 阈值心率={}, 区间划分={}, 区间版本={}",
+                saved.getMaxHeartRate(), saved.getRestingHeartRate(), saved.getThresholdHeartRate(),
+                saved.getZoneModel(), saved.getZoneVersion());
+
+        result.put("success", true);
+        result.put("profile", saved);
+        if (zonesChanged) {
+            result.put("rebuild", rebuildHeartRateZones());
+        } else {
+            eventPublisher.publishEvent(new ActivityDataChangedEvent("athlete-profile"));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> rebuildHeartRateZones() {
+        Map<String, Object> result = new HashMap<>();
+        long startTime = System.currentTimeMillis();
+        HeartRateZones zones = getHeartRateZones();
+        AthleteProfile profile = getProfile();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 按ID分批处理，每批一个事务，只更新版本不一致的行
+        int rebuilt = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<ActivityTrack> batch = transactionTemplate.execute(status -> {
+                List<ActivityTrack> tracks = activityTrackRepository.findTop100ByIdGreaterThanOrderByIdAsc(afterId);
+                for (ActivityTrack track : tracks) {
+                    if (!Objects.equals(track.getHrZoneVersion(), zones.getVersion())) {
+                        TrackData trackData = TrackCodec.decode(track.getEncodedSamples());
+                        track.setHeartRateZoneSeconds(zones.getVersion(), zones.secondsInZones(trackData));
+                        track.setTrimp(TrainingLoad.trimp(trackData, profile));
+                    }
+                }
+                return tracks;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            rebuilt += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        // 采样TRIMP和按平均心率估算的TRIMP都随资料变化，训练负荷整体重新计算
+        trainingLoadService.rebuildTrainingLoad();
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("心率区间秒数重新计算完成: 检查 {} 条采样数据, 区间版本 {}, 耗时 {} ms", rebuilt, zones.getVersion(), elapsed);
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("heart-rate-zones"));
+        result.put("success", true);
+        result.put("zoneVersion", zones.getVersion());
+        result.put("trackCount", rebuilt);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    private static String validate(AthleteProfile profile) {
+        int max = profile.getMaxHeartRate();
+        if (max < 100 || max > 250) {
+            return "最大心率应在100到250之间";
+        }
+        Integer resting = profile.getRestingHeartRate();
+        if (resting != null && (resting < 25 || resting >= max)) {
+            return "静息心率应不低于25且小于最大心率";
+        }
+        Integer threshold = profile.getThresholdHeartRate();
+        if (threshold != null && (threshold < 80 || threshold >= max)) {
+            return "乳酸阈值心率应不低于80且小于最大心率";
+        }
+        if (profile.getZoneModel() == HeartRateZoneModel.HEART_RATE_RESERVE && resting == null) {
+            return "按储备心率划分区间需要设置静息心率";
+        }
+        if (profile.getZoneModel() == HeartRateZoneModel.THRESHOLD_HEART_RATE && threshold == null) {
+            return "按乳酸阈值心率划分区间需要设置阈值心率";
+        }
+        return null;
+    }
+}
@@ -1,83 +1,1200 @@
 package com.garmin.runner.service.impl;
 
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.metrics.ImportMetrics;
 import com.garmin.runner.model.Activity;
 import com.garmin.runner.model.ActivityDetail;
+import com.garmin.runner.model.DuplicatePolicy;
 import com.garmin.runner.model.ImportRecord;
+import com.garmin.runner.parser.ActivityFileFormat;
+import com.garmin.runner.parser.ParsedActivity;
+import com.garmin.runner.parser.TrackAccumulator;
 import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackPointRepository;
+import com.garmin.runner.repository.ActivityTrackPolylineRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
 import com.garmin.runner.repository.ImportRecordRepository;
+import com.garmin.runner.service.ActivityColumnStore;
+import com.garmin.runner.service.ActivityTrackService;
 import com.garmin.runner.service.ImportService;
+import com.garmin.runner.service.PersonalRecordService;
+import com.garmin.runner.service.StatisticsRollupService;
+import com.garmin.runner.service.TrainingLoadService;
+import com.garmin.runner.util.ActivityColumnMapping;
+import com.garmin.runner.util.ActivityCsvMapper;
+import com.garmin.runner.util.ActivityCsvColumn;
+import com.garmin.runner.util.ActivityDedupKey;
 import com.garmin.runner.util.CsvParserUtil;
+import com.garmin.runner.util.TrackData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipInputStream;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class ImportServiceImpl implements ImportService {
 
+    private static final Logger log = LoggerFactory.getLogger(ImportServiceImpl.class);
+
     @Autowired
     private CsvParserUtil csvParserUtil;
 
+    @Autowired
+    private ActivityCsvMapper activityCsvMapper;
+
     @Autowired
     private ActivityRepository activityRepository;
 
     @Autowired
     private ImportRecordRepository importRecordRepository;
 
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private ActivityColumnStore activityColumnStore;
+
+    @Autowired
+    private ActivityTrackService activityTrackService;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private ActivityTrackPointRepository activityTrackPointRepository;
+
+    @Autowired
+    private ActivityTrackPolylineRepository activityTrackPolylineRepository;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ImportMetrics importMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("importTaskExecutor")
+    private TaskExecutor importTaskExecutor;
+
+    @Autowired
+    @Qualifier("bulkParseExecutor")
+    private ThreadPoolTaskExecutor bulkParseExecutor;
+
+    // 每个分块的活动数量，与hibernate.jdbc.batch_size保持一致
+    @Value("${runner.import.batch-size:500}")
+    private int batchSize;
+
+    // 压缩包中单个文件解压后的大小上限，防止压缩炸弹
+    @Value("${runner.import.bulk.max-entry-size:64MB}")
+    private DataSize maxEntrySize;
+
+    // 压缩包中不超过该大小的文件读入内存后并行解析，更大的文件在读取线程中流式解析
+    @Value("${runner.import.bulk.buffered-entry-size:1MB}")
+    private DataSize bufferedEntrySize;
+
+    // 解析线程与写入线程之间的队列长度，写入跟不上时解析线程阻塞等待
+    @Value("${runner.import.bulk.writer-queue-capacity:32}")
+    private int writerQueueCapacity;
+
+    // 压缩包内嵌套压缩包的最大层数（佳明导出中上传的原始文件以压缩包形式存放）
+    private static final int MAX_ARCHIVE_DEPTH = 2;
+
+    // 写入线程空闲等待的时间，超时后先写入未满的分块，使进度及时可见
+    private static final long WRITER_POLL_MILLIS = 200;
+
+    // 佳明数据导出中的原始文件名以活动ID开头，如 12345678901_ACTIVITY.fit
+    private static final Pattern GARMIN_FILE_NAME = Pattern.compile("^(\\d{6,})_ACTIVITY\\.", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 导入不在外层事务中运行，每个分块独立提交，避免大文件占用一个超长事务
+     */
     @Override
-    public Map<String, Object> importGarminData(MultipartFile file) {
-        Map<String, Object> result = new HashMap<>();
-        ImportRecord importRecord = new ImportRecord();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> importGarminData(MultipartFile file, DuplicatePolicy duplicatePolicy) {
+        ImportRecord importRecord;
+        try {
+            // 先保存导入记录到数据库
+            importRecord = createImportRecord(file.getOriginalFilename(), file.getSize(), "处理中", duplicatePolicy);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "数据导入失败: " + e.getMessage());
+            return result;
+        }
         
+        runImport(importRecord, file);
+        return buildImportResult(importRecord);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> importTrackFile(MultipartFile file, DuplicatePolicy duplicatePolicy) {
+        Optional<ActivityFileFormat> format = ActivityFileFormat.fromFileName(file.getOriginalFilename());
+        if (format.isEmpty()) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "不支持的文件格式，请上传FIT、TCX或GPX文件");
+            return result;
+        }
+
+        ImportRecord importRecord;
         try {
-            // 初始化导入记录
-            importRecord.setFileName(file.getOriginalFilename());
-            importRecord.setFileSize(file.getSize());
-            importRecord.setImportTime(LocalDateTime.now());
+            importRecord = createImportRecord(file.getOriginalFilename(), file.getSize(), "处理中", duplicatePolicy);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "数据导入失败: " + e.getMessage());
+            return result;
+        }
+
+        long startTime = System.currentTimeMillis();
+        UpsertResult upsert = null;
+        ParsedActivity parsed = null;
+        try (InputStream inputStream = file.getInputStream()) {
+            long parseStart = System.nanoTime();
+            parsed = parseTrackFile(format.get(), inputStream);
+            importMetrics.recordParse(ImportMetrics.SOURCE_TRACK, System.nanoTime() - parseStart);
+            importRecord.setRowsParsed(1);
+            upsert = persistParsedActivity(parsed, file.getOriginalFilename(), importRecord);
+            addUpsertCounts(importRecord, upsert);
+            recalculateTrainingLoad(importRecord, upsert.earliestChange);
             importRecord.setStatus("成功");
-            importRecord.setActivityCount(0); // 初始化为0
-            
-            // 先保存导入记录到数据库
-            importRecord = importRecordRepository.save(importRecord);
-            
-            // 解析CSV文件
-            List<Map<String, String>> csvData = csvParserUtil.parseActivitySummary(file.getInputStream());
-            
-            // 处理活动数据
-            List<Activity> activities = processActivities(csvData, importRecord);
-            
-            // 更新活动数量
-            importRecord.setActivityCount(activities.size());
-            importRecordRepository.save(importRecord);
-            
-            // 设置响应结果
-            result.put("success", true);
-            result.put("message", "数据导入成功");
-            result.put("activityCount", activities.size());
-            result.put("importRecordId", importRecord.getId());
-            
         } catch (Exception e) {
-            // 记录导入失败信息
+            log.error("轨迹文件导入失败: {}", importRecord.getId(), e);
+            importRecord.setRowsFailed(1);
             importRecord.setStatus("失败");
             importRecord.setErrorMessage(e.getMessage());
-            importRecordRepository.save(importRecord);
-            
+        }
+
+        importRecord.setActivityCount(importRecord.getRowsPersisted());
+        importRecord.setElapsedMs(System.currentTimeMillis() - startTime);
+        saveProgress(importRecord);
+        importMetrics.recordImport(ImportMetrics.SOURCE_TRACK, importRecord);
+
+        Map<String, Object> result = buildImportResult(importRecord);
+        if (upsert != null) {
+            result.put("activityId", upsert.activities.get(0).getId());
+            result.put("outcome", upsert.outcomes[0]);
+            result.put("sampleCount", parsed.getTrack().size());
+        }
+        return result;
+    }
+
+    /**
+     * 流式解析轨迹文件，采样点和活动摘要在同一遍中得到
+     */
+    private ParsedActivity parseTrackFile(ActivityFileFormat format, InputStream inputStream) throws IOException {
+        TrackAccumulator accumulator = new TrackAccumulator();
+        format.newParser().parse(inputStream, accumulator);
+        ParsedActivity parsed = accumulator.finish();
+        if (parsed == null) {
+            throw new IllegalArgumentException("文件中没有有效的采样点");
+        }
+        return parsed;
+    }
+
+    /**
+     * 在一个事务中按去重策略写入活动、统计汇总和压缩后的采样数据
+     */
+    private UpsertResult persistParsedActivity(ParsedActivity parsed, String fileName, ImportRecord importRecord) {
+        Activity activity = toActivity(parsed, fileName, importRecord);
+        long persistStart = System.nanoTime();
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                UpsertResult upsert = upsertChunk(List.of(activity), List.of(parsed.getTrack()),
+                        importRecord.getDuplicatePolicy());
+                if (upsert.written() > 0) {
+                    eventPublisher.publishEvent(new ActivityDataChangedEvent("import"));
+                }
+                return upsert;
+            });
+        } finally {
+            importMetrics.recordPersist(ImportMetrics.SOURCE_TRACK, System.nanoTime() - persistStart);
+        }
+    }
+
+    /**
+     * 将轨迹文件的解析结果转换为活动实体，文件中没有活动名称时使用文件名，没有佳明活动ID时从文件名中识别
+     */
+    private Activity toActivity(ParsedActivity parsed, String fileName, ImportRecord importRecord) {
+        Activity activity = new Activity();
+        activity.setActivityName(parsed.getActivityName() != null ? parsed.getActivityName() : fileName);
+        activity.setActivityType(parsed.getActivityType());
+        activity.setStartTime(parsed.getStartTime());
+        activity.setEndTime(parsed.getEndTime());
+        activity.setDuration(parsed.getDuration());
+        activity.setDistance(parsed.getDistance());
+        activity.setCalories(parsed.getCalories());
+        activity.setAverageHeartRate(parsed.getAverageHeartRate());
+        activity.setMaxHeartRate(parsed.getMaxHeartRate());
+        activity.setAveragePace(parsed.getAveragePace());
+        activity.setImportDate(LocalDateTime.now());
+        activity.setImportRecord(importRecord);
+        activity.setActivityDetails(Collections.emptyList());
+        activity.setGarminActivityId(parsed.getGarminActivityId());
+        if (activity.getGarminActivityId() == null && fileName != null) {
+            Matcher matcher = GARMIN_FILE_NAME.matcher(fileName.substring(fileName.lastIndexOf('/') + 1));
+            if (matcher.find()) {
+                activity.setGarminActivityId(matcher.group(1));
+            }
+        }
+        activity.setDedupKey(ActivityDedupKey.of(activity));
+        return activity;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> importParsedActivities(String sourceName, Iterator<ParsedActivity> activities,
+                                                      DuplicatePolicy duplicatePolicy) {
+        ImportRecord importRecord;
+        try {
+            importRecord = createImportRecord(sourceName, 0, "处理中", duplicatePolicy);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "数据导入失败: " + e.getMessage());
+            return result;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long loopStart = System.nanoTime();
+        long persistNanos = 0;
+        List<Activity> chunk = new ArrayList<>(batchSize);
+        List<TrackData> tracks = new ArrayList<>(batchSize);
+        ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
+        AffectedDates affectedDates = new AffectedDates();
+        try {
+            while (activities.hasNext()) {
+                ParsedActivity parsed = activities.next();
+                Activity activity = toActivity(parsed, sourceName, importRecord);
+                occurrences.assign(activity);
+                chunk.add(activity);
+                tracks.add(parsed.getTrack());
+                importRecord.setRowsParsed(importRecord.getRowsParsed() + 1);
+                if (chunk.size() >= batchSize) {
+                    persistNanos += persistChunk(ImportMetrics.SOURCE_GENERATED, chunk, tracks, importRecord, startTime,
+                            affectedDates);
+                    chunk.clear();
+                    tracks.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                persistNanos += persistChunk(ImportMetrics.SOURCE_GENERATED, chunk, tracks, importRecord, startTime,
+                            affectedDates);
+            }
+            importMetrics.recordParse(ImportMetrics.SOURCE_GENERATED, System.nanoTime() - loopStart - persistNanos);
+            completeImport(importRecord);
+        } catch (Exception e) {
+            log.error("导入失败: {}", importRecord.getId(), e);
+            importRecord.setStatus("失败");
+            importRecord.setErrorMessage(e.getMessage());
+        }
+        recalculateTrainingLoad(importRecord, affectedDates.earliest);
+
+        finishImport(ImportMetrics.SOURCE_GENERATED, importRecord, startTime);
+        return buildImportResult(importRecord);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> submitImportJob(MultipartFile file, DuplicatePolicy duplicatePolicy) {
+        Map<String, Object> result = new HashMap<>();
+        
+        // 上传文件在请求结束后会被清理，先转存到临时文件供后台任务读取
+        Path jobFile;
+        ImportRecord importRecord;
+        try {
+            jobFile = Files.createTempFile("garmin-import-", ".csv");
+            file.transferTo(jobFile);
+            importRecord = createImportRecord(file.getOriginalFilename(), file.getSize(), "排队中", duplicatePolicy);
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "创建导入任务失败: " + e.getMessage());
+            return result;
+        }
+        
+        return submitJob(importRecord, List.of(jobFile),
+                () -> runImport(importRecord, new FileSystemResource(jobFile)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> importBulk(List<MultipartFile> files, DuplicatePolicy duplicatePolicy) {
+        ImportRecord parent;
+        try {
+            parent = createBulkRecord(files, "处理中", duplicatePolicy);
+        } catch (Exception e) {
+            Map<String, Object> result = new HashMap<>();
             result.put("success", false);
             result.put("message", "数据导入失败: " + e.getMessage());
+            return result;
+        }
+
+        List<BulkUpload> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(new BulkUpload(file.getOriginalFilename(), file.getSize(), file));
+        }
+        BulkImport bulk = runBulkImport(parent, uploads);
+
+        Map<String, Object> result = buildImportResult(parent);
+        result.put("fileCount", bulk.fileCount);
+        result.put("failedFiles", bulk.failedFiles);
+        result.put("skippedEntries", bulk.skippedEntries);
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> submitBulkImportJob(List<MultipartFile> files, DuplicatePolicy duplicatePolicy) {
+        Map<String, Object> result = new HashMap<>();
+
+        // 与单文件任务相同，先把每个上传文件转存到临时文件；压缩包本身不解压
+        List<Path> jobFiles = new ArrayList<>();
+        List<BulkUpload> uploads = new ArrayList<>();
+        ImportRecord parent;
+        try {
+            for (MultipartFile file : files) {
+                Path jobFile = Files.createTempFile("garmin-bulk-", ".tmp");
+                jobFiles.add(jobFile);
+                file.transferTo(jobFile);
+                uploads.add(new BulkUpload(file.getOriginalFilename(), file.getSize(), new FileSystemResource(jobFile)));
+            }
+            parent = createBulkRecord(files, "排队中", duplicatePolicy);
+        } catch (Exception e) {
+            jobFiles.forEach(this::deleteTempFile);
+            result.put("success", false);
+            result.put("message", "创建导入任务失败: " + e.getMessage());
+            return result;
+        }
+
+        return submitJob(parent, jobFiles, () -> runBulkImport(parent, uploads));
+    }
+
+    /**
+     * 将导入任务提交到后台线程池，任务结束后删除临时文件；队列已满时直接将导入记录标记为失败
+     */
+    private Map<String, Object> submitJob(ImportRecord importRecord, List<Path> jobFiles, Runnable task) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            importTaskExecutor.execute(() -> {
+                try {
+                    importRecord.setStatus("处理中");
+                    saveProgress(importRecord);
+                    task.run();
+                } finally {
+                    jobFiles.forEach(this::deleteTempFile);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("导入任务队列已满, 拒绝导入任务: {}", importRecord.getId());
+            jobFiles.forEach(this::deleteTempFile);
+            importRecord.setStatus("失败");
+            importRecord.setErrorMessage("导入任务队列已满，请稍后重试");
+            saveProgress(importRecord);
+            
+            result.put("success", false);
+            result.put("queueFull", true);
+            result.put("message", importRecord.getErrorMessage());
             result.put("importRecordId", importRecord.getId());
+            return result;
+        }
+        
+        log.info("导入任务已提交: {}, 文件: {}", importRecord.getId(), importRecord.getFileName());
+        result.put("success", true);
+        result.put("message", "导入任务已提交");
+        result.put("importRecordId", importRecord.getId());
+        result.put("status", importRecord.getStatus());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getImportJob(Long id) {
+        Map<String, Object> result = new HashMap<>();
+        Optional<ImportRecord> importRecord = importRecordRepository.findById(id);
+        if (importRecord.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "导入任务不存在: " + id);
+            return result;
         }
         
+        ImportRecord record = importRecord.get();
+        result.put("success", true);
+        result.put("importRecordId", record.getId());
+        result.put("fileName", record.getFileName());
+        result.put("fileSize", record.getFileSize());
+        result.put("importTime", record.getImportTime());
+        result.put("status", record.getStatus());
+        result.put("errorMessage", record.getErrorMessage());
+        result.put("activityCount", record.getActivityCount());
+        result.put("rowsParsed", record.getRowsParsed());
+        result.put("rowsPersisted", record.getRowsPersisted());
+        result.put("rowsFailed", record.getRowsFailed());
+        result.put("rowsInserted", record.getRowsInserted());
+        result.put("rowsUpdated", record.getRowsUpdated());
+        result.put("rowsSkipped", record.getRowsSkipped());
+        result.put("duplicatePolicy", record.getDuplicatePolicy());
+        result.put("elapsedMs", record.getElapsedMs());
+        result.put("finished", !"排队中".equals(record.getStatus()) && !"处理中".equals(record.getStatus()));
+
+        // 批量导入附带每个文件的导入情况
+        List<ImportRecord> children = importRecordRepository.findByParentIdOrderByIdAsc(record.getId());
+        if (!children.isEmpty()) {
+            List<Map<String, Object>> files = new ArrayList<>();
+            int failedFiles = 0;
+            for (ImportRecord child : children) {
+                Map<String, Object> file = new LinkedHashMap<>();
+                file.put("importRecordId", child.getId());
+                file.put("fileName", child.getFileName());
+                file.put("status", child.getStatus());
+                file.put("activityCount", child.getActivityCount());
+                file.put("rowsInserted", child.getRowsInserted());
+                file.put("rowsUpdated", child.getRowsUpdated());
+                file.put("rowsSkipped", child.getRowsSkipped());
+                file.put("rowsFailed", child.getRowsFailed());
+                file.put("errorMessage", child.getErrorMessage());
+                files.add(file);
+                if ("失败".equals(child.getStatus())) {
+                    failedFiles++;
+                }
+            }
+            result.put("fileCount", children.size());
+            result.put("failedFiles", failedFiles);
+            result.put("files", files);
+        }
+        return result;
+    }
+
+    /**
+     * 创建并保存导入记录
+     */
+    private ImportRecord createImportRecord(String fileName, long fileSize, String status,
+                                            DuplicatePolicy duplicatePolicy) {
+        return createImportRecord(fileName, fileSize, status, duplicatePolicy, null);
+    }
+
+    private ImportRecord createImportRecord(String fileName, long fileSize, String status,
+                                            DuplicatePolicy duplicatePolicy, Long parentId) {
+        ImportRecord importRecord = new ImportRecord();
+        importRecord.setParentId(parentId);
+        importRecord.setDuplicatePolicy(duplicatePolicy);
+        importRecord.setFileName(fileName);
+        importRecord.setFileSize(fileSize);
+        importRecord.setImportTime(LocalDateTime.now());
+        importRecord.setStatus(status);
+        importRecord.setActivityCount(0); // 初始化为0
+        importRecord.setRowsParsed(0);
+        importRecord.setRowsPersisted(0);
+        importRecord.setRowsFailed(0);
+        importRecord.setRowsInserted(0);
+        importRecord.setRowsUpdated(0);
+        importRecord.setRowsSkipped(0);
+        importRecord.setElapsedMs(0L);
+        return importRecordRepository.save(importRecord);
+    }
+
+    /**
+     * 执行一次导入：流式解析CSV并分块写入，过程中持续更新导入记录的进度
+     */
+    private void runImport(ImportRecord importRecord, InputStreamSource source) {
+        long startTime = System.currentTimeMillis();
+        AffectedDates affectedDates = new AffectedDates();
+        
+        try (CSVParser parser = csvParserUtil.openActivitySummary(source.getInputStream())) {
+            processActivities(parser, importRecord, startTime, affectedDates);
+            completeImport(importRecord);
+        } catch (Exception e) {
+            // 记录导入失败信息
+            log.error("导入失败: {}", importRecord.getId(), e);
+            importRecord.setStatus("失败");
+            importRecord.setErrorMessage(e.getMessage());
+        }
+        // 解析中途失败时已提交的分块同样需要计算训练负荷
+        recalculateTrainingLoad(importRecord, affectedDates.earliest);
+        
+        finishImport(ImportMetrics.SOURCE_CSV, importRecord, startTime);
+    }
+
+    /**
+     * 所有分块处理完后按失败行数确定导入状态
+     */
+    private void completeImport(ImportRecord importRecord) {
+        if (importRecord.getRowsFailed() == 0) {
+            importRecord.setStatus("成功");
+        } else {
+            importRecord.setStatus(importRecord.getRowsPersisted() > 0 ? "部分成功" : "失败");
+        }
+    }
+
+    /**
+     * 所有分块提交后，从本次导入最早受影响的日期起重新计算一次训练负荷，避免每个分块都重算一遍之后的历史
+     * 计算失败不影响已写入的活动，记录日志后可通过重建接口补算
+     * @param earliest 已提交分块中最早受影响的日期，没有写入任何活动时为null
+     */
+    private void recalculateTrainingLoad(ImportRecord importRecord, LocalDate earliest) {
+        if (earliest == null) {
+            return;
+        }
+        try {
+            trainingLoadService.recalculateFrom(earliest);
+            eventPublisher.publishEvent(new ActivityDataChangedEvent("training-load"));
+        } catch (Exception e) {
+            log.error("导入后训练负荷计算失败: {}, 起始日期: {}", importRecord.getId(), earliest, e);
+        }
+    }
+
+    /**
+     * 更新活动数量和耗时，写回最终进度并记录导入指标
+     */
+    private void finishImport(String source, ImportRecord importRecord, long startTime) {
+        importRecord.setActivityCount(importRecord.getRowsPersisted());
+        importRecord.setElapsedMs(System.currentTimeMillis() - startTime);
+        saveProgress(importRecord);
+        importMetrics.recordImport(source, importRecord);
+        log.info("导入完成: {}, 状态: {}, 写入 {} 条, 失败 {} 条, 耗时 {} ms", importRecord.getId(), importRecord.getStatus(),
+                importRecord.getRowsPersisted(), importRecord.getRowsFailed(), importRecord.getElapsedMs());
+    }
+
+    /**
+     * 创建批量导入的父记录，文件大小为所有上传文件之和
+     */
+    private ImportRecord createBulkRecord(List<MultipartFile> files, String status, DuplicatePolicy duplicatePolicy) {
+        long totalSize = 0;
+        for (MultipartFile file : files) {
+            totalSize += file.getSize();
+        }
+        String fileName = files.size() == 1 ? files.get(0).getOriginalFilename() : "批量导入(" + files.size() + "个文件)";
+        return createImportRecord(fileName, totalSize, status, duplicatePolicy);
+    }
+
+    /**
+     * 执行一次批量导入
+     * 当前线程顺序读取上传文件和压缩包条目，较小的条目读入内存后交给解析线程池，较大的条目在当前线程中流式解析；
+     * 解析结果经有界队列交给单一写入线程，写入线程按分块在独立事务中批量写入，并为每个文件维护一条子导入记录
+     */
+    private BulkImport runBulkImport(ImportRecord parent, List<BulkUpload> uploads) {
+        long startTime = System.currentTimeMillis();
+        BulkImport bulk = new BulkImport(parent, startTime);
+        Thread writer = new Thread(bulk, "garmin-bulk-writer-" + parent.getId());
+        writer.start();
+
+        List<CompletableFuture<Void>> parseTasks = new ArrayList<>();
+        try {
+            for (BulkUpload upload : uploads) {
+                if (isArchive(upload.fileName)) {
+                    try (InputStream inputStream = upload.source.getInputStream()) {
+                        readArchive(bulk, inputStream, 0, parseTasks);
+                    }
+                } else if (isBulkSupported(upload.fileName)) {
+                    dispatchEntry(bulk, new BulkEntry(upload.fileName, upload.fileSize), upload.source, parseTasks);
+                } else {
+                    bulk.skippedEntries++;
+                }
+            }
+        } catch (Exception e) {
+            // 压缩包损坏时停止读取，已提交的文件照常写入
+            log.error("批量导入读取文件失败: {}", parent.getId(), e);
+            parent.setErrorMessage("读取压缩包失败: " + e.getMessage());
+        }
+
+        CompletableFuture.allOf(parseTasks.toArray(new CompletableFuture[0])).join();
+        bulk.submit(BulkChunk.END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        recalculateTrainingLoad(parent, bulk.affectedDates.earliest);
+
+        if (bulk.writerFailure != null && parent.getErrorMessage() == null) {
+            parent.setErrorMessage(bulk.writerFailure.getMessage());
+        }
+        if (bulk.fileCount == 0 && parent.getErrorMessage() == null) {
+            parent.setErrorMessage("没有可导入的文件，支持CSV、FIT、TCX、GPX文件及其ZIP压缩包");
+        }
+        if (parent.getRowsFailed() > 0 && parent.getErrorMessage() == null) {
+            parent.setErrorMessage("部分文件导入失败，详见各文件的导入记录");
+        }
+        if (parent.getRowsFailed() == 0 && parent.getErrorMessage() == null) {
+            parent.setStatus("成功");
+        } else {
+            parent.setStatus(parent.getRowsPersisted() > 0 ? "部分成功" : "失败");
+        }
+        parent.setActivityCount(parent.getRowsPersisted());
+        parent.setElapsedMs(System.currentTimeMillis() - startTime);
+        saveProgress(parent);
+        importMetrics.recordImport(ImportMetrics.SOURCE_BULK, parent);
+        log.info("批量导入完成: {}, 状态: {}, 文件 {} 个(失败 {} 个, 跳过 {} 个), 写入 {} 条, 耗时 {} ms",
+                parent.getId(), parent.getStatus(), bulk.fileCount, bulk.failedFiles, bulk.skippedEntries,
+                parent.getRowsPersisted(), parent.getElapsedMs());
+        return bulk;
+    }
+
+    /**
+     * 流式读取ZIP压缩包，不在磁盘上解压
+     * 不超过buffered-entry-size的条目读入内存后交给解析线程池并行解析；更大的条目（通常是汇总CSV）在当前线程中
+     * 边读边解析，内存占用与条目大小无关，解析完之后再读取下一个条目
+     */
+    private void readArchive(BulkImport bulk, InputStream inputStream, int depth,
+                             List<CompletableFuture<Void>> parseTasks) throws IOException {
+        ZipInputStream zip = new ZipInputStream(inputStream);
+        ZipEntry zipEntry;
+        while ((zipEntry = zip.getNextEntry()) != null) {
+            String name = zipEntry.getName();
+            if (zipEntry.isDirectory() || isHiddenEntry(name)) {
+                continue;
+            }
+            boolean archive = isArchive(name);
+            if (!(archive ? depth < MAX_ARCHIVE_DEPTH : isBulkSupported(name))) {
+                bulk.skippedEntries++;
+                continue;
+            }
+            if (zipEntry.getSize() > maxEntrySize.toBytes()) {
+                failEntry(bulk, new BulkEntry(name, zipEntry.getSize()), entrySizeExceeded());
+                continue;
+            }
+
+            // 条目的输入流不关闭压缩包，读取超过大小上限时抛出异常（防止压缩炸弹）
+            InputStream entryStream = new ZipEntryInputStream(zip, maxEntrySize.toBytes(), entrySizeExceeded());
+            if (archive) {
+                try {
+                    readArchive(bulk, entryStream, depth + 1, parseTasks);
+                } catch (EntrySizeExceededException e) {
+                    failEntry(bulk, new BulkEntry(name, zipEntry.getSize()), e.getMessage());
+                }
+                continue;
+            }
+
+            byte[] head;
+            try {
+                head = entryStream.readNBytes((int) Math.min(bufferedEntrySize.toBytes(), Integer.MAX_VALUE - 8) + 1);
+            } catch (EntrySizeExceededException e) {
+                failEntry(bulk, new BulkEntry(name, zipEntry.getSize()), e.getMessage());
+                continue;
+            }
+            if (head.length <= bufferedEntrySize.toBytes()) {
+                dispatchEntry(bulk, new BulkEntry(name, head.length), new ByteArrayResource(head), parseTasks);
+            } else {
+                // 大小未知（条目使用数据描述符）时记录已读取的字节数
+                BulkEntry entry = new BulkEntry(name, Math.max(zipEntry.getSize(), head.length));
+                bulk.fileCount++;
+                parseBulkEntry(bulk, entry, () -> new SequenceInputStream(new ByteArrayInputStream(head), entryStream));
+            }
+        }
+    }
+
+    private void failEntry(BulkImport bulk, BulkEntry entry, String error) {
+        bulk.fileCount++;
+        bulk.submit(BulkChunk.failed(entry, error));
+    }
+
+    private String entrySizeExceeded() {
+        return "文件超过大小上限 " + maxEntrySize.toMegabytes() + "MB";
+    }
+
+    private void dispatchEntry(BulkImport bulk, BulkEntry entry, InputStreamSource content,
+                               List<CompletableFuture<Void>> parseTasks) {
+        bulk.fileCount++;
+        parseTasks.add(bulkParseExecutor.submitCompletable(() -> parseBulkEntry(bulk, entry, content)));
+    }
+
+    /**
+     * 在解析线程中解析一个文件：轨迹文件得到一个带采样数据的活动，CSV汇总文件按分块逐批交给写入线程
+     */
+    private void parseBulkEntry(BulkImport bulk, BulkEntry entry, InputStreamSource content) {
+        try (InputStream inputStream = content.getInputStream()) {
+            Optional<ActivityFileFormat> format = ActivityFileFormat.fromFileName(entry.fileName);
+            if (format.isPresent()) {
+                long parseStart = System.nanoTime();
+                ParsedActivity parsed = parseTrackFile(format.get(), inputStream);
+                importMetrics.recordParse(ImportMetrics.SOURCE_BULK, System.nanoTime() - parseStart);
+                bulk.submit(new BulkChunk(entry, List.of(toActivity(parsed, entry.fileName, null)),
+                        Collections.singletonList(parsed.getTrack()), true, null));
+                return;
+            }
+
+            try (CSVParser parser = csvParserUtil.openActivitySummary(inputStream)) {
+                ActivityColumnMapping<ActivityCsvColumn> mapping = ActivityColumnMapping.compile(parser.getHeaderNames());
+                if (!isGarminSummary(mapping)) {
+                    bulk.submit(BulkChunk.failed(entry, "无效的佳明数据文件"));
+                    return;
+                }
+                // 解析耗时不含等待写入队列的时间
+                long parseStart = System.nanoTime();
+                long waitNanos = 0;
+                List<Activity> chunk = new ArrayList<>(batchSize);
+                int failedRows = 0;
+                String rowError = null;
+                ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
+                for (CSVRecord record : parser) {
+                    Activity activity;
+                    try {
+                        activity = activityCsvMapper.toActivity(record, mapping, null);
+                    } catch (RuntimeException e) {
+                        // 单行无法转换时计为失败行，继续解析文件的其余部分
+                        log.debug("批量导入记录转换失败: {}, 第 {} 条记录", entry.fileName, record.getRecordNumber(), e);
+                        failedRows++;
+                        if (rowError == null) {
+                            rowError = rowFailure(record, e);
+                        }
+                        continue;
+                    }
+                    occurrences.assign(activity);
+                    chunk.add(activity);
+                    if (chunk.size() >= batchSize) {
+                        long waitStart = System.nanoTime();
+                        bulk.submit(BulkChunk.rows(entry, chunk, failedRows, rowError, false));
+                        waitNanos += System.nanoTime() - waitStart;
+                        chunk = new ArrayList<>(batchSize);
+                        failedRows = 0;
+                        rowError = null;
+                    }
+                }
+                importMetrics.recordParse(ImportMetrics.SOURCE_BULK, System.nanoTime() - parseStart - waitNanos);
+                bulk.submit(BulkChunk.rows(entry, chunk, failedRows, rowError, true));
+            }
+        } catch (Exception e) {
+            log.warn("批量导入文件解析失败: {}", entry.fileName, e);
+            bulk.submit(BulkChunk.failed(entry, e.getMessage()));
+        }
+    }
+
+    private static boolean isArchive(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".zip");
+    }
+
+    private static boolean isBulkSupported(String fileName) {
+        return fileName != null && (fileName.toLowerCase().endsWith(".csv")
+                || ActivityFileFormat.fromFileName(fileName).isPresent());
+    }
+
+    /**
+     * macOS压缩时附带的资源文件和隐藏文件不导入
+     */
+    private static boolean isHiddenEntry(String name) {
+        String baseName = name.substring(name.lastIndexOf('/') + 1);
+        return name.startsWith("__MACOSX/") || baseName.startsWith(".");
+    }
+
+    /**
+     * 一次批量导入的状态，同时作为写入线程的执行体
+     * 读取线程只修改fileCount和skippedEntries，其余状态只由写入线程访问，读取线程在join之后再读取
+     */
+    private class BulkImport implements Runnable {
+
+        private final ImportRecord parent;
+        private final long startTime;
+        private final BlockingQueue<BulkChunk> queue = new ArrayBlockingQueue<>(writerQueueCapacity);
+        private final List<Activity> pendingActivities = new ArrayList<>(batchSize);
+        private final List<TrackData> pendingTracks = new ArrayList<>(batchSize);
+        private final List<BulkEntry> pendingEntries = new ArrayList<>(batchSize);
+        private final AffectedDates affectedDates = new AffectedDates();
+
+        private int fileCount;
+        private int skippedEntries;
+        private int failedFiles;
+        private volatile Exception writerFailure;
+
+        BulkImport(ImportRecord parent, long startTime) {
+            this.parent = parent;
+            this.startTime = startTime;
+        }
+
+        /**
+         * 把解析结果交给写入线程，队列满时阻塞；写入线程异常退出后直接丢弃，避免解析线程永久等待
+         */
+        void submit(BulkChunk chunk) {
+            try {
+                while (writerFailure == null) {
+                    if (queue.offer(chunk, WRITER_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    BulkChunk chunk = queue.poll(WRITER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        flush();
+                        continue;
+                    }
+                    if (chunk == BulkChunk.END) {
+                        flush();
+                        return;
+                    }
+                    accept(chunk);
+                    if (pendingActivities.size() >= batchSize) {
+                        flush();
+                    }
+                }
+            } catch (Exception e) {
+                log.error("批量导入写入线程异常退出: {}", parent.getId(), e);
+                writerFailure = e;
+            }
+        }
+
+        private void accept(BulkChunk chunk) {
+            BulkEntry entry = chunk.entry;
+            if (entry.record == null) {
+                entry.record = createImportRecord(entry.fileName, entry.fileSize, "处理中",
+                        parent.getDuplicatePolicy(), parent.getId());
+                entry.startTime = System.currentTimeMillis();
+            }
+
+            if (chunk.error != null) {
+                entry.failed++;
+                entry.error = chunk.error;
+                parent.setRowsFailed(parent.getRowsFailed() + 1);
+            } else {
+                for (int i = 0; i < chunk.activities.size(); i++) {
+                    Activity activity = chunk.activities.get(i);
+                    activity.setImportRecord(entry.record);
+                    pendingActivities.add(activity);
+                    pendingTracks.add(chunk.tracks != null ? chunk.tracks.get(i) : null);
+                    pendingEntries.add(entry);
+                }
+                entry.parsed += chunk.activities.size() + chunk.failedRows;
+                entry.pending += chunk.activities.size();
+                entry.failed += chunk.failedRows;
+                if (chunk.rowError != null && entry.error == null) {
+                    entry.error = chunk.rowError;
+                }
+                parent.setRowsParsed(parent.getRowsParsed() + chunk.activities.size() + chunk.failedRows);
+                parent.setRowsFailed(parent.getRowsFailed() + chunk.failedRows);
+            }
+
+            if (chunk.last || chunk.error != null) {
+                entry.complete = true;
+                if (entry.pending == 0) {
+                    finishEntry(entry);
+                }
+            }
+        }
+
+        /**
+         * 在独立事务中写入当前分块的活动、统计汇总和采样数据，然后更新涉及到的子记录和父记录进度
+         */
+        private void flush() {
+            if (pendingActivities.isEmpty()) {
+                return;
+            }
+            UpsertResult upsert = null;
+            String error = null;
+            long persistStart = System.nanoTime();
+            try {
+                upsert = new TransactionTemplate(transactionManager).execute(status -> {
+                    UpsertResult chunkResult = upsertChunk(pendingActivities, pendingTracks, parent.getDuplicatePolicy());
+                    if (chunkResult.written() > 0) {
+                        eventPublisher.publishEvent(new ActivityDataChangedEvent("import"));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return chunkResult;
+                });
+            } catch (Exception e) {
+                log.warn("批量导入分块写入失败, 分块大小: {}", pendingActivities.size(), e);
+                error = e.getMessage();
+            }
+            importMetrics.recordPersist(ImportMetrics.SOURCE_BULK, System.nanoTime() - persistStart);
+
+            Set<BulkEntry> touched = new LinkedHashSet<>();
+            for (int i = 0; i < pendingEntries.size(); i++) {
+                BulkEntry entry = pendingEntries.get(i);
+                if (upsert == null) {
+                    entry.failed++;
+                    if (entry.error == null) {
+                        entry.error = error;
+                    }
+                } else {
+                    switch (upsert.outcomes[i]) {
+                        case INSERTED -> entry.inserted++;
+                        case UPDATED -> entry.updated++;
+                        case SKIPPED -> entry.skipped++;
+                    }
+                }
+                entry.pending--;
+                touched.add(entry);
+            }
+            if (upsert != null) {
+                addUpsertCounts(parent, upsert);
+                affectedDates.include(upsert.earliestChange);
+            } else {
+                parent.setRowsFailed(parent.getRowsFailed() + pendingActivities.size());
+            }
+            pendingActivities.clear();
+            pendingTracks.clear();
+            pendingEntries.clear();
+
+            for (BulkEntry entry : touched) {
+                if (entry.complete && entry.pending == 0) {
+                    finishEntry(entry);
+                }
+            }
+            parent.setActivityCount(parent.getRowsPersisted());
+            parent.setElapsedMs(System.currentTimeMillis() - startTime);
+            saveProgress(parent);
+        }
+
+        private void finishEntry(BulkEntry entry) {
+            ImportRecord record = entry.record;
+            int persisted = entry.inserted + entry.updated;
+            if (entry.failed == 0) {
+                record.setStatus("成功");
+            } else {
+                record.setStatus(persisted > 0 ? "部分成功" : "失败");
+            }
+            if ("失败".equals(record.getStatus())) {
+                failedFiles++;
+            }
+            record.setErrorMessage(entry.error);
+            record.setRowsParsed(entry.parsed);
+            record.setRowsPersisted(persisted);
+            record.setRowsFailed(entry.failed);
+            record.setRowsInserted(entry.inserted);
+            record.setRowsUpdated(entry.updated);
+            record.setRowsSkipped(entry.skipped);
+            record.setActivityCount(persisted);
+            record.setElapsedMs(System.currentTimeMillis() - entry.startTime);
+            saveProgress(record);
+        }
+    }
+
+    /**
+     * 压缩包中一个条目的输入流：关闭时不关闭压缩包，以便继续读取下一个条目；读取的字节数超过上限时抛出异常
+     */
+    private static final class ZipEntryInputStream extends FilterInputStream {
+        private final long limit;
+        private final String limitMessage;
+        private long count;
+
+        ZipEntryInputStream(InputStream zip, long limit, String limitMessage) {
+            super(zip);
+            this.limit = limit;
+            this.limitMessage = limitMessage;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counted(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counted(skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // 压缩包由外层负责关闭
+        }
+
+        private void counted(long n) throws EntrySizeExceededException {
+            count += n;
+            if (count > limit) {
+                throw new EntrySizeExceededException(limitMessage);
+            }
+        }
+    }
+
+    private static final class EntrySizeExceededException extends IOException {
+        EntrySizeExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 批量导入中的一个上传文件
+     */
+    private static final class BulkUpload {
+        private final String fileName;
+        private final long fileSize;
+        private final InputStreamSource source;
+
+        BulkUpload(String fileName, long fileSize, InputStreamSource source) {
+            this.fileName = fileName;
+            this.fileSize = fileSize;
+            this.source = source;
+        }
+    }
+
+    /**
+     * 批量导入中的一个文件，子导入记录在写入线程收到第一个分块时创建；计数只由写入线程修改
+     */
+    private static final class BulkEntry {
+        private final String fileName;
+        private final long fileSize;
+        private ImportRecord record;
+        private long startTime;
+        private int parsed;
+        private int inserted;
+        private int updated;
+        private int skipped;
+        private int failed;
+        private int pending;
+        private boolean complete;
+        private String error;
+
+        BulkEntry(String fileName, long fileSize) {
+            this.fileName = fileName;
+            this.fileSize = fileSize;
+        }
+    }
+
+    /**
+     * 解析线程交给写入线程的一批活动，tracks与activities一一对应（CSV汇总文件没有采样数据时为null）
+     */
+    private static final class BulkChunk {
+        private static final BulkChunk END = new BulkChunk(null, Collections.emptyList(), null, true, null);
+
+        private final BulkEntry entry;
+        private final List<Activity> activities;
+        private final List<TrackData> tracks;
+        private final boolean last;
+        private final String error;
+        // 本批中无法转换的CSV行数及第一条错误信息，不影响文件中其余行的写入
+        private final int failedRows;
+        private final String rowError;
+
+        BulkChunk(BulkEntry entry, List<Activity> activities, List<TrackData> tracks, boolean last, String error) {
+            this(entry, activities, tracks, last, error, 0, null);
+        }
+
+        private BulkChunk(BulkEntry entry, List<Activity> activities, List<TrackData> tracks, boolean last,
+                          String error, int failedRows, String rowError) {
+            this.entry = entry;
+            this.activities = activities;
+            this.tracks = tracks;
+            this.last = last;
+            this.error = error;
+            this.failedRows = failedRows;
+            this.rowError = rowError;
+        }
+
+        static BulkChunk rows(BulkEntry entry, List<Activity> activities, int failedRows, String rowError, boolean last) {
+            return new BulkChunk(entry, activities, null, last, null, failedRows, rowError);
+        }
+
+        static BulkChunk failed(BulkEntry entry, String error) {
+            return new BulkChunk(entry, Collections.emptyList(), null, true, error != null ? error : "解析失败");
+        }
+    }
+
+    private Map<String, Object> buildImportResult(ImportRecord importRecord) {
+        Map<String, Object> result = new HashMap<>();
+        boolean success = !"失败".equals(importRecord.getStatus());
+        result.put("success", success);
+        if ("成功".equals(importRecord.getStatus())) {
+            result.put("message", "数据导入成功");
+        } else if (success) {
+            result.put("message", "数据导入部分成功: " + importRecord.getErrorMessage());
+        } else {
+            result.put("message", "数据导入失败: " + importRecord.getErrorMessage());
+        }
+        result.put("activityCount", importRecord.getActivityCount());
+        result.put("insertedCount", importRecord.getRowsInserted());
+        result.put("updatedCount", importRecord.getRowsUpdated());
+        result.put("skippedCount", importRecord.getRowsSkipped());
+        result.put("failedCount", importRecord.getRowsFailed());
+        result.put("elapsedMs", importRecord.getElapsedMs());
+        result.put("importRecordId", importRecord.getId());
         return result;
     }
 
+    /**
+     * 将导入记录的状态和进度写回数据库
+     */
+    private void saveProgress(ImportRecord importRecord) {
+        importRecordRepository.updateProgress(importRecord.getId(), importRecord.getStatus(),
+                importRecord.getActivityCount(), importRecord.getErrorMessage(),
+                importRecord.getRowsParsed(), importRecord.getRowsPersisted(),
+                importRecord.getRowsFailed(), importRecord.getRowsInserted(), importRecord.getRowsUpdated(),
+                importRecord.getRowsSkipped(), importRecord.getElapsedMs());
+    }
+
+    private void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", file, e);
+        }
+    }
+
     @Override
     public boolean validateGarminFile(MultipartFile file) {
         // 验证文件类型
@@ -87,32 +1204,33 @@ public class ImportServiceImpl implements ImportService {
         }
         
         // 简单验证文件内容（实际应用中可能需要更复杂的验证）
-        try {
-            // 读取第一行数据进行简单验证
-            List<Map<String, String>> firstFewRecords = csvParserUtil.parseActivitySummary(file.getInputStream());
-            if (firstFewRecords.isEmpty()) {
+        // 只读取表头和第一行，不解析整个文件
+        try (CSVParser parser = csvParserUtil.openActivitySummary(file.getInputStream())) {
+            if (!parser.iterator().hasNext()) {
                 return false;
             }
             
-            // 检查是否包含佳明数据的关键字段
-            Map<String, String> firstRecord = firstFewRecords.get(0);
-            return firstRecord.containsKey("Activity Type") || 
-                   firstRecord.containsKey("Date") || 
-                   firstRecord.containsKey("Distance") ||
-                   firstRecord.containsKey("活动类型") ||
-                   firstRecord.containsKey("日期") ||
-                   firstRecord.containsKey("距离");
+            return isGarminSummary(ActivityColumnMapping.compile(parser.getHeaderNames()));
                     
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * 检查是否包含佳明数据的关键字段（中英文列名均可）
+     */
+    private boolean isGarminSummary(ActivityColumnMapping<ActivityCsvColumn> mapping) {
+        return mapping.hasColumn(ActivityCsvColumn.ACTIVITY_TYPE) ||
+               mapping.hasColumn(ActivityCsvColumn.DATE) ||
+               mapping.hasColumn(ActivityCsvColumn.DISTANCE);
+    }
+
     @Override
     public Map<String, Object> getImportRecords() {
         Map<String, Object> result = new HashMap<>();
         try {
-            List<ImportRecord> records = importRecordRepository.findTop10ByOrderByImportTimeDesc();
+            List<ImportRecord> records = importRecordRepository.findTop10ByParentIdIsNullOrderByImportTimeDesc();
             result.put("success", true);
             result.put("data", records);
             result.put("count", records.size());
@@ -124,87 +1242,286 @@ public class ImportServiceImpl implements ImportService {
     }
 
     /**
-     * 处理活动数据并转换为实体对象
+     * 逐行读取CSV记录，按固定大小分块转换并写入数据库，每写完一块更新一次进度
      */
-    private List<Activity> processActivities(List<Map<String, String>> csvData, ImportRecord importRecord) {
-        List<Activity> activities = new ArrayList<>();
+    private void processActivities(CSVParser parser, ImportRecord importRecord, long startTime,
+                                   AffectedDates affectedDates) {
+        long loopStart = System.nanoTime();
+        long persistNanos = 0;
+        List<Activity> chunk = new ArrayList<>(batchSize);
+        // 每个文件只解析一次表头别名，之后按列下标取值
+        ActivityColumnMapping<ActivityCsvColumn> mapping = ActivityColumnMapping.compile(parser.getHeaderNames());
+        ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
         
-        for (Map<String, String> record : csvData) {
-            Activity activity = new Activity();
-            
-            // 设置活动基本信息
-            activity.setActivityName(getValue(record, "Activity Name", "活动名称"));
-            activity.setActivityType(getValue(record, "Activity Type", "活动类型"));
-            
-            // 解析日期时间
-            String dateStr = getValue(record, "Date", "日期");
-            if (dateStr != null) {
-                activity.setStartTime(csvParserUtil.parseDateTime(dateStr));
+        for (CSVRecord record : parser) {
+            importRecord.setRowsParsed(importRecord.getRowsParsed() + 1);
+            Activity activity;
+            try {
+                activity = activityCsvMapper.toActivity(record, mapping, importRecord);
+            } catch (RuntimeException e) {
+                // 单行无法转换时计为失败行，继续导入其余行
+                log.debug("活动记录转换失败: 第 {} 条记录", record.getRecordNumber(), e);
+                importRecord.setRowsFailed(importRecord.getRowsFailed() + 1);
+                if (importRecord.getErrorMessage() == null) {
+                    importRecord.setErrorMessage(rowFailure(record, e));
+                }
+                continue;
             }
-            
-            // 设置距离（转换为米）
-            Double distance = csvParserUtil.parseDouble(getValue(record, "Distance", "距离"));
-            if (distance != null) {
-                // 假设距离单位为公里，转换为米
-                activity.setDistance(distance * 1000);
+            occurrences.assign(activity);
+            chunk.add(activity);
+            if (chunk.size() >= batchSize) {
+                persistNanos += persistChunk(ImportMetrics.SOURCE_CSV, chunk, null, importRecord, startTime, affectedDates);
+                chunk.clear();
             }
-            
-            // 设置持续时间（秒）
-            String durationStr = getValue(record, "Duration", "持续时间");
-            if (durationStr != null) {
-                // 简化处理，实际应用中需要根据格式解析
-                activity.setDuration(csvParserUtil.parseLong(durationStr));
+        }
+        if (!chunk.isEmpty()) {
+            persistNanos += persistChunk(ImportMetrics.SOURCE_CSV, chunk, null, importRecord, startTime, affectedDates);
+        }
+        importMetrics.recordParse(ImportMetrics.SOURCE_CSV, System.nanoTime() - loopStart - persistNanos);
+        
+        log.debug("活动数据处理完成: 写入 {} 条, 失败 {} 条", importRecord.getRowsPersisted(), importRecord.getRowsFailed());
+    }
+
+    private static String rowFailure(CSVRecord record, Exception e) {
+        return "第 " + record.getRecordNumber() + " 条记录解析失败: " + e.getMessage();
+    }
+
+    /**
+     * 在独立事务中批量写入一个分块并更新统计汇总表，写入后清空持久化上下文使内存保持平稳
+     * @param source 导入方式，用于写库耗时指标
+     * @param tracks 与chunk一一对应的采样数据，没有采样数据时传null
+     * @param affectedDates 分块提交后记录最早受影响的日期，供导入结束后计算训练负荷
+     * @return 写库耗时（纳秒），包括进度更新
+     */
+    private long persistChunk(String source, List<Activity> chunk, List<TrackData> tracks,
+                              ImportRecord importRecord, long startTime, AffectedDates affectedDates) {
+        long persistStart = System.nanoTime();
+        try {
+            UpsertResult upsert = new TransactionTemplate(transactionManager).execute(status -> {
+                UpsertResult chunkResult = upsertChunk(chunk, tracks, importRecord.getDuplicatePolicy());
+                // 每个分块提交后即失效统计缓存，导入过程中看板也能看到已写入的数据
+                if (chunkResult.written() > 0) {
+                    eventPublisher.publishEvent(new ActivityDataChangedEvent("import"));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return chunkResult;
+            });
+            addUpsertCounts(importRecord, upsert);
+            affectedDates.include(upsert.earliestChange);
+        } catch (Exception e) {
+            log.warn("活动分块写入失败, 分块大小: {}", chunk.size(), e);
+            importRecord.setRowsFailed(importRecord.getRowsFailed() + chunk.size());
+            if (importRecord.getErrorMessage() == null) {
+                importRecord.setErrorMessage(e.getMessage());
             }
-            
-            // 设置卡路里
-            activity.setCalories(csvParserUtil.parseInteger(getValue(record, "Calories", "卡路里")));
-            
-            // 设置心率信息
-            // 支持多种可能的键名
-            activity.setAverageHeartRate(csvParserUtil.parseInteger(getValue(record, "Avg HR", "平均心率", "Avg Heart Rate", "Average Heart Rate")));
-            activity.setMaxHeartRate(csvParserUtil.parseInteger(getValue(record, "Max HR", "最大心率", "Max Heart Rate")));
-            
-            // 设置配速（如果没有直接提供，则根据距离和时间计算）
-            Double pace = csvParserUtil.parseDouble(getValue(record, "Avg Pace", "平均配速", "Pace"));
-            if (pace == null && distance != null && distance > 0 && activity.getDuration() != null && activity.getDuration() > 0) {
-                // 计算配速：时间（分钟）/距离（公里）
-                double durationInMinutes = activity.getDuration() / 60.0;
-                double distanceInKm = distance; // CSV中的距离已经是公里
-                pace = durationInMinutes / distanceInKm;
+        }
+        importRecord.setActivityCount(importRecord.getRowsPersisted());
+        importRecord.setElapsedMs(System.currentTimeMillis() - startTime);
+        saveProgress(importRecord);
+        long persistNanos = System.nanoTime() - persistStart;
+        importMetrics.recordPersist(source, persistNanos);
+        return persistNanos;
+    }
+
+    /**
+     * 按去重键写入一个分块，需在事务中调用
+     * 一次查询取出库中去重键已存在的活动，再按重复处理策略逐行决定新增、更新或跳过
+     * 同一文件内去重键相同的行在解析时已由ActivityDedupKey.Occurrences区分；批量导入时不同文件中的同一活动
+     * （如汇总CSV中的一行和对应的轨迹文件）落在同一分块时，后一行与先写入的活动按策略合并，与分在不同分块时结果一致
+     * @param tracks 与chunk一一对应的采样数据，没有采样数据时传null
+     */
+    private UpsertResult upsertChunk(List<Activity> chunk, List<TrackData> tracks, DuplicatePolicy policy) {
+        Set<String> dedupKeys = new HashSet<>();
+        for (Activity activity : chunk) {
+            if (activity.getDedupKey() != null) {
+                dedupKeys.add(activity.getDedupKey());
             }
-            if (pace != null) {
-                activity.setAveragePace(pace);
+        }
+        Map<String, Activity> activitiesByKey = new HashMap<>();
+        if (!dedupKeys.isEmpty()) {
+            for (Activity existing : activityRepository.findByDedupKeyIn(dedupKeys)) {
+                activitiesByKey.put(existing.getDedupKey(), existing);
             }
-            
-            // 设置导入信息
-            activity.setImportDate(LocalDateTime.now());
-            activity.setImportRecord(importRecord);
-            
-            // 暂时设置空列表，避免级联保存问题
-            activity.setActivityDetails(Collections.emptyList());
-            
-            activities.add(activity);
         }
-        
-        // 保存活动数据
-        return activityRepository.saveAll(activities);
+
+        UpsertResult result = new UpsertResult(chunk.size());
+        List<Activity> inserted = new ArrayList<>();
+        Map<Activity, Activity> updatedSnapshots = new IdentityHashMap<>();
+        Map<Activity, TrackData> trackWrites = new IdentityHashMap<>();
+        Set<Long> trackDeletes = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Activity incoming = chunk.get(i);
+            TrackData track = tracks != null ? tracks.get(i) : null;
+            Activity target = incoming.getDedupKey() != null ? activitiesByKey.get(incoming.getDedupKey()) : null;
+
+            if (target == null) {
+                inserted.add(incoming);
+                if (incoming.getDedupKey() != null) {
+                    activitiesByKey.put(incoming.getDedupKey(), incoming);
+                }
+                if (track != null) {
+                    trackWrites.put(incoming, track);
+                }
+                result.record(i, UpsertOutcome.INSERTED, incoming);
+                continue;
+            }
+            if (policy == DuplicatePolicy.SKIP) {
+                result.record(i, UpsertOutcome.SKIPPED, target);
+                continue;
+            }
+
+            // 库中已有的活动先保存更新前的值，用于从汇总表中扣除；本分块新增的活动尚未计入汇总表
+            if (target.getId() != null && !updatedSnapshots.containsKey(target)) {
+                updatedSnapshots.put(target, snapshot(target));
+            }
+            mergeActivity(target, incoming, policy);
+            if (track != null) {
+                trackWrites.put(target, track);
+            } else if (policy == DuplicatePolicy.REPLACE) {
+                trackWrites.remove(target);
+                if (target.getId() != null) {
+                    trackDeletes.add(target.getId());
+                }
+            }
+            result.record(i, UpsertOutcome.UPDATED, target);
+        }
+
+        activityRepository.saveAll(inserted);
+        List<Activity> added = new ArrayList<>(inserted);
+        added.addAll(updatedSnapshots.keySet());
+        statisticsRollupService.applyChanges(added, updatedSnapshots.values());
+        activityColumnStore.applyChanges(added, updatedSnapshots.values());
+        for (Long activityId : trackDeletes) {
+            activityTrackPointRepository.deleteByActivityId(activityId);
+            activityTrackPolylineRepository.deleteByActivityId(activityId);
+            personalRecordService.removeActivity(activityId);
+            activityTrackRepository.deleteByActivityId(activityId);
+        }
+        for (Map.Entry<Activity, TrackData> trackWrite : trackWrites.entrySet()) {
+            activityTrackService.saveTrack(trackWrite.getKey().getId(), trackWrite.getValue());
+        }
+        // 训练负荷要用到采样数据的TRIMP，由调用方在整个导入的分块都提交后从最早受影响的日期起重新计算
+        result.earliestChange = earliestDate(added, updatedSnapshots.values());
+        return result;
+    }
+
+    /**
+     * 将导入的记录合并到已有活动：UPDATE只覆盖导入记录中非空的字段，REPLACE整体替换并归属到本次导入
+     */
+    private void mergeActivity(Activity target, Activity incoming, DuplicatePolicy policy) {
+        boolean replace = policy == DuplicatePolicy.REPLACE;
+        target.setActivityName(merged(replace, incoming.getActivityName(), target.getActivityName()));
+        target.setActivityType(merged(replace, incoming.getActivityType(), target.getActivityType()));
+        target.setStartTime(merged(replace, incoming.getStartTime(), target.getStartTime()));
+        target.setEndTime(merged(replace, incoming.getEndTime(), target.getEndTime()));
+        target.setDuration(merged(replace, incoming.getDuration(), target.getDuration()));
+        target.setDistance(merged(replace, incoming.getDistance(), target.getDistance()));
+        target.setCalories(merged(replace, incoming.getCalories(), target.getCalories()));
+        target.setAverageHeartRate(merged(replace, incoming.getAverageHeartRate(), target.getAverageHeartRate()));
+        target.setMaxHeartRate(merged(replace, incoming.getMaxHeartRate(), target.getMaxHeartRate()));
+        target.setAveragePace(merged(replace, incoming.getAveragePace(), target.getAveragePace()));
+        target.setGarminActivityId(merged(replace, incoming.getGarminActivityId(), target.getGarminActivityId()));
+        if (replace) {
+            target.setImportRecord(incoming.getImportRecord());
+        }
+        target.setImportDate(incoming.getImportDate());
+        target.setDedupKey(incoming.getDedupKey());
+    }
+
+    private static <T> T merged(boolean replace, T incoming, T current) {
+        return replace || incoming != null ? incoming : current;
     }
-    
-    // ActivityDetail生成方法暂时注释，避免Lombok相关编译错误
 
     /**
-     * 从CSV记录中获取值，支持多个可能的键名
+     * 新增活动和更新前后的活动中最早的开始日期，都没有开始时间时为null
      */
-    private String getValue(Map<String, String> record, String... keys) {
-        for (String key : keys) {
-            if (record.containsKey(key)) {
-                String value = record.get(key);
-                // 检查值是否为空或仅包含空白字符
-                if (value != null && !value.trim().isEmpty()) {
-                    return value.trim();
+    private static LocalDate earliestDate(Collection<Activity> added, Collection<Activity> removed) {
+        AffectedDates affectedDates = new AffectedDates();
+        for (Collection<Activity> activities : List.of(added, removed)) {
+            for (Activity activity : activities) {
+                if (activity.getStartTime() != null) {
+                    affectedDates.include(activity.getStartTime().toLocalDate());
                 }
             }
         }
-        return null;
+        return affectedDates.earliest;
+    }
+
+    /**
+     * 复制活动的摘要字段，供汇总表扣除更新前的值
+     */
+    private static Activity snapshot(Activity activity) {
+        Activity copy = new Activity();
+        copy.setId(activity.getId());
+        copy.setActivityName(activity.getActivityName());
+        copy.setActivityType(activity.getActivityType());
+        copy.setStartTime(activity.getStartTime());
+        copy.setEndTime(activity.getEndTime());
+        copy.setDuration(activity.getDuration());
+        copy.setDistance(activity.getDistance());
+        copy.setCalories(activity.getCalories());
+        copy.setAverageHeartRate(activity.getAverageHeartRate());
+        copy.setMaxHeartRate(activity.getMaxHeartRate());
+        copy.setAveragePace(activity.getAveragePace());
+        return copy;
+    }
+
+    /**
+     * 将一个分块的写入结果累加到导入记录，已写入行数为新增与更新之和
+     */
+    private static void addUpsertCounts(ImportRecord importRecord, UpsertResult upsert) {
+        importRecord.setRowsInserted(importRecord.getRowsInserted() + upsert.inserted);
+        importRecord.setRowsUpdated(importRecord.getRowsUpdated() + upsert.updated);
+        importRecord.setRowsSkipped(importRecord.getRowsSkipped() + upsert.skipped);
+        importRecord.setRowsPersisted(importRecord.getRowsPersisted() + upsert.written());
+    }
+
+    private enum UpsertOutcome { INSERTED, UPDATED, SKIPPED }
+
+    /**
+     * 一次导入中最早受影响的活动日期，所有分块写完后从这一天起重新计算一次训练负荷
+     */
+    private static final class AffectedDates {
+        private LocalDate earliest;
+
+        void include(LocalDate date) {
+            if (date != null && (earliest == null || date.isBefore(earliest))) {
+                earliest = date;
+            }
+        }
+    }
+
+    /**
+     * 一个分块的写入结果，outcomes和activities与分块中的行一一对应，activities为该行最终对应的活动
+     */
+    private static final class UpsertResult {
+        private final UpsertOutcome[] outcomes;
+        private final List<Activity> activities;
+        private int inserted;
+        private int updated;
+        private int skipped;
+        private LocalDate earliestChange; // 新增和更新的活动最早的日期，训练负荷从这一天起重新计算
+
+        UpsertResult(int size) {
+            this.outcomes = new UpsertOutcome[size];
+            this.activities = new ArrayList<>(Collections.nCopies(size, null));
+        }
+
+        void record(int index, UpsertOutcome outcome, Activity activity) {
+            outcomes[index] = outcome;
+            activities.set(index, activity);
+            switch (outcome) {
+                case INSERTED -> inserted++;
+                case UPDATED -> updated++;
+                case SKIPPED -> skipped++;
+            }
+        }
+
+        int written() {
+            return inserted + updated;
+        }
     }
+
+    // ActivityDetail生成方法暂时注释，避免Lombok相关编译错误
 }
@@ -0,0 +1,190 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.ActivityBestEffort;
+import com.garmin.runner.model.ActivityTrack;
+import com.garmin.runner.model.PersonalRecord;
+import com.garmin.runner.model.PersonalRecordType;
+import com.garmin.runner.repository.ActivityBestEffortRepository;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.PersonalRecordRepository;
+import com.garmin.runner.service.PersonalRecordService;
+import com.garmin.runner.util.BestEfforts;
+import com.garmin.runner.util.TrackCodec;
+import com.garmin.runner.util.TrackData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class PersonalRecordServiceImpl implements PersonalRecordService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonalRecordServiceImpl.class);
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    @Autowired
+    private ActivityBestEffortRepository activityBestEffortRepository;
+
+    @Autowired
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 启动完成后为迁移前已有的采样数据计算最好成绩
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (activityTrackRepository.countStaleBestEfforts(BestEfforts.VERSION) > 0) {
+            rebuildBestEfforts();
+        }
+    }
+
+    @Override
+    public void recordBestEfforts(ActivityTrack activityTrack, TrackData track) {
+        Long activityId = activityTrack.getActivityId();
+        boolean replaced = activityTrack.getId() != null;
+        if (replaced) {
+            activityBestEffortRepository.deleteByActivityId(activityId);
+        }
+        // 导入时活动刚在同一事务中保存，按ID读取不访问数据库
+        Optional<Activity> activity = activityRepository.findById(activityId);
+        List<ActivityBestEffort> efforts = activity.isPresent() && isRunning(activity.get().getActivityType())
+                ? BestEfforts.of(activityId, track) : Collections.emptyList();
+        activityBestEffortRepository.saveAll(efforts);
+        activityTrack.setBestEffortVersion(BestEfforts.VERSION);
+
+        if (!replaced && efforts.isEmpty()) {
+            return;
+        }
+
+        Map<PersonalRecordType, PersonalRecord> records = lockRecords();
+        // 覆盖已有采样数据时，原来的成绩可能是记录，需要先重新选出记录
+        if (replaced) {
+            reselectRecordsOf(records, activityId);
+        }
+        for (ActivityBestEffort effort : efforts) {
+            PersonalRecordType type = effort.getRecordType();
+            PersonalRecord record = records.get(type);
+            if (record == null) {
+                throw new IllegalStateException("个人记录不存在: " + type + "，请检查数据库迁移");
+            }
+            if (type.isBetter(effort, record)) {
+                record.apply(effort);
+                log.debug("新的个人记录: {}, activityId={}", type, activityId);
+            }
+        }
+    }
+
+    @Override
+    public void removeActivity(Long activityId) {
+        activityBestEffortRepository.deleteByActivityId(activityId);
+        reselectRecordsOf(lockRecords(), activityId);
+    }
+
+    @Override
+    public Map<String, Object> rebuildBestEfforts() {
+        Map<String, Object> result = new HashMap<>();
+        long startTime = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 按ID分批处理，每批一个事务
+        int rebuilt = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<ActivityTrack> batch = transactionTemplate.execute(status -> {
+                List<ActivityTrack> tracks = activityTrackRepository.findStaleBestEfforts(afterId,
+                        BestEfforts.VERSION, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ActivityTrack track : tracks) {
+                    recordBestEfforts(track, TrackCodec.decode(track.getEncodedSamples()));
+                }
+                return tracks;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            rebuilt += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        if (rebuilt > 0) {
+            eventPublisher.publishEvent(new ActivityDataChangedEvent("best-efforts"));
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("最好成绩重建完成: {} 条采样数据, 耗时 {} ms", rebuilt, elapsed);
+        result.put("success", true);
+        result.put("trackCount", rebuilt);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    /**
+     * 加写锁读取全部记录：并发保存采样数据的事务对记录的比较和更新串行执行，锁持有到事务结束
+     * 记录行由迁移脚本按类型预先插入，这里不插入新行
+     */
+    private Map<PersonalRecordType, PersonalRecord> lockRecords() {
+        Map<PersonalRecordType, PersonalRecord> records = new EnumMap<>(PersonalRecordType.class);
+        for (PersonalRecord record : personalRecordRepository.findAllByOrderByRecordTypeAsc()) {
+            records.put(record.getRecordType(), record);
+        }
+        return records;
+    }
+
+    private void reselectRecordsOf(Map<PersonalRecordType, PersonalRecord> records, Long activityId) {
+        for (PersonalRecord record : records.values()) {
+            if (activityId.equals(record.getActivityId())) {
+                reselect(record);
+            }
+        }
+    }
+
+    /**
+     * 按索引取该类最好的成绩作为记录，没有成绩时清空记录
+     */
+    private void reselect(PersonalRecord record) {
+        PersonalRecordType type = record.getRecordType();
+        Optional<ActivityBestEffort> best = type.isFastest()
+                ? activityBestEffortRepository.findFirstByRecordTypeOrderByElapsedSecondsAscIdAsc(type)
+                : activityBestEffortRepository.findFirstByRecordTypeOrderByDistanceMetersDescIdAsc(type);
+        if (best.isPresent()) {
+            record.apply(best.get());
+        } else {
+            record.clear();
+        }
+    }
+
+    /**
+     * 与配速区间统计一致，类型中含Run或跑步的活动视为跑步
+     */
+    private static boolean isRunning(String activityType) {
+        return activityType != null && (activityType.contains("Run") || activityType.contains("跑步"));
+    }
+}
@@ -0,0 +1,261 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.RollupBucketType;
+import com.garmin.runner.model.StatisticsRollup;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.StatisticsRollupRepository;
+import com.garmin.runner.repository.projection.RollupAggregateView;
+import com.garmin.runner.service.StatisticsRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+@Service
+public class StatisticsRollupServiceImpl implements StatisticsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsRollupServiceImpl.class);
+
+    // 并发创建同一汇总行时的重试次数
+    private static final int CREATE_BUCKET_ATTEMPTS = 3;
+
+    @Value("${runner.statistics.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private StatisticsRollupRepository rollupRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启动完成后汇总表为空而已有活动时重建汇总：引入汇总表之前的库在迁移后汇总表为空
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        if (enabled && rollupRepository.count() == 0 && activityRepository.count() > 0) {
+            rebuildRollups();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void applyChanges(Collection<Activity> added, Collection<Activity> removed) {
+        if (!enabled) {
+            return;
+        }
+
+        // 先在内存中按桶合并增量，每个桶只读写一次
+        Map<RollupBucketType, Map<String, StatisticsRollup>> deltas = new EnumMap<>(RollupBucketType.class);
+        for (Activity activity : added) {
+            accumulate(deltas, activity, 1);
+        }
+        for (Activity activity : removed) {
+            accumulate(deltas, activity, -1);
+        }
+
+        // 并发的导入、保存和删除可能更新同一个桶：先提交缺少的空汇总行，再对涉及的汇总行加写锁后累加，
+        // 读取和写回之间不会被其他事务的增量覆盖；按维度和桶键的固定顺序加锁
+        int touched = 0;
+        for (Map.Entry<RollupBucketType, Map<String, StatisticsRollup>> entry : deltas.entrySet()) {
+            Map<String, StatisticsRollup> bucketDeltas = entry.getValue();
+            createMissingBuckets(entry.getKey(), bucketDeltas.keySet());
+            Map<String, StatisticsRollup> existing = new HashMap<>();
+            for (StatisticsRollup rollup : rollupRepository.findByBucketTypeAndBucketKeyInOrderByBucketKey(
+                    entry.getKey(), bucketDeltas.keySet())) {
+                existing.put(rollup.getBucketKey(), rollup);
+            }
+
+            for (StatisticsRollup delta : bucketDeltas.values()) {
+                StatisticsRollup rollup = existing.get(delta.getBucketKey());
+                if (rollup == null) {
+                    rollup = newRollup(delta.getBucketType(), delta.getBucketKey());
+                }
+                merge(rollup, delta);
+
+                // 桶内已无活动时删除汇总行，避免浮点残差累积
+                if (rollup.getActivityCount() <= 0) {
+                    if (rollup.getId() != null) {
+                        rollupRepository.delete(rollup);
+                    }
+                } else {
+                    rollupRepository.save(rollup);
+                }
+                touched++;
+            }
+        }
+        log.debug("统计汇总表增量更新完成: 新增活动 {} 条, 删除活动 {} 条, 更新汇总行 {} 行", added.size(), removed.size(), touched);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> rebuildRollups() {
+        Map<String, Object> result = new HashMap<>();
+        log.info("开始重建统计汇总表");
+
+        rollupRepository.deleteAllInBatch();
+
+        // 按天的汇总直接来自数据库分组，按月的汇总由按天结果折叠得到
+        List<StatisticsRollup> dayRollups = new ArrayList<>();
+        Map<String, StatisticsRollup> monthRollups = new TreeMap<>();
+        for (RollupAggregateView view : activityRepository.aggregateRollupsByDay()) {
+            LocalDate date = LocalDate.of(view.getYear(), view.getMonth(), view.getDay());
+            StatisticsRollup dayRollup = fromAggregate(RollupBucketType.DAY, RollupBucketType.DAY.keyOf(date), view);
+            dayRollups.add(dayRollup);
+
+            String monthKey = RollupBucketType.MONTH.keyOf(date);
+            merge(monthRollups.computeIfAbsent(monthKey, key -> newRollup(RollupBucketType.MONTH, key)), dayRollup);
+        }
+
+        List<StatisticsRollup> typeRollups = new ArrayList<>();
+        for (RollupAggregateView view : activityRepository.aggregateRollupsByActivityType()) {
+            typeRollups.add(fromAggregate(RollupBucketType.ACTIVITY_TYPE, typeKey(view.getActivityType()), view));
+        }
+
+        rollupRepository.saveAll(dayRollups);
+        rollupRepository.saveAll(monthRollups.values());
+        rollupRepository.saveAll(typeRollups);
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("rebuild-rollups"));
+
+        log.info("统计汇总表重建完成: 按天 {} 行, 按月 {} 行, 按类型 {} 行",
+                dayRollups.size(), monthRollups.size(), typeRollups.size());
+        result.put("success", true);
+        result.put("dayBuckets", dayRollups.size());
+        result.put("monthBuckets", monthRollups.size());
+        result.put("activityTypeBuckets", typeRollups.size());
+        return result;
+    }
+
+    /**
+     * 在独立事务中插入缺少的空汇总行并立即提交，之后各事务都能对同一行加锁
+     * 两个事务同时插入同一个桶时后提交的一方违反唯一约束，重试时该行已经存在
+     */
+    private void createMissingBuckets(RollupBucketType type, Set<String> keys) {
+        Set<String> missing = new HashSet<>(keys);
+        missing.removeAll(rollupRepository.findExistingBucketKeys(type, keys));
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<String> stillMissing = new HashSet<>(missing);
+                    stillMissing.removeAll(rollupRepository.findExistingBucketKeys(type, missing));
+                    for (String key : stillMissing) {
+                        rollupRepository.save(newRollup(type, key));
+                    }
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= CREATE_BUCKET_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("汇总行已由其他事务创建，重试: {}", type);
+            }
+        }
+    }
+
+    /**
+     * 将单个活动的贡献累加到对应的天、月、类型桶
+     */
+    private void accumulate(Map<RollupBucketType, Map<String, StatisticsRollup>> deltas, Activity activity, int sign) {
+        if (activity.getStartTime() != null) {
+            LocalDate date = activity.getStartTime().toLocalDate();
+            addTo(deltas, RollupBucketType.DAY, RollupBucketType.DAY.keyOf(date), activity, sign);
+            addTo(deltas, RollupBucketType.MONTH, RollupBucketType.MONTH.keyOf(date), activity, sign);
+        }
+        addTo(deltas, RollupBucketType.ACTIVITY_TYPE, typeKey(activity.getActivityType()), activity, sign);
+    }
+
+    private void addTo(Map<RollupBucketType, Map<String, StatisticsRollup>> deltas, RollupBucketType type,
+                       String key, Activity activity, int sign) {
+        StatisticsRollup delta = deltas.computeIfAbsent(type, t -> new HashMap<>())
+                .computeIfAbsent(key, k -> newRollup(type, k));
+        delta.setActivityCount(delta.getActivityCount() + sign);
+        if (activity.getDistance() != null) {
+            delta.setTotalDistance(delta.getTotalDistance() + sign * activity.getDistance());
+        }
+        if (activity.getDuration() != null) {
+            delta.setTotalDuration(delta.getTotalDuration() + sign * activity.getDuration());
+        }
+        if (activity.getCalories() != null) {
+            delta.setTotalCalories(delta.getTotalCalories() + sign * activity.getCalories());
+        }
+        if (activity.getAverageHeartRate() != null) {
+            delta.setHeartRateSum(delta.getHeartRateSum() + sign * activity.getAverageHeartRate());
+            delta.setHeartRateCount(delta.getHeartRateCount() + sign);
+        }
+        if (activity.getAveragePace() != null) {
+            delta.setPaceSum(delta.getPaceSum() + sign * activity.getAveragePace());
+            delta.setPaceCount(delta.getPaceCount() + sign);
+        }
+    }
+
+    private static StatisticsRollup fromAggregate(RollupBucketType type, String key, RollupAggregateView view) {
+        StatisticsRollup rollup = newRollup(type, key);
+        rollup.setActivityCount(longValue(view.getActivityCount()));
+        rollup.setTotalDistance(view.getTotalDistance() != null ? view.getTotalDistance() : 0.0);
+        rollup.setTotalDuration(longValue(view.getTotalDuration()));
+        rollup.setTotalCalories(longValue(view.getTotalCalories()));
+        rollup.setHeartRateSum(longValue(view.getHeartRateSum()));
+        rollup.setHeartRateCount(longValue(view.getHeartRateCount()));
+        rollup.setPaceSum(view.getPaceSum() != null ? view.getPaceSum() : 0.0);
+        rollup.setPaceCount(longValue(view.getPaceCount()));
+        return rollup;
+    }
+
+    private static StatisticsRollup newRollup(RollupBucketType type, String key) {
+        StatisticsRollup rollup = new StatisticsRollup();
+        rollup.setBucketType(type);
+        rollup.setBucketKey(key);
+        return rollup;
+    }
+
+    private static void merge(StatisticsRollup target, StatisticsRollup delta) {
+        target.setActivityCount(target.getActivityCount() + delta.getActivityCount());
+        target.setTotalDistance(target.getTotalDistance() + delta.getTotalDistance());
+        target.setTotalDuration(target.getTotalDuration() + delta.getTotalDuration());
+        target.setTotalCalories(target.getTotalCalories() + delta.getTotalCalories());
+        target.setHeartRateSum(target.getHeartRateSum() + delta.getHeartRateSum());
+        target.setHeartRateCount(target.getHeartRateCount() + delta.getHeartRateCount());
+        target.setPaceSum(target.getPaceSum() + delta.getPaceSum());
+        target.setPaceCount(target.getPaceCount() + delta.getPaceCount());
+    }
+
+    private static String typeKey(String activityType) {
+        return activityType != null ? activityType : "";
+    }
+
+    private static long longValue(Number value) {
+        return value != null ? value.longValue() : 0L;
+    }
+}
@@ -1,16 +1,47 @@
 package com.garmin.runner.service.impl;
 
+import com.garmin.runner.config.CacheConfig;
+import com.garmin.runner.metrics.StatisticsMetrics;
 import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.AthleteProfile;
+import com.garmin.runner.model.PersonalRecordType;
+import com.garmin.runner.model.RollupBucketType;
+import com.garmin.runner.model.StatisticsRollup;
+import com.garmin.runner.model.TrainingLoadDay;
 import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.PersonalRecordRepository;
+import com.garmin.runner.repository.StatisticsRollupRepository;
+import com.garmin.runner.repository.TrainingLoadDayRepository;
+import com.garmin.runner.repository.projection.ActivitySummaryView;
+import com.garmin.runner.repository.projection.ActivityTypeStatisticsView;
+import com.garmin.runner.repository.projection.HeartRateZoneSecondsView;
+import com.garmin.runner.repository.projection.OverallStatisticsView;
+import com.garmin.runner.repository.projection.PaceZoneView;
+import com.garmin.runner.repository.projection.PersonalRecordView;
+import com.garmin.runner.repository.projection.TrendBucketView;
+import com.garmin.runner.service.ActivityAggregate;
+import com.garmin.runner.service.ActivityColumnStore;
+import com.garmin.runner.service.ActivityColumns;
+import com.garmin.runner.service.AthleteProfileService;
+import com.garmin.runner.service.StatisticsRollupService;
 import com.garmin.runner.service.StatisticsService;
+import com.garmin.runner.util.HeartRateZones;
+import com.garmin.runner.util.TrainingLoad;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,19 +53,52 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private StatisticsRollupRepository rollupRepository;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    @Autowired
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Autowired
+    private TrainingLoadDayRepository trainingLoadDayRepository;
+
+    @Autowired
+    private AthleteProfileService athleteProfileService;
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private ActivityColumnStore activityColumnStore;
+
+    @Autowired
+    private StatisticsMetrics statisticsMetrics;
+
+    // 列式存储的活动数超过该值时分段并行累加
+    @Value("${runner.statistics.parallel-threshold:65536}")
+    private int parallelThreshold;
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.OVERALL_STATISTICS, unless = "!#result['success']")
     public Map<String, Object> getOverallStatistics() {
+        return statisticsMetrics.record("overall", aggregateSource(), this::computeOverallStatistics);
+    }
+
+    private Map<String, Object> computeOverallStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         
         try {
             log.debug("开始计算总体统计数据");
             
-            // 获取所有活动
-            log.debug("从数据库获取所有活动记录");
-            List<Activity> allActivities = activityRepository.findAll();
+            // 优先遍历内存列式存储，其次读取按类型预聚合的汇总行，否则在数据库中直接聚合
+            OverallStatisticsView overall = loadOverallStatistics();
+            long totalActivities = overall != null ? longValue(overall.getTotalActivities()) : 0L;
             
             // 添加空值检查
-            if (allActivities == null || allActivities.isEmpty()) {
+            if (totalActivities == 0) {
                 log.warn("未找到任何活动记录，返回默认统计数据");
                 statistics.put("totalDistance", 0.0);
                 statistics.put("totalActivities", 0);
@@ -48,82 +112,35 @@ public class StatisticsServiceImpl implements StatisticsService {
                 return statistics;
             }
             
-            log.debug("成功获取 {} 条活动记录", allActivities.size());
-            
-            // 计算总距离（米转换为公里）
-            log.debug("开始计算总距离");
-            double totalDistance = allActivities.stream()
-                    .filter(a -> a != null && a.getDistance() != null)
-                    .mapToDouble(Activity::getDistance)
-                    .sum() / 1000;
-            log.debug("计算总距离完成: {} 公里", Math.round(totalDistance * 100) / 100.0);
-            
-            // 计算总时长（秒转换为小时）
-            log.debug("开始计算总时长");
-            double totalDuration = allActivities.stream()
-                    .filter(a -> a != null && a.getDuration() != null)
-                    .mapToLong(Activity::getDuration)
-                    .sum() / 3600.0;
-            log.debug("计算总时长完成: {} 小时", Math.round(totalDuration * 100) / 100.0);
-            
-            // 计算总卡路里
-            log.debug("开始计算总卡路里");
-            int totalCalories = allActivities.stream()
-                    .filter(a -> a != null && a.getCalories() != null)
-                    .mapToInt(Activity::getCalories)
-                    .sum();
-            log.debug("计算总卡路里完成: {} 卡路里", totalCalories);
-            
-            // 计算平均心率
-            log.debug("开始计算平均心率");
-            OptionalDouble avgHeartRate = allActivities.stream()
-                    .filter(a -> a != null && a.getAverageHeartRate() != null)
-                    .mapToInt(Activity::getAverageHeartRate)
-                    .average();
-            log.debug("计算平均心率完成: {}", avgHeartRate.isPresent() ? Math.round(avgHeartRate.getAsDouble()) : 0);
-            
-            // 计算平均配速
-            log.debug("开始计算平均配速");
-            OptionalDouble avgPace = allActivities.stream()
-                    .filter(a -> a != null && a.getAveragePace() != null)
-                    .mapToDouble(Activity::getAveragePace)
-                    .average();
-            log.debug("计算平均配速完成: {}", avgPace.isPresent() ? Math.round(avgPace.getAsDouble() * 100) / 100.0 : 0);
+            log.debug("聚合统计覆盖 {} 条活动记录", totalActivities);
+            
+            // 米转换为公里，秒转换为小时
+            double totalDistance = doubleValue(overall.getTotalDistance()) / 1000;
+            double totalDuration = longValue(overall.getTotalDuration()) / 3600.0;
+            int totalCalories = (int) longValue(overall.getTotalCalories());
+            Double avgHeartRate = overall.getAverageHeartRate();
+            Double avgPace = overall.getAveragePace();
+            log.debug("聚合结果: 距离={}公里, 时长={}小时, 卡路里={}, 平均心率={}, 平均配速={}",
+                    Math.round(totalDistance * 100) / 100.0,
+                    Math.round(totalDuration * 100) / 100.0,
+                    totalCalories, avgHeartRate, avgPace);
             
             // 填充统计数据
-            log.debug("开始填充统计数据");
             statistics.put("totalDistance", Math.round(totalDistance * 100) / 100.0);
-            statistics.put("totalActivities", allActivities.size());
+            statistics.put("totalActivities", (int) totalActivities);
             statistics.put("totalDuration", Math.round(totalDuration * 100) / 100.0);
             statistics.put("totalCalories", totalCalories);
-            statistics.put("averageHeartRate", avgHeartRate.isPresent() ? Math.round(avgHeartRate.getAsDouble()) : 0);
-            statistics.put("averagePace", avgPace.isPresent() ? Math.round(avgPace.getAsDouble() * 100) / 100.0 : 0);
+            statistics.put("averageHeartRate", avgHeartRate != null ? Math.round(avgHeartRate) : 0);
+            statistics.put("averagePace", avgPace != null ? Math.round(avgPace * 100) / 100.0 : 0);
+            statistics.put("firstActivityDate", overall.getFirstActivityDate());
+            statistics.put("lastActivityDate", overall.getLastActivityDate());
             
-            // 获取最早和最新的活动日期 - 添加更安全的处理
-            log.debug("开始获取最早和最新的活动日期");
-            Optional<Activity> firstActivity = allActivities.stream()
-                    .filter(a -> a != null && a.getStartTime() != null)
-                    .min(Comparator.comparing(Activity::getStartTime));
-            Optional<Activity> lastActivity = allActivities.stream()
-                    .filter(a -> a != null && a.getStartTime() != null)
-                    .max(Comparator.comparing(Activity::getStartTime));
-            
-            statistics.put("firstActivityDate", firstActivity.map(Activity::getStartTime).orElse(null));
-            statistics.put("lastActivityDate", lastActivity.map(Activity::getStartTime).orElse(null));
-            
-            log.debug("最早活动日期: {}, 最新活动日期: {}", 
-                    firstActivity.map(Activity::getStartTime).orElse(null), 
-                    lastActivity.map(Activity::getStartTime).orElse(null));
+            log.debug("最早活动日期: {}, 最新活动日期: {}",
+                    overall.getFirstActivityDate(), overall.getLastActivityDate());
             
             statistics.put("success", true);
             log.info("总体统计数据计算成功");
             
-        } catch (NullPointerException e) {
-            // 针对空指针异常的特定处理
-            log.error("计算总体统计数据时发生空指针异常", e);
-            statistics.put("success", false);
-            statistics.put("message", "计算统计数据失败: 遇到空指针异常，请检查数据完整性");
-            log.debug("空指针异常堆栈详情:", e);
         } catch (Exception e) {
             log.error("计算总体统计数据时发生异常", e);
             statistics.put("success", false);
@@ -137,8 +154,16 @@ public class StatisticsServiceImpl implements StatisticsService {
         return statistics;
     }
 
+    /**
+     * 结果中包含时间范围内的全部活动实体，缓存按条目数限制容量，大范围查询会占用大量堆内存，因此不缓存
+     */
     @Override
     public Map<String, Object> getStatisticsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return statisticsMetrics.record("dateRange", StatisticsMetrics.SOURCE_ACTIVITIES,
+                () -> computeStatisticsByDateRange(startDate, endDate));
+    }
+
+    private Map<String, Object> computeStatisticsByDateRange(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> statistics = new HashMap<>();
         
         try {
@@ -152,24 +177,18 @@ public class StatisticsServiceImpl implements StatisticsService {
             // 获取时间范围内的活动
             log.debug("从数据库获取指定时间范围内的活动记录");
             List<Activity> activities = activityRepository.findByStartTimeBetween(startDateTime, endDateTime);
+            statisticsMetrics.recordRowsScanned("dateRange", activities.size());
             log.debug("成功获取 {} 条符合条件的活动记录", activities.size());
             
-            // 计算统计数据
+            // 一次遍历累加全部统计数据
             log.debug("开始计算时间范围内的统计数据");
-            double totalDistance = activities.stream()
-                    .mapToDouble(Activity::getDistance)
-                    .filter(Objects::nonNull)
-                    .sum() / 1000;
-            
-            double totalDuration = activities.stream()
-                    .mapToLong(Activity::getDuration)
-                    .filter(Objects::nonNull)
-                    .sum() / 3600.0;
-            
-            int totalCalories = activities.stream()
-                    .mapToInt(Activity::getCalories)
-                    .filter(Objects::nonNull)
-                    .sum();
+            ActivityAggregate aggregate = new ActivityAggregate();
+            for (Activity activity : activities) {
+                aggregate.add(activity);
+            }
+            double totalDistance = aggregate.getTotalDistance() / 1000;
+            double totalDuration = aggregate.getTotalDuration() / 3600.0;
+            int totalCalories = (int) aggregate.getTotalCalories();
             
             log.debug("时间范围内统计结果: 距离={}公里, 时长={}小时, 卡路里={}卡, 活动数={}个",
                     Math.round(totalDistance * 100) / 100.0,
@@ -200,37 +219,39 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
 
     @Override
+    @Cacheable(CacheConfig.ACTIVITY_TYPE_STATISTICS)
     public List<Map<String, Object>> getStatisticsByActivityType() {
+        return statisticsMetrics.record("byActivityType", aggregateSource(), this::computeStatisticsByActivityType);
+    }
+
+    private List<Map<String, Object>> computeStatisticsByActivityType() {
         List<Map<String, Object>> result = new ArrayList<>();
         
         try {
-            // 获取所有活动
-            List<Activity> allActivities = activityRepository.findAll();
-            
-            // 按活动类型分组
-            Map<String, List<Activity>> activitiesByType = allActivities.stream()
-                    .filter(a -> a.getActivityType() != null)
-                    .collect(Collectors.groupingBy(Activity::getActivityType));
-            
-            // 计算每种活动类型的统计数据
-            for (Map.Entry<String, List<Activity>> entry : activitiesByType.entrySet()) {
-                String activityType = entry.getKey();
-                List<Activity> activities = entry.getValue();
-                
-                double totalDistance = activities.stream()
-                        .mapToDouble(Activity::getDistance)
-                        .filter(Objects::nonNull)
-                        .sum() / 1000;
-                
-                int totalActivities = activities.size();
-                
-                Map<String, Object> typeStats = new HashMap<>();
-                typeStats.put("activityType", activityType);
-                typeStats.put("totalDistance", Math.round(totalDistance * 100) / 100.0);
-                typeStats.put("totalActivities", totalActivities);
-                typeStats.put("percentage", allActivities.isEmpty() ? 0 : Math.round((double) totalActivities / allActivities.size() * 100));
+            if (activityColumnStore.isReady()) {
+                result.addAll(activityColumnStore.read(this::aggregateByActivityType));
+            } else if (statisticsRollupService.isEnabled()) {
+                // 直接读取按类型汇总行，空字符串桶为未分类活动，只计入百分比分母；
+                // 活动数为0的行是并发写入时预先创建、所在事务回滚后留下的空行
+                List<StatisticsRollup> typeRollups = rollupRepository.findByBucketType(RollupBucketType.ACTIVITY_TYPE);
+                statisticsMetrics.recordRowsScanned("byActivityType", typeRollups.size());
+                long allActivityCount = typeRollups.stream().mapToLong(StatisticsRollup::getActivityCount).sum();
+                for (StatisticsRollup rollup : typeRollups) {
+                    if (!rollup.getBucketKey().isEmpty() && rollup.getActivityCount() > 0) {
+                        result.add(buildTypeStatistics(rollup.getBucketKey(), rollup.getActivityCount(),
+                                rollup.getTotalDistance(), allActivityCount));
+                    }
+                }
+            } else {
+                // 百分比以全部活动（包括未分类活动）为分母
+                long allActivityCount = activityRepository.count();
+                statisticsMetrics.recordRowsScanned("byActivityType", allActivityCount);
                 
-                result.add(typeStats);
+                // 在数据库中按活动类型分组聚合
+                for (ActivityTypeStatisticsView typeView : activityRepository.aggregateByActivityType()) {
+                    result.add(buildTypeStatistics(typeView.getActivityType(), longValue(typeView.getTotalActivities()),
+                            doubleValue(typeView.getTotalDistance()), allActivityCount));
+                }
             }
             
             // 按活动数量降序排序
@@ -243,19 +264,76 @@ public class StatisticsServiceImpl implements StatisticsService {
         return result;
     }
 
+    /**
+     * 遍历列式存储按类型编码计数和累加距离，未分类活动只计入百分比分母
+     */
+    private List<Map<String, Object>> aggregateByActivityType(ActivityColumns columns) {
+        int size = columns.size();
+        statisticsMetrics.recordRowsScanned("byActivityType", size);
+        long[] counts = new long[columns.typeCount()];
+        double[] distances = new double[columns.typeCount()];
+        for (int row = 0; row < size; row++) {
+            int typeCode = columns.typeCode(row);
+            if (typeCode != ActivityColumns.NO_TYPE) {
+                counts[typeCode]++;
+                distances[typeCode] += columns.distance(row);
+            }
+        }
+        
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int typeCode = 0; typeCode < counts.length; typeCode++) {
+            // 字典中保留已删除活动的类型，跳过没有活动的编码
+            if (counts[typeCode] > 0) {
+                result.add(buildTypeStatistics(columns.typeName(typeCode), counts[typeCode], distances[typeCode], size));
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Object> buildTypeStatistics(String activityType, long activityCount, double distance, long allActivityCount) {
+        double totalDistance = distance / 1000;
+        int totalActivities = (int) activityCount;
+        
+        Map<String, Object> typeStats = new HashMap<>();
+        typeStats.put("activityType", activityType);
+        typeStats.put("totalDistance", Math.round(totalDistance * 100) / 100.0);
+        typeStats.put("totalActivities", totalActivities);
+        typeStats.put("percentage", allActivityCount == 0 ? 0 : Math.round((double) totalActivities / allActivityCount * 100));
+        return typeStats;
+    }
+
     @Override
+    @Cacheable(CacheConfig.RECENT_ACTIVITIES)
     public List<Map<String, Object>> getRecentActivities(int limit) {
+        return statisticsMetrics.record("recentActivities", activitySource(),
+                () -> computeRecentActivities(limit));
+    }
+
+    private List<Map<String, Object>> computeRecentActivities(int limit) {
         List<Map<String, Object>> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
         
         try {
-            // 获取所有活动并按开始时间降序排序
-            List<Activity> recentActivities = activityRepository.findAll().stream()
-                    .sorted(Comparator.comparing(Activity::getStartTime).reversed())
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            List<ActivitySummaryView> recentActivities;
+            if (activityColumnStore.isReady()) {
+                // 在列式存储中选出开始时间最新的活动ID，只读取这些活动的摘要，再按完整的开始时间和ID排序
+                List<Long> recentIds = activityColumnStore.read(columns -> findRecentActivityIds(columns, limit));
+                recentActivities = recentIds.isEmpty() ? Collections.emptyList()
+                        : activityRepository.findSummariesByIdIn(recentIds).stream()
+                        .sorted(Comparator.comparing(ActivitySummaryView::getStartTime)
+                                .thenComparing(ActivitySummaryView::getId).reversed())
+                        .limit(limit)
+                        .collect(Collectors.toList());
+            } else {
+                // 按(start_time, id)索引倒序只读取前limit条活动的摘要，没有开始时间的活动不参与
+                recentActivities = activityRepository.findSummariesFirst(PageRequest.of(0, limit));
+                statisticsMetrics.recordRowsScanned("recentActivities", recentActivities.size());
+            }
             
             // 转换为前端需要的格式
-            for (Activity activity : recentActivities) {
+            for (ActivitySummaryView activity : recentActivities) {
                 Map<String, Object> activityMap = new HashMap<>();
                 activityMap.put("id", activity.getId());
                 activityMap.put("activityName", activity.getActivityName());
@@ -277,99 +355,198 @@ public class StatisticsServiceImpl implements StatisticsService {
         return result;
     }
 
+    /**
+     * 遍历列式存储选出开始时间最新的limit条活动，候选行按开始时间降序保存在定长数组中
+     * 列中的开始时间精确到秒，与第limit条同一秒开始的活动也一并返回，由调用方按完整时间排序后截取
+     */
+    private List<Long> findRecentActivityIds(ActivityColumns columns, int limit) {
+        int size = columns.size();
+        statisticsMetrics.recordRowsScanned("recentActivities", size);
+        int[] topRows = new int[Math.max(0, Math.min(limit, size))];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            long startTime = columns.startTime(row);
+            if (startTime == ActivityColumns.NO_START_TIME
+                    || (count == topRows.length && (count == 0 || startTime <= columns.startTime(topRows[count - 1])))) {
+                continue;
+            }
+            int position = count < topRows.length ? count++ : count - 1;
+            while (position > 0 && columns.startTime(topRows[position - 1]) < startTime) {
+                topRows[position] = topRows[position - 1];
+                position--;
+            }
+            topRows[position] = row;
+        }
+        
+        List<Long> ids = new ArrayList<>(count);
+        if (count == 0) {
+            return ids;
+        }
+        long lastStartTime = columns.startTime(topRows[count - 1]);
+        for (int i = 0; i < count && columns.startTime(topRows[i]) > lastStartTime; i++) {
+            ids.add(columns.id(topRows[i]));
+        }
+        for (int row = 0; row < size; row++) {
+            if (columns.startTime(row) == lastStartTime) {
+                ids.add(columns.id(row));
+            }
+        }
+        return ids;
+    }
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.ACTIVITY_TREND, key = "'month:' + #months")
     public List<Map<String, Object>> getActivityTrendByMonth(int months) {
+        return statisticsMetrics.record("trendByMonth", aggregateSource(), () -> computeActivityTrendByMonth(months));
+    }
+
+    private List<Map<String, Object>> computeActivityTrendByMonth(int months) {
         List<Map<String, Object>> trendData = new ArrayList<>();
         
         try {
             // 获取当前时间
             LocalDate now = LocalDate.now();
-            
-            // 生成最近N个月的数据
-            for (int i = months - 1; i >= 0; i--) {
-                YearMonth yearMonth = YearMonth.from(now.minusMonths(i));
-                LocalDate monthStart = yearMonth.atDay(1);
-                LocalDate monthEnd = yearMonth.atEndOfMonth();
-                
-                // 获取该月的活动
-                LocalDateTime startDateTime = monthStart.atStartOfDay();
-                LocalDateTime endDateTime = monthEnd.plusDays(1).atStartOfDay().minusSeconds(1);
-                List<Activity> monthActivities = activityRepository.findByStartTimeBetween(startDateTime, endDateTime);
-                
-                // 计算统计数据
-                double totalDistance = monthActivities.stream()
-                        .mapToDouble(Activity::getDistance)
-                        .filter(Objects::nonNull)
-                        .sum() / 1000;
-                
-                int totalActivities = monthActivities.size();
-                
-                Map<String, Object> monthData = new HashMap<>();
-                monthData.put("month", yearMonth.format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM")));
-                monthData.put("totalDistance", Math.round(totalDistance * 100) / 100.0);
-                monthData.put("totalActivities", totalActivities);
-                
+            YearMonth firstMonth = YearMonth.from(now.minusMonths(months - 1));
+            
+            // 一次取回范围内所有月份的汇总，缺失的月份在内存中补零
+            Map<LocalDate, TrendBucket> buckets = loadMonthlyBuckets(firstMonth.atDay(1), now);
+            statisticsMetrics.recordRowsScanned("trendByMonth", rowsScanned(buckets));
+            for (int i = 0; i < months; i++) {
+                YearMonth yearMonth = firstMonth.plusMonths(i);
+                Map<String, Object> monthData = buildTrendData(buckets.get(yearMonth.atDay(1)));
+                monthData.put("month", RollupBucketType.MONTH.keyOf(yearMonth.atDay(1)));
                 trendData.add(monthData);
             }
             
         } catch (Exception e) {
-            // 如果发生错误，返回空列表
+            log.error("计算月度趋势数据时发生异常, months={}", months, e);
+        }
+        
+        return trendData;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ACTIVITY_TREND, key = "'week:' + #weeks")
+    public List<Map<String, Object>> getActivityTrendByWeek(int weeks) {
+        return statisticsMetrics.record("trendByWeek", aggregateSource(), () -> computeActivityTrendByWeek(weeks));
+    }
+
+    private List<Map<String, Object>> computeActivityTrendByWeek(int weeks) {
+        List<Map<String, Object>> trendData = new ArrayList<>();
+        
+        try {
+            LocalDate now = LocalDate.now();
+            LocalDate firstWeekStart = now.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(weeks - 1);
+            
+            // 按天汇总折叠到所在周的周一
+            Map<LocalDate, TrendBucket> dayBuckets = loadDailyBuckets(firstWeekStart, now);
+            statisticsMetrics.recordRowsScanned("trendByWeek", rowsScanned(dayBuckets));
+            Map<LocalDate, TrendBucket> weekBuckets = new HashMap<>();
+            for (Map.Entry<LocalDate, TrendBucket> entry : dayBuckets.entrySet()) {
+                LocalDate weekStart = entry.getKey().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                weekBuckets.computeIfAbsent(weekStart, key -> new TrendBucket()).add(entry.getValue());
+            }
+            
+            for (int i = 0; i < weeks; i++) {
+                LocalDate weekStart = firstWeekStart.plusWeeks(i);
+                Map<String, Object> weekData = buildTrendData(weekBuckets.get(weekStart));
+                weekData.put("week", RollupBucketType.DAY.keyOf(weekStart));
+                trendData.add(weekData);
+            }
+            
+        } catch (Exception e) {
+            log.error("计算周度趋势数据时发生异常, weeks={}", weeks, e);
         }
         
         return trendData;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.ACTIVITY_TREND, key = "'day:' + #days")
+    public List<Map<String, Object>> getActivityTrendByDay(int days) {
+        return statisticsMetrics.record("trendByDay", aggregateSource(), () -> computeActivityTrendByDay(days));
+    }
+
+    private List<Map<String, Object>> computeActivityTrendByDay(int days) {
+        List<Map<String, Object>> trendData = new ArrayList<>();
+        
+        try {
+            LocalDate now = LocalDate.now();
+            LocalDate firstDay = now.minusDays(days - 1);
+            
+            Map<LocalDate, TrendBucket> buckets = loadDailyBuckets(firstDay, now);
+            statisticsMetrics.recordRowsScanned("trendByDay", rowsScanned(buckets));
+            for (int i = 0; i < days; i++) {
+                LocalDate date = firstDay.plusDays(i);
+                Map<String, Object> dayData = buildTrendData(buckets.get(date));
+                dayData.put("date", RollupBucketType.DAY.keyOf(date));
+                trendData.add(dayData);
+            }
+            
+        } catch (Exception e) {
+            log.error("计算每日趋势数据时发生异常, days={}", days, e);
+        }
+        
+        return trendData;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.HEART_RATE_ZONES, unless = "!#result['success']")
     public Map<String, Object> getHeartRateZoneStatistics() {
+        return statisticsMetrics.record("heartRateZones", StatisticsMetrics.SOURCE_ZONE_HISTOGRAMS,
+                this::computeHeartRateZoneStatistics);
+    }
+
+    private Map<String, Object> computeHeartRateZoneStatistics() {
         Map<String, Object> statistics = new HashMap<>();
-        Map<String, Integer> zoneCount = new HashMap<>();
         
         log.debug("开始计算心率区间统计数据");
         
-        // 初始化心率区间
-        zoneCount.put("恢复区 (50-60%)", 0);
-        zoneCount.put("有氧区 (60-70%)", 0);
-        zoneCount.put("阈值区 (70-80%)", 0);
-        zoneCount.put("无氧区 (80-90%)", 0);
-        zoneCount.put("极限区 (90-100%)", 0);
-        
         try {
-            // 获取所有活动
-            log.debug("从数据库获取所有活动记录用于心率区间统计");
-            List<Activity> allActivities = activityRepository.findAll();
-            log.debug("成功获取 {} 条活动记录", allActivities.size());
-            
-            // 简化版本：基于平均心率进行区间统计
-            // 实际应用中应该基于最大心率百分比进行计算
-            log.debug("开始按心率区间分类统计活动");
-            int activitiesWithHeartRate = 0;
-            
-            for (Activity activity : allActivities) {
-                if (activity.getAverageHeartRate() != null) {
-                    activitiesWithHeartRate++;
-                    int avgHR = activity.getAverageHeartRate();
-                    
-                    // 这里使用简化的心率区间判断
-                    // 实际应该基于个人最大心率计算百分比
-                    if (avgHR < 120) {
-                        zoneCount.put("恢复区 (50-60%)", zoneCount.get("恢复区 (50-60%)") + 1);
-                    } else if (avgHR < 140) {
-                        zoneCount.put("有氧区 (60-70%)", zoneCount.get("有氧区 (60-70%)") + 1);
-                    } else if (avgHR < 160) {
-                        zoneCount.put("阈值区 (70-80%)", zoneCount.get("阈值区 (70-80%)") + 1);
-                    } else if (avgHR < 180) {
-                        zoneCount.put("无氧区 (80-90%)", zoneCount.get("无氧区 (80-90%)") + 1);
-                    } else {
-                        zoneCount.put("极限区 (90-100%)", zoneCount.get("极限区 (90-100%)") + 1);
-                    }
-                }
+            // 各活动在每个区间的秒数在保存采样时已按运动员资料算好，这里只对这些秒数求和
+            AthleteProfile profile = athleteProfileService.getProfile();
+            HeartRateZones zones = athleteProfileService.getHeartRateZones();
+            HeartRateZoneSecondsView totals = activityTrackRepository.sumHeartRateZoneSeconds(zones.getVersion());
+            long activitiesWithSamples = longValue(totals.getActivitiesWithSamples());
+            statisticsMetrics.recordRowsScanned("heartRateZones", activitiesWithSamples);
+            
+            long[] zoneSeconds = {
+                    longValue(totals.getZone0Seconds()), longValue(totals.getZone1Seconds()),
+                    longValue(totals.getZone2Seconds()), longValue(totals.getZone3Seconds()),
+                    longValue(totals.getZone4Seconds()), longValue(totals.getZone5Seconds())
+            };
+            long totalSeconds = Arrays.stream(zoneSeconds).sum();
+            
+            List<Map<String, Object>> zoneList = new ArrayList<>();
+            Map<String, Long> zoneDistribution = new LinkedHashMap<>();
+            for (int zone = 0; zone < HeartRateZones.ZONE_COUNT; zone++) {
+                Integer upperBound = zones.upperBound(zone);
+                String label = HeartRateZones.zoneName(zone) + " (" + zones.lowerBound(zone)
+                        + (upperBound != null ? "-" + (upperBound - 1) : "+") + " bpm)";
+                Map<String, Object> zoneData = new LinkedHashMap<>();
+                zoneData.put("zone", zone);
+                zoneData.put("name", HeartRateZones.zoneName(zone));
+                zoneData.put("minHeartRate", zones.lowerBound(zone));
+                zoneData.put("maxHeartRate", upperBound != null ? upperBound - 1 : null);
+                zoneData.put("seconds", zoneSeconds[zone]);
+                zoneData.put("percentage", totalSeconds == 0 ? 0 : Math.round(zoneSeconds[zone] * 1000.0 / totalSeconds) / 10.0);
+                zoneList.add(zoneData);
+                zoneDistribution.put(label, zoneSeconds[zone]);
             }
-            
-            log.debug("心率区间统计完成, 有心率数据的活动数量: {}", activitiesWithHeartRate);
-            log.debug("心率区间分布: {}", zoneCount);
-            
-            statistics.put("zoneDistribution", zoneCount);
-            statistics.put("totalActivities", allActivities.size());
+            int activitiesWithHeartRate = (int) longValue(totals.getActivitiesWithHeartRate());
+            
+            log.debug("心率区间统计完成, 有心率采样的活动数量: {}, 总计 {} 秒", activitiesWithHeartRate, totalSeconds);
+            log.debug("心率区间分布: {}", zoneDistribution);
+            
+            statistics.put("zoneModel", profile.getZoneModel());
+            statistics.put("maxHeartRate", profile.getMaxHeartRate());
+            statistics.put("restingHeartRate", profile.getRestingHeartRate());
+            statistics.put("thresholdHeartRate", profile.getThresholdHeartRate());
+            statistics.put("zones", zoneList);
+            statistics.put("zoneDistribution", zoneDistribution);
+            statistics.put("totalSeconds", totalSeconds);
+            statistics.put("totalActivities", (int) activityRepository.count());
+            statistics.put("activitiesWithSamples", (int) activitiesWithSamples);
             statistics.put("activitiesWithHeartRate", activitiesWithHeartRate);
             statistics.put("success", true);
             log.info("心率区间统计计算成功");
@@ -385,7 +562,133 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PERSONAL_RECORDS, unless = "!#result['success']")
+    public Map<String, Object> getPersonalRecords() {
+        return statisticsMetrics.record("personalRecords", StatisticsMetrics.SOURCE_PERSONAL_RECORDS,
+                this::computePersonalRecords);
+    }
+
+    private Map<String, Object> computePersonalRecords() {
+        Map<String, Object> statistics = new HashMap<>();
+        
+        try {
+            // 记录表在保存采样数据时增量维护，每类一行，这里只读取记录表
+            Map<PersonalRecordType, PersonalRecordView> recordsByType = new EnumMap<>(PersonalRecordType.class);
+            for (PersonalRecordView record : personalRecordRepository.findAllWithActivity()) {
+                recordsByType.put(record.getRecordType(), record);
+            }
+            statisticsMetrics.recordRowsScanned("personalRecords", recordsByType.size());
+            
+            List<Map<String, Object>> records = new ArrayList<>();
+            for (PersonalRecordView record : recordsByType.values()) {
+                PersonalRecordType type = record.getRecordType();
+                double distance = record.getDistanceMeters();
+                double elapsed = record.getElapsedSeconds();
+                Map<String, Object> recordData = new LinkedHashMap<>();
+                recordData.put("type", type);
+                recordData.put("label", type.getLabel());
+                recordData.put("distanceMeters", distance);
+                recordData.put("elapsedSeconds", Math.round(elapsed * 10) / 10.0);
+                recordData.put("pace", distance > 0 ? Math.round(elapsed / 60 / (distance / 1000) * 100) / 100.0 : null);
+                recordData.put("activityId", record.getActivityId());
+                recordData.put("activityName", record.getActivityName());
+                recordData.put("startTime", record.getStartTime());
+                recordData.put("startOffsetSeconds", Math.round(record.getStartOffsetSeconds() * 10) / 10.0);
+                records.add(recordData);
+            }
+            
+            statistics.put("records", records);
+            statistics.put("success", true);
+            log.debug("个人记录查询完成, 共 {} 项", records.size());
+            
+        } catch (Exception e) {
+            log.error("查询个人记录时发生异常", e);
+            statistics.put("success", false);
+            statistics.put("message", "查询个人记录失败: " + e.getMessage());
+        }
+        
+        return statistics;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.TRAINING_LOAD, key = "#days", unless = "!#result['success']")
+    public Map<String, Object> getTrainingLoad(int days) {
+        return statisticsMetrics.record("trainingLoad", StatisticsMetrics.SOURCE_TRAINING_LOAD,
+                () -> computeTrainingLoad(days));
+    }
+
+    private Map<String, Object> computeTrainingLoad(int days) {
+        Map<String, Object> statistics = new HashMap<>();
+        
+        try {
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusDays(days - 1);
+            
+            // 起始状态取开始日期前最后保存的一天，期间没有行的日期按没有训练衰减
+            Optional<TrainingLoadDay> previous = trainingLoadDayRepository.findFirstByLoadDateLessThanOrderByLoadDateDesc(startDate);
+            double acute = 0;
+            double chronic = 0;
+            if (previous.isPresent()) {
+                long gap = ChronoUnit.DAYS.between(previous.get().getLoadDate(), startDate.minusDays(1));
+                acute = TrainingLoad.decay(previous.get().getAcuteLoad(), gap, TrainingLoad.ACUTE_DAYS);
+                chronic = TrainingLoad.decay(previous.get().getChronicLoad(), gap, TrainingLoad.CHRONIC_DAYS);
+            }
+            Map<LocalDate, TrainingLoadDay> loadDays = new HashMap<>();
+            for (TrainingLoadDay loadDay : trainingLoadDayRepository.findByLoadDateBetweenOrderByLoadDateAsc(startDate, endDate)) {
+                loadDays.put(loadDay.getLoadDate(), loadDay);
+            }
+            statisticsMetrics.recordRowsScanned("trainingLoad", loadDays.size() + (previous.isPresent() ? 1 : 0));
+            
+            List<Map<String, Object>> series = new ArrayList<>(days);
+            Map<String, Object> dayData = null;
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                // 状态为前一天结束时的慢性负荷减急性负荷
+                double form = chronic - acute;
+                TrainingLoadDay loadDay = loadDays.get(date);
+                double load = 0;
+                int activityCount = 0;
+                if (loadDay != null) {
+                    load = loadDay.getTrainingLoad();
+                    activityCount = loadDay.getActivityCount();
+                    acute = loadDay.getAcuteLoad();
+                    chronic = loadDay.getChronicLoad();
+                } else {
+                    acute = TrainingLoad.decay(acute, 1, TrainingLoad.ACUTE_DAYS);
+                    chronic = TrainingLoad.decay(chronic, 1, TrainingLoad.CHRONIC_DAYS);
+                }
+                dayData = new LinkedHashMap<>();
+                dayData.put("date", date.toString());
+                dayData.put("activityCount", activityCount);
+                dayData.put("trainingLoad", Math.round(load * 10) / 10.0);
+                dayData.put("acuteLoad", Math.round(acute * 10) / 10.0);
+                dayData.put("chronicLoad", Math.round(chronic * 10) / 10.0);
+                dayData.put("form", Math.round(form * 10) / 10.0);
+                series.add(dayData);
+            }
+            
+            statistics.put("acuteDays", TrainingLoad.ACUTE_DAYS);
+            statistics.put("chronicDays", TrainingLoad.CHRONIC_DAYS);
+            statistics.put("current", dayData);
+            statistics.put("series", series);
+            statistics.put("success", true);
+            log.debug("训练负荷查询完成: {} 至 {}", startDate, endDate);
+            
+        } catch (Exception e) {
+            log.error("查询训练负荷时发生异常", e);
+            statistics.put("success", false);
+            statistics.put("message", "查询训练负荷失败: " + e.getMessage());
+        }
+        
+        return statistics;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PACE_ZONES, unless = "!#result['success']")
     public Map<String, Object> getPaceZoneStatistics() {
+        return statisticsMetrics.record("paceZones", activitySource(), this::computePaceZoneStatistics);
+    }
+
+    private Map<String, Object> computePaceZoneStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         Map<String, Integer> zoneCount = new HashMap<>();
         
@@ -399,44 +702,25 @@ public class StatisticsServiceImpl implements StatisticsService {
         zoneCount.put("间歇跑 (<3'30\")", 0);
         
         try {
-            // 获取所有跑步活动
-            log.debug("从数据库获取所有跑步活动记录用于配速区间统计");
-            List<Activity> allActivities = activityRepository.findAll();
-            log.debug("获取到 {} 条活动记录，开始筛选跑步活动", allActivities.size());
-            
-            List<Activity> runningActivities = allActivities.stream()
-                    .filter(a -> a.getActivityType() != null && 
-                            (a.getActivityType().contains("Run") || 
-                             a.getActivityType().contains("跑步") ||
-                             a.getActivityType().equals("Running")))
-                    .filter(a -> a.getAveragePace() != null)
-                    .collect(Collectors.toList());
-            
-            log.debug("成功筛选出 {} 条跑步活动记录（有配速数据）", runningActivities.size());
-            
-            // 统计配速区间
-            log.debug("开始按配速区间分类统计跑步活动");
-            for (Activity activity : runningActivities) {
-                double pace = activity.getAveragePace();
-                
-                if (pace >= 6.5) {
-                    zoneCount.put("轻松跑 (>6'30\")", zoneCount.get("轻松跑 (>6'30\")") + 1);
-                } else if (pace >= 5.5) {
-                    zoneCount.put("有氧跑 (5'30\"-6'30\")", zoneCount.get("有氧跑 (5'30\"-6'30\")") + 1);
-                } else if (pace >= 4.5) {
-                    zoneCount.put("马拉松配速 (4'30\"-5'30\")", zoneCount.get("马拉松配速 (4'30\"-5'30\")") + 1);
-                } else if (pace >= 3.5) {
-                    zoneCount.put("阈值跑 (3'30\"-4'30\")", zoneCount.get("阈值跑 (3'30\"-4'30\")") + 1);
-                } else {
-                    zoneCount.put("间歇跑 (<3'30\")", zoneCount.get("间歇跑 (<3'30\")") + 1);
-                }
-            }
-            
-            log.debug("配速区间统计完成");
+            // 跑步活动筛选和配速分桶均在数据库中完成，启用列式存储时遍历类型和配速列
+            log.debug("获取跑步活动配速区间聚合结果");
+            PaceZoneView zones = activityColumnStore.isReady()
+                    ? activityColumnStore.read(this::aggregatePaceZones)
+                    : activityRepository.aggregatePaceZones();
+            statisticsMetrics.recordRowsScanned("paceZones", longValue(zones.getTotalRunningActivities()));
+            
+            zoneCount.put("轻松跑 (>6'30\")", (int) longValue(zones.getEasyZone()));
+            zoneCount.put("有氧跑 (5'30\"-6'30\")", (int) longValue(zones.getAerobicZone()));
+            zoneCount.put("马拉松配速 (4'30\"-5'30\")", (int) longValue(zones.getMarathonZone()));
+            zoneCount.put("阈值跑 (3'30\"-4'30\")", (int) longValue(zones.getThresholdZone()));
+            zoneCount.put("间歇跑 (<3'30\")", (int) longValue(zones.getIntervalZone()));
+            int totalRunningActivities = (int) longValue(zones.getTotalRunningActivities());
+            
+            log.debug("配速区间统计完成, 有配速数据的跑步活动数量: {}", totalRunningActivities);
             log.debug("配速区间分布: {}", zoneCount);
             
             statistics.put("zoneDistribution", zoneCount);
-            statistics.put("totalRunningActivities", runningActivities.size());
+            statistics.put("totalRunningActivities", totalRunningActivities);
             statistics.put("success", true);
             log.info("配速区间统计计算成功");
             
@@ -449,4 +733,288 @@ public class StatisticsServiceImpl implements StatisticsService {
         
         return statistics;
     }
-}
+
+    /**
+     * 遍历类型和配速列，对有配速的跑步活动分桶计数，区间与aggregatePaceZones查询一致
+     */
+    private PaceZoneView aggregatePaceZones(ActivityColumns columns) {
+        int size = columns.size();
+        long running = 0, easy = 0, aerobic = 0, marathon = 0, threshold = 0, interval = 0;
+        for (int row = 0; row < size; row++) {
+            float pace = columns.pace(row);
+            if (Float.isNaN(pace) || !columns.isRunningType(columns.typeCode(row))) {
+                continue;
+            }
+            running++;
+            if (pace >= 6.5f) {
+                easy++;
+            } else if (pace >= 5.5f) {
+                aerobic++;
+            } else if (pace >= 4.5f) {
+                marathon++;
+            } else if (pace >= 3.5f) {
+                threshold++;
+            } else {
+                interval++;
+            }
+        }
+        
+        long totalRunningActivities = running, easyZone = easy, aerobicZone = aerobic, marathonZone = marathon,
+                thresholdZone = threshold, intervalZone = interval;
+        return new PaceZoneView() {
+            @Override public Long getTotalRunningActivities() { return totalRunningActivities; }
+            @Override public Long getEasyZone() { return easyZone; }
+            @Override public Long getAerobicZone() { return aerobicZone; }
+            @Override public Long getMarathonZone() { return marathonZone; }
+            @Override public Long getThresholdZone() { return thresholdZone; }
+            @Override public Long getIntervalZone() { return intervalZone; }
+        };
+    }
+
+    /**
+     * 获取总体聚合结果，启用列式存储时遍历各列得到，启用汇总表时由按类型汇总行相加得到
+     */
+    private OverallStatisticsView loadOverallStatistics() {
+        if (activityColumnStore.isReady()) {
+            log.debug("从列式存储计算总体统计");
+            return activityColumnStore.read(this::aggregateOverallStatistics);
+        }
+        if (!statisticsRollupService.isEnabled()) {
+            log.debug("从数据库获取总体聚合统计");
+            OverallStatisticsView overall = activityRepository.aggregateOverallStatistics();
+            statisticsMetrics.recordRowsScanned("overall", overall != null ? longValue(overall.getTotalActivities()) : 0);
+            return overall;
+        }
+        
+        log.debug("从统计汇总表获取总体统计");
+        ActivityAggregate aggregate = new ActivityAggregate();
+        List<StatisticsRollup> typeRollups = rollupRepository.findByBucketType(RollupBucketType.ACTIVITY_TYPE);
+        statisticsMetrics.recordRowsScanned("overall", typeRollups.size());
+        for (StatisticsRollup rollup : typeRollups) {
+            aggregate.add(rollup);
+        }
+        
+        // 最早和最新活动时间走start_time上的MIN/MAX
+        boolean hasActivities = aggregate.getActivityCount() > 0;
+        LocalDateTime firstActivityDate = hasActivities ? activityRepository.findFirstStartTime() : null;
+        LocalDateTime lastActivityDate = hasActivities ? activityRepository.findLastStartTime() : null;
+        return overallView(aggregate, firstActivityDate, lastActivityDate);
+    }
+
+    /**
+     * 遍历列式存储一次累加全部总体指标，活动较多时分段并行累加
+     */
+    private OverallStatisticsView aggregateOverallStatistics(ActivityColumns columns) {
+        statisticsMetrics.recordRowsScanned("overall", columns.size());
+        ActivityAggregate aggregate = ActivityAggregate.of(columns, parallelThreshold);
+        return overallView(aggregate, aggregate.getFirstStartTime(), aggregate.getLastStartTime());
+    }
+
+    /**
+     * 由累加结果构造总体聚合结果
+     */
+    private static OverallStatisticsView overallView(ActivityAggregate aggregate,
+                                                     LocalDateTime firstActivityDate, LocalDateTime lastActivityDate) {
+        return new OverallStatisticsView() {
+            @Override public Long getTotalActivities() { return aggregate.getActivityCount(); }
+            @Override public Double getTotalDistance() { return aggregate.getTotalDistance(); }
+            @Override public Long getTotalDuration() { return aggregate.getTotalDuration(); }
+            @Override public Long getTotalCalories() { return aggregate.getTotalCalories(); }
+            @Override public Double getAverageHeartRate() { return aggregate.getAverageHeartRate(); }
+            @Override public Double getAveragePace() { return aggregate.getAveragePace(); }
+            @Override public LocalDateTime getFirstActivityDate() { return firstActivityDate; }
+            @Override public LocalDateTime getLastActivityDate() { return lastActivityDate; }
+        };
+    }
+
+    /**
+     * 按月读取趋势汇总，键为每月第一天
+     */
+    private Map<LocalDate, TrendBucket> loadMonthlyBuckets(LocalDate from, LocalDate to) {
+        if (activityColumnStore.isReady()) {
+            return activityColumnStore.read(columns -> aggregateMonthlyBuckets(columns, from, to));
+        }
+        Map<LocalDate, TrendBucket> buckets = new HashMap<>();
+        if (statisticsRollupService.isEnabled()) {
+            for (StatisticsRollup rollup : rollupRepository.findByBucketTypeAndBucketKeyBetweenOrderByBucketKey(
+                    RollupBucketType.MONTH, RollupBucketType.MONTH.keyOf(from), RollupBucketType.MONTH.keyOf(to))) {
+                buckets.put(YearMonth.parse(rollup.getBucketKey()).atDay(1),
+                        new TrendBucket(rollup.getActivityCount(), rollup.getTotalDistance()));
+            }
+        } else {
+            LocalDateTime startDateTime = from.withDayOfMonth(1).atStartOfDay();
+            LocalDateTime endDateTime = to.plusDays(1).atStartOfDay().minusSeconds(1);
+            for (TrendBucketView view : activityRepository.aggregateTrendByMonth(startDateTime, endDateTime)) {
+                buckets.put(LocalDate.of(view.getYear(), view.getMonth(), 1),
+                        new TrendBucket(longValue(view.getActivityCount()), doubleValue(view.getTotalDistance())));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 按天读取趋势汇总
+     */
+    private Map<LocalDate, TrendBucket> loadDailyBuckets(LocalDate from, LocalDate to) {
+        if (activityColumnStore.isReady()) {
+            return activityColumnStore.read(columns -> aggregateDailyBuckets(columns, from, to));
+        }
+        Map<LocalDate, TrendBucket> buckets = new HashMap<>();
+        if (statisticsRollupService.isEnabled()) {
+            for (StatisticsRollup rollup : rollupRepository.findByBucketTypeAndBucketKeyBetweenOrderByBucketKey(
+                    RollupBucketType.DAY, RollupBucketType.DAY.keyOf(from), RollupBucketType.DAY.keyOf(to))) {
+                buckets.put(LocalDate.parse(rollup.getBucketKey()),
+                        new TrendBucket(rollup.getActivityCount(), rollup.getTotalDistance()));
+            }
+        } else {
+            LocalDateTime startDateTime = from.atStartOfDay();
+            LocalDateTime endDateTime = to.plusDays(1).atStartOfDay().minusSeconds(1);
+            for (TrendBucketView view : activityRepository.aggregateTrendByDay(startDateTime, endDateTime)) {
+                buckets.put(LocalDate.of(view.getYear(), view.getMonth(), view.getDay()),
+                        new TrendBucket(longValue(view.getActivityCount()), doubleValue(view.getTotalDistance())));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 遍历开始时间列按月累加，月份边界换算为秒后二分查找所在的月，键为每月第一天
+     */
+    private static Map<LocalDate, TrendBucket> aggregateMonthlyBuckets(ActivityColumns columns, LocalDate from, LocalDate to) {
+        YearMonth firstMonth = YearMonth.from(from);
+        int months = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(to)) + 1;
+        long[] monthStarts = new long[months];
+        for (int i = 0; i < months; i++) {
+            monthStarts[i] = ActivityColumns.toEpochSecond(firstMonth.plusMonths(i).atDay(1).atStartOfDay());
+        }
+        long endSecond = ActivityColumns.toEpochSecond(to.plusDays(1).atStartOfDay());
+        
+        long[] counts = new long[months];
+        double[] distances = new double[months];
+        int size = columns.size();
+        for (int row = 0; row < size; row++) {
+            long startTime = columns.startTime(row);
+            if (startTime < monthStarts[0] || startTime >= endSecond) {
+                continue;
+            }
+            int month = Arrays.binarySearch(monthStarts, startTime);
+            if (month < 0) {
+                month = -month - 2;
+            }
+            counts[month]++;
+            distances[month] += columns.distance(row);
+        }
+        
+        Map<LocalDate, TrendBucket> buckets = new HashMap<>();
+        for (int i = 0; i < months; i++) {
+            if (counts[i] > 0) {
+                buckets.put(firstMonth.plusMonths(i).atDay(1), new TrendBucket(counts[i], distances[i]));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 遍历开始时间列按天累加
+     */
+    private static Map<LocalDate, TrendBucket> aggregateDailyBuckets(ActivityColumns columns, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        long startSecond = ActivityColumns.toEpochSecond(from.atStartOfDay());
+        long endSecond = ActivityColumns.toEpochSecond(to.plusDays(1).atStartOfDay());
+        
+        long[] counts = new long[days];
+        double[] distances = new double[days];
+        int size = columns.size();
+        for (int row = 0; row < size; row++) {
+            long startTime = columns.startTime(row);
+            if (startTime < startSecond || startTime >= endSecond) {
+                continue;
+            }
+            int day = (int) ((startTime - startSecond) / 86400);
+            counts[day]++;
+            distances[day] += columns.distance(row);
+        }
+        
+        Map<LocalDate, TrendBucket> buckets = new HashMap<>();
+        for (int i = 0; i < days; i++) {
+            if (counts[i] > 0) {
+                buckets.put(from.plusDays(i), new TrendBucket(counts[i], distances[i]));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 汇总类统计指标的数据来源标签，列式存储优先于汇总表
+     */
+    private String aggregateSource() {
+        if (activityColumnStore.isReady()) {
+            return StatisticsMetrics.SOURCE_COLUMN_STORE;
+        }
+        return statisticsRollupService.isEnabled() ? StatisticsMetrics.SOURCE_ROLLUP : StatisticsMetrics.SOURCE_ACTIVITIES;
+    }
+
+    /**
+     * 没有汇总表支持的统计指标的数据来源标签
+     */
+    private String activitySource() {
+        return activityColumnStore.isReady() ? StatisticsMetrics.SOURCE_COLUMN_STORE : StatisticsMetrics.SOURCE_ACTIVITIES;
+    }
+
+    /**
+     * 趋势统计读取的行数：使用列式存储时为全部活动数，使用汇总表时每个桶一行，否则为桶内活动数之和
+     */
+    private long rowsScanned(Map<LocalDate, TrendBucket> buckets) {
+        if (activityColumnStore.isReady()) {
+            return activityColumnStore.size();
+        }
+        if (statisticsRollupService.isEnabled()) {
+            return buckets.size();
+        }
+        long rows = 0;
+        for (TrendBucket bucket : buckets.values()) {
+            rows += bucket.activityCount;
+        }
+        return rows;
+    }
+
+    /**
+     * 构造单个趋势桶的返回数据，空桶补零
+     */
+    private static Map<String, Object> buildTrendData(TrendBucket bucket) {
+        double totalDistance = bucket != null ? bucket.totalDistance / 1000 : 0.0;
+        Map<String, Object> data = new HashMap<>();
+        data.put("totalDistance", Math.round(totalDistance * 100) / 100.0);
+        data.put("totalActivities", bucket != null ? (int) bucket.activityCount : 0);
+        return data;
+    }
+
+    /**
+     * 趋势桶：活动次数和总距离（米）
+     */
+    private static final class TrendBucket {
+        private long activityCount;
+        private double totalDistance;
+
+        TrendBucket() {
+        }
+
+        TrendBucket(long activityCount, double totalDistance) {
+            this.activityCount = activityCount;
+            this.totalDistance = totalDistance;
+        }
+
+        void add(TrendBucket other) {
+            activityCount += other.activityCount;
+            totalDistance += other.totalDistance;
+        }
+    }
+
+    private static long longValue(Number value) {
+        return value != null ? value.longValue() : 0L;
+    }
+
+    private static double doubleValue(Number value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.event.ActivityDataChangedEvent;
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.AthleteProfile;
+import com.garmin.runner.model.TrainingLoadDay;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.ActivityTrackRepository;
+import com.garmin.runner.repository.AthleteProfileRepository;
+import com.garmin.runner.repository.TrainingLoadDayRepository;
+import com.garmin.runner.repository.projection.ActivityLoadView;
+import com.garmin.runner.service.TrainingLoadService;
+import com.garmin.runner.util.TrainingLoad;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Service
+public class TrainingLoadServiceImpl implements TrainingLoadService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingLoadServiceImpl.class);
+
+    @Autowired
+    private TrainingLoadDayRepository trainingLoadDayRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityTrackRepository activityTrackRepository;
+
+    // 运动员资料服务重新计算心率区间后会调用本服务，这里直接读取资料表以避免循环依赖
+    @Autowired
+    private AthleteProfileRepository athleteProfileRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 启动完成后为迁移前已有的活动计算训练负荷；采样数据的TRIMP需要补算时由心率区间重新计算完成后处理
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        int zoneVersion = getProfile().getZoneVersion();
+        if (activityTrackRepository.countStaleHeartRateZones(zoneVersion) > 0) {
+            return;
+        }
+        Optional<TrainingLoadDay> last = trainingLoadDayRepository.findFirstByOrderByLoadDateDesc();
+        if (last.isEmpty() ? activityRepository.count() > 0 : last.get().getHrZoneVersion() != zoneVersion) {
+            rebuildTrainingLoad();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void applyChanges(Collection<Activity> added, Collection<Activity> removed) {
+        LocalDate earliest = null;
+        for (Collection<Activity> activities : List.of(added, removed)) {
+            for (Activity activity : activities) {
+                if (activity.getStartTime() != null) {
+                    LocalDate date = activity.getStartTime().toLocalDate();
+                    earliest = earliest == null || date.isBefore(earliest) ? date : earliest;
+                }
+            }
+        }
+        if (earliest != null) {
+            recalculate(earliest);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recalculateFrom(LocalDate date) {
+        recalculate(date);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> rebuildTrainingLoad() {
+        Map<String, Object> result = new HashMap<>();
+        long startTime = System.currentTimeMillis();
+        int days = recalculate(null);
+        eventPublisher.publishEvent(new ActivityDataChangedEvent("training-load"));
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("训练负荷重建完成: {} 天, 耗时 {} ms", days, elapsed);
+        result.put("success", true);
+        result.put("dayCount", days);
+        result.put("elapsedMs", elapsed);
+        return result;
+    }
+
+    /**
+     * 从指定日期前一天保存的负荷出发，逐天重新计算到最后一个活动的日期
+     * @param from 最早受影响的日期，为null或之前的行不是按当前资料计算时从第一个活动起重新计算
+     * @return 写入的天数
+     */
+    private int recalculate(LocalDate from) {
+        // 先锁住资料行：并发的重新计算会删除并重写同一段日期，不串行执行时会在主键上冲突或互相覆盖
+        AthleteProfile profile = athleteProfileRepository.findLockedById(AthleteProfile.DEFAULT_ID)
+                .orElseThrow(() -> new IllegalStateException("运动员资料不存在，请检查数据库迁移"));
+        int zoneVersion = profile.getZoneVersion();
+        Optional<TrainingLoadDay> previous = from != null
+                ? trainingLoadDayRepository.findFirstByLoadDateLessThanOrderByLoadDateDesc(from) : Optional.empty();
+        if (previous.isPresent() && previous.get().getHrZoneVersion() != zoneVersion) {
+            previous = Optional.empty();
+        }
+
+        LocalDate start;
+        if (previous.isPresent()) {
+            // 已保存的行从第一个活动起逐天连续，前一行之后到from之间没有行
+            start = previous.get().getLoadDate().plusDays(1);
+            trainingLoadDayRepository.deleteFrom(start);
+        } else {
+            trainingLoadDayRepository.deleteAllInBatch();
+            LocalDateTime first = activityRepository.findFirstStartTime();
+            if (first == null) {
+                return 0;
+            }
+            start = first.toLocalDate();
+        }
+
+        // 按天累加TRIMP：有按当前资料计算的采样TRIMP时使用，否则按平均心率估算
+        TreeMap<LocalDate, double[]> daily = new TreeMap<>();
+        try (Stream<ActivityLoadView> inputs = activityRepository.streamLoadInputs(start.atStartOfDay(), zoneVersion)) {
+            inputs.forEach(input -> {
+                double trimp = input.getTrackTrimp() != null ? input.getTrackTrimp()
+                        : TrainingLoad.trimp(input.getDuration(), input.getAverageHeartRate(), profile);
+                double[] day = daily.computeIfAbsent(input.getStartTime().toLocalDate(), date -> new double[2]);
+                day[0] += trimp;
+                day[1]++;
+            });
+        }
+        if (daily.isEmpty()) {
+            return 0;
+        }
+
+        double acute = previous.map(TrainingLoadDay::getAcuteLoad).orElse(0.0);
+        double chronic = previous.map(TrainingLoadDay::getChronicLoad).orElse(0.0);
+        List<TrainingLoadDay> days = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(daily.lastKey()); date = date.plusDays(1)) {
+            double[] day = daily.getOrDefault(date, new double[2]);
+            acute = TrainingLoad.next(acute, day[0], TrainingLoad.ACUTE_DAYS);
+            chronic = TrainingLoad.next(chronic, day[0], TrainingLoad.CHRONIC_DAYS);
+            TrainingLoadDay loadDay = new TrainingLoadDay(date, (int) day[1], day[0], acute, chronic, zoneVersion);
+            entityManager.persist(loadDay);
+            days.add(loadDay);
+        }
+        // 写入后移出持久化上下文，同一事务内再次计算时批量删除的行不会与新行冲突
+        entityManager.flush();
+        days.forEach(entityManager::detach);
+        log.debug("训练负荷重新计算: {} 至 {}, 共 {} 天", start, daily.lastKey(), days.size());
+        return days.size();
+    }
+
+    private AthleteProfile getProfile() {
+        return athleteProfileRepository.findById(AthleteProfile.DEFAULT_ID)
+                .orElseThrow(() -> new IllegalStateException("运动员资料不存在，请检查数据库迁移"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.garmin.runner.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * 由CSV表头编译得到的字段到列下标的映射
+ * 每个文件只解析一次表头，之后每行按下标直接取值，不再为每行构造Map或按列名查找
+ * @param <C> 字段枚举，如活动摘要字段ActivityCsvColumn、明细采样字段ActivityDetailCsvColumn
+ */
+public class ActivityColumnMapping<C extends Enum<C> & CsvColumn> {
+
+    private static final int[] NO_COLUMNS = new int[0];
+
+    // 按字段序号存放候选列下标，顺序与别名优先级一致
+    private final int[][] columnIndexes;
+
+    private ActivityColumnMapping(int[][] columnIndexes) {
+        this.columnIndexes = columnIndexes;
+    }
+
+    /**
+     * 根据表头解析活动摘要字段的别名
+     */
+    public static ActivityColumnMapping<ActivityCsvColumn> compile(List<String> headerNames) {
+        return compile(headerNames, ActivityCsvColumn.class);
+    }
+
+    /**
+     * 根据表头解析各字段的别名，列名匹配忽略大小写
+     */
+    public static <C extends Enum<C> & CsvColumn> ActivityColumnMapping<C> compile(List<String> headerNames, Class<C> columnType) {
+        Map<String, Integer> headerIndexes = new HashMap<>();
+        for (int i = 0; i < headerNames.size(); i++) {
+            String header = headerNames.get(i);
+            if (header != null) {
+                headerIndexes.putIfAbsent(header.trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        C[] columns = columnType.getEnumConstants();
+        int[][] columnIndexes = new int[columns.length][];
+        for (C column : columns) {
+            int[] indexes = new int[column.getAliases().length];
+            int count = 0;
+            for (String alias : column.getAliases()) {
+                Integer index = headerIndexes.get(alias.toLowerCase(Locale.ROOT));
+                if (index != null) {
+                    indexes[count++] = index;
+                }
+            }
+            columnIndexes[column.ordinal()] = count == 0 ? NO_COLUMNS : Arrays.copyOf(indexes, count);
+        }
+        return new ActivityColumnMapping<>(columnIndexes);
+    }
+
+    /**
+     * 表头中是否存在该字段
+     */
+    public boolean hasColumn(C column) {
+        return columnIndexes[column.ordinal()].length > 0;
+    }
+
+    /**
+     * 按别名优先级返回该字段第一个非空的值，均为空时返回null
+     */
+    public String get(CSVRecord record, C column) {
+        for (int index : columnIndexes[column.ordinal()]) {
+            if (index < record.size()) {
+                String value = record.get(index);
+                // 检查值是否为空或仅包含空白字符
+                if (value != null && !value.isBlank()) {
+                    return value.trim();
+                }
+            }
+        }
+        return null;
+    }
+}
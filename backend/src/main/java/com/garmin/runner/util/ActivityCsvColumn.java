@@ -0,0 +1,28 @@
+package com.garmin.runner.util;
+
+/**
+ * 佳明活动摘要CSV中的字段及其可能的列名（中英文别名，按优先级排列）
+ */
+public enum ActivityCsvColumn implements CsvColumn {
+    ACTIVITY_NAME("Activity Name", "活动名称"),
+    ACTIVITY_TYPE("Activity Type", "活动类型"),
+    DATE("Date", "日期"),
+    DISTANCE("Distance", "距离"),
+    DURATION("Duration", "持续时间"),
+    CALORIES("Calories", "卡路里"),
+    AVERAGE_HEART_RATE("Avg HR", "平均心率", "Avg Heart Rate", "Average Heart Rate"),
+    MAX_HEART_RATE("Max HR", "最大心率", "Max Heart Rate"),
+    AVERAGE_PACE("Avg Pace", "平均配速", "Pace"),
+    ACTIVITY_ID("Activity ID", "活动ID", "活动 ID");
+
+    private final String[] aliases;
+
+    ActivityCsvColumn(String... aliases) {
+        this.aliases = aliases;
+    }
+
+    @Override
+    public String[] getAliases() {
+        return aliases;
+    }
+}
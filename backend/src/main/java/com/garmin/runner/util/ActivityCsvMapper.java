@@ -0,0 +1,89 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.ImportRecord;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+/**
+ * 佳明活动摘要CSV记录到活动实体的转换，导入服务和基准测试共用
+ */
+@Component
+public class ActivityCsvMapper {
+
+    private final CsvParserUtil csvParserUtil;
+
+    public ActivityCsvMapper(CsvParserUtil csvParserUtil) {
+        this.csvParserUtil = csvParserUtil;
+    }
+
+    /**
+     * 将一条CSV记录转换为活动实体
+     * @param mapping 按表头编译好的列映射，每个文件只编译一次
+     * @param importRecord 所属导入记录，可为null（由调用方稍后设置）
+     */
+    public Activity toActivity(CSVRecord record, ActivityColumnMapping<ActivityCsvColumn> mapping, ImportRecord importRecord) {
+        Activity activity = new Activity();
+        
+        // 设置活动基本信息
+        activity.setActivityName(mapping.get(record, ActivityCsvColumn.ACTIVITY_NAME));
+        activity.setActivityType(mapping.get(record, ActivityCsvColumn.ACTIVITY_TYPE));
+        
+        // 解析日期时间
+        String dateStr = mapping.get(record, ActivityCsvColumn.DATE);
+        LocalDateTime startTime = csvParserUtil.tryParseDateTime(dateStr);
+        
+        // 设置距离（转换为米）
+        Double distance = csvParserUtil.parseDouble(mapping.get(record, ActivityCsvColumn.DISTANCE));
+        if (distance != null) {
+            // 假设距离单位为公里，转换为米
+            activity.setDistance(distance * 1000);
+        }
+        
+        // 设置持续时间（秒）
+        String durationStr = mapping.get(record, ActivityCsvColumn.DURATION);
+        if (durationStr != null) {
+            // 简化处理，实际应用中需要根据格式解析
+            activity.setDuration(csvParserUtil.parseLong(durationStr));
+        }
+        
+        // 设置卡路里
+        activity.setCalories(csvParserUtil.parseInteger(mapping.get(record, ActivityCsvColumn.CALORIES)));
+        
+        // 设置心率信息
+        // 支持多种可能的列名，别名在编译映射时已解析
+        activity.setAverageHeartRate(csvParserUtil.parseInteger(mapping.get(record, ActivityCsvColumn.AVERAGE_HEART_RATE)));
+        activity.setMaxHeartRate(csvParserUtil.parseInteger(mapping.get(record, ActivityCsvColumn.MAX_HEART_RATE)));
+        
+        // 设置配速（如果没有直接提供，则根据距离和时间计算）
+        Double pace = csvParserUtil.parseDouble(mapping.get(record, ActivityCsvColumn.AVERAGE_PACE));
+        if (pace == null && distance != null && distance > 0 && activity.getDuration() != null && activity.getDuration() > 0) {
+            // 计算配速：时间（分钟）/距离（公里）
+            double durationInMinutes = activity.getDuration() / 60.0;
+            double distanceInKm = distance; // CSV中的距离已经是公里
+            pace = durationInMinutes / distanceInKm;
+        }
+        if (pace != null) {
+            activity.setAveragePace(pace);
+        }
+        
+        // 设置导入信息
+        activity.setGarminActivityId(mapping.get(record, ActivityCsvColumn.ACTIVITY_ID));
+        // 去重键按解析出的开始时间计算；时间无法解析时开始时间记为导入时间，但不参与去重键，否则重复导入会生成不同的键
+        activity.setStartTime(startTime);
+        activity.setDedupKey(ActivityDedupKey.of(activity));
+        if (startTime == null && dateStr != null) {
+            activity.setStartTime(LocalDateTime.now());
+        }
+        activity.setImportDate(LocalDateTime.now());
+        activity.setImportRecord(importRecord);
+        
+        // 暂时设置空列表，避免级联保存问题
+        activity.setActivityDetails(Collections.emptyList());
+        
+        return activity;
+    }
+}
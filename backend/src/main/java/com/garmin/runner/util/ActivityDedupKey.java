@@ -0,0 +1,86 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.Activity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 活动去重键：有佳明活动ID时按ID计算，否则按活动类型、开始时间（精确到秒）和距离（精确到10米）计算
+ * 结果为64位十六进制的SHA-256摘要，长度固定，便于建立唯一索引
+ * 同一文件中去重键相同的多行由{@link Occurrences}按出现顺序区分
+ */
+public final class ActivityDedupKey {
+
+    private ActivityDedupKey() {
+    }
+
+    public static String of(Activity activity) {
+        return of(activity.getGarminActivityId(), activity.getActivityType(),
+                activity.getStartTime(), activity.getDistance());
+    }
+
+    /**
+     * 计算去重键，既没有佳明活动ID也没有开始时间的活动无法识别重复，返回null
+     */
+    public static String of(String garminActivityId, String activityType, LocalDateTime startTime, Double distance) {
+        String source;
+        if (garminActivityId != null && !garminActivityId.isBlank()) {
+            source = "garmin:" + garminActivityId.trim();
+        } else if (startTime != null) {
+            // CSV中的距离以公里保留两位小数，按10米取整后与轨迹文件计算出的距离一致
+            source = "content:" + (activityType != null ? activityType.trim().toLowerCase(Locale.ROOT) : "")
+                    + "|" + startTime.truncatedTo(ChronoUnit.SECONDS)
+                    + "|" + (distance != null ? Math.round(distance / 10) : "");
+        } else {
+            return null;
+        }
+        return sha256(source);
+    }
+
+    private static String sha256(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 同一文件中去重键相同的多行是各自独立的活动（如没有佳明活动ID、开始时间相同的两次力量训练），不能互相合并
+     * 从第2次出现起，去重键按"原键#序号"重新计算；重复导入同一文件时每一行仍得到相同的键，对应库中同一条活动
+     * 有佳明活动ID的行ID相同即为同一活动，不加序号
+     * 每个文件使用一个实例，按行的顺序调用
+     */
+    public static final class Occurrences {
+
+        // 以去重键的前64位计数，每行约占几十字节；前缀相同的不同键只会得到一个带序号的键，重复导入时结果不变
+        private final Map<Long, Integer> counts = new HashMap<>();
+
+        /**
+         * 记录一行的去重键，该键在本文件中已出现过时改为带序号的键
+         */
+        public void assign(Activity activity) {
+            activity.setDedupKey(assign(activity.getDedupKey(), activity.getGarminActivityId()));
+        }
+
+        /**
+         * 记录一行的去重键，返回该行最终使用的键
+         */
+        public String assign(String dedupKey, String garminActivityId) {
+            if (dedupKey == null || (garminActivityId != null && !garminActivityId.isBlank())) {
+                return dedupKey;
+            }
+            int occurrence = counts.merge(Long.parseUnsignedLong(dedupKey, 0, 16, 16), 1, Integer::sum);
+            return occurrence > 1 ? sha256("occurrence:" + dedupKey + "#" + occurrence) : dedupKey;
+        }
+    }
+}
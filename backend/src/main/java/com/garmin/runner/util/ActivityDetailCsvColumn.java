@@ -0,0 +1,25 @@
+package com.garmin.runner.util;
+
+/**
+ * 活动明细（逐秒采样）CSV中的字段及其可能的列名（中英文别名，按优先级排列）
+ */
+public enum ActivityDetailCsvColumn implements CsvColumn {
+    TIMESTAMP("Timestamp", "Elapsed Time", "Time", "时间戳", "时间"),
+    LATITUDE("Latitude", "Lat", "纬度"),
+    LONGITUDE("Longitude", "Lon", "Lng", "经度"),
+    ELEVATION("Elevation", "Altitude", "海拔"),
+    HEART_RATE("Heart Rate", "HR", "心率"),
+    PACE("Pace", "配速"),
+    DISTANCE("Distance From Start", "Distance", "距离");
+
+    private final String[] aliases;
+
+    ActivityDetailCsvColumn(String... aliases) {
+        this.aliases = aliases;
+    }
+
+    @Override
+    public String[] getAliases() {
+        return aliases;
+    }
+}
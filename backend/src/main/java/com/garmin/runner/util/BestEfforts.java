@@ -0,0 +1,89 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.ActivityBestEffort;
+import com.garmin.runner.model.PersonalRecordType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 从采样数据计算一次跑步在各类个人记录上的最好成绩
+ * 一次遍历采样，每个标准距离各维护一个窗口起点（双指针）：窗口终点右移时，起点右移到窗口距离刚好不少于标准距离，
+ * 起点在相邻两个采样之间按距离线性插值，因此成绩不受采样间隔影响
+ * 用时按时间戳计算，包含暂停时间；没有距离或距离回退的采样不参与计算
+ */
+public final class BestEfforts {
+
+    // 计算规则或记录类型变化时递增，启动时重新计算旧版本的成绩
+    public static final int VERSION = 1;
+
+    private static final PersonalRecordType[] FASTEST_TYPES = Arrays.stream(PersonalRecordType.values())
+            .filter(PersonalRecordType::isFastest).toArray(PersonalRecordType[]::new);
+
+    private BestEfforts() {
+    }
+
+    /**
+     * 计算各类最好成绩
+     * @return 达到的各类最好成绩，距离不足的标准距离不包含在内
+     */
+    public static List<ActivityBestEffort> of(Long activityId, TrackData track) {
+        int size = 0;
+        long[] timestamps = new long[track.size()];
+        double[] distances = new double[track.size()];
+        for (int i = 0; i < track.size(); i++) {
+            double distance = track.getDistance(i);
+            if (Double.isNaN(distance) || (size > 0 && distance < distances[size - 1])) {
+                continue;
+            }
+            timestamps[size] = track.getTimestamp(i);
+            distances[size] = distance;
+            size++;
+        }
+        List<ActivityBestEffort> efforts = new ArrayList<>(FASTEST_TYPES.length + 1);
+        if (size < 2 || distances[size - 1] <= distances[0]) {
+            return efforts;
+        }
+
+        int[] starts = new int[FASTEST_TYPES.length];
+        double[] bestElapsed = new double[FASTEST_TYPES.length];
+        double[] bestOffsets = new double[FASTEST_TYPES.length];
+        Arrays.fill(bestElapsed, Double.POSITIVE_INFINITY);
+        for (int end = 1; end < size; end++) {
+            for (int k = 0; k < FASTEST_TYPES.length; k++) {
+                double length = FASTEST_TYPES[k].getDistanceMeters();
+                if (distances[end] - distances[0] < length) {
+                    continue;
+                }
+                // 起点右移到下一个采样时窗口仍够长就继续右移
+                int start = starts[k];
+                while (start + 1 < end && distances[end] - distances[start + 1] >= length) {
+                    start++;
+                }
+                starts[k] = start;
+
+                // 窗口起点在start和start+1之间，距离终点恰好为标准距离
+                double target = distances[end] - length;
+                double span = distances[start + 1] - distances[start];
+                double fraction = span > 0 ? (target - distances[start]) / span : 0;
+                double startTime = timestamps[start] + fraction * (timestamps[start + 1] - timestamps[start]);
+                double elapsed = timestamps[end] - startTime;
+                if (elapsed < bestElapsed[k]) {
+                    bestElapsed[k] = elapsed;
+                    bestOffsets[k] = startTime - timestamps[0];
+                }
+            }
+        }
+
+        for (int k = 0; k < FASTEST_TYPES.length; k++) {
+            if (bestElapsed[k] != Double.POSITIVE_INFINITY) {
+                efforts.add(new ActivityBestEffort(activityId, FASTEST_TYPES[k], FASTEST_TYPES[k].getDistanceMeters(),
+                        bestElapsed[k], bestOffsets[k]));
+            }
+        }
+        efforts.add(new ActivityBestEffort(activityId, PersonalRecordType.LONGEST_RUN,
+                distances[size - 1] - distances[0], (double) (timestamps[size - 1] - timestamps[0]), 0.0));
+        return efforts;
+    }
+}
@@ -0,0 +1,12 @@
+package com.garmin.runner.util;
+
+/**
+ * CSV字段及其可能的列名，供ActivityColumnMapping按表头编译列下标
+ */
+public interface CsvColumn {
+
+    /**
+     * 字段的列名别名，按优先级排列
+     */
+    String[] getAliases();
+}
@@ -11,6 +11,8 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +21,12 @@ import java.util.HashMap;
 @Component
 public class CsvParserUtil {
 
+    // 佳明导出的时间格式在前，ISO格式（带"T"分隔符）在后
+    private static final List<DateTimeFormatter> DATE_TIME_FORMATTERS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
     /**
      * 解析佳明活动摘要CSV文件
      */
@@ -48,6 +56,34 @@ public class CsvParserUtil {
         return activities;
     }
 
+    /**
+     * 以流式方式打开佳明活动摘要CSV文件，记录在迭代时才逐行读取
+     * 调用方负责关闭返回的解析器
+     */
+    public CSVParser openActivitySummary(InputStream inputStream) throws IOException {
+        return openWithHeader(inputStream);
+    }
+
+    /**
+     * 以流式方式打开活动明细（逐秒采样）CSV文件，调用方负责关闭返回的解析器
+     */
+    public CSVParser openActivityDetails(InputStream inputStream) throws IOException {
+        return openWithHeader(inputStream);
+    }
+
+    /**
+     * 打开首行为表头的CSV，列名忽略大小写并去除首尾空白
+     */
+    private CSVParser openWithHeader(InputStream inputStream) throws IOException {
+        return new CSVParser(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder()
+                        .setHeader()
+                        .setIgnoreHeaderCase(true)
+                        .setTrim(true)
+                        .build());
+    }
+
     /**
      * 解析佳明活动详细数据CSV文件
      */
@@ -78,24 +114,30 @@ public class CsvParserUtil {
     }
 
     /**
-     * 解析时间字符串为LocalDateTime
+     * 解析时间字符串为LocalDateTime，无法解析时返回当前时间
      */
     public LocalDateTime parseDateTime(String dateTimeStr) {
-        // 处理不同格式的时间字符串
-        // 这里是一个简化版本，实际应用中可能需要更复杂的解析逻辑
-        try {
-            // 假设格式为：yyyy-MM-dd HH:mm:ss
-            return LocalDateTime.parse(dateTimeStr);
-        } catch (Exception e) {
-            // 如果解析失败，尝试转换时间戳
+        LocalDateTime dateTime = tryParseDateTime(dateTimeStr);
+        return dateTime != null ? dateTime : LocalDateTime.now();
+    }
+
+    /**
+     * 解析时间字符串为LocalDateTime，支持佳明导出的"yyyy-MM-dd HH:mm:ss"、ISO格式和毫秒时间戳，无法解析时返回null
+     */
+    public LocalDateTime tryParseDateTime(String dateTimeStr) {
+        if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = dateTimeStr.trim();
+        for (DateTimeFormatter formatter : DATE_TIME_FORMATTERS) {
             try {
-                long timestamp = Long.parseLong(dateTimeStr);
-                return LocalDateTime.ofEpochSecond(timestamp / 1000, 0, ZoneOffset.UTC);
-            } catch (Exception ex) {
-                // 如果都失败，返回当前时间
-                return LocalDateTime.now();
+                return LocalDateTime.parse(trimmed, formatter);
+            } catch (DateTimeParseException e) {
+                // 尝试下一种格式
             }
         }
+        Long timestamp = parseLong(trimmed);
+        return timestamp != null ? LocalDateTime.ofEpochSecond(timestamp / 1000, 0, ZoneOffset.UTC) : null;
     }
 
     /**
@@ -112,6 +154,28 @@ public class CsvParserUtil {
         }
     }
 
+    /**
+     * 解析以秒为单位的时长，支持纯数字以及"时:分:秒"、"分:秒"格式，无法解析时返回null
+     */
+    public Double parseSeconds(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.indexOf(':') < 0) {
+            return parseDouble(trimmed);
+        }
+        double seconds = 0;
+        for (String part : trimmed.split(":")) {
+            Double number = parseDouble(part);
+            if (number == null) {
+                return null;
+            }
+            seconds = seconds * 60 + number;
+        }
+        return seconds;
+    }
+
     /**
      * 安全地解析Integer值
      */
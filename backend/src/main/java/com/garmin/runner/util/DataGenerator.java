@@ -0,0 +1,106 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.DuplicatePolicy;
+import com.garmin.runner.parser.FitWriter;
+import com.garmin.runner.parser.ParsedActivity;
+import com.garmin.runner.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 合成数据生成工具，用SyntheticActivityGenerator生成确定的活动数据，用于压测和基准测试
+ * 运行参数: generate-data <db|csv|fit> [活动数量，默认10000] [选项...]
+ * 选项（key=value）：
+ *   seed=42            随机种子
+ *   years=5            时间跨度（年）
+ *   end=yyyy-MM-dd     最后一天，默认今天；种子、数量、跨度和最后一天相同则数据相同
+ *   tracks=0           db模式下生成逐秒采样的活动比例（0到1），fit模式总是生成采样
+ *   policy=SKIP        db模式下重复活动的处理策略（SKIP、UPDATE、REPLACE）
+ *   out=路径           csv模式的输出文件（默认synthetic_activities.csv）或fit模式的输出目录（默认synthetic_fit）
+ * db模式经导入服务分块写入，和文件导入一样更新去重键、统计汇总表和导入记录；
+ * 同一组参数生成的CSV、FIT文件和数据库中的活动具有相同的佳明活动ID，重复导入时按去重策略处理
+ */
+@Component
+public class DataGenerator implements CommandLineRunner {
+
+    @Autowired
+    private ImportService importService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 仅当运行参数包含"generate-data"时执行
+        if (args.length > 1 && "generate-data".equals(args[0])) {
+            String mode = args[1];
+            int count = 10_000;
+            Map<String, String> options = new HashMap<>();
+            for (int i = 2; i < args.length; i++) {
+                int separator = args[i].indexOf('=');
+                if (separator > 0) {
+                    options.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+                } else {
+                    count = Integer.parseInt(args[i]);
+                }
+            }
+
+            long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            int years = Integer.parseInt(options.getOrDefault("years", "5"));
+            LocalDate endDate = options.containsKey("end") ? LocalDate.parse(options.get("end")) : LocalDate.now();
+            double trackRatio = "fit".equals(mode) ? 1 : Double.parseDouble(options.getOrDefault("tracks", "0"));
+            SyntheticActivityGenerator generator =
+                    new SyntheticActivityGenerator(seed, count, endDate, years, trackRatio);
+
+            System.out.println("开始生成合成数据: 模式 " + mode + ", 活动数 " + count + ", 种子 " + seed
+                    + ", 跨度 " + years + " 年, 截至 " + endDate);
+            long startTime = System.currentTimeMillis();
+            switch (mode) {
+                case "db" -> {
+                    DuplicatePolicy policy = DuplicatePolicy.valueOf(options.getOrDefault("policy", "SKIP"));
+                    Map<String, Object> result = importService.importParsedActivities(
+                            "合成数据(seed=" + seed + ", " + count + "条)", generator, policy);
+                    System.out.println("导入结果: " + result.get("message") + ", 新增 " + result.get("insertedCount")
+                            + ", 更新 " + result.get("updatedCount") + ", 跳过 " + result.get("skippedCount")
+                            + ", 失败 " + result.get("failedCount"));
+                }
+                case "csv" -> {
+                    Path file = Path.of(options.getOrDefault("out", "synthetic_activities.csv"));
+                    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                        SyntheticActivityGenerator.writeSummaryCsv(generator, writer);
+                    }
+                    System.out.println("已写入CSV文件: " + file.toAbsolutePath() + " (" + Files.size(file) / 1024 + " KB)");
+                }
+                case "fit" -> {
+                    Path directory = Path.of(options.getOrDefault("out", "synthetic_fit"));
+                    Files.createDirectories(directory);
+                    long totalBytes = 0;
+                    while (generator.hasNext()) {
+                        ParsedActivity activity = generator.next();
+                        // 文件名与佳明导出一致，导入时从文件名识别佳明活动ID
+                        Path file = directory.resolve(activity.getGarminActivityId() + "_ACTIVITY.fit");
+                        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                            FitWriter.write(out, activity.getStartTime().atZone(ZoneId.systemDefault()).toInstant(),
+                                    SyntheticActivityGenerator.fitSport(activity.getActivityType()),
+                                    activity.getTrack(), activity.getCalories());
+                        }
+                        totalBytes += Files.size(file);
+                    }
+                    System.out.println("已写入FIT文件: " + directory.toAbsolutePath() + " (" + count + " 个, "
+                            + totalBytes / 1024 + " KB)");
+                }
+                default -> System.out.println("未知的生成模式: " + mode + "，可选 db、csv、fit");
+            }
+            System.out.println("合成数据生成完成，耗时 " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+}
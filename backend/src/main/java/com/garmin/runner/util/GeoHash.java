@@ -0,0 +1,135 @@
+package com.garmin.runner.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * geohash的整数编码：从经度开始，经度和纬度的二分位交替组成比特串，bits位即为所在网格的编号
+ * 每5位对应geohash的一个字符，40位即8位geohash（约38米×19米）
+ * 同一前缀的网格编号连续，bits位的网格c包含的细网格编号为[c << k, (c + 1) << k)，可按范围查询
+ */
+public final class GeoHash {
+
+    public static final int MAX_BITS = 60;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private GeoHash() {
+    }
+
+    /**
+     * 计算坐标所在网格的编号
+     */
+    public static long encode(double latitude, double longitude, int bits) {
+        double minLatitude = -90, maxLatitude = 90;
+        double minLongitude = -180, maxLongitude = 180;
+        long cell = 0;
+        for (int bit = 0; bit < bits; bit++) {
+            cell <<= 1;
+            if (bit % 2 == 0) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    cell |= 1;
+                    minLongitude = middle;
+                } else {
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    cell |= 1;
+                    minLatitude = middle;
+                } else {
+                    maxLatitude = middle;
+                }
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * 网格高度（度）
+     */
+    public static double cellHeight(int bits) {
+        return 180.0 / (1L << (bits / 2));
+    }
+
+    /**
+     * 网格宽度（度）
+     */
+    public static double cellWidth(int bits) {
+        return 360.0 / (1L << ((bits + 1) / 2));
+    }
+
+    /**
+     * 覆盖矩形区域所需的网格数
+     */
+    public static long coverCount(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                  int bits) {
+        double height = cellHeight(bits);
+        double width = cellWidth(bits);
+        long rows = cellIndex(maxLatitude + 90, height, 180) - cellIndex(minLatitude + 90, height, 180) + 1;
+        long columns = cellIndex(maxLongitude + 180, width, 360) - cellIndex(minLongitude + 180, width, 360) + 1;
+        return rows * columns;
+    }
+
+    /**
+     * 列出与矩形区域相交的全部网格，区域不能跨越180度经线
+     */
+    public static List<Long> cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                   int bits) {
+        double height = cellHeight(bits);
+        double width = cellWidth(bits);
+        long firstRow = cellIndex(minLatitude + 90, height, 180);
+        long lastRow = cellIndex(maxLatitude + 90, height, 180);
+        long firstColumn = cellIndex(minLongitude + 180, width, 360);
+        long lastColumn = cellIndex(maxLongitude + 180, width, 360);
+        List<Long> cells = new ArrayList<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                // 用网格中心编码，避免边界上的浮点误差落入相邻网格
+                cells.add(encode((row + 0.5) * height - 90, (column + 0.5) * width - 180, bits));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 两点间的球面距离（米）
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(Math.min(1, a)));
+    }
+
+    /**
+     * 距离（米）换算为纬度跨度（度）
+     */
+    public static double metersToDegrees(double meters) {
+        return Math.toDegrees(meters / EARTH_RADIUS_METERS);
+    }
+
+    /**
+     * 以指定点为中心、半径为radiusMeters的圆的外接矩形
+     * @return {最小纬度, 最小经度, 最大纬度, 最大经度}，纬度截断到±90，经度截断到±180
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double latitudeDelta = metersToDegrees(radiusMeters);
+        // 按离赤道最远处的纬度换算经度跨度，保证外接矩形包含整个圆
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeDelta)));
+        double longitudeDelta = cos > 1e-9 ? Math.min(180, latitudeDelta / cos) : 180;
+        return new double[] {
+                Math.max(-90, latitude - latitudeDelta), Math.max(-180, longitude - longitudeDelta),
+                Math.min(90, latitude + latitudeDelta), Math.min(180, longitude + longitudeDelta)
+        };
+    }
+
+    private static long cellIndex(double offset, double size, double extent) {
+        // 区域的上边界恰好为90度或180度时归入最后一个网格
+        return Math.min((long) Math.floor(offset / size), Math.round(extent / size) - 1);
+    }
+}
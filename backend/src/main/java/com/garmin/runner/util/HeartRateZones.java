@@ -0,0 +1,81 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.AthleteProfile;
+
+/**
+ * 按运动员资料划分的心率区间，以及由逐秒采样计算各区间停留秒数
+ * 共6个区间：0区为低于1区下限（热身、停顿等），1到5区依次为恢复、有氧、阈值、无氧、极限
+ */
+public final class HeartRateZones {
+
+    public static final int ZONE_COUNT = 6;
+
+    // 相邻采样的间隔超过该值视为暂停，这段时间不计入任何区间
+    public static final int MAX_SAMPLE_GAP_SECONDS = 30;
+
+    private static final String[] ZONE_NAMES = {"低于区间", "恢复区", "有氧区", "阈值区", "无氧区", "极限区"};
+
+    private final int version;
+    private final int[] lowerBounds; // 1到5区的下限（bpm）
+
+    private HeartRateZones(int version, int[] lowerBounds) {
+        this.version = version;
+        this.lowerBounds = lowerBounds;
+    }
+
+    public static HeartRateZones of(AthleteProfile profile) {
+        return new HeartRateZones(profile.getZoneVersion(), profile.getZoneModel().lowerBounds(profile));
+    }
+
+    /**
+     * 区间划分对应的资料版本
+     */
+    public int getVersion() { return version; }
+
+    public static String zoneName(int zone) { return ZONE_NAMES[zone]; }
+
+    /**
+     * 区间的心率下限，0区为0
+     */
+    public int lowerBound(int zone) {
+        return zone == 0 ? 0 : lowerBounds[zone - 1];
+    }
+
+    /**
+     * 区间的心率上限（不含），5区没有上限
+     */
+    public Integer upperBound(int zone) {
+        return zone < lowerBounds.length ? lowerBounds[zone] : null;
+    }
+
+    /**
+     * 心率所在的区间，心率必须大于0
+     */
+    public int zoneOf(int heartRate) {
+        int zone = 0;
+        while (zone < lowerBounds.length && heartRate >= lowerBounds[zone]) {
+            zone++;
+        }
+        return zone;
+    }
+
+    /**
+     * 计算采样在各区间停留的秒数：每个采样的心率持续到下一个采样，
+     * 没有心率的采样和超过MAX_SAMPLE_GAP_SECONDS的间隔不计入，最后一个采样按1秒计
+     */
+    public int[] secondsInZones(TrackData track) {
+        int[] seconds = new int[ZONE_COUNT];
+        int size = track.size();
+        for (int i = 0; i < size; i++) {
+            int heartRate = track.getHeartRate(i);
+            if (heartRate <= 0) {
+                continue;
+            }
+            long duration = i + 1 < size ? track.getTimestamp(i + 1) - track.getTimestamp(i) : 1;
+            if (duration > 0 && duration <= MAX_SAMPLE_GAP_SECONDS) {
+                seconds[zoneOf(heartRate)] += (int) duration;
+            }
+        }
+        return seconds;
+    }
+}
@@ -0,0 +1,229 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.migration.V14__ImportRecordProgressColumns;
+import com.garmin.runner.migration.V15__ActivitiesSequence;
+import com.garmin.runner.migration.V6__BackfillActivityDedupKeys;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 索引基准测试工具
+ * 在独立的内存数据库中先迁移到无索引的基线版本，写入测试数据后测量常用查询耗时，
+ * 再迁移到最新版本（加上索引）后重新测量，分别覆盖H2默认模式和MySQL兼容模式。
+ * 运行参数: benchmark-indexes [行数，默认1000000]
+ */
+@Component
+public class IndexBenchmark implements CommandLineRunner {
+
+    private static final String[] ACTIVITY_TYPES = {"跑步", "骑行", "游泳", "徒步", "力量训练"};
+    private static final int IMPORT_RECORD_COUNT = 1000;
+    private static final int DETAIL_ACTIVITY_COUNT = 500;
+    private static final int SAMPLES_PER_ACTIVITY = 600;
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2020, 1, 1, 6, 0);
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 仅当运行参数包含"benchmark-indexes"时执行
+        if (args.length > 0 && "benchmark-indexes".equals(args[0])) {
+            int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            Map<String, String> modes = new LinkedHashMap<>();
+            modes.put("H2", "jdbc:h2:mem:index_benchmark_h2;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+            modes.put("H2 MySQL兼容模式", "jdbc:h2:mem:index_benchmark_mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+
+            for (Map.Entry<String, String> mode : modes.entrySet()) {
+                runBenchmark(mode.getKey(), mode.getValue(), rows);
+            }
+        }
+    }
+
+    private void runBenchmark(String modeName, String url, int rows) throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        System.out.println("==== " + modeName + "，活动行数: " + rows + " ====");
+
+        migrate(dataSource, "1");
+        try (Connection connection = dataSource.getConnection()) {
+            long start = System.currentTimeMillis();
+            seed(connection, rows);
+            System.out.println("写入测试数据耗时: " + (System.currentTimeMillis() - start) + " ms");
+
+            Map<String, Double> before = measureQueries(connection, rows);
+
+            start = System.currentTimeMillis();
+            migrate(dataSource, null);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            System.out.println("创建索引耗时: " + (System.currentTimeMillis() - start) + " ms");
+
+            Map<String, Double> after = measureQueries(connection, rows);
+
+            System.out.printf("%-36s %12s %12s %10s%n", "查询", "无索引(ms)", "有索引(ms)", "加速比");
+            for (String name : before.keySet()) {
+                double beforeMs = before.get(name);
+                double afterMs = after.get(name);
+                System.out.printf("%-36s %12.3f %12.3f %9.1fx%n", name, beforeMs, afterMs, beforeMs / Math.max(afterMs, 0.001));
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    /**
+     * 迁移到指定版本，target为null时迁移到最新版本
+     */
+    private void migrate(DriverManagerDataSource dataSource, String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .javaMigrations(new V6__BackfillActivityDedupKeys(), new V14__ImportRecordProgressColumns(),
+                        new V15__ActivitiesSequence());
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private void seed(Connection connection, int rows) throws SQLException {
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into import_records (file_name, status, activity_count) values (?, ?, ?)")) {
+            for (int i = 1; i <= IMPORT_RECORD_COUNT; i++) {
+                statement.setString(1, "benchmark_" + i + ".csv");
+                statement.setString(2, "成功");
+                statement.setInt(3, rows / IMPORT_RECORD_COUNT);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        // 5年内的随机开始时间，与真实数据一样按时间无序写入
+        long spanMinutes = 5L * 365 * 24 * 60;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into activities (id, activity_name, activity_type, start_time, end_time, duration, distance, "
+                        + "calories, average_heart_rate, max_heart_rate, average_pace, import_record_id) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                LocalDateTime startTime = BASE_TIME.plusMinutes((long) (random.nextDouble() * spanMinutes));
+                long duration = 1200 + random.nextInt(7200);
+                double distance = 2000 + random.nextDouble() * 40000;
+                statement.setLong(1, i);
+                statement.setString(2, "活动" + i);
+                statement.setString(3, ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)]);
+                statement.setTimestamp(4, Timestamp.valueOf(startTime));
+                statement.setTimestamp(5, Timestamp.valueOf(startTime.plusSeconds(duration)));
+                statement.setLong(6, duration);
+                statement.setDouble(7, distance);
+                statement.setInt(8, 100 + random.nextInt(1500));
+                statement.setInt(9, 110 + random.nextInt(70));
+                statement.setInt(10, 150 + random.nextInt(50));
+                statement.setDouble(11, duration / 60.0 / (distance / 1000));
+                statement.setLong(12, 1 + (i % IMPORT_RECORD_COUNT));
+                statement.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into activity_details (activity_id, timestamp, heart_rate, distance_from_start) values (?, ?, ?, ?)")) {
+            int count = 0;
+            for (int activity = 1; activity <= Math.min(DETAIL_ACTIVITY_COUNT, rows); activity++) {
+                for (int sample = 0; sample < SAMPLES_PER_ACTIVITY; sample++) {
+                    statement.setLong(1, activity);
+                    statement.setLong(2, sample * 1000L);
+                    statement.setInt(3, 120 + random.nextInt(60));
+                    statement.setDouble(4, sample * 3.0);
+                    statement.addBatch();
+                    if (++count % INSERT_BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * 测量与仓库方法对应的查询，返回每个查询的耗时中位数（毫秒）
+     */
+    private Map<String, Double> measureQueries(Connection connection, int rows) throws SQLException {
+        Timestamp weekStart = Timestamp.valueOf(BASE_TIME.plusYears(2));
+        Timestamp weekEnd = Timestamp.valueOf(BASE_TIME.plusYears(2).plusWeeks(1));
+        Timestamp monthEnd = Timestamp.valueOf(BASE_TIME.plusYears(2).plusMonths(1));
+        long detailActivityId = Math.min(DETAIL_ACTIVITY_COUNT, rows) / 2 + 1;
+
+        Map<String, Double> results = new LinkedHashMap<>();
+        results.put("findByStartTimeBetween(1周)", time(connection,
+                "select * from activities where start_time between ? and ?", weekStart, weekEnd));
+        results.put("calculateTotalDistance(1月)", time(connection,
+                "select sum(distance) from activities where start_time between ? and ?", weekStart, monthEnd));
+        results.put("按月趋势(1月)", time(connection,
+                "select year(start_time), month(start_time), count(*), sum(distance) from activities "
+                        + "where start_time >= ? and start_time < ? group by year(start_time), month(start_time)",
+                weekStart, monthEnd));
+        results.put("findByActivityType(计数)", time(connection,
+                "select count(*) from activities where activity_type = ?", ACTIVITY_TYPES[0]));
+        results.put("类型+时间范围筛选(1月)", time(connection,
+                "select * from activities where activity_type = ? and start_time between ? and ?",
+                ACTIVITY_TYPES[0], weekStart, monthEnd));
+        results.put("findByImportRecordId", time(connection,
+                "select * from activities where import_record_id = ?", 7L));
+        results.put("活动列表首页(start_time desc, id desc)", time(connection,
+                "select * from activities order by start_time desc, id desc limit 20"));
+        results.put("活动明细(activity_id, timestamp)", time(connection,
+                "select * from activity_details where activity_id = ? order by timestamp", detailActivityId));
+        return results;
+    }
+
+    private double time(Connection connection, String sql, Object... params) throws SQLException {
+        List<Long> samples = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getObject(1);
+                    }
+                }
+                if (run >= WARMUP_RUNS) {
+                    samples.add(System.nanoTime() - start);
+                }
+            }
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
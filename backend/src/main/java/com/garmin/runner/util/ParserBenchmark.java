@@ -0,0 +1,153 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.parser.ActivityFileFormat;
+import com.garmin.runner.parser.FitWriter;
+import com.garmin.runner.parser.ParsedActivity;
+import com.garmin.runner.parser.TrackAccumulator;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 轨迹文件解析吞吐量基准测试
+ * 生成同一条合成轨迹的FIT、TCX、GPX文件，在内存中重复解析，输出每秒采样数、MB/s和每次解析的内存分配量。
+ * 运行参数: benchmark-parsers [采样数，默认10800即3小时1Hz]
+ */
+@Component
+public class ParserBenchmark implements CommandLineRunner {
+
+    private static final int WARMUP_RUNS = 10;
+    private static final int MEASURED_RUNS = 30;
+    private static final Instant START_TIME = Instant.parse("2024-03-10T06:00:00Z");
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 仅当运行参数包含"benchmark-parsers"时执行
+        if (args.length > 0 && "benchmark-parsers".equals(args[0])) {
+            int samples = args.length > 1 ? Integer.parseInt(args[1]) : 10_800;
+            TrackData track = syntheticTrack(samples);
+
+            Map<ActivityFileFormat, byte[]> files = new EnumMap<>(ActivityFileFormat.class);
+            ByteArrayOutputStream fit = new ByteArrayOutputStream();
+            FitWriter.write(fit, START_TIME, "running", track, 2100);
+            files.put(ActivityFileFormat.FIT, fit.toByteArray());
+            files.put(ActivityFileFormat.TCX, toTcx(track).getBytes(StandardCharsets.UTF_8));
+            files.put(ActivityFileFormat.GPX, toGpx(track).getBytes(StandardCharsets.UTF_8));
+
+            System.out.println("==== 轨迹解析基准测试，采样数: " + samples + " ====");
+            System.out.printf("%-6s %12s %12s %14s %12s %14s%n",
+                    "格式", "文件(KB)", "单次(ms)", "采样/秒", "MB/s", "分配(KB/次)");
+            for (Map.Entry<ActivityFileFormat, byte[]> file : files.entrySet()) {
+                measure(file.getKey(), file.getValue(), samples);
+            }
+        }
+    }
+
+    private void measure(ActivityFileFormat format, byte[] content, int samples) throws IOException {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        ParsedActivity parsed = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            parsed = parse(format, content);
+        }
+        if (parsed == null || parsed.getTrack().size() != samples) {
+            throw new IllegalStateException(format + "解析结果的采样数不一致");
+        }
+
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            parse(format, content);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        double millisPerRun = elapsed / 1_000_000.0 / MEASURED_RUNS;
+        double seconds = elapsed / 1_000_000_000.0;
+        System.out.printf("%-6s %12.1f %12.2f %14.0f %12.1f %14.1f%n",
+                format, content.length / 1024.0, millisPerRun,
+                (double) samples * MEASURED_RUNS / seconds,
+                (double) content.length * MEASURED_RUNS / seconds / (1024 * 1024),
+                allocated / 1024.0 / MEASURED_RUNS);
+    }
+
+    private ParsedActivity parse(ActivityFileFormat format, byte[] content) throws IOException {
+        TrackAccumulator accumulator = new TrackAccumulator(ZoneOffset.UTC);
+        format.newParser().parse(new ByteArrayInputStream(content), accumulator);
+        return accumulator.finish();
+    }
+
+    /**
+     * 生成一条沿环线匀速略有波动的跑步轨迹
+     */
+    private TrackData syntheticTrack(int samples) {
+        Random random = new Random(7);
+        TrackData track = new TrackData(samples);
+        double latitude = 31.2304;
+        double longitude = 121.4737;
+        double elevation = 12;
+        double distance = 0;
+        for (int i = 0; i < samples; i++) {
+            double step = 2.8 + random.nextGaussian() * 0.15;
+            distance += step;
+            latitude += step * Math.cos(i / 600.0) / 111_000;
+            longitude += step * Math.sin(i / 600.0) / 95_000;
+            elevation += random.nextGaussian() * 0.2;
+            int heartRate = 145 + (int) (10 * Math.sin(i / 300.0)) + random.nextInt(5) - 2;
+            track.add(i, latitude, longitude, elevation, heartRate, 1000 / step / 60, distance);
+        }
+        return track;
+    }
+
+    private String toGpx(TrackData track) {
+        StringBuilder xml = new StringBuilder(track.size() * 260);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<gpx version=\"1.1\" creator=\"benchmark\" xmlns=\"http://www.topografix.com/GPX/1/1\" ")
+                .append("xmlns:gpxtpx=\"http://www.garmin.com/xmlschemas/TrackPointExtension/v1\">\n")
+                .append("<trk><name>基准测试跑步</name><type>running</type><trkseg>\n");
+        for (int i = 0; i < track.size(); i++) {
+            xml.append("<trkpt lat=\"").append(track.getLatitude(i))
+                    .append("\" lon=\"").append(track.getLongitude(i)).append("\">")
+                    .append("<ele>").append(round(track.getElevation(i))).append("</ele>")
+                    .append("<time>").append(START_TIME.plusSeconds(track.getTimestamp(i))).append("</time>")
+                    .append("<extensions><gpxtpx:TrackPointExtension><gpxtpx:hr>").append(track.getHeartRate(i))
+                    .append("</gpxtpx:hr></gpxtpx:TrackPointExtension></extensions></trkpt>\n");
+        }
+        xml.append("</trkseg></trk></gpx>\n");
+        return xml.toString();
+    }
+
+    private String toTcx(TrackData track) {
+        StringBuilder xml = new StringBuilder(track.size() * 380);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<TrainingCenterDatabase xmlns=\"http://www.garmin.com/xmlschemas/TrainingCenterDatabase/v2\">\n")
+                .append("<Activities><Activity Sport=\"Running\"><Id>").append(START_TIME).append("</Id>\n")
+                .append("<Lap StartTime=\"").append(START_TIME).append("\"><Calories>2100</Calories><Track>\n");
+        for (int i = 0; i < track.size(); i++) {
+            xml.append("<Trackpoint><Time>").append(START_TIME.plusSeconds(track.getTimestamp(i))).append("</Time>")
+                    .append("<Position><LatitudeDegrees>").append(track.getLatitude(i)).append("</LatitudeDegrees>")
+                    .append("<LongitudeDegrees>").append(track.getLongitude(i)).append("</LongitudeDegrees></Position>")
+                    .append("<AltitudeMeters>").append(round(track.getElevation(i))).append("</AltitudeMeters>")
+                    .append("<DistanceMeters>").append(round(track.getDistance(i))).append("</DistanceMeters>")
+                    .append("<HeartRateBpm><Value>").append(track.getHeartRate(i)).append("</Value></HeartRateBpm>")
+                    .append("</Trackpoint>\n");
+        }
+        xml.append("</Track></Lap></Activity></Activities></TrainingCenterDatabase>\n");
+        return xml.toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.service.StatisticsRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 用于回填统计汇总表的命令行工具
+ */
+@Component
+public class RollupRebuilder implements CommandLineRunner {
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 仅当运行参数包含"rebuild-rollups"时执行重建
+        if (args.length > 0 && "rebuild-rollups".equals(args[0])) {
+            System.out.println("开始重建统计汇总表...");
+            Map<String, Object> result = statisticsRollupService.rebuildRollups();
+            System.out.println("按天汇总行数: " + result.get("dayBuckets"));
+            System.out.println("按月汇总行数: " + result.get("monthBuckets"));
+            System.out.println("按类型汇总行数: " + result.get("activityTypeBuckets"));
+            System.out.println("统计汇总表重建完成。");
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.parser.ParsedActivity;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * 合成佳明活动数据生成器，用于压测和基准测试
+ *
+ * 给定种子、数量、时间跨度和截止日期，生成的数据完全确定：
+ * 每个活动使用由种子和序号派生的独立随机数序列，是否生成采样数据不影响活动摘要，也可以只重新生成其中一段。
+ * 活动按日期均匀分布在时间跨度内，运动类型按比例抽取；距离服从对数正态分布，
+ * 速度随距离增加而下降、随训练时间逐步提高，心率按强度落在运动员心率储备的相应区间。
+ * 采样数据为1Hz，速度和心率在活动内有起伏，心率滞后于速度变化并随时间缓慢漂移，距离与摘要一致。
+ */
+public class SyntheticActivityGenerator implements Iterator<ParsedActivity> {
+
+    /** 合成活动的佳明活动ID起始值，每个种子占用一亿个ID */
+    public static final long GARMIN_ID_BASE = 9_000_000_000L;
+    private static final long IDS_PER_SEED = 100_000_000L;
+
+    private static final String[] CSV_HEADER = {"Activity ID", "Activity Name", "Activity Type", "Date",
+            "Duration", "Distance", "Calories", "Avg HR", "Max HR", "Avg Pace"};
+
+    // 城市及其中心坐标，每个数据集固定在一个城市
+    private static final String[] CITIES = {"上海", "北京", "杭州", "广州", "成都"};
+    private static final double[][] CITY_COORDINATES = {
+            {31.2304, 121.4737}, {39.9042, 116.4074}, {30.2741, 120.1551}, {23.1291, 113.2644}, {30.5728, 104.0668}};
+
+    private final long seed;
+    private final int count;
+    private final double trackRatio;
+    private final LocalDate firstDay;
+    private final long days;
+
+    // 运动员画像，由种子决定
+    private final int restingHeartRate;
+    private final int maxHeartRate;
+    private final String city;
+    private final double homeLatitude;
+    private final double homeLongitude;
+
+    private int index;
+
+    /**
+     * @param seed 随机种子
+     * @param count 活动数量，不超过一亿
+     * @param endDate 最后一天（含）
+     * @param years 时间跨度，单位：年
+     * @param trackRatio 生成逐秒采样数据的活动比例，0到1之间
+     */
+    public SyntheticActivityGenerator(long seed, int count, LocalDate endDate, int years, double trackRatio) {
+        if (count < 0 || count > IDS_PER_SEED) {
+            throw new IllegalArgumentException("活动数量应在0到" + IDS_PER_SEED + "之间");
+        }
+        this.seed = seed;
+        this.count = count;
+        this.trackRatio = trackRatio;
+        this.firstDay = endDate.minusYears(years).plusDays(1);
+        this.days = ChronoUnit.DAYS.between(firstDay, endDate) + 1;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        this.restingHeartRate = 48 + random.nextInt(15);
+        this.maxHeartRate = 178 + random.nextInt(20);
+        int cityIndex = random.nextInt(CITIES.length);
+        this.city = CITIES[cityIndex];
+        this.homeLatitude = CITY_COORDINATES[cityIndex][0];
+        this.homeLongitude = CITY_COORDINATES[cityIndex][1];
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < count;
+    }
+
+    @Override
+    public ParsedActivity next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return generate(index++);
+    }
+
+    /**
+     * 生成第index个活动（从0开始），与迭代顺序无关
+     */
+    public ParsedActivity generate(int index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        Sport sport = Sport.pick(random.nextDouble());
+        // 训练进度从0到1，速度逐步提高约8%
+        double progress = count > 1 ? (double) index / (count - 1) : 0;
+
+        LocalDate day = firstDay.plusDays(index * days / Math.max(count, 1));
+        int minuteOfDay = random.nextDouble() < 0.6
+                ? (int) (6.5 * 60 + random.nextGaussian() * 50)
+                : (int) (18.5 * 60 + random.nextGaussian() * 60);
+        minuteOfDay = Math.clamp(minuteOfDay, 5 * 60, 22 * 60);
+        LocalDateTime startTime = day.atStartOfDay().plusMinutes(minuteOfDay).plusSeconds(random.nextInt(60));
+
+        double distanceKm = Math.clamp(sport.medianDistanceKm * Math.exp(sport.distanceSigma * random.nextGaussian()),
+                sport.minDistanceKm, sport.maxDistanceKm);
+        double speedFactor = Math.exp(sport.speedSigma * random.nextGaussian());
+        double speedKmh = sport.medianSpeedKmh * speedFactor * (0.96 + 0.08 * progress)
+                * Math.pow(sport.medianDistanceKm / distanceKm, sport.enduranceExponent);
+        long duration = Math.round(distanceKm / speedKmh * 3600);
+
+        // 强度为心率储备的比例，速度高于平时则强度更高
+        double intensity = Math.clamp(sport.intensity + 0.04 * random.nextGaussian() + 0.5 * (speedFactor - 1),
+                0.3, 0.95);
+        int heartRateReserve = maxHeartRate - restingHeartRate;
+        int averageHeartRate = (int) Math.round(restingHeartRate + heartRateReserve * intensity);
+        int peakHeartRate = Math.min(maxHeartRate,
+                averageHeartRate + 6 + random.nextInt(8) + (int) Math.min(12, duration / 900));
+        int calories = (int) Math.round(sport.caloriesPerMinute * duration / 60.0 * (0.7 + 0.5 * intensity));
+
+        ParsedActivity activity = new ParsedActivity();
+        activity.setGarminActivityId(String.valueOf(
+                GARMIN_ID_BASE + Math.floorMod(seed, 1000L) * IDS_PER_SEED + index));
+        activity.setActivityName(city + " " + sport.activityType);
+        activity.setActivityType(sport.activityType);
+        activity.setStartTime(startTime);
+        activity.setEndTime(startTime.plusSeconds(duration));
+        activity.setDuration(duration);
+        activity.setDistance(distanceKm * 1000);
+        activity.setCalories(calories);
+        activity.setAverageHeartRate(averageHeartRate);
+        activity.setMaxHeartRate(peakHeartRate);
+        activity.setAveragePace((duration / 60.0) / distanceKm);
+        if (random.nextDouble() < trackRatio) {
+            activity.setTrack(generateTrack(random, sport, activity, intensity));
+            activity.setElevationGain(elevationGain(activity.getTrack()));
+        }
+        return activity;
+    }
+
+    /**
+     * 生成1Hz采样：速度围绕平均值起伏并按摘要距离归一化，心率以一阶滞后跟随速度变化，再平移到摘要的平均心率
+     */
+    private TrackData generateTrack(SplittableRandom random, Sport sport, ParsedActivity activity, double intensity) {
+        int samples = (int) activity.getDuration() + 1;
+        double[] speeds = new double[samples];
+        double period = 300 + random.nextInt(900);
+        double phase = random.nextDouble() * 2 * Math.PI;
+        double noise = 0;
+        double total = 0;
+        for (int i = 1; i < samples; i++) {
+            noise = 0.95 * noise + 0.02 * random.nextGaussian();
+            double warmup = i < 300 ? 0.9 + 0.1 * i / 300 : 1;
+            speeds[i] = Math.max(0.2, warmup * (1 + 0.06 * Math.sin(2 * Math.PI * i / period + phase) + noise));
+            total += speeds[i];
+        }
+        double meanSpeed = samples > 1 ? total / (samples - 1) : 1;
+        // 按摘要距离归一化，归一化后的速度即每秒前进的米数
+        double scale = total > 0 ? activity.getDistance() / total : 0;
+
+        // 目标心率随瞬时速度变化，并有每小时约5次/分的心率漂移
+        int[] heartRates = new int[samples];
+        double heartRate = restingHeartRate + 20;
+        double heartRateReserve = maxHeartRate - restingHeartRate;
+        long heartRateSum = 0;
+        for (int i = 0; i < samples; i++) {
+            double target = restingHeartRate + heartRateReserve * intensity * Math.pow(speeds[i] / meanSpeed, 0.8)
+                    + i / 720.0;
+            heartRate += (target - heartRate) / 30;
+            heartRates[i] = (int) Math.round(heartRate + random.nextGaussian());
+            heartRateSum += heartRates[i];
+        }
+        int shift = (int) Math.round(activity.getAverageHeartRate() - (double) heartRateSum / samples);
+
+        TrackData track = new TrackData(samples);
+        double latitude = homeLatitude + (random.nextDouble() - 0.5) * 0.08;
+        double longitude = homeLongitude + (random.nextDouble() - 0.5) * 0.08;
+        double heading = random.nextDouble() * 2 * Math.PI;
+        double elevation = 5 + random.nextDouble() * 40;
+        double climb = 0;
+        double distance = 0;
+        for (int i = 0; i < samples; i++) {
+            double step = speeds[i] * scale;
+            distance += step;
+            if (sport.outdoor) {
+                heading += random.nextGaussian() * 0.03;
+                latitude += step * Math.cos(heading) / 111_320;
+                longitude += step * Math.sin(heading) / (111_320 * Math.cos(Math.toRadians(latitude)));
+                climb = 0.98 * climb + 0.02 * random.nextGaussian() * sport.hilliness;
+                elevation = Math.max(-10, elevation + climb);
+            }
+            track.add(i,
+                    sport.outdoor ? latitude : Double.NaN,
+                    sport.outdoor ? longitude : Double.NaN,
+                    sport.outdoor ? elevation : Double.NaN,
+                    Math.clamp(heartRates[i] + shift, restingHeartRate, activity.getMaxHeartRate()),
+                    step > 0 ? 1000 / step / 60 : Double.NaN,
+                    distance);
+        }
+        return track;
+    }
+
+    private static double elevationGain(TrackData track) {
+        double gain = 0;
+        for (int i = 1; i < track.size(); i++) {
+            double delta = track.getElevation(i) - track.getElevation(i - 1);
+            if (delta > 0) {
+                gain += delta;
+            }
+        }
+        return gain;
+    }
+
+    /**
+     * 将活动摘要写成佳明活动摘要CSV（英文表头，距离单位为公里，时长单位为秒），可直接用于CSV导入
+     */
+    public static void writeSummaryCsv(Iterator<ParsedActivity> activities, Appendable out) throws IOException {
+        CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).build());
+        while (activities.hasNext()) {
+            ParsedActivity activity = activities.next();
+            printer.printRecord(activity.getGarminActivityId(), activity.getActivityName(), activity.getActivityType(),
+                    activity.getStartTime(), activity.getDuration(), round(activity.getDistance() / 1000, 3),
+                    activity.getCalories(), activity.getAverageHeartRate(), activity.getMaxHeartRate(),
+                    round(activity.getAveragePace(), 3));
+        }
+        printer.flush();
+    }
+
+    /**
+     * 系统活动类型对应的FIT运动类型，写FIT文件时使用
+     */
+    public static String fitSport(String activityType) {
+        for (Sport sport : Sport.values()) {
+            if (sport.activityType.equals(activityType)) {
+                return sport.fitSport;
+            }
+        }
+        return "generic";
+    }
+
+    private static double round(double value, int scale) {
+        double factor = Math.pow(10, scale);
+        return Math.round(value * factor) / factor;
+    }
+
+    /**
+     * 运动类型及其分布参数
+     */
+    private enum Sport {
+        //       类型    FIT类型     占比   距离中位数 距离离散度 最短  最长   速度中位数 速度离散度 耐力指数 卡路里/分 强度  户外  起伏
+        RUNNING("跑步", "running", 0.50, 8, 0.45, 2, 42.2, 10.7, 0.08, 0.06, 11, 0.72, true, 0.3),
+        CYCLING("骑行", "cycling", 0.20, 35, 0.50, 8, 160, 26, 0.12, 0.04, 9, 0.62, true, 0.6),
+        SWIMMING("游泳", "swimming", 0.08, 2, 0.35, 0.4, 5, 2.6, 0.10, 0.05, 9, 0.65, false, 0),
+        WALKING("步行", "walking", 0.14, 4.5, 0.35, 1, 15, 5.2, 0.08, 0, 4.5, 0.40, true, 0.2),
+        HIKING("徒步", "hiking", 0.08, 12, 0.40, 4, 35, 3.8, 0.15, 0.05, 7, 0.55, true, 1.5);
+
+        private final String activityType;
+        private final String fitSport;
+        private final double share;
+        private final double medianDistanceKm;
+        private final double distanceSigma;
+        private final double minDistanceKm;
+        private final double maxDistanceKm;
+        private final double medianSpeedKmh;
+        private final double speedSigma;
+        private final double enduranceExponent;
+        private final double caloriesPerMinute;
+        private final double intensity;
+        private final boolean outdoor;
+        private final double hilliness;
+
+        Sport(String activityType, String fitSport, double share, double medianDistanceKm, double distanceSigma,
+              double minDistanceKm, double maxDistanceKm, double medianSpeedKmh, double speedSigma,
+              double enduranceExponent, double caloriesPerMinute, double intensity, boolean outdoor, double hilliness) {
+            this.activityType = activityType;
+            this.fitSport = fitSport;
+            this.share = share;
+            this.medianDistanceKm = medianDistanceKm;
+            this.distanceSigma = distanceSigma;
+            this.minDistanceKm = minDistanceKm;
+            this.maxDistanceKm = maxDistanceKm;
+            this.medianSpeedKmh = medianSpeedKmh;
+            this.speedSigma = speedSigma;
+            this.enduranceExponent = enduranceExponent;
+            this.caloriesPerMinute = caloriesPerMinute;
+            this.intensity = intensity;
+            this.outdoor = outdoor;
+            this.hilliness = hilliness;
+        }
+
+        static Sport pick(double value) {
+            double cumulative = 0;
+            for (Sport sport : values()) {
+                cumulative += sport.share;
+                if (value < cumulative) {
+                    return sport;
+                }
+            }
+            return RUNNING;
+        }
+    }
+}
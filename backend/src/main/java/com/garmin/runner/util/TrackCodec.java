@@ -0,0 +1,234 @@
+package com.garmin.runner.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 采样数据的列式压缩编码
+ *
+ * 格式（版本1）：首字节为版本号，其后为Deflate压缩的内容：
+ * 采样数(varint)，时间戳列，然后依次为纬度、经度、海拔、心率、配速、距离列。
+ * 每列先写一个模式字节（0=全部缺失，1=全部存在，2=部分存在并附带存在位图），
+ * 再按采样顺序写入定点化后相邻值之差的zigzag varint。
+ * 定点精度：经纬度1e-7度，海拔和距离1厘米，配速0.001分钟/公里，心率1次/分。
+ */
+public final class TrackCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int MODE_ABSENT = 0;
+    private static final int MODE_DENSE = 1;
+    private static final int MODE_SPARSE = 2;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double CENTIMETER_SCALE = 100;
+    private static final double PACE_SCALE = 1000;
+
+    private TrackCodec() {
+    }
+
+    /**
+     * 编码采样数据
+     */
+    public static byte[] encode(TrackData track) {
+        // 先写出未压缩的列数据，再整体压缩一次，避免逐字节调用Deflater
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(Math.max(64, track.size() * 8));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, track.size() * 2));
+        bytes.write(VERSION);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            int size = track.size();
+            writeVarLong(raw, size);
+
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                long timestamp = track.getTimestamp(i);
+                writeVarLong(raw, zigzag(timestamp - previous));
+                previous = timestamp;
+            }
+
+            writeColumn(raw, size, i -> !Double.isNaN(track.getLatitude(i)),
+                    i -> Math.round(track.getLatitude(i) * COORDINATE_SCALE));
+            writeColumn(raw, size, i -> !Double.isNaN(track.getLongitude(i)),
+                    i -> Math.round(track.getLongitude(i) * COORDINATE_SCALE));
+            writeColumn(raw, size, i -> !Double.isNaN(track.getElevation(i)),
+                    i -> Math.round(track.getElevation(i) * CENTIMETER_SCALE));
+            writeColumn(raw, size, i -> track.getHeartRate(i) > 0, track::getHeartRate);
+            writeColumn(raw, size, i -> !Double.isNaN(track.getPace(i)),
+                    i -> Math.round(track.getPace(i) * PACE_SCALE));
+            writeColumn(raw, size, i -> !Double.isNaN(track.getDistance(i)),
+                    i -> Math.round(track.getDistance(i) * CENTIMETER_SCALE));
+
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater, 8192)) {
+                raw.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码采样数据
+     */
+    public static TrackData decode(byte[] encoded) {
+        if (encoded.length == 0 || encoded[0] != VERSION) {
+            throw new IllegalArgumentException("不支持的采样数据编码版本");
+        }
+        Inflater inflater = new Inflater();
+        try (InputStream in = new BufferedInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(encoded, 1, encoded.length - 1), inflater, 8192))) {
+            int size = (int) readVarLong(in);
+
+            long[] timestamps = new long[size];
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += unzigzag(readVarLong(in));
+                timestamps[i] = previous;
+            }
+
+            double[] latitudes = readDoubleColumn(in, size, COORDINATE_SCALE);
+            double[] longitudes = readDoubleColumn(in, size, COORDINATE_SCALE);
+            double[] elevations = readDoubleColumn(in, size, CENTIMETER_SCALE);
+            long[] heartRateValues = readColumn(in, size, 0);
+            int[] heartRates = new int[size];
+            for (int i = 0; i < size; i++) {
+                heartRates[i] = (int) heartRateValues[i];
+            }
+            double[] paces = readDoubleColumn(in, size, PACE_SCALE);
+            double[] distances = readDoubleColumn(in, size, CENTIMETER_SCALE);
+
+            return TrackData.of(size, timestamps, latitudes, longitudes, elevations, heartRates, paces, distances);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("采样数据已损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeColumn(OutputStream out, int size, IntPredicate present, IntToLongFunction value)
+            throws IOException {
+        int presentCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (present.test(i)) {
+                presentCount++;
+            }
+        }
+
+        if (presentCount == 0) {
+            out.write(MODE_ABSENT);
+            return;
+        }
+        if (presentCount == size) {
+            out.write(MODE_DENSE);
+        } else {
+            out.write(MODE_SPARSE);
+            byte[] bitmap = new byte[(size + 7) / 8];
+            for (int i = 0; i < size; i++) {
+                if (present.test(i)) {
+                    bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(bitmap);
+        }
+
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            if (present.test(i)) {
+                long current = value.applyAsLong(i);
+                writeVarLong(out, zigzag(current - previous));
+                previous = current;
+            }
+        }
+    }
+
+    /**
+     * 读取一列定点值，缺失位置填充missing
+     */
+    private static long[] readColumn(InputStream in, int size, long missing) throws IOException {
+        long[] values = new long[size];
+        int mode = readByte(in);
+        if (mode == MODE_ABSENT) {
+            Arrays.fill(values, missing);
+            return values;
+        }
+
+        byte[] bitmap = null;
+        if (mode == MODE_SPARSE) {
+            bitmap = in.readNBytes((size + 7) / 8);
+        } else if (mode != MODE_DENSE) {
+            throw new IOException("未知的列模式: " + mode);
+        }
+
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            if (bitmap == null || (bitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+                previous += unzigzag(readVarLong(in));
+                values[i] = previous;
+            } else {
+                values[i] = missing;
+            }
+        }
+        return values;
+    }
+
+    private static double[] readDoubleColumn(InputStream in, int size, double scale) throws IOException {
+        long[] raw = readColumn(in, size, Long.MIN_VALUE);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = raw[i] == Long.MIN_VALUE ? Double.NaN : raw[i] / scale;
+        }
+        return values;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("varint过长");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("采样数据意外结束");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,100 @@
+package com.garmin.runner.util;
+
+import java.util.Arrays;
+
+/**
+ * 一次活动的逐秒采样数据，按列存放在基本类型数组中
+ * 浮点列缺失值用NaN表示，心率缺失值用0表示
+ */
+public class TrackData {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int size;
+    private long[] timestamps;     // 相对于活动开始的时间，单位：秒
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] elevations;   // 单位：米
+    private int[] heartRates;
+    private double[] paces;        // 单位：分钟/公里
+    private double[] distances;    // 距离起点的距离，单位：米
+
+    public TrackData() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TrackData(int capacity) {
+        int initialCapacity = Math.max(capacity, 16);
+        timestamps = new long[initialCapacity];
+        latitudes = new double[initialCapacity];
+        longitudes = new double[initialCapacity];
+        elevations = new double[initialCapacity];
+        heartRates = new int[initialCapacity];
+        paces = new double[initialCapacity];
+        distances = new double[initialCapacity];
+    }
+
+    /**
+     * 直接使用已解码的列数组构造，数组长度不小于size
+     */
+    static TrackData of(int size, long[] timestamps, double[] latitudes, double[] longitudes, double[] elevations,
+                        int[] heartRates, double[] paces, double[] distances) {
+        TrackData track = new TrackData(0);
+        track.size = size;
+        track.timestamps = timestamps;
+        track.latitudes = latitudes;
+        track.longitudes = longitudes;
+        track.elevations = elevations;
+        track.heartRates = heartRates;
+        track.paces = paces;
+        track.distances = distances;
+        return track;
+    }
+
+    /**
+     * 追加一个采样点
+     */
+    public void add(long timestamp, double latitude, double longitude, double elevation,
+                    int heartRate, double pace, double distance) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        timestamps[size] = timestamp;
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        elevations[size] = elevation;
+        heartRates[size] = heartRate;
+        paces[size] = pace;
+        distances[size] = distance;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = Math.max(timestamps.length * 2, 16);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        elevations = Arrays.copyOf(elevations, capacity);
+        heartRates = Arrays.copyOf(heartRates, capacity);
+        paces = Arrays.copyOf(paces, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public long getTimestamp(int index) { return timestamps[index]; }
+
+    public double getLatitude(int index) { return latitudes[index]; }
+
+    public double getLongitude(int index) { return longitudes[index]; }
+
+    public double getElevation(int index) { return elevations[index]; }
+
+    public int getHeartRate(int index) { return heartRates[index]; }
+
+    public double getPace(int index) { return paces[index]; }
+
+    public double getDistance(int index) { return distances[index]; }
+}
@@ -0,0 +1,114 @@
+package com.garmin.runner.util;
+
+import java.util.Arrays;
+
+/**
+ * 一条采样数据的位置索引：经纬度范围和降采样后的轨迹点
+ * 与上一个保留的点相距不少于POINT_SPACING_METERS的采样才保留，最后一个有效采样总是保留；
+ * 按位置查询以这些点为准，宽度小于间隔的区域可能漏掉恰好从中穿过的轨迹
+ * 没有有效经纬度的采样不参与索引
+ */
+public final class TrackLocationIndex {
+
+    // 索引规则变化时递增，启动时重新建立旧版本的索引
+    public static final int VERSION = 1;
+
+    // 轨迹点网格编号的位数，40位即8位geohash
+    public static final int CELL_BITS = 40;
+
+    public static final double POINT_SPACING_METERS = 30;
+
+    private double minLatitude = Double.NaN;
+    private double maxLatitude = Double.NaN;
+    private double minLongitude = Double.NaN;
+    private double maxLongitude = Double.NaN;
+
+    private int size;
+    private double[] latitudes = new double[64];
+    private double[] longitudes = new double[64];
+
+    private TrackLocationIndex() {
+    }
+
+    /**
+     * 计算采样数据的经纬度范围和降采样后的轨迹点
+     */
+    public static TrackLocationIndex of(TrackData track) {
+        TrackLocationIndex index = new TrackLocationIndex();
+        int last = -1; // 最近一个未保留的有效采样
+        for (int i = 0; i < track.size(); i++) {
+            double latitude = track.getLatitude(i);
+            double longitude = track.getLongitude(i);
+            if (!isValid(latitude, longitude)) {
+                continue;
+            }
+            index.extend(latitude, longitude);
+            if (index.size == 0 || GeoHash.distanceMeters(index.latitudes[index.size - 1],
+                    index.longitudes[index.size - 1], latitude, longitude) >= POINT_SPACING_METERS) {
+                index.addPoint(latitude, longitude);
+                last = -1;
+            } else {
+                last = i;
+            }
+        }
+        if (last >= 0) {
+            index.addPoint(track.getLatitude(last), track.getLongitude(last));
+        }
+        return index;
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private void extend(double latitude, double longitude) {
+        if (Double.isNaN(minLatitude)) {
+            minLatitude = maxLatitude = latitude;
+            minLongitude = maxLongitude = longitude;
+            return;
+        }
+        minLatitude = Math.min(minLatitude, latitude);
+        maxLatitude = Math.max(maxLatitude, latitude);
+        minLongitude = Math.min(minLongitude, longitude);
+        maxLongitude = Math.max(maxLongitude, longitude);
+    }
+
+    private void addPoint(double latitude, double longitude) {
+        if (size == latitudes.length) {
+            latitudes = Arrays.copyOf(latitudes, size * 2);
+            longitudes = Arrays.copyOf(longitudes, size * 2);
+        }
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        size++;
+    }
+
+    /**
+     * 是否有有效的位置数据
+     */
+    public boolean hasLocation() { return size > 0; }
+
+    public Double getMinLatitude() { return hasLocation() ? minLatitude : null; }
+
+    public Double getMaxLatitude() { return hasLocation() ? maxLatitude : null; }
+
+    public Double getMinLongitude() { return hasLocation() ? minLongitude : null; }
+
+    public Double getMaxLongitude() { return hasLocation() ? maxLongitude : null; }
+
+    /**
+     * 降采样后的轨迹点数
+     */
+    public int size() { return size; }
+
+    public double getLatitude(int index) { return latitudes[index]; }
+
+    public double getLongitude(int index) { return longitudes[index]; }
+
+    /**
+     * 轨迹点所在网格的编号
+     */
+    public long getCell(int index) {
+        return GeoHash.encode(latitudes[index], longitudes[index], CELL_BITS);
+    }
+}
@@ -0,0 +1,180 @@
+package com.garmin.runner.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 地图显示用的多分辨率轨迹：按几个缩放级别各用Douglas-Peucker算法化简一次，编码为Google encoded polyline（精度1e-5）
+ * 化简容差取该缩放级别下一个像素对应的地面距离，化简后的轨迹与原轨迹在屏幕上的偏差不超过一个像素
+ * 没有有效经纬度的采样不参与化简
+ */
+public final class TrackPolylines {
+
+    // 化简规则或缩放级别变化时递增，启动时重新生成旧版本的轨迹
+    public static final int VERSION = 1;
+
+    // 预先生成的缩放级别，请求的级别介于两者之间时取较精细的一级
+    public static final int[] ZOOM_LEVELS = {10, 12, 14, 16};
+
+    // Web墨卡托投影缩放级别0时赤道上一个像素（256像素瓦片）对应的米数
+    private static final double METERS_PER_PIXEL_AT_ZOOM_0 = 156_543.034;
+
+    private static final double METERS_PER_DEGREE = 111_319.49;
+
+    private TrackPolylines() {
+    }
+
+    /**
+     * 化简后的一级轨迹
+     */
+    public static final class Level {
+
+        private final int zoom;
+        private final double toleranceMeters;
+        private final int pointCount;
+        private final String polyline;
+
+        Level(int zoom, double toleranceMeters, int pointCount, String polyline) {
+            this.zoom = zoom;
+            this.toleranceMeters = toleranceMeters;
+            this.pointCount = pointCount;
+            this.polyline = polyline;
+        }
+
+        public int getZoom() { return zoom; }
+
+        public double getToleranceMeters() { return toleranceMeters; }
+
+        public int getPointCount() { return pointCount; }
+
+        public String getPolyline() { return polyline; }
+    }
+
+    /**
+     * 为各缩放级别化简并编码轨迹
+     * @return 按缩放级别升序排列；没有有效位置数据时为空
+     */
+    public static List<Level> of(TrackData track) {
+        int size = 0;
+        double[] latitudes = new double[track.size()];
+        double[] longitudes = new double[track.size()];
+        for (int i = 0; i < track.size(); i++) {
+            double latitude = track.getLatitude(i);
+            double longitude = track.getLongitude(i);
+            if (latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180) {
+                latitudes[size] = latitude;
+                longitudes[size] = longitude;
+                size++;
+            }
+        }
+        List<Level> levels = new ArrayList<>(ZOOM_LEVELS.length);
+        if (size == 0) {
+            return levels;
+        }
+
+        // 以第一个点为原点投影到平面（米），几十公里内的误差可以忽略
+        double cos = Math.cos(Math.toRadians(latitudes[0]));
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = (longitudes[i] - longitudes[0]) * METERS_PER_DEGREE * cos;
+            y[i] = (latitudes[i] - latitudes[0]) * METERS_PER_DEGREE;
+        }
+        for (int zoom : ZOOM_LEVELS) {
+            double tolerance = METERS_PER_PIXEL_AT_ZOOM_0 * cos / (1L << zoom);
+            boolean[] kept = simplify(x, y, size, tolerance);
+            int pointCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (kept[i]) {
+                    pointCount++;
+                }
+            }
+            levels.add(new Level(zoom, tolerance, pointCount, encode(latitudes, longitudes, kept, size)));
+        }
+        return levels;
+    }
+
+    /**
+     * Douglas-Peucker化简：保留首尾点，递归保留离首尾连线最远且超过容差的点；用栈代替递归，避免长轨迹栈溢出
+     */
+    static boolean[] simplify(double[] x, double[] y, int size, double tolerance) {
+        boolean[] kept = new boolean[size];
+        kept[0] = true;
+        kept[size - 1] = true;
+        double toleranceSquared = tolerance * tolerance;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double farthestDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            kept[farthest] = true;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+        return kept;
+    }
+
+    /**
+     * 点到线段距离的平方；首尾重合（如环形路线）时为到该点的距离
+     */
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Google encoded polyline：纬度、经度依次取1e-5精度的整数与上一点的差值，zigzag后每5位一个字符
+     */
+    static String encode(double[] latitudes, double[] longitudes, boolean[] kept, int size) {
+        StringBuilder polyline = new StringBuilder();
+        long lastLatitude = 0;
+        long lastLongitude = 0;
+        for (int i = 0; i < size; i++) {
+            if (!kept[i]) {
+                continue;
+            }
+            long latitude = Math.round(latitudes[i] * 1e5);
+            long longitude = Math.round(longitudes[i] * 1e5);
+            appendValue(polyline, latitude - lastLatitude);
+            appendValue(polyline, longitude - lastLongitude);
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+        }
+        return polyline.toString();
+    }
+
+    private static void appendValue(StringBuilder polyline, long value) {
+        long zigzag = value < 0 ? ~(value << 1) : value << 1;
+        while (zigzag >= 0x20) {
+            polyline.append((char) ((0x20 | (zigzag & 0x1f)) + 63));
+            zigzag >>= 5;
+        }
+        polyline.append((char) (zigzag + 63));
+    }
+}
@@ -0,0 +1,81 @@
+package com.garmin.runner.util;
+
+import com.garmin.runner.model.AthleteProfile;
+
+/**
+ * 训练负荷计算：单次活动的训练冲量（Banister TRIMP），以及按天指数加权的急性负荷（ATL）、慢性负荷（CTL）和状态（TSB）
+ * TRIMP = 分钟数 × 储备心率比例x × 0.64 × e^(1.92x)，x = (心率 - 静息心率) / (最大心率 - 静息心率)，限制在0到1之间
+ * 每天的负荷按 L(d) = L(d-1) + (当天TRIMP - L(d-1)) × (1 - e^(-1/时间常数)) 更新，状态为前一天的CTL减ATL
+ */
+public final class TrainingLoad {
+
+    // 急性负荷（疲劳）和慢性负荷（体能）的时间常数，单位：天
+    public static final int ACUTE_DAYS = 7;
+    public static final int CHRONIC_DAYS = 42;
+
+    // 资料中没有静息心率时使用的默认值
+    public static final int DEFAULT_RESTING_HEART_RATE = 60;
+
+    private static final double WEIGHT_FACTOR = 0.64;
+    private static final double WEIGHT_EXPONENT = 1.92;
+
+    private TrainingLoad() {
+    }
+
+    /**
+     * 按平均心率和时长估算TRIMP，没有平均心率或时长时为0
+     */
+    public static double trimp(Long durationSeconds, Integer averageHeartRate, AthleteProfile profile) {
+        if (durationSeconds == null || durationSeconds <= 0 || averageHeartRate == null || averageHeartRate <= 0) {
+            return 0;
+        }
+        return durationSeconds / 60.0 * weighted(averageHeartRate, restingHeartRate(profile), profile.getMaxHeartRate());
+    }
+
+    /**
+     * 按逐秒采样累加TRIMP：每个采样的心率持续到下一个采样，没有心率的采样和暂停的间隔不计入（与心率区间一致）
+     * @return 没有心率采样时为null，此时按平均心率估算
+     */
+    public static Double trimp(TrackData track, AthleteProfile profile) {
+        int resting = restingHeartRate(profile);
+        int max = profile.getMaxHeartRate();
+        double total = 0;
+        boolean hasHeartRate = false;
+        int size = track.size();
+        for (int i = 0; i < size; i++) {
+            int heartRate = track.getHeartRate(i);
+            if (heartRate <= 0) {
+                continue;
+            }
+            hasHeartRate = true;
+            long duration = i + 1 < size ? track.getTimestamp(i + 1) - track.getTimestamp(i) : 1;
+            if (duration > 0 && duration <= HeartRateZones.MAX_SAMPLE_GAP_SECONDS) {
+                total += duration / 60.0 * weighted(heartRate, resting, max);
+            }
+        }
+        return hasHeartRate ? total : null;
+    }
+
+    /**
+     * 加入一天的TRIMP后的负荷
+     */
+    public static double next(double previous, double dailyTrimp, int timeConstantDays) {
+        return previous + (dailyTrimp - previous) * (1 - Math.exp(-1.0 / timeConstantDays));
+    }
+
+    /**
+     * 连续若干天没有训练后的负荷
+     */
+    public static double decay(double previous, long days, int timeConstantDays) {
+        return previous * Math.exp(-(double) days / timeConstantDays);
+    }
+
+    private static double weighted(int heartRate, int resting, int max) {
+        double reserve = Math.max(0, Math.min(1, (double) (heartRate - resting) / (max - resting)));
+        return reserve * WEIGHT_FACTOR * Math.exp(WEIGHT_EXPONENT * reserve);
+    }
+
+    private static int restingHeartRate(AthleteProfile profile) {
+        return profile.getRestingHeartRate() != null ? profile.getRestingHeartRate() : DEFAULT_RESTING_HEART_RATE;
+    }
+}
@@ -0,0 +1,15 @@
+-- 训练负荷：每条采样数据按心率采样计算的TRIMP，与心率区间秒数一起按资料的zone_version计算
+-- 清空hr_zone_version，启动时为已有采样数据补算
+alter table activity_tracks add column trimp float(53);
+update activity_tracks set hr_zone_version = null;
+
+-- 按天的训练负荷，从第一个有活动的日期起每天一行
+create table training_load_days (
+    load_date date not null,
+    activity_count integer not null,
+    training_load float(53) not null,
+    acute_load float(53) not null,
+    chronic_load float(53) not null,
+    hr_zone_version integer not null,
+    primary key (load_date)
+);
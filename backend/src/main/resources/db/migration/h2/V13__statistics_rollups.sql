@@ -0,0 +1,19 @@
+-- 统计汇总表：引入Flyway之前以ddl-auto=update建表的库可能已有此表（bucket_type为枚举类型），
+-- 汇总数据可由活动表重新计算，这里统一重建为当前结构，启动时发现汇总表为空而有活动时自动重建汇总
+drop table if exists statistics_rollups;
+
+create table statistics_rollups (
+    id bigint generated by default as identity,
+    bucket_type varchar(20) not null,
+    bucket_key varchar(100) not null,
+    activity_count bigint,
+    total_distance float(53),
+    total_duration bigint,
+    total_calories bigint,
+    heart_rate_sum bigint,
+    heart_rate_count bigint,
+    pace_sum float(53),
+    pace_count bigint,
+    primary key (id),
+    constraint uk_rollup_bucket unique (bucket_type, bucket_key)
+);
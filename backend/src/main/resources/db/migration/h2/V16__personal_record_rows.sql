@@ -0,0 +1,10 @@
+-- 个人记录每类固定一行：预先插入各类型的空行，保存采样数据时加写锁更新，并发写入时不会同时插入同一类型
+-- 某类没有任何成绩时清空该行而不是删除
+alter table personal_records alter column best_effort_id set null;
+alter table personal_records alter column activity_id set null;
+alter table personal_records alter column distance_meters set null;
+alter table personal_records alter column elapsed_seconds set null;
+alter table personal_records alter column start_offset_seconds set null;
+
+merge into personal_records (record_type) key (record_type) values
+    ('FASTEST_1K'), ('FASTEST_5K'), ('FASTEST_10K'), ('FASTEST_HALF_MARATHON'), ('FASTEST_MARATHON'), ('LONGEST_RUN');
@@ -0,0 +1,14 @@
+-- 活动列表默认排序和游标分页：ORDER BY start_time DESC, id DESC
+create index idx_activities_start_time_id on activities (start_time, id);
+
+-- 时间范围内的距离汇总和趋势分组（calculateTotalDistance、aggregateTrendBy*）只需读取索引
+create index idx_activities_start_time_distance on activities (start_time, distance);
+
+-- 按类型查询和类型加时间范围的组合过滤（findByActivityType、/activities/search）
+create index idx_activities_type_start_time on activities (activity_type, start_time);
+
+-- 按导入记录查询活动（findByImportRecordId）
+create index idx_activities_import_record on activities (import_record_id);
+
+-- 按活动读取有序的明细数据
+create index idx_activity_details_activity_timestamp on activity_details (activity_id, timestamp);
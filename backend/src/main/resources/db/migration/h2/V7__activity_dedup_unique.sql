@@ -0,0 +1,2 @@
+-- 去重键由V6回填，重复的历史活动保留为空，不受唯一约束影响
+create unique index uk_activities_dedup_key on activities (dedup_key);
@@ -0,0 +1,28 @@
+-- 采样数据的位置索引：每个活动的经纬度范围，以及按约30米间隔降采样的轨迹点
+-- location_index_version与TrackLocationIndex.VERSION不一致时需重新建立索引
+alter table activity_tracks add column min_latitude float(53);
+alter table activity_tracks add column max_latitude float(53);
+alter table activity_tracks add column min_longitude float(53);
+alter table activity_tracks add column max_longitude float(53);
+alter table activity_tracks add column location_index_version integer;
+
+-- 按经纬度范围筛选采样数据，只需读取索引
+create index idx_activity_tracks_bounds on activity_tracks (min_latitude, max_latitude, min_longitude, max_longitude, activity_id);
+
+create sequence activity_track_points_seq start with 1 increment by 50;
+
+-- cell为点所在geohash网格（8位，约38米×19米）的40位整数编码，同一前缀的网格编码连续
+create table activity_track_points (
+    id bigint not null,
+    activity_id bigint not null,
+    cell bigint not null,
+    latitude float(53) not null,
+    longitude float(53) not null,
+    primary key (id),
+    constraint fk_activity_track_points_activity foreign key (activity_id) references activities (id) on delete cascade
+);
+
+-- 按网格编码范围查找区域内的点，经纬度和活动ID直接从索引读取
+create index idx_activity_track_points_cell on activity_track_points (cell, latitude, longitude, activity_id);
+-- 按活动查找区域内的点，以及覆盖保存采样数据时删除旧的点
+create index idx_activity_track_points_activity on activity_track_points (activity_id, latitude, longitude);
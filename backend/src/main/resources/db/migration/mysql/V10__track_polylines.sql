@@ -0,0 +1,23 @@
+-- 地图显示用的多分辨率轨迹：每个活动按几个缩放级别各保存一条化简后的encoded polyline
+-- polyline_version与TrackPolylines.VERSION不一致时需重新生成
+alter table activity_tracks add column polyline_version integer;
+
+-- MySQL不支持序列，Hibernate使用表模拟activity_track_polylines_seq
+create table activity_track_polylines_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into activity_track_polylines_seq values (1);
+
+create table activity_track_polylines (
+    id bigint not null,
+    activity_id bigint not null,
+    zoom integer not null,
+    tolerance_meters float(53) not null,
+    point_count integer not null,
+    polyline longtext not null,
+    primary key (id),
+    constraint fk_activity_track_polylines_activity foreign key (activity_id) references activities (id) on delete cascade
+) engine=InnoDB;
+
+-- 按活动和缩放级别查找，以及覆盖保存采样数据时删除旧的轨迹
+create index idx_activity_track_polylines_activity on activity_track_polylines (activity_id, zoom);
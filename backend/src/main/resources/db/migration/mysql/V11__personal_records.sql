@@ -0,0 +1,38 @@
+-- 个人记录：每次跑步在各类记录上的最好成绩，以及当前的记录
+-- best_effort_version与BestEfforts.VERSION不一致时需重新计算
+alter table activity_tracks add column best_effort_version integer;
+
+-- MySQL不支持序列，Hibernate使用表模拟activity_best_efforts_seq
+create table activity_best_efforts_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into activity_best_efforts_seq values (1);
+
+create table activity_best_efforts (
+    id bigint not null,
+    activity_id bigint not null,
+    record_type varchar(32) not null,
+    distance_meters float(53) not null,
+    elapsed_seconds float(53) not null,
+    start_offset_seconds float(53) not null,
+    primary key (id),
+    constraint fk_activity_best_efforts_activity foreign key (activity_id) references activities (id) on delete cascade
+) engine=InnoDB;
+
+-- 记录所在活动被删除或覆盖时，按类型取最快用时或最长距离的成绩
+create index idx_activity_best_efforts_elapsed on activity_best_efforts (record_type, elapsed_seconds, id);
+create index idx_activity_best_efforts_distance on activity_best_efforts (record_type, distance_meters, id);
+-- 覆盖保存采样数据时删除旧的成绩
+create index idx_activity_best_efforts_activity on activity_best_efforts (activity_id);
+
+-- 每类记录一行，不设外键：活动被删除时由服务重新选出记录
+create table personal_records (
+    record_type varchar(32) not null,
+    best_effort_id bigint not null,
+    activity_id bigint not null,
+    distance_meters float(53) not null,
+    elapsed_seconds float(53) not null,
+    start_offset_seconds float(53) not null,
+    updated_at datetime(6),
+    primary key (record_type)
+) engine=InnoDB;
@@ -0,0 +1,11 @@
+-- 个人记录每类固定一行：预先插入各类型的空行，保存采样数据时加写锁更新，并发写入时不会同时插入同一类型
+-- 某类没有任何成绩时清空该行而不是删除
+alter table personal_records
+    modify best_effort_id bigint null,
+    modify activity_id bigint null,
+    modify distance_meters float(53) null,
+    modify elapsed_seconds float(53) null,
+    modify start_offset_seconds float(53) null;
+
+insert ignore into personal_records (record_type) values
+    ('FASTEST_1K'), ('FASTEST_5K'), ('FASTEST_10K'), ('FASTEST_HALF_MARATHON'), ('FASTEST_MARATHON'), ('LONGEST_RUN');
@@ -0,0 +1,46 @@
+-- 基线表结构：引入Flyway之前的最初版本以ddl-auto=update生成的表结构（主键均为自增列）
+-- 统计汇总表、导入进度字段和活动主键序列由V13至V15补上
+-- 已有数据的库不执行本脚本，启动时按spring.flyway.baseline-version标记为V1后从V2开始迁移，见README“数据库迁移”
+create table import_records (
+    id bigint not null auto_increment,
+    file_name varchar(255),
+    file_size bigint,
+    import_time datetime(6),
+    status varchar(255),
+    error_message varchar(255),
+    activity_count integer,
+    primary key (id)
+) engine=InnoDB;
+
+create table activities (
+    id bigint not null auto_increment,
+    activity_name varchar(255),
+    activity_type varchar(255),
+    start_time datetime(6),
+    end_time datetime(6),
+    duration bigint,
+    distance float(53),
+    calories integer,
+    average_heart_rate integer,
+    max_heart_rate integer,
+    average_pace float(53),
+    garmin_activity_id varchar(255),
+    import_date datetime(6),
+    import_record_id bigint,
+    primary key (id),
+    constraint fk_activities_import_record foreign key (import_record_id) references import_records (id)
+) engine=InnoDB;
+
+create table activity_details (
+    id bigint not null auto_increment,
+    timestamp bigint,
+    latitude float(53),
+    longitude float(53),
+    elevation float(53),
+    heart_rate integer,
+    pace float(53),
+    distance_from_start float(53),
+    activity_id bigint,
+    primary key (id),
+    constraint fk_activity_details_activity foreign key (activity_id) references activities (id)
+) engine=InnoDB;
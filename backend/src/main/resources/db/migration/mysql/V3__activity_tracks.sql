@@ -0,0 +1,12 @@
+-- 活动逐秒采样数据，每个活动一行，采样按列压缩存放（格式见TrackCodec）
+create table activity_tracks (
+    id bigint not null auto_increment,
+    activity_id bigint not null,
+    sample_count integer not null,
+    encoding_version integer not null,
+    encoded_samples longblob not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_activity_tracks_activity unique (activity_id),
+    constraint fk_activity_tracks_activity foreign key (activity_id) references activities (id) on delete cascade
+) engine=InnoDB;
@@ -0,0 +1,4 @@
+-- 批量导入：每个文件一条子导入记录，通过parent_id指向所属的批量导入记录
+alter table import_records add column parent_id bigint;
+create index idx_import_records_parent on import_records (parent_id);
+alter table import_records add constraint fk_import_records_parent foreign key (parent_id) references import_records (id);
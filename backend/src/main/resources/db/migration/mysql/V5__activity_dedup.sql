@@ -0,0 +1,6 @@
+-- 导入去重：活动去重键（见ActivityDedupKey），导入记录的重复处理策略和插入、更新、跳过计数
+alter table activities add column dedup_key varchar(64);
+alter table import_records add column duplicate_policy varchar(20);
+alter table import_records add column rows_inserted integer;
+alter table import_records add column rows_updated integer;
+alter table import_records add column rows_skipped integer;
@@ -0,0 +1,24 @@
+-- 运动员资料（单用户，固定一行），心率区间按资料中的最大心率、静息心率或乳酸阈值心率划分
+create table athlete_profile (
+    id bigint not null,
+    max_heart_rate integer not null,
+    resting_heart_rate integer,
+    threshold_heart_rate integer,
+    zone_model varchar(32) not null,
+    zone_version integer not null,
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+insert into athlete_profile (id, max_heart_rate, resting_heart_rate, threshold_heart_rate, zone_model, zone_version, updated_at)
+values (1, 190, 60, null, 'MAX_HEART_RATE', 1, current_timestamp(6));
+
+-- 每个活动在各心率区间的秒数，保存采样时按当前资料计算；hr_zone_version与资料的zone_version不一致时需重新计算
+alter table activity_tracks
+    add column hr_zone_version integer,
+    add column hr_zone0_seconds integer,
+    add column hr_zone1_seconds integer,
+    add column hr_zone2_seconds integer,
+    add column hr_zone3_seconds integer,
+    add column hr_zone4_seconds integer,
+    add column hr_zone5_seconds integer;
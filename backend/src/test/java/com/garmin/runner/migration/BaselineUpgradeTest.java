@@ -0,0 +1,95 @@
+package com.garmin.runner.migration;
+
+import com.garmin.runner.util.ActivityDedupKey;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 引入Flyway之前以ddl-auto=update建表、已有数据的库，按基线标记为V1后无需手工操作即可迁移到最新版本
+ */
+class BaselineUpgradeTest {
+
+    @Test
+    void upgradesPreFlywayDatabase() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:baseline_upgrade_test;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            // 最初版本的结构与V1相同，活动主键为自增列
+            for (String sql : readScript("db/migration/h2/V1__baseline_schema.sql").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            statement.execute("insert into import_records (file_name, status, activity_count) values ('old.csv', '成功', 2)");
+            statement.execute("insert into activities (activity_type, start_time, duration, distance, import_record_id) "
+                    + "values ('跑步', timestamp '2020-01-01 07:00:00', 1800, 5000, 1)");
+            statement.execute("insert into activities (activity_type, start_time, duration, distance, import_record_id) "
+                    + "values ('跑步', timestamp '2020-01-01 07:00:00', 1800, 5000, 1)");
+        }
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .javaMigrations(new V6__BackfillActivityDedupKeys(), new V14__ImportRecordProgressColumns(),
+                        new V15__ActivitiesSequence())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertEquals(0, queryLong(statement, "select count(*) from statistics_rollups"));
+            statement.execute("update import_records set rows_parsed = 2, rows_persisted = 2, rows_failed = 0, elapsed_ms = 10");
+            try (ResultSet rows = statement.executeQuery("select id from activities where 1 = 0")) {
+                assertFalse(rows.getMetaData().isAutoIncrement(1));
+            }
+            // Hibernate按50个一批分配主键，取到的第一批不能与已有的活动ID重叠
+            long next = queryLong(statement, "select next value for activities_seq");
+            assertTrue(next - 49 > 2, "activities_seq: " + next);
+
+            // 内容相同的两条活动与同一文件中的重复行一样，第2条得到带序号的键
+            ActivityDedupKey.Occurrences occurrences = new ActivityDedupKey.Occurrences();
+            String key = ActivityDedupKey.of(null, "跑步", LocalDateTime.of(2020, 1, 1, 7, 0), 5000.0);
+            List<String> expected = List.of(occurrences.assign(key, null), occurrences.assign(key, null));
+            List<String> keys = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("select dedup_key from activities order by id")) {
+                while (rows.next()) {
+                    keys.add(rows.getString(1));
+                }
+            }
+            assertNotEquals(expected.get(0), expected.get(1));
+            assertEquals(expected, keys);
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static String readScript(String path) throws IOException {
+        try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
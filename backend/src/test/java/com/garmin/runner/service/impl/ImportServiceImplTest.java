@@ -0,0 +1,188 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.DuplicatePolicy;
+import com.garmin.runner.model.TrainingLoadDay;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.TrainingLoadDayRepository;
+import com.garmin.runner.service.ImportService;
+import com.garmin.runner.service.StatisticsService;
+import com.garmin.runner.service.TrainingLoadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 按去重键导入的集成测试（H2内存库）
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import_service_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "runner.fake-data.enabled=false",
+        "spring.jpa.show-sql=false",
+        "runner.import.batch-size=50",
+        "runner.import.bulk.buffered-entry-size=4KB",
+        "runner.import.bulk.max-entry-size=64KB"
+})
+class ImportServiceImplTest {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private TrainingLoadDayRepository trainingLoadDayRepository;
+
+    /**
+     * 示例数据的时间格式为"yyyy-MM-dd HH:mm:ss"，20行各不相同；再次导入同一文件时全部跳过，统计不变
+     */
+    @Test
+    void reimportingSameFileIsNoOp() throws IOException {
+        long before = activityRepository.count();
+
+        Map<String, Object> first = importService.importGarminData(sampleFile(), DuplicatePolicy.SKIP);
+        assertEquals(true, first.get("success"));
+        assertEquals(20, first.get("insertedCount"));
+        assertEquals(0, first.get("skippedCount"));
+        assertEquals(before + 20, activityRepository.count());
+        Map<String, Object> overall = statisticsService.getOverallStatistics();
+
+        Map<String, Object> second = importService.importGarminData(sampleFile(), DuplicatePolicy.SKIP);
+        assertEquals(true, second.get("success"));
+        assertEquals(0, second.get("insertedCount"));
+        assertEquals(20, second.get("skippedCount"));
+        assertEquals(before + 20, activityRepository.count());
+        assertEquals(overall.get("totalActivities"), statisticsService.getOverallStatistics().get("totalActivities"));
+        assertEquals(overall.get("totalDistance"), statisticsService.getOverallStatistics().get("totalDistance"));
+    }
+
+    /**
+     * 同一文件中类型、开始时间和距离都相同的两行是两次活动，都要写入；再次导入时两行分别对应已写入的两条活动
+     */
+    @Test
+    void rowsCollidingWithinFileAreKept() {
+        String csv = "Activity Type,Date,Duration,Distance,Calories\n"
+                + "力量训练,2023-06-01 18:00:00,1800,0,200\n"
+                + "力量训练,2023-06-01 18:00:00,1200,0,150\n";
+        long before = activityRepository.count();
+
+        Map<String, Object> first = importService.importGarminData(csvFile(csv), DuplicatePolicy.SKIP);
+        assertEquals(2, first.get("insertedCount"));
+        assertEquals(0, first.get("skippedCount"));
+        assertEquals(before + 2, activityRepository.count());
+
+        Map<String, Object> skipped = importService.importGarminData(csvFile(csv), DuplicatePolicy.SKIP);
+        assertEquals(0, skipped.get("insertedCount"));
+        assertEquals(2, skipped.get("skippedCount"));
+
+        Map<String, Object> updated = importService.importGarminData(csvFile(csv), DuplicatePolicy.UPDATE);
+        assertEquals(0, updated.get("insertedCount"));
+        assertEquals(2, updated.get("updatedCount"));
+        assertEquals(before + 2, activityRepository.count());
+    }
+
+    /**
+     * 压缩包中超过buffered-entry-size的条目流式解析，超过max-entry-size的条目计为失败文件，其余条目照常写入
+     */
+    @Test
+    void bulkImportStreamsLargeEntries() throws IOException {
+        StringBuilder large = new StringBuilder("Activity Type,Date,Duration,Distance,Calories\n");
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 6, 0);
+        for (int i = 0; i < 200; i++) {
+            large.append("跑步,").append(start.plusHours(i).format(DATE_TIME)).append(",1800,5.0,400\n");
+        }
+        String small = "Activity Type,Date,Duration,Distance,Calories\n"
+                + "骑行,2021-05-01 08:00:00,3600,20.0,600\n"
+                + "骑行,2021-05-02 08:00:00,3600,25.0,700\n";
+        String oversized = "Activity Type,Date,Duration,Distance,Calories,Notes\n"
+                + "跑步,2021-06-01 08:00:00,1800,5.0,400," + "x".repeat(100 * 1024) + "\n";
+        long before = activityRepository.count();
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            addEntry(zip, "summary.csv", large.toString());
+            addEntry(zip, "small.csv", small);
+            addEntry(zip, "oversized.csv", oversized);
+        }
+        MockMultipartFile file = new MockMultipartFile("files", "export.zip", "application/zip", archive.toByteArray());
+
+        Map<String, Object> result = importService.importBulk(List.of(file), DuplicatePolicy.SKIP);
+        assertEquals(3, result.get("fileCount"));
+        assertEquals(1, result.get("failedFiles"));
+        assertEquals(202, result.get("insertedCount"));
+        assertEquals(before + 202, activityRepository.count());
+    }
+
+    /**
+     * 按日期倒序的多个分块导入后只在最后统一计算一次训练负荷，后面分块中更早的日期也计算在内，结果与全量重建相同
+     */
+    @Test
+    void importRecalculatesTrainingLoadFromEarliestChunkDate() {
+        StringBuilder csv = new StringBuilder("Activity Type,Date,Duration,Distance,Calories,Avg HR\n");
+        LocalDateTime last = LocalDateTime.of(2020, 6, 30, 7, 0);
+        for (int i = 0; i < 160; i++) {
+            csv.append("跑步,").append(last.minusDays(i).format(DATE_TIME)).append(',')
+                    .append(1800 + i * 10).append(",5.0,400,").append(130 + i % 30).append('\n');
+        }
+
+        Map<String, Object> result = importService.importGarminData(csvFile(csv.toString()), DuplicatePolicy.SKIP);
+        assertEquals(160, result.get("insertedCount"));
+
+        List<TrainingLoadDay> imported = readTrainingLoadDays();
+        trainingLoadService.rebuildTrainingLoad();
+        List<TrainingLoadDay> rebuilt = readTrainingLoadDays();
+        assertEquals(rebuilt.size(), imported.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            TrainingLoadDay expected = rebuilt.get(i);
+            TrainingLoadDay actual = imported.get(i);
+            assertEquals(expected.getLoadDate(), actual.getLoadDate());
+            assertEquals(expected.getActivityCount(), actual.getActivityCount(), expected.getLoadDate().toString());
+            assertEquals(expected.getChronicLoad(), actual.getChronicLoad(), 1e-9, expected.getLoadDate().toString());
+        }
+    }
+
+    private List<TrainingLoadDay> readTrainingLoadDays() {
+        return trainingLoadDayRepository.findByLoadDateBetweenOrderByLoadDateAsc(
+                LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1));
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static MockMultipartFile csvFile(String content) {
+        return new MockMultipartFile("file", "activities.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile sampleFile() throws IOException {
+        try (InputStream inputStream = new ClassPathResource("fake_garmin_data.csv").getInputStream()) {
+            return new MockMultipartFile("file", "fake_garmin_data.csv", "text/csv", inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.ActivityBestEffort;
+import com.garmin.runner.model.PersonalRecord;
+import com.garmin.runner.model.PersonalRecordType;
+import com.garmin.runner.repository.ActivityBestEffortRepository;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.PersonalRecordRepository;
+import com.garmin.runner.service.ActivityTrackService;
+import com.garmin.runner.util.TrackData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 个人记录并发维护的集成测试（H2内存库）
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:personal_record_service_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "runner.fake-data.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class PersonalRecordServiceImplTest {
+
+    @Autowired
+    private ActivityTrackService activityTrackService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityBestEffortRepository activityBestEffortRepository;
+
+    @Autowired
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 多个事务同时保存跑步的采样数据（包括第一次产生记录）时，每类记录都是全部成绩中最好的一条，没有事务失败
+     */
+    @Test
+    void concurrentTracksKeepBestRecord() throws Exception {
+        int threads = 4;
+        int runsPerThread = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                for (int i = 0; i < runsPerThread; i++) {
+                    // 每次跑步的速度不同，记录属于最快的一次
+                    int run = thread * runsPerThread + i;
+                    double speed = 3.0 + run * 0.05;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        Activity activity = new Activity();
+                        activity.setActivityType("跑步");
+                        activity.setStartTime(LocalDateTime.of(2024, 6, 1, 6, 0).plusDays(run));
+                        activity.setDuration(1200L);
+                        activity.setDistance(speed * 1200);
+                        activityRepository.save(activity);
+                        activityTrackService.saveTrack(activity.getId(), track(speed, 1200));
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        for (PersonalRecordType type : List.of(PersonalRecordType.FASTEST_1K, PersonalRecordType.LONGEST_RUN)) {
+            ActivityBestEffort best = type.isFastest()
+                    ? activityBestEffortRepository.findFirstByRecordTypeOrderByElapsedSecondsAscIdAsc(type).orElseThrow()
+                    : activityBestEffortRepository.findFirstByRecordTypeOrderByDistanceMetersDescIdAsc(type).orElseThrow();
+            PersonalRecord record = personalRecordRepository.findById(type).orElseThrow();
+            assertEquals(best.getActivityId(), record.getActivityId(), type.name());
+            assertEquals(best.getId(), record.getBestEffortId(), type.name());
+        }
+    }
+
+    /**
+     * 匀速跑步的采样数据，每秒一个点
+     */
+    private static TrackData track(double metersPerSecond, int seconds) {
+        TrackData track = new TrackData();
+        for (int second = 0; second <= seconds; second++) {
+            track.add(second, Double.NaN, Double.NaN, Double.NaN, 150, 1000 / 60.0 / metersPerSecond,
+                    second * metersPerSecond);
+        }
+        return track;
+    }
+}
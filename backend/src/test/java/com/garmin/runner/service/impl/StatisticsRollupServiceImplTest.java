@@ -0,0 +1,181 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.StatisticsRollup;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.StatisticsRollupRepository;
+import com.garmin.runner.service.StatisticsRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 统计汇总表增量更新与全量重建结果一致性的集成测试（H2内存库）
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollup_service_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "runner.fake-data.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class StatisticsRollupServiceImplTest {
+
+    private static final String[] TYPES = {"跑步", "骑行", "游泳", null};
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private StatisticsRollupRepository rollupRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 依次新增、修改（跨天、跨月、换类型）和删除活动后，增量维护的汇总行与按活动表重建的汇总行相同
+     */
+    @Test
+    void applyChangesMatchesRebuild() {
+        Random random = new Random(7);
+        List<Activity> added = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Activity activity = new Activity();
+            activity.setActivityType(TYPES[random.nextInt(TYPES.length)]);
+            activity.setStartTime(LocalDateTime.of(2023, 1, 1, 6, 0).plusHours(random.nextInt(24 * 90)));
+            activity.setDuration(600L + random.nextInt(7200));
+            activity.setDistance(random.nextInt(10) == 0 ? null : 1000 + random.nextDouble() * 40000);
+            activity.setCalories(100 + random.nextInt(900));
+            activity.setAverageHeartRate(random.nextInt(5) == 0 ? null : 110 + random.nextInt(60));
+            activity.setAveragePace(random.nextInt(5) == 0 ? null : 3.5 + random.nextDouble() * 4);
+            added.add(activity);
+        }
+        activityRepository.saveAll(added);
+        statisticsRollupService.applyChanges(added, Collections.emptyList());
+
+        List<Activity> updated = new ArrayList<>();
+        List<Activity> previous = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Activity activity = added.get(i);
+            previous.add(copy(activity));
+            activity.setActivityType(TYPES[(i + 1) % TYPES.length]);
+            activity.setStartTime(activity.getStartTime().plusDays(20 + i));
+            activity.setDistance(activity.getDistance() != null ? activity.getDistance() * 1.1 : 5000.0);
+            activity.setAverageHeartRate(i % 2 == 0 ? null : 150);
+            updated.add(activity);
+        }
+        activityRepository.saveAll(updated);
+        statisticsRollupService.applyChanges(updated, previous);
+
+        List<Activity> removed = new ArrayList<>(added.subList(40, 100));
+        activityRepository.deleteAll(removed);
+        statisticsRollupService.applyChanges(Collections.emptyList(), removed);
+
+        assertMatchesRebuild();
+    }
+
+    /**
+     * 多个事务并发写入同一批天、月、类型桶（包括同时创建新桶）时，每个增量都计入汇总表，没有事务失败
+     */
+    @Test
+    void concurrentApplyChangesLoseNoDeltas() throws Exception {
+        int threads = 4;
+        int activitiesPerThread = 30;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                for (int i = 0; i < activitiesPerThread; i++) {
+                    Activity activity = new Activity();
+                    activity.setActivityType(i % 2 == 0 ? "划船" : "跑步");
+                    // 每天都有多个线程写入，新的一天由各线程同时创建
+                    activity.setStartTime(LocalDateTime.of(2024, 5, 1, 6, thread).plusDays(i / 3));
+                    activity.setDuration(1800L);
+                    activity.setDistance(5000.0 + thread);
+                    activity.setCalories(300);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        activityRepository.save(activity);
+                        statisticsRollupService.applyChanges(List.of(activity), Collections.emptyList());
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertMatchesRebuild();
+    }
+
+    /**
+     * 增量维护的汇总行与按活动表重建的汇总行相同
+     */
+    private void assertMatchesRebuild() {
+        Map<String, StatisticsRollup> incremental = readRollups();
+        statisticsRollupService.rebuildRollups();
+        Map<String, StatisticsRollup> rebuilt = readRollups();
+
+        assertFalse(rebuilt.isEmpty());
+        assertEquals(rebuilt.keySet(), incremental.keySet());
+        for (Map.Entry<String, StatisticsRollup> entry : rebuilt.entrySet()) {
+            StatisticsRollup expected = entry.getValue();
+            StatisticsRollup actual = incremental.get(entry.getKey());
+            String bucket = entry.getKey();
+            assertEquals(expected.getActivityCount(), actual.getActivityCount(), bucket);
+            assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 1e-6, bucket);
+            assertEquals(expected.getTotalDuration(), actual.getTotalDuration(), bucket);
+            assertEquals(expected.getTotalCalories(), actual.getTotalCalories(), bucket);
+            assertEquals(expected.getHeartRateSum(), actual.getHeartRateSum(), bucket);
+            assertEquals(expected.getHeartRateCount(), actual.getHeartRateCount(), bucket);
+            assertEquals(expected.getPaceSum(), actual.getPaceSum(), 1e-6, bucket);
+            assertEquals(expected.getPaceCount(), actual.getPaceCount(), bucket);
+        }
+    }
+
+    private Map<String, StatisticsRollup> readRollups() {
+        Map<String, StatisticsRollup> rollups = new TreeMap<>();
+        for (StatisticsRollup rollup : rollupRepository.findAll()) {
+            rollups.put(rollup.getBucketType() + "|" + rollup.getBucketKey(), rollup);
+        }
+        return rollups;
+    }
+
+    private static Activity copy(Activity activity) {
+        Activity copy = new Activity();
+        copy.setId(activity.getId());
+        copy.setActivityType(activity.getActivityType());
+        copy.setStartTime(activity.getStartTime());
+        copy.setDuration(activity.getDuration());
+        copy.setDistance(activity.getDistance());
+        copy.setCalories(activity.getCalories());
+        copy.setAverageHeartRate(activity.getAverageHeartRate());
+        copy.setAveragePace(activity.getAveragePace());
+        return copy;
+    }
+}
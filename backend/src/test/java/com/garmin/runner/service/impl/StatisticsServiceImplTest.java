@@ -0,0 +1,63 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.service.StatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 统计接口查询的集成测试（H2内存库，未启用列式存储）
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statistics_service_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "runner.fake-data.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class StatisticsServiceImplTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    /**
+     * 最近活动按开始时间倒序、同一时间按ID倒序，没有开始时间的活动不影响结果
+     */
+    @Test
+    void recentActivitiesAreNewestFirst() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 7, 0);
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            activities.add(activity(start.plusDays(i)));
+        }
+        activities.add(activity(start.plusDays(9)));
+        activities.add(activity(null));
+        activityRepository.saveAll(activities);
+
+        List<Map<String, Object>> recent = statisticsService.getRecentActivities(3);
+
+        assertEquals(3, recent.size());
+        assertEquals(activities.get(10).getId(), recent.get(0).get("id"));
+        assertEquals(activities.get(9).getId(), recent.get(1).get("id"));
+        assertEquals(activities.get(8).getId(), recent.get(2).get("id"));
+    }
+
+    private static Activity activity(LocalDateTime startTime) {
+        Activity activity = new Activity();
+        activity.setActivityType("跑步");
+        activity.setStartTime(startTime);
+        activity.setDuration(1800L);
+        activity.setDistance(5000.0);
+        return activity;
+    }
+}
@@ -0,0 +1,98 @@
+package com.garmin.runner.service.impl;
+
+import com.garmin.runner.model.Activity;
+import com.garmin.runner.model.TrainingLoadDay;
+import com.garmin.runner.repository.ActivityRepository;
+import com.garmin.runner.repository.TrainingLoadDayRepository;
+import com.garmin.runner.service.TrainingLoadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 训练负荷从历史中间某天起增量重新计算与全量重建结果一致性的集成测试（H2内存库）
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:training_load_service_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "runner.fake-data.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class TrainingLoadServiceImplTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 3, 1);
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(120);
+
+    @Autowired
+    private TrainingLoadService trainingLoadService;
+
+    @Autowired
+    private TrainingLoadDayRepository trainingLoadDayRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    /**
+     * 在历史中间新增、删除活动后从受影响的日期起重新计算，结果与从第一个活动起全量重建相同，且之前的天不变
+     */
+    @Test
+    void recalculationFromMidHistoryMatchesRebuild() {
+        List<Activity> activities = new ArrayList<>();
+        for (int day = 0; day <= 120; day += 2) {
+            activities.add(activity(FIRST_DAY.plusDays(day).atTime(7, 0), 1800 + day * 20L, 130 + day % 40));
+        }
+        activityRepository.saveAll(activities);
+        trainingLoadService.rebuildTrainingLoad();
+        List<TrainingLoadDay> before = readDays();
+        assertEquals(121, before.size());
+
+        Activity added = activity(FIRST_DAY.plusDays(61).atTime(18, 0), 5400L, 165);
+        activityRepository.save(added);
+        trainingLoadService.applyChanges(List.of(added), Collections.emptyList());
+        Activity removed = activities.get(40);
+        activityRepository.delete(removed);
+        trainingLoadService.applyChanges(Collections.emptyList(), List.of(removed));
+
+        List<TrainingLoadDay> incremental = readDays();
+        trainingLoadService.rebuildTrainingLoad();
+        List<TrainingLoadDay> rebuilt = readDays();
+
+        assertEquals(rebuilt.size(), incremental.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            TrainingLoadDay expected = rebuilt.get(i);
+            TrainingLoadDay actual = incremental.get(i);
+            assertEquals(expected.getLoadDate(), actual.getLoadDate());
+            assertEquals(expected.getActivityCount(), actual.getActivityCount(), expected.getLoadDate().toString());
+            assertEquals(expected.getTrainingLoad(), actual.getTrainingLoad(), 1e-9, expected.getLoadDate().toString());
+            assertEquals(expected.getAcuteLoad(), actual.getAcuteLoad(), 1e-9, expected.getLoadDate().toString());
+            assertEquals(expected.getChronicLoad(), actual.getChronicLoad(), 1e-9, expected.getLoadDate().toString());
+        }
+        // 受影响日期之前的负荷保持不变，之后的负荷随新增活动变化
+        for (int i = 0; i < 61; i++) {
+            assertEquals(before.get(i).getChronicLoad(), incremental.get(i).getChronicLoad(), 1e-9);
+        }
+        assertNotEquals(before.get(61).getChronicLoad(), incremental.get(61).getChronicLoad());
+    }
+
+    private List<TrainingLoadDay> readDays() {
+        return trainingLoadDayRepository.findByLoadDateBetweenOrderByLoadDateAsc(FIRST_DAY, LAST_DAY);
+    }
+
+    private static Activity activity(LocalDateTime startTime, long durationSeconds, int averageHeartRate) {
+        Activity activity = new Activity();
+        activity.setActivityType("跑步");
+        activity.setStartTime(startTime);
+        activity.setDuration(durationSeconds);
+        activity.setDistance(durationSeconds * 3.0);
+        activity.setAverageHeartRate(averageHeartRate);
+        return activity;
+    }
+}
@@ -0,0 +1,70 @@
+package com.garmin.runner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackCodecTest {
+
+    /**
+     * 编码后解码得到同样的采样，浮点列误差不超过定点精度，缺失值保持缺失
+     */
+    @Test
+    void roundTripWithinFixedPointPrecision() {
+        Random random = new Random(42);
+        TrackData track = new TrackData();
+        double latitude = 31.2304;
+        double longitude = 121.4737;
+        double distance = 0;
+        long timestamp = 0;
+        for (int i = 0; i < 5000; i++) {
+            // 间隔偶尔大于1秒（暂停），心率和GPS偶尔缺失，海拔全程缺失
+            timestamp += i % 500 == 499 ? 60 : 1;
+            latitude += (random.nextDouble() - 0.5) * 1e-4;
+            longitude += (random.nextDouble() - 0.5) * 1e-4;
+            distance += 2.5 + random.nextDouble();
+            boolean gps = i % 97 != 0;
+            int heartRate = i % 13 == 0 ? 0 : 120 + random.nextInt(60);
+            track.add(timestamp, gps ? latitude : Double.NaN, gps ? longitude : Double.NaN, Double.NaN,
+                    heartRate, 4 + random.nextDouble() * 2, distance);
+        }
+
+        TrackData decoded = TrackCodec.decode(TrackCodec.encode(track));
+
+        assertEquals(track.size(), decoded.size());
+        for (int i = 0; i < track.size(); i++) {
+            assertEquals(track.getTimestamp(i), decoded.getTimestamp(i));
+            assertEquals(track.getHeartRate(i), decoded.getHeartRate(i));
+            assertClose(track.getLatitude(i), decoded.getLatitude(i), 0.5e-7);
+            assertClose(track.getLongitude(i), decoded.getLongitude(i), 0.5e-7);
+            assertTrue(Double.isNaN(decoded.getElevation(i)));
+            assertClose(track.getPace(i), decoded.getPace(i), 0.5e-3);
+            assertClose(track.getDistance(i), decoded.getDistance(i), 0.5e-2);
+        }
+    }
+
+    @Test
+    void roundTripEmptyTrack() {
+        TrackData decoded = TrackCodec.decode(TrackCodec.encode(new TrackData()));
+        assertEquals(0, decoded.size());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = TrackCodec.encode(new TrackData());
+        encoded[0] = (byte) (TrackCodec.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> TrackCodec.decode(encoded));
+    }
+
+    private static void assertClose(double expected, double actual, double precision) {
+        if (Double.isNaN(expected)) {
+            assertTrue(Double.isNaN(actual));
+        } else {
+            assertEquals(expected, actual, precision + 1e-12);
+        }
+    }
+}